@@ -0,0 +1,353 @@
+package io.github.atcurtis.crap4java.adaptors;
+
+import io.github.atcurtis.crap4java.adaptors.jfr.PipelineRunEvent;
+import io.github.atcurtis.crap4java.adaptors.primitive.DoubleAdaptor;
+import io.github.atcurtis.crap4java.adaptors.primitive.IntAdaptor;
+import io.github.atcurtis.crap4java.adaptors.primitive.LongAdaptor;
+import io.github.atcurtis.crap4java.adaptors.trace.Tracing;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.BiConsumer;
+import java.util.function.BinaryOperator;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+import java.util.function.UnaryOperator;
+import java.util.stream.Collector;
+
+/**
+ * Self-typed, lazy, fused pipeline.
+ *
+ * <p>Stages that keep the element type ({@link #filter}, {@link #peek},
+ * {@link #limit}, {@link #skip} and any stage a subclass adds through
+ * {@link #then}) are appended to this pipeline, modifying it in place like a
+ * builder, and return it as {@code SELF}.
+ * Stages that change the element type ({@link #map}, {@link #flatMap},
+ * {@link #mapToInt} ...) return a new {@link Pipeline} or primitive adaptor
+ * reading from this one.
+ *
+ * <p>Nothing runs until a terminal operation. It then wraps the terminal sink
+ * in every stage's {@link Sink} adaptor, innermost last, and lets the source
+ * push into the result, so the whole chain executes as a single loop driven by
+ * the source: there is no wrapper iterator per stage and no
+ * {@code hasNext()/next()} pair per element. Stages are re-applied on every
+ * terminal operation, so a pipeline over a re-iterable source may be run
+ * repeatedly. Each run is timed as a {@link PipelineRunEvent} for Java
+ * Flight Recorder and, while it is switched on, by {@link Tracing}.
+ *
+ * <p>Instances are not thread-safe while being assembled.
+ *
+ * @param <T>    the element type
+ * @param <SELF> the concrete pipeline type
+ * @see io.github.atcurtis.crap4java.adaptors.primitive.AbstractIntAdaptor
+ */
+public abstract class Adaptor<T, SELF extends Adaptor<T, SELF>> implements SelfTyped<SELF> {
+
+    private final Source<? extends T> source;
+    private UnaryOperator<Sink<T>> stages;
+
+    /**
+     * Creates a pipeline with no stages.
+     *
+     * @param source the source of elements
+     */
+    protected Adaptor(Source<? extends T> source) {
+        this.source = Objects.requireNonNull(source, "source");
+    }
+
+    /**
+     * Appends a stage. {@code stage} receives the downstream sink when a
+     * terminal operation runs and returns the sink the upstream should push
+     * into.
+     *
+     * @param stage the stage
+     * @return this pipeline
+     */
+    protected final SELF then(UnaryOperator<Sink<T>> stage) {
+        Objects.requireNonNull(stage, "stage");
+        UnaryOperator<Sink<T>> upstream = stages;
+        stages = upstream == null ? stage : downstream -> upstream.apply(stage.apply(downstream));
+        return self();
+    }
+
+    /**
+     * Keeps only the elements matching {@code predicate}.
+     *
+     * @param predicate the filter
+     * @return this pipeline
+     */
+    public SELF filter(Predicate<? super T> predicate) {
+        Objects.requireNonNull(predicate, "predicate");
+        return then(downstream -> Sink.filtering(predicate, downstream));
+    }
+
+    /**
+     * Invokes {@code action} on every element passing this point.
+     *
+     * @param action the action
+     * @return this pipeline
+     */
+    public SELF peek(Consumer<? super T> action) {
+        Objects.requireNonNull(action, "action");
+        return then(downstream -> Sink.peeking(action, downstream));
+    }
+
+    /**
+     * Keeps at most the first {@code maxSize} elements and stops the source
+     * once they have passed.
+     *
+     * @param maxSize the number of elements to keep
+     * @return this pipeline
+     */
+    public SELF limit(long maxSize) {
+        if (maxSize < 0) {
+            throw new IllegalArgumentException("maxSize: " + maxSize);
+        }
+        return then(downstream -> Sink.limiting(maxSize, downstream));
+    }
+
+    /**
+     * Discards the first {@code n} elements.
+     *
+     * @param n the number of elements to discard
+     * @return this pipeline
+     */
+    public SELF skip(long n) {
+        if (n < 0) {
+            throw new IllegalArgumentException("n: " + n);
+        }
+        return then(downstream -> Sink.skipping(n, downstream));
+    }
+
+    /**
+     * Continues with {@code mapper(element)}.
+     *
+     * @param mapper the mapping function
+     * @param <R>    the new element type
+     * @return a pipeline reading from this one
+     */
+    public <R> Pipeline<R> map(Function<? super T, ? extends R> mapper) {
+        Objects.requireNonNull(mapper, "mapper");
+        return Pipeline.from(sink -> run(Sink.mapping(mapper, sink)));
+    }
+
+    /**
+     * Continues with every element of every {@code mapper(element)}. A
+     * {@code null} result is treated as empty.
+     *
+     * @param mapper the function producing a source per element
+     * @param <R>    the new element type
+     * @return a pipeline reading from this one
+     */
+    public <R> Pipeline<R> flatMap(Function<? super T, ? extends Source<? extends R>> mapper) {
+        Objects.requireNonNull(mapper, "mapper");
+        return Pipeline.from(sink -> run(Sink.flatMapping(mapper, sink)));
+    }
+
+    /**
+     * Continues with the {@code int} values {@code mapper(element)}.
+     *
+     * @param mapper the mapping function
+     * @return a primitive pipeline reading from this one
+     */
+    public IntAdaptor mapToInt(ToIntFunction<? super T> mapper) {
+        Objects.requireNonNull(mapper, "mapper");
+        return IntAdaptor.from(sink -> run(Sink.mappingToInt(mapper, sink)));
+    }
+
+    /**
+     * Continues with the {@code long} values {@code mapper(element)}.
+     *
+     * @param mapper the mapping function
+     * @return a primitive pipeline reading from this one
+     */
+    public LongAdaptor mapToLong(ToLongFunction<? super T> mapper) {
+        Objects.requireNonNull(mapper, "mapper");
+        return LongAdaptor.from(sink -> run(Sink.mappingToLong(mapper, sink)));
+    }
+
+    /**
+     * Continues with the {@code double} values {@code mapper(element)}.
+     *
+     * @param mapper the mapping function
+     * @return a primitive pipeline reading from this one
+     */
+    public DoubleAdaptor mapToDouble(ToDoubleFunction<? super T> mapper) {
+        Objects.requireNonNull(mapper, "mapper");
+        return DoubleAdaptor.from(sink -> run(Sink.mappingToDouble(mapper, sink)));
+    }
+
+    /**
+     * Runs the pipeline, pushing every resulting element into {@code sink}.
+     *
+     * @param sink the terminal sink
+     * @return {@code true} if the source was exhausted, {@code false} if it
+     *         was stopped, by {@code sink} or by a stage such as
+     *         {@link #limit} that has passed all it will
+     */
+    public boolean forEachWhile(Sink<? super T> sink) {
+        Objects.requireNonNull(sink, "sink");
+        PipelineRunEvent event = new PipelineRunEvent();
+        event.begin();
+        long start = Tracing.start();
+        boolean completed = false;
+        Throwable failure = null;
+        try {
+            completed = run(sink);
+        } catch (Throwable e) {
+            failure = e;
+            throw e;
+        } finally {
+            Tracing.end(getClass(), start);
+            event.emit(getClass(), completed, failure);
+        }
+        return completed;
+    }
+
+    /**
+     * Runs the pipeline without timing or tracing it. Pipelines reading from
+     * this one run it this way, so only the outermost run is recorded.
+     */
+    @SuppressWarnings("unchecked")
+    private boolean run(Sink<? super T> sink) {
+        // a Sink<? super T> accepts every T, so treating it as a Sink<T> is safe
+        Sink<T> terminal = (Sink<T>) sink;
+        return source.forEachWhile(stages == null ? terminal : stages.apply(terminal));
+    }
+
+    /**
+     * Runs the pipeline, passing every resulting element to {@code action}.
+     *
+     * @param action the action
+     */
+    public void forEach(Consumer<? super T> action) {
+        forEachWhile(Sink.of(action));
+    }
+
+    /**
+     * Returns this pipeline as a source, for use as the input of another
+     * pipeline or of {@link #flatMap}.
+     *
+     * @return a source running this pipeline
+     */
+    public Source<T> asSource() {
+        return this::run;
+    }
+
+    /**
+     * Counts the resulting elements.
+     *
+     * @return the number of elements
+     */
+    public long count() {
+        long[] count = new long[1];
+        forEachWhile(value -> {
+            count[0]++;
+            return true;
+        });
+        return count[0];
+    }
+
+    /**
+     * Folds the resulting elements with {@code op}.
+     *
+     * @param identity the initial value
+     * @param op       the associative accumulation function
+     * @return the folded value
+     */
+    public T reduce(T identity, BinaryOperator<T> op) {
+        Objects.requireNonNull(op, "op");
+        Box<T> acc = new Box<>();
+        acc.value = identity;
+        forEachWhile(value -> {
+            acc.value = op.apply(acc.value, value);
+            return true;
+        });
+        return acc.value;
+    }
+
+    /**
+     * Returns the first resulting element, stopping the source as soon as it
+     * is found.
+     *
+     * @return the first element, or empty if there is none or it is
+     *         {@code null}
+     */
+    public Optional<T> findFirst() {
+        Box<T> first = new Box<>();
+        forEachWhile(value -> {
+            first.value = value;
+            first.set = true;
+            return false;
+        });
+        return first.set ? Optional.ofNullable(first.value) : Optional.empty();
+    }
+
+    /**
+     * Returns whether any resulting element matches {@code predicate},
+     * stopping the source at the first match.
+     *
+     * @param predicate the predicate
+     * @return whether an element matched
+     */
+    public boolean anyMatch(Predicate<? super T> predicate) {
+        Objects.requireNonNull(predicate, "predicate");
+        boolean[] matched = new boolean[1];
+        forEachWhile(value -> !(matched[0] = predicate.test(value)));
+        return matched[0];
+    }
+
+    /**
+     * Returns whether every resulting element matches {@code predicate},
+     * stopping the source at the first mismatch.
+     *
+     * @param predicate the predicate
+     * @return whether all elements matched
+     */
+    public boolean allMatch(Predicate<? super T> predicate) {
+        Objects.requireNonNull(predicate, "predicate");
+        boolean[] mismatched = new boolean[1];
+        forEachWhile(value -> !(mismatched[0] = !predicate.test(value)));
+        return !mismatched[0];
+    }
+
+    /**
+     * Collects the resulting elements with {@code collector}.
+     *
+     * @param collector the collector
+     * @param <A>       the accumulation type
+     * @param <R>       the result type
+     * @return the collected result
+     */
+    public <A, R> R collect(Collector<? super T, A, R> collector) {
+        A container = collector.supplier().get();
+        BiConsumer<A, ? super T> accumulator = collector.accumulator();
+        forEachWhile(value -> {
+            accumulator.accept(container, value);
+            return true;
+        });
+        return collector.finisher().apply(container);
+    }
+
+    /**
+     * Collects the resulting elements into a new modifiable list.
+     *
+     * @return the elements
+     */
+    public List<T> toList() {
+        List<T> list = new ArrayList<>();
+        forEachWhile(list::add);
+        return list;
+    }
+
+    private static final class Box<T> {
+        T value;
+        boolean set;
+    }
+}
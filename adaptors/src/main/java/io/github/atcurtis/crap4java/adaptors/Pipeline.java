@@ -0,0 +1,49 @@
+package io.github.atcurtis.crap4java.adaptors;
+
+/**
+ * Ready-to-use {@link Adaptor}. Extend {@link Adaptor} instead to add stages of
+ * your own.
+ *
+ * @param <T> the element type
+ */
+public final class Pipeline<T> extends Adaptor<T, Pipeline<T>> {
+
+    private Pipeline(Source<? extends T> source) {
+        super(source);
+    }
+
+    /**
+     * Starts a pipeline over {@code source}.
+     *
+     * @param source the source
+     * @param <T>    the element type
+     * @return a new pipeline
+     */
+    public static <T> Pipeline<T> from(Source<? extends T> source) {
+        return new Pipeline<>(source);
+    }
+
+    /**
+     * Starts a pipeline over an iterable.
+     *
+     * @param iterable the elements
+     * @param <T>      the element type
+     * @return a new pipeline
+     */
+    public static <T> Pipeline<T> from(Iterable<? extends T> iterable) {
+        return new Pipeline<>(Source.from(iterable));
+    }
+
+    /**
+     * Starts a pipeline over an array. The array is not copied.
+     *
+     * @param values the elements
+     * @param <T>    the element type
+     * @return a new pipeline
+     */
+    @SafeVarargs
+    @SuppressWarnings("varargs")
+    public static <T> Pipeline<T> of(T... values) {
+        return new Pipeline<>(Source.of(values));
+    }
+}
@@ -0,0 +1,21 @@
+package io.github.atcurtis.crap4java.adaptors;
+
+/**
+ * Marks a self-typed object that can be returned to its initial state and
+ * reused, for example by an object pool.
+ *
+ * <p>Every {@link io.github.atcurtis.crap4java.adaptors.builder.AbstractBuilder}
+ * is recyclable; other adaptors opt in by implementing this interface with
+ * themselves as {@code SELF}.
+ *
+ * @param <SELF> the concrete recyclable type
+ */
+public interface Recyclable<SELF extends Recyclable<SELF>> extends SelfTyped<SELF> {
+
+    /**
+     * Restores this object to the state it had when it was created.
+     *
+     * @return this object
+     */
+    SELF reset();
+}
@@ -0,0 +1,24 @@
+package io.github.atcurtis.crap4java.adaptors;
+
+/**
+ * Root of every curiously recurring type in the library.
+ *
+ * <p>A type {@code Foo<SELF extends Foo<SELF>>} implementing this interface
+ * promises that {@code this} is always an instance of {@code SELF}, so fluent
+ * methods declared on the base can return the most derived type without the
+ * subclass having to override them.
+ *
+ * @param <SELF> the concrete type implementing this interface
+ */
+public interface SelfTyped<SELF extends SelfTyped<SELF>> {
+
+    /**
+     * Returns {@code this} as the concrete self type.
+     *
+     * @return this instance
+     */
+    @SuppressWarnings("unchecked")
+    default SELF self() {
+        return (SELF) this;
+    }
+}
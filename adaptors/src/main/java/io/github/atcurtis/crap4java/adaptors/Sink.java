@@ -0,0 +1,208 @@
+package io.github.atcurtis.crap4java.adaptors;
+
+import io.github.atcurtis.crap4java.adaptors.primitive.DoubleSink;
+import io.github.atcurtis.crap4java.adaptors.primitive.IntSink;
+import io.github.atcurtis.crap4java.adaptors.primitive.LongSink;
+
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+
+/**
+ * Push-style consumer that can tell its source to stop.
+ *
+ * <p>The static methods are the sink adaptors that {@link Adaptor} stages are
+ * made of. Each wraps a downstream sink; composing them yields a single sink
+ * through which a {@link Source} pushes every element in one loop.
+ *
+ * @param <T> the element type
+ * @see io.github.atcurtis.crap4java.adaptors.primitive.IntSink
+ */
+@FunctionalInterface
+public interface Sink<T> {
+
+    /**
+     * Accepts one element.
+     *
+     * @param value the element
+     * @return {@code true} if more elements are wanted, {@code false} to ask
+     *         the source to stop
+     */
+    boolean accept(T value);
+
+    /**
+     * Adapts a consumer that always wants more elements.
+     *
+     * @param consumer the consumer
+     * @param <T>      the element type
+     * @return a sink forwarding to {@code consumer}
+     */
+    static <T> Sink<T> of(Consumer<? super T> consumer) {
+        return value -> {
+            consumer.accept(value);
+            return true;
+        };
+    }
+
+    /**
+     * Returns a sink passing {@code mapper(value)} to {@code downstream}.
+     *
+     * @param mapper     the mapping function
+     * @param downstream the sink receiving mapped elements
+     * @param <T>        the input type
+     * @param <R>        the output type
+     * @return the mapping sink
+     */
+    static <T, R> Sink<T> mapping(Function<? super T, ? extends R> mapper, Sink<? super R> downstream) {
+        return value -> downstream.accept(mapper.apply(value));
+    }
+
+    /**
+     * Returns a sink pushing every element of {@code mapper(value)} into
+     * {@code downstream}. The inner source runs inside the outer loop, so no
+     * intermediate iterator or collection is created.
+     *
+     * @param mapper     the function producing a source per element
+     * @param downstream the sink receiving the inner elements
+     * @param <T>        the input type
+     * @param <R>        the output type
+     * @return the flat-mapping sink
+     */
+    static <T, R> Sink<T> flatMapping(Function<? super T, ? extends Source<? extends R>> mapper,
+                                      Sink<? super R> downstream) {
+        return new Sink<>() {
+            private boolean stopped;
+            // an inner source may also stop because of a limit of its own,
+            // so only a stop by downstream stops the outer source
+            private final Sink<R> relay = value -> !(stopped = !downstream.accept(value));
+
+            @Override
+            public boolean accept(T value) {
+                Source<? extends R> inner = mapper.apply(value);
+                if (inner != null) {
+                    inner.forEachWhile(relay);
+                }
+                return !stopped;
+            }
+        };
+    }
+
+    /**
+     * Returns a sink passing only elements matching {@code predicate} to
+     * {@code downstream}.
+     *
+     * @param predicate  the filter
+     * @param downstream the sink receiving matching elements
+     * @param <T>        the element type
+     * @return the filtering sink
+     */
+    static <T> Sink<T> filtering(Predicate<? super T> predicate, Sink<? super T> downstream) {
+        return value -> !predicate.test(value) || downstream.accept(value);
+    }
+
+    /**
+     * Returns a sink invoking {@code action} on every element before passing
+     * it to {@code downstream}.
+     *
+     * @param action     the action
+     * @param downstream the sink receiving the elements
+     * @param <T>        the element type
+     * @return the peeking sink
+     */
+    static <T> Sink<T> peeking(Consumer<? super T> action, Sink<? super T> downstream) {
+        return value -> {
+            action.accept(value);
+            return downstream.accept(value);
+        };
+    }
+
+    /**
+     * Returns a stateful sink passing at most {@code maxSize} elements to
+     * {@code downstream} and asking the source to stop once they have been
+     * passed.
+     *
+     * @param maxSize    the number of elements to pass, not negative
+     * @param downstream the sink receiving the elements
+     * @param <T>        the element type
+     * @return the limiting sink
+     */
+    static <T> Sink<T> limiting(long maxSize, Sink<? super T> downstream) {
+        return new Sink<>() {
+            private long remaining = maxSize;
+
+            @Override
+            public boolean accept(T value) {
+                if (remaining <= 0) {
+                    return false;
+                }
+                return downstream.accept(value) & --remaining > 0;
+            }
+        };
+    }
+
+    /**
+     * Returns a stateful sink discarding the first {@code n} elements and
+     * passing the rest to {@code downstream}.
+     *
+     * @param n          the number of elements to discard, not negative
+     * @param downstream the sink receiving the elements
+     * @param <T>        the element type
+     * @return the skipping sink
+     */
+    static <T> Sink<T> skipping(long n, Sink<? super T> downstream) {
+        return new Sink<>() {
+            private long remaining = n;
+
+            @Override
+            public boolean accept(T value) {
+                if (remaining > 0) {
+                    remaining--;
+                    return true;
+                }
+                return downstream.accept(value);
+            }
+        };
+    }
+
+    /**
+     * Returns a sink passing {@code mapper(value)} to a primitive
+     * {@code downstream} without boxing.
+     *
+     * @param mapper     the mapping function
+     * @param downstream the sink receiving mapped values
+     * @param <T>        the input type
+     * @return the mapping sink
+     */
+    static <T> Sink<T> mappingToInt(ToIntFunction<? super T> mapper, IntSink downstream) {
+        return value -> downstream.accept(mapper.applyAsInt(value));
+    }
+
+    /**
+     * Returns a sink passing {@code mapper(value)} to a primitive
+     * {@code downstream} without boxing.
+     *
+     * @param mapper     the mapping function
+     * @param downstream the sink receiving mapped values
+     * @param <T>        the input type
+     * @return the mapping sink
+     */
+    static <T> Sink<T> mappingToLong(ToLongFunction<? super T> mapper, LongSink downstream) {
+        return value -> downstream.accept(mapper.applyAsLong(value));
+    }
+
+    /**
+     * Returns a sink passing {@code mapper(value)} to a primitive
+     * {@code downstream} without boxing.
+     *
+     * @param mapper     the mapping function
+     * @param downstream the sink receiving mapped values
+     * @param <T>        the input type
+     * @return the mapping sink
+     */
+    static <T> Sink<T> mappingToDouble(ToDoubleFunction<? super T> mapper, DoubleSink downstream) {
+        return value -> downstream.accept(mapper.applyAsDouble(value));
+    }
+}
@@ -0,0 +1,131 @@
+package io.github.atcurtis.crap4java.adaptors;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.function.UnaryOperator;
+
+/**
+ * Push-style source of elements.
+ *
+ * <p>A source drives its own loop and pushes every element into a
+ * {@link Sink}; an {@link Adaptor} pipeline is one source feeding one chain of
+ * sink adaptors. The static methods adapt arrays, iterables and iterators.
+ *
+ * @param <T> the element type
+ * @see io.github.atcurtis.crap4java.adaptors.primitive.IntSource
+ */
+@FunctionalInterface
+public interface Source<T> {
+
+    /**
+     * Pushes elements into {@code sink} until the source is exhausted or the
+     * sink returns {@code false}.
+     *
+     * @param sink the sink
+     * @return {@code true} if the source was exhausted, {@code false} if the
+     *         sink stopped it, possibly a limiting stage rather than the
+     *         final consumer
+     */
+    boolean forEachWhile(Sink<? super T> sink);
+
+    /**
+     * Returns a source with no elements.
+     *
+     * @param <T> the element type
+     * @return an empty source
+     */
+    static <T> Source<T> empty() {
+        return sink -> true;
+    }
+
+    /**
+     * Adapts an array. The array is not copied.
+     *
+     * @param values the elements
+     * @param <T>    the element type
+     * @return a source over {@code values}
+     */
+    @SafeVarargs
+    static <T> Source<T> of(T... values) {
+        Objects.requireNonNull(values, "values");
+        return sink -> {
+            for (T value : values) {
+                if (!sink.accept(value)) {
+                    return false;
+                }
+            }
+            return true;
+        };
+    }
+
+    /**
+     * Adapts an iterable. Random-access lists are walked by index so no
+     * iterator is allocated.
+     *
+     * @param iterable the elements
+     * @param <T>      the element type
+     * @return a source over {@code iterable}
+     */
+    static <T> Source<T> from(Iterable<? extends T> iterable) {
+        Objects.requireNonNull(iterable, "iterable");
+        if (iterable instanceof List<? extends T> list && list instanceof RandomAccess) {
+            return sink -> {
+                for (int i = 0, n = list.size(); i < n; i++) {
+                    if (!sink.accept(list.get(i))) {
+                        return false;
+                    }
+                }
+                return true;
+            };
+        }
+        return sink -> {
+            for (T value : iterable) {
+                if (!sink.accept(value)) {
+                    return false;
+                }
+            }
+            return true;
+        };
+    }
+
+    /**
+     * Adapts an iterator. The resulting source can be consumed once.
+     *
+     * @param iterator the iterator
+     * @param <T>      the element type
+     * @return a source draining {@code iterator}
+     */
+    static <T> Source<T> from(Iterator<? extends T> iterator) {
+        Objects.requireNonNull(iterator, "iterator");
+        return sink -> {
+            while (iterator.hasNext()) {
+                if (!sink.accept(iterator.next())) {
+                    return false;
+                }
+            }
+            return true;
+        };
+    }
+
+    /**
+     * Returns an infinite source {@code seed, next(seed), next(next(seed))...};
+     * pair it with a limiting stage.
+     *
+     * @param seed the first element
+     * @param next the function computing each following element
+     * @param <T>  the element type
+     * @return an infinite source
+     */
+    static <T> Source<T> iterate(T seed, UnaryOperator<T> next) {
+        Objects.requireNonNull(next, "next");
+        return sink -> {
+            T value = seed;
+            while (sink.accept(value)) {
+                value = next.apply(value);
+            }
+            return false;
+        };
+    }
+}
@@ -0,0 +1,258 @@
+package io.github.atcurtis.crap4java.adaptors.async;
+
+import io.github.atcurtis.crap4java.adaptors.Source;
+
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+
+/**
+ * Runs blocking calls on virtual threads and hands back
+ * {@link CompletableFuture}s or {@link Flow.Publisher}s.
+ *
+ * <p>Every call gets a fresh virtual thread, so there is no pool to size and
+ * tens of thousands of calls can be in flight at once. What usually does need
+ * a limit is the blocking resource behind the calls, so each adaptor carries a
+ * concurrency cap: a call beyond the cap parks its virtual thread on a
+ * semaphore until a running call finishes. Parked virtual threads cost a few
+ * hundred bytes of heap, not a platform thread, and the caller is never
+ * blocked.
+ *
+ * <p>Cancelling a returned future interrupts the virtual thread running the
+ * call. Blocking code that holds a monitor ({@code synchronized}) while it
+ * waits pins its carrier thread on JDK 21; such clients still work but scale
+ * only to the number of carriers.
+ */
+public final class AsyncAdaptor {
+
+    private final Semaphore permits;
+    private final int maxConcurrency;
+    private final ThreadFactory threads;
+
+    private AsyncAdaptor(String name, int maxConcurrency) {
+        this.permits = new Semaphore(maxConcurrency);
+        this.maxConcurrency = maxConcurrency;
+        this.threads = Thread.ofVirtual().name(name + "-", 0).factory();
+    }
+
+    /**
+     * Creates an adaptor running at most {@code maxConcurrency} calls at a
+     * time.
+     *
+     * @param name           the prefix of the virtual thread names
+     * @param maxConcurrency the concurrency cap
+     * @return the adaptor
+     */
+    public static AsyncAdaptor create(String name, int maxConcurrency) {
+        Objects.requireNonNull(name, "name");
+        if (maxConcurrency < 1) {
+            throw new IllegalArgumentException("maxConcurrency: " + maxConcurrency);
+        }
+        return new AsyncAdaptor(name, maxConcurrency);
+    }
+
+    /**
+     * Returns the concurrency cap.
+     *
+     * @return the maximum number of calls running at once
+     */
+    public int maxConcurrency() {
+        return maxConcurrency;
+    }
+
+    /**
+     * Returns the number of calls running now.
+     *
+     * @return the running call count
+     */
+    public int running() {
+        return maxConcurrency - permits.availablePermits();
+    }
+
+    /**
+     * Returns an estimate of the number of calls waiting for the cap.
+     *
+     * @return the waiting call count
+     */
+    public int waiting() {
+        return permits.getQueueLength();
+    }
+
+    /**
+     * Runs {@code call} on a virtual thread.
+     *
+     * @param call the blocking call
+     * @param <T>  the result type
+     * @return a future completed with the result or the failure of the call
+     */
+    public <T> CompletableFuture<T> supply(Callable<? extends T> call) {
+        Objects.requireNonNull(call, "call");
+        CompletableFuture<T> future = new CompletableFuture<>();
+        Thread thread = threads.newThread(() -> {
+            try {
+                permits.acquire();
+            } catch (InterruptedException e) {
+                future.completeExceptionally(new CancellationException("Interrupted waiting for a permit"));
+                return;
+            }
+            T result = null;
+            Throwable failure = null;
+            try {
+                if (!future.isDone()) {
+                    result = call.call();
+                }
+            } catch (Throwable e) {
+                failure = e;
+            } finally {
+                permits.release();
+            }
+            // released first, so whoever sees the future complete also sees
+            // the call no longer running and can start the next one at once
+            if (failure != null) {
+                future.completeExceptionally(failure);
+            } else {
+                future.complete(result);
+            }
+        });
+        future.whenComplete((result, failure) -> {
+            if (future.isCancelled()) {
+                thread.interrupt();
+            }
+        });
+        thread.start();
+        return future;
+    }
+
+    /**
+     * Adapts a blocking function to one returning futures.
+     *
+     * @param function the blocking function
+     * @param <A>      the argument type
+     * @param <R>      the result type
+     * @return the asynchronous function
+     */
+    public <A, R> Function<A, CompletableFuture<R>> adapt(BlockingFunction<? super A, ? extends R> function) {
+        Objects.requireNonNull(function, "function");
+        return argument -> supply(() -> function.apply(argument));
+    }
+
+    /**
+     * Publishes the elements of a blocking source. Each subscription runs
+     * {@code source} on its own virtual thread, holding one permit for as long
+     * as the source runs. The source is pushed only as fast as the subscriber
+     * requests: while demand is zero the virtual thread parks inside
+     * {@link io.github.atcurtis.crap4java.adaptors.Sink#accept}. Cancelling the
+     * subscription stops the source at the next element and interrupts it.
+     *
+     * @param source the blocking source
+     * @param <T>    the element type
+     * @return a publisher starting the source once per subscriber
+     */
+    public <T> Flow.Publisher<T> publish(Source<? extends T> source) {
+        Objects.requireNonNull(source, "source");
+        return subscriber -> {
+            Objects.requireNonNull(subscriber, "subscriber");
+            new SourceSubscription<T>(subscriber).start(source);
+        };
+    }
+
+    private final class SourceSubscription<T> implements Flow.Subscription {
+
+        private final Flow.Subscriber<? super T> subscriber;
+        private final AtomicLong demand = new AtomicLong();
+        private volatile boolean cancelled;
+        private volatile Throwable failure;
+        private volatile Thread thread;
+
+        SourceSubscription(Flow.Subscriber<? super T> subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        void start(Source<? extends T> source) {
+            Thread started = threads.newThread(() -> run(source));
+            thread = started;
+            subscriber.onSubscribe(this);
+            started.start();
+        }
+
+        private void run(Source<? extends T> source) {
+            try {
+                permits.acquire();
+            } catch (InterruptedException e) {
+                signalFailure();
+                return;
+            }
+            try {
+                if (cancelled) {
+                    signalFailure();
+                    return;
+                }
+                source.forEachWhile(value -> {
+                    while (demand.get() == 0) {
+                        if (cancelled) {
+                            return false;
+                        }
+                        LockSupport.park(this);
+                    }
+                    if (cancelled) {
+                        return false;
+                    }
+                    demand.decrementAndGet();
+                    subscriber.onNext(value);
+                    return true;
+                });
+                if (!cancelled) {
+                    subscriber.onComplete();
+                } else {
+                    signalFailure();
+                }
+            } catch (Throwable e) {
+                if (!cancelled) {
+                    subscriber.onError(e);
+                } else {
+                    signalFailure();
+                }
+            } finally {
+                permits.release();
+            }
+        }
+
+        // Only the source thread signals the subscriber, so a bad request
+        // is reported from here rather than from request() itself.
+        private void signalFailure() {
+            Throwable error = failure;
+            if (error != null) {
+                subscriber.onError(error);
+            }
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                failure = new IllegalArgumentException("Non-positive request: " + n);
+                cancel();
+                return;
+            }
+            demand.getAndAccumulate(n, (current, added) -> {
+                long sum = current + added;
+                return sum < 0 ? Long.MAX_VALUE : sum;
+            });
+            LockSupport.unpark(thread);
+        }
+
+        @Override
+        public void cancel() {
+            if (!cancelled) {
+                cancelled = true;
+                thread.interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package io.github.atcurtis.crap4java.adaptors.async;
+
+/**
+ * A function that may block and may throw.
+ *
+ * @param <A> the argument type
+ * @param <R> the result type
+ */
+@FunctionalInterface
+public interface BlockingFunction<A, R> {
+
+    /**
+     * Applies the function.
+     *
+     * @param argument the argument
+     * @return the result
+     * @throws Exception if the call fails
+     */
+    R apply(A argument) throws Exception;
+}
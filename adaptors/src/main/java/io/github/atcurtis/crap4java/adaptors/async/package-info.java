@@ -0,0 +1,6 @@
+/**
+ * Adaptors running blocking calls on virtual threads behind
+ * {@link java.util.concurrent.CompletableFuture} and
+ * {@link java.util.concurrent.Flow} interfaces.
+ */
+package io.github.atcurtis.crap4java.adaptors.async;
@@ -0,0 +1,71 @@
+package io.github.atcurtis.crap4java.adaptors.builder;
+
+import io.github.atcurtis.crap4java.adaptors.Recyclable;
+
+import java.util.function.Consumer;
+
+/**
+ * Base class of all fluent builders.
+ *
+ * <p>Builders generated by {@link GenerateBuilder} extend this class with
+ * themselves as {@code SELF}, so the helpers declared here chain with the
+ * generated setters without casts. A builder may be {@link #build() built}
+ * any number of times and {@link #reset() reset} to be reused, which lets a
+ * hot path keep one builder per thread, or borrow one from an object pool,
+ * instead of allocating one per object.
+ *
+ * @param <T>    the type being built
+ * @param <SELF> the concrete builder type
+ */
+public abstract class AbstractBuilder<T, SELF extends AbstractBuilder<T, SELF>> implements Recyclable<SELF> {
+
+    /**
+     * Creates a new builder.
+     */
+    protected AbstractBuilder() {
+    }
+
+    /**
+     * Creates a new instance from the current state of this builder. The
+     * builder is left unchanged.
+     *
+     * @return a new instance
+     */
+    public abstract T build();
+
+    /**
+     * Restores every property to its default value.
+     *
+     * @return this builder
+     */
+    @Override
+    public abstract SELF reset();
+
+    /**
+     * Passes this builder to {@code customizer}, allowing reusable groups of
+     * settings to be applied inline.
+     *
+     * @param customizer the settings to apply
+     * @return this builder
+     */
+    public final SELF apply(Consumer<? super SELF> customizer) {
+        SELF self = self();
+        customizer.accept(self);
+        return self;
+    }
+
+    /**
+     * Applies {@code customizer} only when {@code condition} holds.
+     *
+     * @param condition  whether to apply the settings
+     * @param customizer the settings to apply
+     * @return this builder
+     */
+    public final SELF applyIf(boolean condition, Consumer<? super SELF> customizer) {
+        SELF self = self();
+        if (condition) {
+            customizer.accept(self);
+        }
+        return self;
+    }
+}
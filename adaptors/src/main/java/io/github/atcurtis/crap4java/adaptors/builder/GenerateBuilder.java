@@ -0,0 +1,42 @@
+package io.github.atcurtis.crap4java.adaptors.builder;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Requests a fluent builder to be generated at compile time.
+ *
+ * <p>Placed on a record, the builder covers the record components and also
+ * gains a {@code from(record)} copy method. Placed on a constructor, the
+ * builder covers the constructor parameters. The generated class extends
+ * {@link AbstractBuilder}, lives in the same package as the built type and
+ * invokes the constructor directly, so no reflection is involved.
+ *
+ * <p>The annotation processor lives in the {@code processor} module and must
+ * be on the annotation processor path.
+ */
+@Documented
+@Retention(RetentionPolicy.SOURCE)
+@Target({ElementType.TYPE, ElementType.CONSTRUCTOR})
+public @interface GenerateBuilder {
+
+    /**
+     * The simple name of the generated builder. Defaults to the name of the
+     * built type followed by {@code Builder}; nested types are prefixed with
+     * their enclosing type names separated by {@code _}.
+     *
+     * @return the builder class name, or empty for the default
+     */
+    String name() default "";
+
+    /**
+     * A prefix for the generated setter names, for example {@code "with"}.
+     * Defaults to the bare property name.
+     *
+     * @return the setter prefix
+     */
+    String setterPrefix() default "";
+}
@@ -0,0 +1,5 @@
+/**
+ * Self-typed fluent builders, generated at compile time by
+ * {@link io.github.atcurtis.crap4java.adaptors.builder.GenerateBuilder}.
+ */
+package io.github.atcurtis.crap4java.adaptors.builder;
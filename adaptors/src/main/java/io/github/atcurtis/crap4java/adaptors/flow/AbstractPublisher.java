@@ -0,0 +1,278 @@
+package io.github.atcurtis.crap4java.adaptors.flow;
+
+import io.github.atcurtis.crap4java.adaptors.SelfTyped;
+
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Self-typed base of the pull-based {@link Flow.Publisher} adaptors.
+ *
+ * <p>Each subscription opens a {@link Cursor} and emits from it on the
+ * publisher's {@link Executor}, as many elements as the subscriber has
+ * requested, in a single drain loop. Requests arriving while the loop runs,
+ * including those a subscriber makes from inside {@code onNext}, only add to
+ * the outstanding demand and bump a work counter; they never start a second
+ * loop or a new executor task. A subscriber requesting in batches therefore
+ * costs two atomic updates per batch rather than per element; see
+ * {@link BatchingSubscriber}.
+ *
+ * <p>To stay fair to other tasks on a shared executor, a loop hands the rest
+ * of its work to a new task after {@link #batchSize(int)} elements.
+ *
+ * <p>Configuration methods return {@code SELF} and must not be called once
+ * subscriptions exist.
+ *
+ * @param <T>    the element type
+ * @param <SELF> the concrete publisher type
+ */
+public abstract class AbstractPublisher<T, SELF extends AbstractPublisher<T, SELF>>
+        implements Flow.Publisher<T>, SelfTyped<SELF> {
+
+    /**
+     * Default number of elements emitted per executor task.
+     */
+    public static final int DEFAULT_BATCH_SIZE = 256;
+
+    private Executor executor;
+    private int batchSize = DEFAULT_BATCH_SIZE;
+
+    /**
+     * Creates a publisher.
+     *
+     * @param executor the executor running the drain loops
+     */
+    protected AbstractPublisher(Executor executor) {
+        this.executor = Objects.requireNonNull(executor, "executor");
+    }
+
+    /**
+     * Sets the executor running the drain loops. {@code Runnable::run} emits
+     * on the thread that requests.
+     *
+     * @param executor the executor
+     * @return this publisher
+     */
+    public final SELF executor(Executor executor) {
+        this.executor = Objects.requireNonNull(executor, "executor");
+        return self();
+    }
+
+    /**
+     * Sets the number of elements one executor task emits before yielding.
+     *
+     * @param batchSize the batch size
+     * @return this publisher
+     */
+    public final SELF batchSize(int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("batchSize: " + batchSize);
+        }
+        this.batchSize = batchSize;
+        return self();
+    }
+
+    /**
+     * Opens the cursor of a new subscription. Called on the executor before
+     * the first element is emitted.
+     *
+     * @param cancelled tells a cursor that blocks whether the subscription
+     *                  was cancelled meanwhile
+     * @return the cursor
+     * @throws Exception if the cursor cannot be opened; the subscriber
+     *                   receives it through {@code onError}
+     */
+    protected abstract Cursor<T> open(BooleanSupplier cancelled) throws Exception;
+
+    @Override
+    public final void subscribe(Flow.Subscriber<? super T> subscriber) {
+        Objects.requireNonNull(subscriber, "subscriber");
+        subscriber.onSubscribe(new Emission<>(this, subscriber, executor, batchSize));
+    }
+
+    /**
+     * Pull cursor over the elements of one subscription.
+     *
+     * @param <T> the element type
+     */
+    @FunctionalInterface
+    public interface Cursor<T> {
+
+        /**
+         * Returns the next element, blocking if the cursor has to wait for
+         * one.
+         *
+         * @return the next element, or {@code null} when there are no more
+         * @throws Exception if the element cannot be produced
+         */
+        T next() throws Exception;
+    }
+
+    private static final class Emission<T> implements Flow.Subscription, Runnable {
+
+        private final AbstractPublisher<T, ?> publisher;
+        private final Flow.Subscriber<? super T> subscriber;
+        private final Executor executor;
+        private final int batchSize;
+        private final AtomicLong requested = new AtomicLong();
+        private final AtomicInteger work = new AtomicInteger();
+        private volatile boolean cancelled;
+        private volatile Throwable badRequest;
+        private final AtomicReference<Thread> drainer = new AtomicReference<>();
+        private volatile Thread inlined;
+        private Cursor<T> cursor;
+        private boolean done;
+
+        Emission(AbstractPublisher<T, ?> publisher, Flow.Subscriber<? super T> subscriber,
+                 Executor executor, int batchSize) {
+            this.publisher = publisher;
+            this.subscriber = subscriber;
+            this.executor = executor;
+            this.batchSize = batchSize;
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                badRequest = new IllegalArgumentException("Non-positive request: " + n);
+            } else {
+                requested.getAndAccumulate(n, (current, added) -> {
+                    long sum = current + added;
+                    return sum < 0 ? Long.MAX_VALUE : sum;
+                });
+            }
+            schedule();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+        }
+
+        private void schedule() {
+            if (work.getAndIncrement() == 0) {
+                executor.execute(this);
+            }
+        }
+
+        @Override
+        public void run() {
+            Thread current = Thread.currentThread();
+            if (drainer.get() == current) {
+                // A synchronous executor ran the hand-off inline; let the
+                // running loop carry on instead of recursing.
+                inlined = current;
+                return;
+            }
+            drainer.set(current);
+            int missed = 1;
+            for (;;) {
+                if (!emit()) {
+                    return;
+                }
+                drainer.set(null);
+                missed = work.addAndGet(-missed);
+                if (missed == 0) {
+                    return;
+                }
+                drainer.set(current);
+            }
+        }
+
+        /**
+         * Emits up to the outstanding demand. Returns {@code false} if the
+         * subscription terminated or the rest of the work was handed to a new
+         * task, in which case the work counter must be left alone.
+         */
+        private boolean emit() {
+            if (done || terminated()) {
+                return false;
+            }
+            if (cursor == null) {
+                try {
+                    cursor = publisher.open(() -> cancelled);
+                } catch (Throwable e) {
+                    fail(e);
+                    return false;
+                }
+            }
+            long demand = requested.get();
+            long emitted = 0;
+            int batch = 0;
+            while (emitted != demand) {
+                if (terminated()) {
+                    return false;
+                }
+                T value;
+                try {
+                    value = cursor.next();
+                } catch (Throwable e) {
+                    fail(e);
+                    return false;
+                }
+                // cancelled while the cursor was waiting
+                if (terminated()) {
+                    return false;
+                }
+                if (value == null) {
+                    done = true;
+                    subscriber.onComplete();
+                    return false;
+                }
+                subscriber.onNext(value);
+                emitted++;
+                if (++batch == batchSize && emitted != demand) {
+                    produced(demand, emitted);
+                    Thread current = Thread.currentThread();
+                    inlined = null;
+                    executor.execute(this);
+                    if (inlined != current) {
+                        // Handed off. The new task may end up on this very
+                        // thread, so stop looking like its drainer, unless
+                        // another thread has taken over already.
+                        drainer.compareAndSet(current, null);
+                        return false;
+                    }
+                    demand = requested.get();
+                    emitted = 0;
+                    batch = 0;
+                }
+            }
+            produced(demand, emitted);
+            return !terminated();
+        }
+
+        private void produced(long demand, long emitted) {
+            if (demand != Long.MAX_VALUE) {
+                requested.addAndGet(-emitted);
+            }
+        }
+
+        private boolean terminated() {
+            if (done) {
+                return true;
+            }
+            Throwable error = badRequest;
+            if (error != null) {
+                fail(error);
+                return true;
+            }
+            if (cancelled) {
+                done = true;
+                return true;
+            }
+            return false;
+        }
+
+        private void fail(Throwable error) {
+            done = true;
+            cancelled = true;
+            subscriber.onError(error);
+        }
+    }
+}
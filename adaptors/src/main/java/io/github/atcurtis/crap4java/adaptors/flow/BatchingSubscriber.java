@@ -0,0 +1,113 @@
+package io.github.atcurtis.crap4java.adaptors.flow;
+
+import io.github.atcurtis.crap4java.adaptors.Sink;
+
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
+
+/**
+ * Subscriber pushing elements into a {@link Sink} and requesting them in
+ * batches.
+ *
+ * <p>The subscriber requests {@code prefetch} elements up front and another
+ * three quarters of {@code prefetch} each time it has consumed that many, so
+ * the publisher rarely runs dry and demand is signalled once per batch
+ * rather than once per element. A prefetch of one degenerates to the
+ * classic {@code request(1)} per element. The sink returning {@code false}
+ * cancels the subscription.
+ *
+ * <p>An instance subscribes once.
+ *
+ * @param <T> the element type
+ */
+public final class BatchingSubscriber<T> implements Flow.Subscriber<T> {
+
+    /**
+     * Default number of elements requested ahead.
+     */
+    public static final int DEFAULT_PREFETCH = 256;
+
+    private final Sink<? super T> sink;
+    private final int prefetch;
+    private final int limit;
+    private final CompletableFuture<Void> completion = new CompletableFuture<>();
+    private Flow.Subscription subscription;
+    private int consumed;
+
+    /**
+     * Creates a subscriber with the default prefetch.
+     *
+     * @param sink the sink
+     */
+    public BatchingSubscriber(Sink<? super T> sink) {
+        this(sink, DEFAULT_PREFETCH);
+    }
+
+    /**
+     * Creates a subscriber.
+     *
+     * @param sink     the sink
+     * @param prefetch the number of elements requested ahead
+     */
+    public BatchingSubscriber(Sink<? super T> sink, int prefetch) {
+        if (prefetch < 1) {
+            throw new IllegalArgumentException("prefetch: " + prefetch);
+        }
+        this.sink = Objects.requireNonNull(sink, "sink");
+        this.prefetch = prefetch;
+        this.limit = Math.max(1, prefetch - (prefetch >> 2));
+    }
+
+    /**
+     * Returns a future completed when the stream completes, fails, or is
+     * cancelled by the sink.
+     *
+     * @return the completion future
+     */
+    public CompletableFuture<Void> completion() {
+        return completion;
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        if (this.subscription != null) {
+            subscription.cancel();
+            return;
+        }
+        this.subscription = subscription;
+        subscription.request(prefetch);
+    }
+
+    @Override
+    public void onNext(T item) {
+        if (completion.isDone()) {
+            return;
+        }
+        boolean more;
+        try {
+            more = sink.accept(item);
+        } catch (Throwable e) {
+            subscription.cancel();
+            completion.completeExceptionally(e);
+            return;
+        }
+        if (!more) {
+            subscription.cancel();
+            completion.complete(null);
+        } else if (++consumed == limit) {
+            consumed = 0;
+            subscription.request(limit);
+        }
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        completion.completeExceptionally(throwable);
+    }
+
+    @Override
+    public void onComplete() {
+        completion.complete(null);
+    }
+}
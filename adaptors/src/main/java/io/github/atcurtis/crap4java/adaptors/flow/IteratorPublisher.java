@@ -0,0 +1,63 @@
+package io.github.atcurtis.crap4java.adaptors.flow;
+
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Publishes the elements of an iterator. {@code null} elements are not
+ * allowed by {@link java.util.concurrent.Flow} and end the stream.
+ *
+ * <p>Emits on the common fork-join pool unless configured otherwise.
+ *
+ * @param <T> the element type
+ */
+public final class IteratorPublisher<T> extends AbstractPublisher<T, IteratorPublisher<T>> {
+
+    private final Supplier<? extends Iterator<? extends T>> iterators;
+
+    private IteratorPublisher(Supplier<? extends Iterator<? extends T>> iterators) {
+        super(ForkJoinPool.commonPool());
+        this.iterators = iterators;
+    }
+
+    /**
+     * Publishes an iterable, iterating it afresh for every subscriber.
+     *
+     * @param iterable the elements
+     * @param <T>      the element type
+     * @return the publisher
+     */
+    public static <T> IteratorPublisher<T> of(Iterable<? extends T> iterable) {
+        Objects.requireNonNull(iterable, "iterable");
+        return new IteratorPublisher<>(iterable::iterator);
+    }
+
+    /**
+     * Publishes a single iterator. Only the first subscriber receives
+     * elements; later subscribers receive {@link IllegalStateException}.
+     *
+     * @param iterator the elements
+     * @param <T>      the element type
+     * @return the publisher
+     */
+    public static <T> IteratorPublisher<T> of(Iterator<? extends T> iterator) {
+        Objects.requireNonNull(iterator, "iterator");
+        AtomicBoolean taken = new AtomicBoolean();
+        return new IteratorPublisher<>(() -> {
+            if (!taken.compareAndSet(false, true)) {
+                throw new IllegalStateException("Iterator already subscribed to");
+            }
+            return iterator;
+        });
+    }
+
+    @Override
+    protected Cursor<T> open(BooleanSupplier cancelled) {
+        Iterator<? extends T> iterator = iterators.get();
+        return () -> iterator.hasNext() ? iterator.next() : null;
+    }
+}
@@ -0,0 +1,98 @@
+package io.github.atcurtis.crap4java.adaptors.flow;
+
+import java.util.Objects;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Publishes the elements of a blocking queue until it is {@link #close()
+ * closed} and drained. Subscribers compete: each element goes to exactly one
+ * of them.
+ *
+ * <p>Waiting for an element blocks the emitting thread, so the default
+ * executor starts a virtual thread per drain task. A waiting cursor wakes up
+ * at least every poll interval to notice cancellation and closing.
+ *
+ * @param <T> the element type
+ */
+public final class QueuePublisher<T> extends AbstractPublisher<T, QueuePublisher<T>> {
+
+    /**
+     * Default poll interval, in milliseconds.
+     */
+    public static final long DEFAULT_POLL_MILLIS = 10;
+
+    private static final ThreadFactory VIRTUAL = Thread.ofVirtual().name("queue-publisher-", 0).factory();
+    private static final Executor VIRTUAL_THREAD_PER_TASK = task -> VIRTUAL.newThread(task).start();
+
+    private final BlockingQueue<? extends T> queue;
+    private long pollNanos = TimeUnit.MILLISECONDS.toNanos(DEFAULT_POLL_MILLIS);
+    private volatile boolean closed;
+
+    private QueuePublisher(BlockingQueue<? extends T> queue) {
+        super(VIRTUAL_THREAD_PER_TASK);
+        this.queue = queue;
+    }
+
+    /**
+     * Publishes the elements of {@code queue}.
+     *
+     * @param queue the elements
+     * @param <T>   the element type
+     * @return the publisher
+     */
+    public static <T> QueuePublisher<T> of(BlockingQueue<? extends T> queue) {
+        return new QueuePublisher<>(Objects.requireNonNull(queue, "queue"));
+    }
+
+    /**
+     * Sets how long a waiting cursor blocks before checking for cancellation
+     * and closing.
+     *
+     * @param interval the interval
+     * @param unit     the unit of {@code interval}
+     * @return this publisher
+     */
+    public QueuePublisher<T> pollInterval(long interval, TimeUnit unit) {
+        if (interval <= 0) {
+            throw new IllegalArgumentException("interval: " + interval);
+        }
+        this.pollNanos = unit.toNanos(interval);
+        return this;
+    }
+
+    /**
+     * Completes every subscription once the queue has been drained.
+     */
+    public void close() {
+        closed = true;
+    }
+
+    @Override
+    protected Cursor<T> open(BooleanSupplier cancelled) {
+        long nanos = pollNanos;
+        return () -> {
+            for (;;) {
+                if (cancelled.getAsBoolean()) {
+                    // The queue is shared; leave its elements to the others.
+                    return null;
+                }
+                T value = queue.poll();
+                if (value == null) {
+                    if (closed) {
+                        // An element offered before close() may still be in
+                        // flight; one last look is enough.
+                        return queue.poll();
+                    }
+                    value = queue.poll(nanos, TimeUnit.NANOSECONDS);
+                }
+                if (value != null) {
+                    return value;
+                }
+            }
+        };
+    }
+}
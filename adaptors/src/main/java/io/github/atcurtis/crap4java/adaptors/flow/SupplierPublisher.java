@@ -0,0 +1,40 @@
+package io.github.atcurtis.crap4java.adaptors.flow;
+
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Publishes the values of a supplier until it returns {@code null}. The
+ * supplier is shared by all subscribers and called only on demand.
+ *
+ * <p>Emits on the common fork-join pool unless configured otherwise.
+ *
+ * @param <T> the element type
+ */
+public final class SupplierPublisher<T> extends AbstractPublisher<T, SupplierPublisher<T>> {
+
+    private final Supplier<? extends T> supplier;
+
+    private SupplierPublisher(Supplier<? extends T> supplier) {
+        super(ForkJoinPool.commonPool());
+        this.supplier = supplier;
+    }
+
+    /**
+     * Publishes the values of {@code supplier}.
+     *
+     * @param supplier the values; {@code null} ends the stream
+     * @param <T>      the element type
+     * @return the publisher
+     */
+    public static <T> SupplierPublisher<T> of(Supplier<? extends T> supplier) {
+        return new SupplierPublisher<>(Objects.requireNonNull(supplier, "supplier"));
+    }
+
+    @Override
+    protected Cursor<T> open(BooleanSupplier cancelled) {
+        return supplier::get;
+    }
+}
@@ -0,0 +1,5 @@
+/**
+ * {@link java.util.concurrent.Flow} publishers and subscribers that exchange
+ * demand in batches rather than one element at a time.
+ */
+package io.github.atcurtis.crap4java.adaptors.flow;
@@ -0,0 +1,596 @@
+package io.github.atcurtis.crap4java.adaptors.hidden;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodType;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Minimal class file writer for the straight-line classes spun in this
+ * package.
+ *
+ * <p>Only what the adaptors need is supported: a constant pool, fields, and
+ * methods whose code has no branches. The one control transfer allowed is a
+ * catch-all exception handler, whose stack map frame is spelled out by the
+ * caller, so the writer stays free of any flow analysis. Operand stack depth
+ * is tracked as instructions are emitted.
+ */
+final class ClassWriter {
+
+    static final int ACC_PUBLIC = 0x0001;
+    static final int ACC_PRIVATE = 0x0002;
+    static final int ACC_STATIC = 0x0008;
+    static final int ACC_FINAL = 0x0010;
+    static final int ACC_SUPER = 0x0020;
+
+    private static final int VERSION = 61;
+
+    private static final int CONSTANT_UTF8 = 1;
+    private static final int CONSTANT_CLASS = 7;
+    private static final int CONSTANT_FIELDREF = 9;
+    private static final int CONSTANT_METHODREF = 10;
+    private static final int CONSTANT_INTERFACE_METHODREF = 11;
+    private static final int CONSTANT_NAME_AND_TYPE = 12;
+
+    private static final int FULL_FRAME = 255;
+    private static final int ITEM_INTEGER = 1;
+    private static final int ITEM_FLOAT = 2;
+    private static final int ITEM_DOUBLE = 3;
+    private static final int ITEM_LONG = 4;
+    private static final int ITEM_OBJECT = 7;
+
+    private final ByteArrayOutputStream poolBytes = new ByteArrayOutputStream();
+    private final DataOutputStream pool = new DataOutputStream(poolBytes);
+    private final Map<String, Integer> entries = new HashMap<>();
+    private int poolSize = 1;
+
+    private final int access;
+    private final int thisClass;
+    private final int superClass;
+    private final int[] interfaces;
+    private final List<byte[]> fields = new ArrayList<>();
+    private final List<byte[]> methods = new ArrayList<>();
+
+    /**
+     * Starts a class.
+     *
+     * @param access     the class access flags
+     * @param name       the internal name of the class
+     * @param superName  the internal name of the superclass
+     * @param interfaces the internal names of the implemented interfaces
+     */
+    ClassWriter(int access, String name, String superName, String... interfaces) {
+        this.access = access;
+        this.thisClass = classRef(name);
+        this.superClass = classRef(superName);
+        this.interfaces = new int[interfaces.length];
+        for (int i = 0; i < interfaces.length; i++) {
+            this.interfaces[i] = classRef(interfaces[i]);
+        }
+    }
+
+    /**
+     * Returns the internal name of {@code type} as used in class constants.
+     *
+     * @param type a class, interface or array type
+     * @return the internal name
+     */
+    static String internalName(Class<?> type) {
+        return type.isArray() ? type.descriptorString() : type.getName().replace('.', '/');
+    }
+
+    /**
+     * Returns the number of local variable or operand stack slots taken by a
+     * value of {@code type}.
+     *
+     * @param type the type; {@code void} takes none
+     * @return 0, 1 or 2
+     */
+    static int slots(Class<?> type) {
+        return type == void.class ? 0 : type == long.class || type == double.class ? 2 : 1;
+    }
+
+    /**
+     * Returns the number of slots taken by the parameters of {@code type}.
+     *
+     * @param type a method type
+     * @return the total slot count
+     */
+    static int parameterSlots(MethodType type) {
+        int total = 0;
+        for (Class<?> parameter : type.parameterArray()) {
+            total += slots(parameter);
+        }
+        return total;
+    }
+
+    /**
+     * Adds a field.
+     *
+     * @param access the field access flags
+     * @param name   the field name
+     * @param type   the field type
+     */
+    void field(int access, String name, Class<?> type) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        write(() -> {
+            out.writeShort(access);
+            out.writeShort(utf8(name));
+            out.writeShort(utf8(type.descriptorString()));
+            out.writeShort(0);
+        });
+        fields.add(bytes.toByteArray());
+    }
+
+    /**
+     * Starts a method. The method is added when {@link Code#end()} is called.
+     *
+     * @param access the method access flags
+     * @param name   the method name
+     * @param type   the method type, without the receiver
+     * @return the code of the method
+     */
+    Code method(int access, String name, MethodType type) {
+        int locals = parameterSlots(type) + ((access & ACC_STATIC) == 0 ? 1 : 0);
+        return new Code(access, name, type, locals);
+    }
+
+    /**
+     * Returns the class file.
+     *
+     * @return the bytes of the class file
+     */
+    byte[] toByteArray() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        write(() -> {
+            out.writeInt(0xCAFEBABE);
+            out.writeShort(0);
+            out.writeShort(VERSION);
+            out.writeShort(poolSize);
+            poolBytes.writeTo(out);
+            out.writeShort(access);
+            out.writeShort(thisClass);
+            out.writeShort(superClass);
+            out.writeShort(interfaces.length);
+            for (int index : interfaces) {
+                out.writeShort(index);
+            }
+            out.writeShort(fields.size());
+            for (byte[] field : fields) {
+                out.write(field);
+            }
+            out.writeShort(methods.size());
+            for (byte[] method : methods) {
+                out.write(method);
+            }
+            out.writeShort(0);
+        });
+        return bytes.toByteArray();
+    }
+
+    private int utf8(String value) {
+        return constant("U" + value, () -> {
+            pool.writeByte(CONSTANT_UTF8);
+            pool.writeUTF(value);
+        });
+    }
+
+    private int classRef(String internalName) {
+        int name = utf8(internalName);
+        return constant("C" + internalName, () -> {
+            pool.writeByte(CONSTANT_CLASS);
+            pool.writeShort(name);
+        });
+    }
+
+    private int nameAndType(String name, String descriptor) {
+        int n = utf8(name);
+        int d = utf8(descriptor);
+        return constant("N" + name + ' ' + descriptor, () -> {
+            pool.writeByte(CONSTANT_NAME_AND_TYPE);
+            pool.writeShort(n);
+            pool.writeShort(d);
+        });
+    }
+
+    private int memberRef(int tag, String owner, String name, String descriptor) {
+        int c = classRef(owner);
+        int nt = nameAndType(name, descriptor);
+        return constant(tag + owner + '.' + name + ' ' + descriptor, () -> {
+            pool.writeByte(tag);
+            pool.writeShort(c);
+            pool.writeShort(nt);
+        });
+    }
+
+    private int constant(String key, IoAction writer) {
+        Integer index = entries.get(key);
+        if (index != null) {
+            return index;
+        }
+        write(writer);
+        int assigned = poolSize++;
+        if (assigned > 0xFFFF) {
+            throw new IllegalStateException("Constant pool overflow");
+        }
+        entries.put(key, assigned);
+        return assigned;
+    }
+
+    private static void write(IoAction action) {
+        try {
+            action.run();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @FunctionalInterface
+    private interface IoAction {
+        void run() throws IOException;
+    }
+
+    /**
+     * Straight-line bytecode of one method.
+     */
+    final class Code {
+
+        private final int access;
+        private final String name;
+        private final MethodType type;
+        private final ByteArrayOutputStream code = new ByteArrayOutputStream();
+        private final ByteArrayOutputStream handlers = new ByteArrayOutputStream();
+        private final ByteArrayOutputStream frames = new ByteArrayOutputStream();
+        private int handlerCount;
+        private int lastFrame = -1;
+        private int maxLocals;
+        private int stack;
+        private int maxStack;
+
+        private Code(int access, String name, MethodType type, int maxLocals) {
+            this.access = access;
+            this.name = name;
+            this.type = type;
+            this.maxLocals = maxLocals;
+        }
+
+        private void op(int opcode, int stackChange) {
+            code.write(opcode);
+            stack += stackChange;
+            maxStack = Math.max(maxStack, stack);
+        }
+
+        private void u1(int value) {
+            code.write(value);
+        }
+
+        private void u2(int value) {
+            u2(code, value);
+        }
+
+        private static void u2(ByteArrayOutputStream out, int value) {
+            out.write(value >>> 8);
+            out.write(value);
+        }
+
+        /**
+         * Returns the offset of the next instruction, for
+         * {@link #catchAll(int, int, Class[])}.
+         *
+         * @return the current code length
+         */
+        int offset() {
+            return code.size();
+        }
+
+        /**
+         * Loads the local variable at {@code slot}.
+         *
+         * @param type the variable type
+         * @param slot the variable slot
+         * @return this code
+         */
+        Code load(Class<?> type, int slot) {
+            int base;
+            if (!type.isPrimitive()) {
+                base = 0x19;
+            } else if (type == long.class) {
+                base = 0x16;
+            } else if (type == float.class) {
+                base = 0x17;
+            } else if (type == double.class) {
+                base = 0x18;
+            } else {
+                base = 0x15;
+            }
+            maxLocals = Math.max(maxLocals, slot + slots(type));
+            op(base, slots(type));
+            u1(slot);
+            return this;
+        }
+
+        /**
+         * Stores the value on the stack into the local variable at
+         * {@code slot}.
+         *
+         * @param type the variable type
+         * @param slot the variable slot
+         * @return this code
+         */
+        Code store(Class<?> type, int slot) {
+            int base;
+            if (!type.isPrimitive()) {
+                base = 0x3A;
+            } else if (type == long.class) {
+                base = 0x37;
+            } else if (type == float.class) {
+                base = 0x38;
+            } else if (type == double.class) {
+                base = 0x39;
+            } else {
+                base = 0x36;
+            }
+            maxLocals = Math.max(maxLocals, slot + slots(type));
+            op(base, -slots(type));
+            u1(slot);
+            return this;
+        }
+
+        /**
+         * Subtracts the {@code long} on top of the stack from the one below
+         * it.
+         *
+         * @return this code
+         */
+        Code subtractLong() {
+            op(0x65, -2);
+            return this;
+        }
+
+        /**
+         * Throws the exception on the stack.
+         *
+         * @return this code
+         */
+        Code throwException() {
+            op(0xBF, -1);
+            return this;
+        }
+
+        /**
+         * Starts, at the current offset, a handler for any exception thrown
+         * by the instructions from {@code start} up to {@code end}. On entry
+         * the stack holds just the exception, and the local variables are the
+         * receiver, the parameters and {@code locals}, which must be what they
+         * hold throughout the range. The handler must not fall through.
+         *
+         * @param start  the offset of the first covered instruction
+         * @param end    the offset after the last covered instruction
+         * @param locals the types of the local variables after the parameters
+         * @return this code
+         */
+        Code catchAll(int start, int end, Class<?>... locals) {
+            int handler = code.size();
+            u2(handlers, start);
+            u2(handlers, end);
+            u2(handlers, handler);
+            u2(handlers, 0);
+            handlerCount++;
+
+            List<Class<?>> types = new ArrayList<>(type.parameterList());
+            types.addAll(List.of(locals));
+            frames.write(FULL_FRAME);
+            u2(frames, lastFrame < 0 ? handler : handler - lastFrame - 1);
+            boolean instance = (access & ACC_STATIC) == 0;
+            u2(frames, types.size() + (instance ? 1 : 0));
+            if (instance) {
+                frames.write(ITEM_OBJECT);
+                u2(frames, thisClass);
+            }
+            for (Class<?> local : types) {
+                verificationType(local);
+            }
+            u2(frames, 1);
+            verificationType(Throwable.class);
+            lastFrame = handler;
+
+            stack = 1;
+            maxStack = Math.max(maxStack, stack);
+            return this;
+        }
+
+        private void verificationType(Class<?> local) {
+            if (!local.isPrimitive()) {
+                frames.write(ITEM_OBJECT);
+                u2(frames, classRef(internalName(local)));
+            } else if (local == long.class) {
+                frames.write(ITEM_LONG);
+            } else if (local == float.class) {
+                frames.write(ITEM_FLOAT);
+            } else if (local == double.class) {
+                frames.write(ITEM_DOUBLE);
+            } else {
+                frames.write(ITEM_INTEGER);
+            }
+        }
+
+        /**
+         * Loads every parameter in order, starting at {@code slot}.
+         *
+         * @param slot the slot of the first parameter
+         * @return this code
+         */
+        Code loadParameters(int slot) {
+            for (Class<?> parameter : type.parameterArray()) {
+                load(parameter, slot);
+                slot += slots(parameter);
+            }
+            return this;
+        }
+
+        /**
+         * Reads an instance field of the object on the stack.
+         *
+         * @param owner the internal name of the declaring class
+         * @param name  the field name
+         * @param type  the field type
+         * @return this code
+         */
+        Code getField(String owner, String name, Class<?> type) {
+            op(0xB4, slots(type) - 1);
+            u2(memberRef(CONSTANT_FIELDREF, owner, name, type.descriptorString()));
+            return this;
+        }
+
+        /**
+         * Stores the value on the stack into an instance field of the object
+         * below it.
+         *
+         * @param owner the internal name of the declaring class
+         * @param name  the field name
+         * @param type  the field type
+         * @return this code
+         */
+        Code putField(String owner, String name, Class<?> type) {
+            op(0xB5, -1 - slots(type));
+            u2(memberRef(CONSTANT_FIELDREF, owner, name, type.descriptorString()));
+            return this;
+        }
+
+        /**
+         * Invokes an instance method through {@code invokevirtual}, or through
+         * {@code invokeinterface} if {@code ownerIsInterface}.
+         *
+         * @param owner            the internal name of the receiver type
+         * @param ownerIsInterface whether the receiver type is an interface
+         * @param name             the method name
+         * @param type             the method type, without the receiver
+         * @return this code
+         */
+        Code invokeVirtual(String owner, boolean ownerIsInterface, String name, MethodType type) {
+            int arguments = parameterSlots(type) + 1;
+            String descriptor = type.toMethodDescriptorString();
+            if (ownerIsInterface) {
+                op(0xB9, slots(type.returnType()) - arguments);
+                u2(memberRef(CONSTANT_INTERFACE_METHODREF, owner, name, descriptor));
+                u1(arguments);
+                u1(0);
+            } else {
+                op(0xB6, slots(type.returnType()) - arguments);
+                u2(memberRef(CONSTANT_METHODREF, owner, name, descriptor));
+            }
+            return this;
+        }
+
+        /**
+         * Invokes a constructor or private method through
+         * {@code invokespecial}.
+         *
+         * @param owner the internal name of the declaring class
+         * @param name  the method name
+         * @param type  the method type, without the receiver
+         * @return this code
+         */
+        Code invokeSpecial(String owner, String name, MethodType type) {
+            op(0xB7, slots(type.returnType()) - parameterSlots(type) - 1);
+            u2(memberRef(CONSTANT_METHODREF, owner, name, type.toMethodDescriptorString()));
+            return this;
+        }
+
+        /**
+         * Invokes a static method.
+         *
+         * @param owner            the internal name of the declaring type
+         * @param ownerIsInterface whether the declaring type is an interface
+         * @param name             the method name
+         * @param type             the method type
+         * @return this code
+         */
+        Code invokeStatic(String owner, boolean ownerIsInterface, String name, MethodType type) {
+            op(0xB8, slots(type.returnType()) - parameterSlots(type));
+            u2(memberRef(ownerIsInterface ? CONSTANT_INTERFACE_METHODREF : CONSTANT_METHODREF,
+                    owner, name, type.toMethodDescriptorString()));
+            return this;
+        }
+
+        /**
+         * Discards a value of {@code type} from the stack.
+         *
+         * @param type the type of the value; {@code void} emits nothing
+         * @return this code
+         */
+        Code pop(Class<?> type) {
+            int size = slots(type);
+            if (size > 0) {
+                op(size == 2 ? 0x58 : 0x57, -size);
+            }
+            return this;
+        }
+
+        /**
+         * Returns the value of {@code type} on the stack.
+         *
+         * @param type the method return type
+         * @return this code
+         */
+        Code returnValue(Class<?> type) {
+            int opcode;
+            if (type == void.class) {
+                opcode = 0xB1;
+            } else if (!type.isPrimitive()) {
+                opcode = 0xB0;
+            } else if (type == long.class) {
+                opcode = 0xAD;
+            } else if (type == float.class) {
+                opcode = 0xAE;
+            } else if (type == double.class) {
+                opcode = 0xAF;
+            } else {
+                opcode = 0xAC;
+            }
+            op(opcode, -slots(type));
+            return this;
+        }
+
+        /**
+         * Adds the method to the class.
+         */
+        void end() {
+            byte[] bytecode = code.toByteArray();
+            int frameBytes = handlerCount == 0 ? 0 : 8 + frames.size();
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(bytes);
+            write(() -> {
+                out.writeShort(access);
+                out.writeShort(utf8(name));
+                out.writeShort(utf8(type.toMethodDescriptorString()));
+                out.writeShort(1);
+                out.writeShort(utf8("Code"));
+                out.writeInt(12 + bytecode.length + handlers.size() + frameBytes);
+                out.writeShort(maxStack);
+                out.writeShort(maxLocals);
+                out.writeInt(bytecode.length);
+                out.write(bytecode);
+                out.writeShort(handlerCount);
+                handlers.writeTo(out);
+                if (handlerCount == 0) {
+                    out.writeShort(0);
+                } else {
+                    out.writeShort(1);
+                    out.writeShort(utf8("StackMapTable"));
+                    out.writeInt(2 + frames.size());
+                    out.writeShort(handlerCount);
+                    frames.writeTo(out);
+                }
+            });
+            methods.add(bytes.toByteArray());
+        }
+    }
+}
@@ -0,0 +1,392 @@
+package io.github.atcurtis.crap4java.adaptors.hidden;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.LongConsumer;
+
+/**
+ * Implements interfaces at run time by delegating to objects that have the
+ * right methods but do not implement the interface.
+ *
+ * <p>For each (interface, delegate class) pair the factory spins a hidden
+ * class holding the delegate in a final field. Every abstract method of the
+ * interface becomes a direct {@code invokevirtual} (or
+ * {@code invokeinterface}) of the delegate's public method with the same name
+ * and parameter types; default methods are delegated the same way when the
+ * delegate has a match and inherited otherwise. Unlike a
+ * {@link java.lang.reflect.Proxy}, arguments are neither boxed nor copied into
+ * an array, and the JIT sees a monomorphic call it can inline through, so an
+ * adaptor costs about as much as hand-written delegation.
+ *
+ * <p>A delegate method matches if its return type can be returned where the
+ * interface method's is expected: the same primitive type, an assignable
+ * reference type, or anything at all for a {@code void} interface method.
+ * Checked exceptions are not compared.
+ *
+ * <p>Hidden classes are defined in the package of the factory's lookup, so
+ * the interface and the delegate class must be accessible from there; a
+ * lookup from the caller's own class gives access to its package-private
+ * types. Hidden classes are cached per pair in a {@link ClassValue} and are
+ * unloaded once neither the classes involved nor any adaptor is reachable.
+ *
+ * <p>{@link #instrument(Class, Object, Function)} spins the same kind of class
+ * for an object that does implement the interface, timing every call on its
+ * way through.
+ */
+public final class HiddenAdaptorFactory {
+
+    private static final String DELEGATE = "delegate";
+    private static final String TIMER = "timer";
+    private static final MethodType CONSTRUCTOR = MethodType.methodType(Object.class, Object.class);
+    private static final MethodType NANO_TIME = MethodType.methodType(long.class);
+    private static final MethodType ACCEPT = MethodType.methodType(void.class, long.class);
+    private static final int MAX_INSTRUMENTED_METHODS = 253;
+
+    private final MethodHandles.Lookup lookup;
+    private final ClassValue<ClassValue<MethodHandle>> constructors = new ClassValue<>() {
+        @Override
+        protected ClassValue<MethodHandle> computeValue(Class<?> iface) {
+            return new ClassValue<>() {
+                @Override
+                protected MethodHandle computeValue(Class<?> delegateType) {
+                    return spin(iface, delegateType);
+                }
+            };
+        }
+    };
+    private final ClassValue<Instrumented> instrumented = new ClassValue<>() {
+        @Override
+        protected Instrumented computeValue(Class<?> iface) {
+            return spinInstrumented(iface);
+        }
+    };
+
+    private HiddenAdaptorFactory(MethodHandles.Lookup lookup) {
+        this.lookup = lookup;
+    }
+
+    /**
+     * Creates a factory defining its adaptors with {@code lookup}.
+     *
+     * @param lookup a lookup with full privilege access, usually
+     *               {@code MethodHandles.lookup()} of the calling class
+     * @return the factory
+     * @throws IllegalArgumentException if {@code lookup} lacks full privilege
+     *                                  access
+     */
+    public static HiddenAdaptorFactory create(MethodHandles.Lookup lookup) {
+        if (!lookup.hasFullPrivilegeAccess()) {
+            throw new IllegalArgumentException("Lookup needs full privilege access: " + lookup);
+        }
+        return new HiddenAdaptorFactory(lookup);
+    }
+
+    /**
+     * Returns an adaptor implementing {@code iface} by delegating to
+     * {@code delegate}.
+     *
+     * @param iface    the interface to implement
+     * @param delegate the object to delegate to
+     * @param <I>      the interface type
+     * @return the adaptor
+     * @throws IllegalArgumentException if {@code delegate} lacks a method of
+     *                                  {@code iface}, or if either type is
+     *                                  inaccessible
+     */
+    public <I> I adapt(Class<I> iface, Object delegate) {
+        return iface.cast(construct(constructor(iface, delegate.getClass()), delegate));
+    }
+
+    /**
+     * Returns a function creating adaptors implementing {@code iface} for
+     * delegates of {@code delegateType}. The hidden class is spun, or found in
+     * the cache, once, here. Methods are resolved against
+     * {@code delegateType}, so subclasses of it share one hidden class.
+     *
+     * @param iface        the interface to implement
+     * @param delegateType the declared type of the delegates
+     * @param <I>          the interface type
+     * @param <D>          the delegate type
+     * @return the adaptor factory function
+     * @throws IllegalArgumentException if {@code delegateType} lacks a method
+     *                                  of {@code iface}, or if either type is
+     *                                  inaccessible
+     */
+    public <I, D> Function<D, I> factory(Class<I> iface, Class<D> delegateType) {
+        MethodHandle constructor = constructor(iface, delegateType);
+        return delegate -> iface.cast(construct(constructor, Objects.requireNonNull(delegate, "delegate")));
+    }
+
+    /**
+     * Returns an adaptor implementing {@code iface} by calling the same
+     * method of {@code delegate} and passing the time the call took, in
+     * nanoseconds of {@link System#nanoTime()}, to the timer of that method.
+     * Calls that throw are timed too. Every non-static method of
+     * {@code iface} is instrumented, default methods included;
+     * {@code timers} is called once per method, here.
+     *
+     * <p>The hidden class is spun once per interface. Each method holds its
+     * timer in a final field and calls it directly, so with a single timer
+     * class behind all methods the JIT inlines the whole path and a call
+     * costs two {@code nanoTime} reads more than the delegate's.
+     *
+     * @param iface    the interface to implement
+     * @param delegate the object to delegate to
+     * @param timers   returns the timer of each method
+     * @param <I>      the interface type
+     * @return the adaptor
+     * @throws IllegalArgumentException if {@code iface} is not an accessible
+     *                                  interface or has more than 253 methods
+     */
+    public <I> I instrument(Class<I> iface, I delegate, Function<? super Method, ? extends LongConsumer> timers) {
+        Objects.requireNonNull(delegate, "delegate");
+        Objects.requireNonNull(timers, "timers");
+        Instrumented spun = instrumented.get(iface);
+        Object[] arguments = new Object[spun.methods().size() + 1];
+        arguments[0] = delegate;
+        for (int i = 1; i < arguments.length; i++) {
+            arguments[i] = Objects.requireNonNull(timers.apply(spun.methods().get(i - 1)), "timer");
+        }
+        try {
+            return iface.cast(spun.constructor().invokeWithArguments(arguments));
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private MethodHandle constructor(Class<?> iface, Class<?> delegateType) {
+        return constructors.get(iface).get(delegateType);
+    }
+
+    private static Object construct(MethodHandle constructor, Object delegate) {
+        try {
+            return (Object) constructor.invokeExact(delegate);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private MethodHandle spin(Class<?> iface, Class<?> delegateType) {
+        if (!iface.isInterface()) {
+            throw new IllegalArgumentException("Not an interface: " + iface.getName());
+        }
+        if (delegateType.isPrimitive() || delegateType.isArray()) {
+            throw new IllegalArgumentException("Cannot delegate to " + delegateType.getName());
+        }
+        try {
+            lookup.accessClass(iface);
+            lookup.accessClass(delegateType);
+        } catch (IllegalAccessException e) {
+            throw new IllegalArgumentException(e.getMessage(), e);
+        }
+
+        String pkg = lookup.lookupClass().getPackageName();
+        String name = (pkg.isEmpty() ? "" : pkg.replace('.', '/') + '/')
+                + iface.getSimpleName() + "$HiddenAdaptor";
+        String delegateName = ClassWriter.internalName(delegateType);
+        ClassWriter writer = new ClassWriter(ClassWriter.ACC_PUBLIC | ClassWriter.ACC_FINAL | ClassWriter.ACC_SUPER,
+                name, "java/lang/Object", ClassWriter.internalName(iface));
+        writer.field(ClassWriter.ACC_PRIVATE | ClassWriter.ACC_FINAL, DELEGATE, delegateType);
+
+        MethodType init = MethodType.methodType(void.class, delegateType);
+        writer.method(ClassWriter.ACC_PUBLIC, "<init>", init)
+                .load(Object.class, 0)
+                .invokeSpecial("java/lang/Object", "<init>", MethodType.methodType(void.class))
+                .load(Object.class, 0)
+                .load(delegateType, 1)
+                .putField(name, DELEGATE, delegateType)
+                .returnValue(void.class)
+                .end();
+
+        for (Map.Entry<Signature, Method> entry : implementations(iface, delegateType).entrySet()) {
+            Signature signature = entry.getKey();
+            Method target = entry.getValue();
+            MethodType targetType = MethodType.methodType(target.getReturnType(), target.getParameterTypes());
+            Class<?> returnType = signature.type().returnType();
+            writer.method(ClassWriter.ACC_PUBLIC, signature.name(), signature.type())
+                    .load(Object.class, 0)
+                    .getField(name, DELEGATE, delegateType)
+                    .loadParameters(1)
+                    .invokeVirtual(delegateName, delegateType.isInterface(), signature.name(), targetType)
+                    .pop(returnType == void.class ? target.getReturnType() : void.class)
+                    .returnValue(returnType)
+                    .end();
+        }
+
+        try {
+            MethodHandles.Lookup hidden = lookup.defineHiddenClass(writer.toByteArray(), true);
+            return hidden.findConstructor(hidden.lookupClass(), init).asType(CONSTRUCTOR);
+        } catch (IllegalAccessException | NoSuchMethodException e) {
+            throw new IllegalStateException("Cannot define adaptor for " + iface.getName(), e);
+        }
+    }
+
+    private Instrumented spinInstrumented(Class<?> iface) {
+        if (!iface.isInterface()) {
+            throw new IllegalArgumentException("Not an interface: " + iface.getName());
+        }
+        try {
+            lookup.accessClass(iface);
+        } catch (IllegalAccessException e) {
+            throw new IllegalArgumentException(e.getMessage(), e);
+        }
+        Map<Signature, Method> bySignature = new LinkedHashMap<>();
+        for (Method method : iface.getMethods()) {
+            if (!Modifier.isStatic(method.getModifiers())) {
+                bySignature.putIfAbsent(new Signature(method.getName(),
+                        MethodType.methodType(method.getReturnType(), method.getParameterTypes())), method);
+            }
+        }
+        if (bySignature.size() > MAX_INSTRUMENTED_METHODS) {
+            throw new IllegalArgumentException("Too many methods to instrument: " + iface.getName());
+        }
+
+        String pkg = lookup.lookupClass().getPackageName();
+        String name = (pkg.isEmpty() ? "" : pkg.replace('.', '/') + '/')
+                + iface.getSimpleName() + "$Instrumented";
+        String ifaceName = ClassWriter.internalName(iface);
+        String timerName = ClassWriter.internalName(LongConsumer.class);
+        ClassWriter writer = new ClassWriter(ClassWriter.ACC_PUBLIC | ClassWriter.ACC_FINAL | ClassWriter.ACC_SUPER,
+                name, "java/lang/Object", ifaceName);
+        writer.field(ClassWriter.ACC_PRIVATE | ClassWriter.ACC_FINAL, DELEGATE, iface);
+        List<Class<?>> parameters = new ArrayList<>(List.of(iface));
+        for (int i = 0; i < bySignature.size(); i++) {
+            writer.field(ClassWriter.ACC_PRIVATE | ClassWriter.ACC_FINAL, TIMER + i, LongConsumer.class);
+            parameters.add(LongConsumer.class);
+        }
+
+        MethodType init = MethodType.methodType(void.class, parameters);
+        ClassWriter.Code constructor = writer.method(ClassWriter.ACC_PUBLIC, "<init>", init)
+                .load(Object.class, 0)
+                .invokeSpecial("java/lang/Object", "<init>", MethodType.methodType(void.class))
+                .load(Object.class, 0)
+                .load(iface, 1)
+                .putField(name, DELEGATE, iface);
+        for (int i = 0; i < bySignature.size(); i++) {
+            constructor.load(Object.class, 0)
+                    .load(LongConsumer.class, i + 2)
+                    .putField(name, TIMER + i, LongConsumer.class);
+        }
+        constructor.returnValue(void.class).end();
+
+        int index = 0;
+        for (Signature signature : bySignature.keySet()) {
+            MethodType type = signature.type();
+            String timer = TIMER + index++;
+            int start = 1 + ClassWriter.parameterSlots(type);
+            ClassWriter.Code code = writer.method(ClassWriter.ACC_PUBLIC, signature.name(), type)
+                    .invokeStatic("java/lang/System", false, "nanoTime", NANO_TIME)
+                    .store(long.class, start);
+            int from = code.offset();
+            code.load(Object.class, 0)
+                    .getField(name, DELEGATE, iface)
+                    .loadParameters(1)
+                    .invokeVirtual(ifaceName, true, signature.name(), type);
+            int to = code.offset();
+            elapsed(code, name, timer, timerName, start)
+                    .returnValue(type.returnType())
+                    .catchAll(from, to, long.class)
+                    .store(Throwable.class, start + 2);
+            elapsed(code, name, timer, timerName, start)
+                    .load(Throwable.class, start + 2)
+                    .throwException()
+                    .end();
+        }
+
+        try {
+            MethodHandles.Lookup hidden = lookup.defineHiddenClass(writer.toByteArray(), true);
+            return new Instrumented(hidden.findConstructor(hidden.lookupClass(), init),
+                    List.copyOf(bySignature.values()));
+        } catch (IllegalAccessException | NoSuchMethodException e) {
+            throw new IllegalStateException("Cannot define instrumented adaptor for " + iface.getName(), e);
+        }
+    }
+
+    /**
+     * Passes {@code nanoTime() - start} to the timer field.
+     */
+    private static ClassWriter.Code elapsed(ClassWriter.Code code, String owner, String timer, String timerName,
+                                            int start) {
+        return code.load(Object.class, 0)
+                .getField(owner, timer, LongConsumer.class)
+                .invokeStatic("java/lang/System", false, "nanoTime", NANO_TIME)
+                .load(long.class, start)
+                .subtractLong()
+                .invokeVirtual(timerName, true, "accept", ACCEPT);
+    }
+
+    /**
+     * Maps the signature of every interface method to implement to the
+     * delegate method it calls. Interface methods that differ only in return
+     * type, such as covariant overrides inherited from two superinterfaces,
+     * each get an implementation.
+     */
+    private static Map<Signature, Method> implementations(Class<?> iface, Class<?> delegateType) {
+        Map<Signature, Method> implementations = new LinkedHashMap<>();
+        for (Method method : iface.getMethods()) {
+            if (Modifier.isStatic(method.getModifiers())) {
+                continue;
+            }
+            Method target = delegateMethod(delegateType, method);
+            if (target == null) {
+                if (method.isDefault()) {
+                    continue;
+                }
+                throw new IllegalArgumentException(delegateType.getName() + " has no method matching " + method);
+            }
+            implementations.put(new Signature(method.getName(),
+                    MethodType.methodType(method.getReturnType(), method.getParameterTypes())), target);
+        }
+        return implementations;
+    }
+
+    private static Method delegateMethod(Class<?> delegateType, Method method) {
+        Method target;
+        try {
+            target = delegateType.getMethod(method.getName(), method.getParameterTypes());
+        } catch (NoSuchMethodException e) {
+            try {
+                target = Object.class.getMethod(method.getName(), method.getParameterTypes());
+            } catch (NoSuchMethodException none) {
+                return null;
+            }
+        }
+        if (Modifier.isStatic(target.getModifiers()) || !returns(target.getReturnType(), method.getReturnType())) {
+            return null;
+        }
+        return target;
+    }
+
+    private static boolean returns(Class<?> actual, Class<?> expected) {
+        if (expected == void.class) {
+            return true;
+        }
+        if (expected.isPrimitive() || actual.isPrimitive()) {
+            return actual == expected;
+        }
+        return expected.isAssignableFrom(actual);
+    }
+
+    private record Signature(String name, MethodType type) {
+    }
+
+    /**
+     * An instrumented hidden class: its constructor takes the delegate and
+     * then one timer per method, in the order of {@code methods}.
+     */
+    private record Instrumented(MethodHandle constructor, List<Method> methods) {
+    }
+}
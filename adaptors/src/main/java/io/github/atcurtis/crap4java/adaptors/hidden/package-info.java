@@ -0,0 +1,5 @@
+/**
+ * Adaptors implemented by hidden classes spun at run time, for interfaces
+ * that cannot be covered by generated sources.
+ */
+package io.github.atcurtis.crap4java.adaptors.hidden;
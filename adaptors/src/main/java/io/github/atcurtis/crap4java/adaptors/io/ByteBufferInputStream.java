@@ -0,0 +1,87 @@
+package io.github.atcurtis.crap4java.adaptors.io;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.Objects;
+
+/**
+ * {@link InputStream} reading the remaining bytes of a {@link ByteBuffer}.
+ *
+ * <p>The buffer is consumed in place: reading advances its position and nothing
+ * is copied until the caller asks for bytes. {@link #transferTo(OutputStream)}
+ * writes a heap buffer's backing array straight to the output stream, and
+ * {@link #skip(long)} only moves the position.
+ *
+ * <p>Instances are not thread-safe.
+ */
+public final class ByteBufferInputStream extends InputStream {
+
+    private static final int CHUNK = 8192;
+
+    private final ByteBuffer buffer;
+    private final TransferMetrics metrics;
+
+    /**
+     * Creates a stream over the remaining bytes of {@code buffer}.
+     *
+     * @param buffer  the buffer to read; its position is advanced
+     * @param metrics where to record transfers made by {@link #transferTo}
+     */
+    public ByteBufferInputStream(ByteBuffer buffer, TransferMetrics metrics) {
+        this.buffer = Objects.requireNonNull(buffer, "buffer");
+        this.metrics = Objects.requireNonNull(metrics, "metrics");
+    }
+
+    @Override
+    public int read() {
+        return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) {
+        Objects.checkFromIndexSize(off, len, b.length);
+        if (len == 0) {
+            return 0;
+        }
+        int n = Math.min(len, buffer.remaining());
+        if (n == 0) {
+            return -1;
+        }
+        buffer.get(b, off, n);
+        return n;
+    }
+
+    @Override
+    public long skip(long n) {
+        int skipped = (int) Math.max(0, Math.min(n, buffer.remaining()));
+        buffer.position(buffer.position() + skipped);
+        return skipped;
+    }
+
+    @Override
+    public int available() {
+        return buffer.remaining();
+    }
+
+    @Override
+    public long transferTo(OutputStream out) throws IOException {
+        Objects.requireNonNull(out, "out");
+        int n = buffer.remaining();
+        if (buffer.hasArray()) {
+            out.write(buffer.array(), buffer.arrayOffset() + buffer.position(), n);
+            buffer.position(buffer.limit());
+            metrics.transferred(n);
+            return n;
+        }
+        byte[] chunk = new byte[Math.min(CHUNK, n)];
+        while (buffer.hasRemaining()) {
+            int len = Math.min(chunk.length, buffer.remaining());
+            buffer.get(chunk, 0, len);
+            out.write(chunk, 0, len);
+        }
+        metrics.copied(n);
+        return n;
+    }
+}
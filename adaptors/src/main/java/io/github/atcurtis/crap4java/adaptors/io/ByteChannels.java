@@ -0,0 +1,262 @@
+package io.github.atcurtis.crap4java.adaptors.io;
+
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.GatheringByteChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.ScatteringByteChannel;
+import java.nio.channels.SelectableChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.Objects;
+
+/**
+ * Adaptors between {@code java.io} streams, NIO channels and byte buffers that
+ * avoid intermediate copies wherever the JDK offers a way to.
+ *
+ * <p>Each method picks the cheapest path for the pair of endpoints it is given:
+ * file sources use {@link FileChannel#transferTo}, buffer-backed streams hand
+ * their backing array over directly, multi-buffer writes use gathering I/O,
+ * and everything else falls back to a copy through a direct buffer. Every byte
+ * is recorded in a {@link TransferMetrics} as either transferred or copied so
+ * the fallback is visible in production.
+ *
+ * <p>Channels must be in blocking mode.
+ */
+public final class ByteChannels {
+
+    /**
+     * Size of the direct buffer used when no fast path applies.
+     */
+    public static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+
+    private ByteChannels() {
+    }
+
+    /**
+     * Moves every remaining byte of {@code in} to {@code out}.
+     *
+     * @param in      the source, read to its end
+     * @param out     the destination
+     * @param metrics where to record the bytes moved
+     * @return the number of bytes moved
+     * @throws IOException if reading or writing fails
+     */
+    public static long transfer(ReadableByteChannel in, WritableByteChannel out, TransferMetrics metrics)
+            throws IOException {
+        if (in instanceof FileChannel file) {
+            return transferFromFile(file, out, null, metrics);
+        }
+        return copy(in, out, ByteBuffer.allocateDirect(DEFAULT_BUFFER_SIZE), metrics);
+    }
+
+    /**
+     * Moves every remaining byte of {@code in} to {@code out}, staging through
+     * the caller's {@code buffer} if no fast path applies. Reusing one direct
+     * buffer across calls avoids allocating native memory per transfer.
+     *
+     * @param in      the source, read to its end
+     * @param out     the destination
+     * @param buffer  the staging buffer; its contents are overwritten
+     * @param metrics where to record the bytes moved
+     * @return the number of bytes moved
+     * @throws IOException if reading or writing fails
+     */
+    public static long transfer(ReadableByteChannel in, WritableByteChannel out, ByteBuffer buffer,
+                                TransferMetrics metrics) throws IOException {
+        if (in instanceof FileChannel file) {
+            return transferFromFile(file, out, buffer, metrics);
+        }
+        return copy(in, out, buffer, metrics);
+    }
+
+    /**
+     * Moves every remaining byte of {@code in} to {@code out}. File streams are
+     * unwrapped to their channels, and a {@link ByteBufferInputStream} hands
+     * its buffer over directly.
+     *
+     * @param in      the source, read to its end
+     * @param out     the destination
+     * @param metrics where to record the bytes moved
+     * @return the number of bytes moved
+     * @throws IOException if reading or writing fails
+     */
+    public static long transfer(InputStream in, OutputStream out, TransferMetrics metrics) throws IOException {
+        Objects.requireNonNull(out, "out");
+        if (in instanceof FileInputStream file) {
+            WritableByteChannel channel = out instanceof FileOutputStream fileOut
+                    ? fileOut.getChannel() : Channels.newChannel(out);
+            return transferFromFile(file.getChannel(), channel, null, metrics);
+        }
+        if (in instanceof ByteBufferInputStream buffered) {
+            return buffered.transferTo(out);
+        }
+        long n = in.transferTo(out);
+        metrics.copied(n);
+        return n;
+    }
+
+    /**
+     * Uses {@link FileChannel#transferTo} up to the size of the file, then
+     * copies whatever is left through {@code buffer}, allocating one if it is
+     * {@code null}. FIFOs and files under {@code /proc} or {@code /dev}
+     * report a size of zero however much they hold, so only reading to the
+     * end gets all of them.
+     */
+    private static long transferFromFile(FileChannel in, WritableByteChannel out, ByteBuffer buffer,
+                                         TransferMetrics metrics) throws IOException {
+        Objects.requireNonNull(out, "out");
+        long position = in.position();
+        long size = in.size();
+        long total = 0;
+        while (position < size) {
+            long n = in.transferTo(position, size - position, out);
+            if (n <= 0) {
+                break;
+            }
+            position += n;
+            total += n;
+        }
+        in.position(position);
+        // the JDK only avoids a user-space copy when the target is itself a
+        // file or a selectable (socket or pipe) channel
+        if (out instanceof FileChannel || out instanceof SelectableChannel) {
+            metrics.transferred(total);
+        } else {
+            metrics.copied(total);
+        }
+        return total + copy(in, out, buffer != null ? buffer : ByteBuffer.allocateDirect(DEFAULT_BUFFER_SIZE),
+                metrics);
+    }
+
+    private static long copy(ReadableByteChannel in, WritableByteChannel out, ByteBuffer buffer,
+                             TransferMetrics metrics) throws IOException {
+        Objects.requireNonNull(out, "out");
+        long total = 0;
+        buffer.clear();
+        while (in.read(buffer) >= 0 || buffer.position() > 0) {
+            buffer.flip();
+            total += out.write(buffer);
+            buffer.compact();
+        }
+        metrics.copied(total);
+        return total;
+    }
+
+    /**
+     * Writes every remaining byte of {@code buffers} with gathering writes, so
+     * a header and a body, say, reach the channel without being concatenated.
+     *
+     * @param out     the destination
+     * @param buffers the buffers to write, in order; their positions advance
+     * @param metrics where to record the bytes written
+     * @return the number of bytes written
+     * @throws IOException if writing fails
+     */
+    public static long write(GatheringByteChannel out, ByteBuffer[] buffers, TransferMetrics metrics)
+            throws IOException {
+        long remaining = remaining(buffers);
+        long total = 0;
+        while (total < remaining) {
+            total += out.write(buffers);
+        }
+        metrics.transferred(total);
+        return total;
+    }
+
+    /**
+     * Fills {@code buffers} in order with scattering reads until they are full
+     * or the channel reaches its end.
+     *
+     * @param in      the source
+     * @param buffers the buffers to fill; their positions advance
+     * @param metrics where to record the bytes read
+     * @return the number of bytes read, or {@code -1} if the channel was
+     *         already at its end
+     * @throws IOException if reading fails
+     */
+    public static long read(ScatteringByteChannel in, ByteBuffer[] buffers, TransferMetrics metrics)
+            throws IOException {
+        long remaining = remaining(buffers);
+        long total = 0;
+        while (total < remaining) {
+            long n = in.read(buffers);
+            if (n < 0) {
+                if (total == 0 && remaining > 0) {
+                    return -1;
+                }
+                break;
+            }
+            total += n;
+        }
+        metrics.transferred(total);
+        return total;
+    }
+
+    private static long remaining(ByteBuffer[] buffers) {
+        long remaining = 0;
+        for (ByteBuffer buffer : buffers) {
+            remaining += buffer.remaining();
+        }
+        return remaining;
+    }
+
+    /**
+     * Adapts the remaining bytes of {@code buffer} as an input stream.
+     *
+     * @param buffer  the buffer; its position advances as the stream is read
+     * @param metrics where to record bulk transfers
+     * @return an input stream over {@code buffer}
+     */
+    public static InputStream newInputStream(ByteBuffer buffer, TransferMetrics metrics) {
+        return new ByteBufferInputStream(buffer, metrics);
+    }
+
+    /**
+     * Adapts the remaining bytes of {@code buffer} as a readable channel. Each
+     * read copies straight from {@code buffer} into the caller's buffer.
+     *
+     * @param buffer  the buffer; its position advances as the channel is read
+     * @param metrics where to record the bytes read
+     * @return a channel over {@code buffer}
+     */
+    public static ReadableByteChannel newChannel(ByteBuffer buffer, TransferMetrics metrics) {
+        Objects.requireNonNull(buffer, "buffer");
+        Objects.requireNonNull(metrics, "metrics");
+        return new ReadableByteChannel() {
+            private boolean open = true;
+
+            @Override
+            public int read(ByteBuffer dst) throws IOException {
+                if (!open) {
+                    throw new ClosedChannelException();
+                }
+                if (!buffer.hasRemaining()) {
+                    return -1;
+                }
+                int n = Math.min(dst.remaining(), buffer.remaining());
+                dst.put(dst.position(), buffer, buffer.position(), n);
+                dst.position(dst.position() + n);
+                buffer.position(buffer.position() + n);
+                metrics.copied(n);
+                return n;
+            }
+
+            @Override
+            public boolean isOpen() {
+                return open;
+            }
+
+            @Override
+            public void close() {
+                open = false;
+            }
+        };
+    }
+}
@@ -0,0 +1,82 @@
+package io.github.atcurtis.crap4java.adaptors.io;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts the bytes moved by the {@link ByteChannels} adaptors, split by how
+ * they were moved.
+ *
+ * <p><em>Transferred</em> bytes went from source to destination without
+ * passing through an intermediate buffer owned by the adaptor: a
+ * {@code FileChannel.transferTo} (which the kernel may serve with
+ * {@code sendfile} or {@code splice}), a gathering write of the caller's own
+ * buffers, or a write straight out of a heap buffer's backing array.
+ * <em>Copied</em> bytes were staged in an intermediate buffer first. A rising
+ * copied share points at an adaptor pairing that cannot take a fast path.
+ *
+ * <p>Instances are thread-safe and may be shared by many transfers.
+ */
+public final class TransferMetrics {
+
+    private final LongAdder transferred = new LongAdder();
+    private final LongAdder copied = new LongAdder();
+
+    /**
+     * Creates metrics with both counters at zero.
+     */
+    public TransferMetrics() {
+    }
+
+    /**
+     * Returns the number of bytes moved without an intermediate copy.
+     *
+     * @return the transferred byte count
+     */
+    public long bytesTransferred() {
+        return transferred.sum();
+    }
+
+    /**
+     * Returns the number of bytes moved through an intermediate buffer.
+     *
+     * @return the copied byte count
+     */
+    public long bytesCopied() {
+        return copied.sum();
+    }
+
+    /**
+     * Records bytes moved without an intermediate copy.
+     *
+     * @param bytes the byte count
+     */
+    public void transferred(long bytes) {
+        if (bytes > 0) {
+            transferred.add(bytes);
+        }
+    }
+
+    /**
+     * Records bytes moved through an intermediate buffer.
+     *
+     * @param bytes the byte count
+     */
+    public void copied(long bytes) {
+        if (bytes > 0) {
+            copied.add(bytes);
+        }
+    }
+
+    /**
+     * Resets both counters to zero.
+     */
+    public void reset() {
+        transferred.reset();
+        copied.reset();
+    }
+
+    @Override
+    public String toString() {
+        return "TransferMetrics[transferred=" + bytesTransferred() + ", copied=" + bytesCopied() + "]";
+    }
+}
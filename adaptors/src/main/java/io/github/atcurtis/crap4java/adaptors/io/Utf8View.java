@@ -0,0 +1,428 @@
+package io.github.atcurtis.crap4java.adaptors.io;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+
+/**
+ * {@link CharSequence} over UTF-8 bytes held in a {@link ByteBuffer}, read in
+ * place without decoding to a {@link String}.
+ *
+ * <p>A view is a flyweight: {@link #wrap} re-points it at another range, so
+ * one view can walk every header or key of a message without allocating.
+ * Hashing, {@link #equals equality}, ordering and prefix tests work on the
+ * bytes directly, eight at a time where possible. The {@code CharSequence}
+ * methods see the text as UTF-16, as {@code toString()} would: for pure ASCII,
+ * detected once per range, a char is a byte; otherwise {@link #charAt} decodes
+ * forward from a cached position, which is cheap for ascending access and
+ * linear for random access. Malformed sequences read as U+FFFD, one per
+ * offending byte.
+ *
+ * <p>{@link #hashCode()} equals {@code toString().hashCode()}, so a view can
+ * be hashed compatibly with the string it spells. Views are equal when their
+ * bytes are equal, and order by unsigned byte, which is code point order. A
+ * view used as a map key must not be re-pointed.
+ *
+ * <p>The buffer's position and limit are ignored and never modified.
+ * Instances are not thread-safe.
+ */
+public final class Utf8View implements CharSequence, Comparable<Utf8View> {
+
+    private static final long HIGH_BITS = 0x8080808080808080L;
+    private static final int REPLACEMENT = 0xFFFD;
+
+    private static final byte UNKNOWN = 0;
+    private static final byte ASCII = 1;
+    private static final byte NON_ASCII = 2;
+
+    private ByteBuffer buffer;
+    private int offset;
+    private int length;
+
+    private byte encoding;
+    private int charLength;
+    private int hash;
+    private boolean hashed;
+    // the decoder's resume point for ascending charAt calls
+    private int cursorChar;
+    private int cursorByte;
+
+    /**
+     * Creates a view that points at nothing yet.
+     */
+    public Utf8View() {
+        this.buffer = ByteBuffer.allocate(0);
+    }
+
+    /**
+     * Creates a view of {@code length} bytes of {@code buffer} starting at
+     * {@code offset}.
+     *
+     * @param buffer the buffer holding the text
+     * @param offset the offset of the first byte
+     * @param length the number of bytes
+     * @return a new view
+     */
+    public static Utf8View of(ByteBuffer buffer, int offset, int length) {
+        return new Utf8View().wrap(buffer, offset, length);
+    }
+
+    /**
+     * Creates a view of {@code text} encoded as UTF-8, for use as a lookup
+     * key.
+     *
+     * @param text the text
+     * @return a new view over a fresh heap buffer
+     */
+    public static Utf8View of(String text) {
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        return of(ByteBuffer.wrap(bytes), 0, bytes.length);
+    }
+
+    /**
+     * Points this view at {@code length} bytes of {@code buffer} starting at
+     * {@code offset}.
+     *
+     * @param buffer the buffer holding the text
+     * @param offset the offset of the first byte
+     * @param length the number of bytes
+     * @return this view
+     */
+    public Utf8View wrap(ByteBuffer buffer, int offset, int length) {
+        Objects.checkFromIndexSize(offset, length, buffer.limit());
+        this.buffer = buffer;
+        this.offset = offset;
+        this.length = length;
+        this.encoding = UNKNOWN;
+        this.charLength = -1;
+        this.hashed = false;
+        this.cursorChar = 0;
+        this.cursorByte = offset;
+        return this;
+    }
+
+    /**
+     * Returns the number of bytes in view.
+     *
+     * @return the length in bytes
+     */
+    public int byteLength() {
+        return length;
+    }
+
+    /**
+     * Returns the byte at {@code index}.
+     *
+     * @param index the index, relative to the start of the view
+     * @return the byte
+     */
+    public byte byteAt(int index) {
+        Objects.checkIndex(index, length);
+        return buffer.get(offset + index);
+    }
+
+    /**
+     * Returns whether every byte is ASCII, in which case chars and bytes
+     * coincide.
+     *
+     * @return whether the text is pure ASCII
+     */
+    public boolean isAscii() {
+        if (encoding == UNKNOWN) {
+            encoding = scanAscii() ? ASCII : NON_ASCII;
+        }
+        return encoding == ASCII;
+    }
+
+    private boolean scanAscii() {
+        ByteBuffer buffer = this.buffer;
+        int i = offset;
+        int end = offset + length;
+        for (; i + Long.BYTES <= end; i += Long.BYTES) {
+            if ((buffer.getLong(i) & HIGH_BITS) != 0) {
+                return false;
+            }
+        }
+        for (; i < end; i++) {
+            if (buffer.get(i) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int length() {
+        if (isAscii()) {
+            return length;
+        }
+        if (charLength < 0) {
+            int chars = 0;
+            for (int i = offset, end = offset + length; i < end; ) {
+                int decoded = decode(i);
+                chars += Character.charCount(decoded & 0xFFFFFF);
+                i += decoded >>> 24;
+            }
+            charLength = chars;
+        }
+        return charLength;
+    }
+
+    @Override
+    public char charAt(int index) {
+        if (isAscii()) {
+            Objects.checkIndex(index, length);
+            return (char) buffer.get(offset + index);
+        }
+        Objects.checkIndex(index, length());
+        if (index < cursorChar) {
+            cursorChar = 0;
+            cursorByte = offset;
+        }
+        while (true) {
+            int decoded = decode(cursorByte);
+            int codePoint = decoded & 0xFFFFFF;
+            int chars = Character.charCount(codePoint);
+            if (index < cursorChar + chars) {
+                if (chars == 1) {
+                    return (char) codePoint;
+                }
+                return index == cursorChar ? Character.highSurrogate(codePoint) : Character.lowSurrogate(codePoint);
+            }
+            cursorChar += chars;
+            cursorByte += decoded >>> 24;
+        }
+    }
+
+    /**
+     * Returns the chars in {@code [start, end)}. For ASCII text the result is
+     * a view of the same buffer; otherwise it is a decoded string.
+     *
+     * @param start the first char, inclusive
+     * @param end   the last char, exclusive
+     * @return the subsequence
+     */
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        Objects.checkFromToIndex(start, end, length());
+        if (isAscii()) {
+            return of(buffer, offset + start, end - start);
+        }
+        return toString().substring(start, end);
+    }
+
+    /**
+     * Decodes the code point starting at absolute position {@code pos}.
+     *
+     * @return the code point in the low 24 bits and its width in bytes in the
+     *         high 8
+     */
+    private int decode(int pos) {
+        ByteBuffer buffer = this.buffer;
+        int remaining = offset + length - pos;
+        int b0 = buffer.get(pos) & 0xFF;
+        if (b0 < 0x80) {
+            return b0 | 1 << 24;
+        }
+        if (b0 >= 0xC2 && b0 <= 0xDF && remaining >= 2) {
+            int b1 = buffer.get(pos + 1);
+            if (isContinuation(b1)) {
+                return ((b0 & 0x1F) << 6 | (b1 & 0x3F)) | 2 << 24;
+            }
+        } else if (b0 >= 0xE0 && b0 <= 0xEF && remaining >= 3) {
+            int b1 = buffer.get(pos + 1);
+            int b2 = buffer.get(pos + 2);
+            if (isContinuation(b1) && isContinuation(b2)) {
+                int codePoint = (b0 & 0x0F) << 12 | (b1 & 0x3F) << 6 | (b2 & 0x3F);
+                if (codePoint >= 0x800 && !Character.isSurrogate((char) codePoint)) {
+                    return codePoint | 3 << 24;
+                }
+            }
+        } else if (b0 >= 0xF0 && b0 <= 0xF4 && remaining >= 4) {
+            int b1 = buffer.get(pos + 1);
+            int b2 = buffer.get(pos + 2);
+            int b3 = buffer.get(pos + 3);
+            if (isContinuation(b1) && isContinuation(b2) && isContinuation(b3)) {
+                int codePoint = (b0 & 0x07) << 18 | (b1 & 0x3F) << 12 | (b2 & 0x3F) << 6 | (b3 & 0x3F);
+                if (codePoint >= 0x10000 && codePoint <= Character.MAX_CODE_POINT) {
+                    return codePoint | 4 << 24;
+                }
+            }
+        }
+        return REPLACEMENT | 1 << 24;
+    }
+
+    private static boolean isContinuation(int b) {
+        return (b & 0xC0) == 0x80;
+    }
+
+    /**
+     * Returns whether this view's bytes start with {@code prefix}'s bytes.
+     *
+     * @param prefix the prefix
+     * @return whether this text starts with {@code prefix}
+     */
+    public boolean startsWith(Utf8View prefix) {
+        return prefix.length <= length && mismatch(prefix, prefix.length) < 0;
+    }
+
+    /**
+     * Returns whether this text starts with {@code prefix}, comparing code
+     * points without decoding this view to a string.
+     *
+     * @param prefix the prefix
+     * @return whether this text starts with {@code prefix}
+     */
+    public boolean startsWith(CharSequence prefix) {
+        return matchChars(prefix) >= 0;
+    }
+
+    /**
+     * Returns whether this view spells exactly {@code text}, comparing code
+     * points without decoding this view to a string.
+     *
+     * @param text the text
+     * @return whether the contents are equal
+     */
+    public boolean contentEquals(CharSequence text) {
+        if (text instanceof Utf8View view) {
+            return equals(view);
+        }
+        return matchChars(text) == offset + length;
+    }
+
+    /**
+     * Matches {@code text} against the start of this view.
+     *
+     * @return the absolute position after the match, or -1
+     */
+    private int matchChars(CharSequence text) {
+        int pos = offset;
+        int end = offset + length;
+        int n = text.length();
+        for (int i = 0; i < n; ) {
+            if (pos >= end) {
+                return -1;
+            }
+            char c = text.charAt(i);
+            int b = buffer.get(pos);
+            if (c < 0x80 && b >= 0) {
+                // ASCII on both sides
+                if (b != c) {
+                    return -1;
+                }
+                pos++;
+                i++;
+                continue;
+            }
+            int codePoint = Character.codePointAt(text, i);
+            int decoded = decode(pos);
+            if ((decoded & 0xFFFFFF) != codePoint) {
+                return -1;
+            }
+            pos += decoded >>> 24;
+            i += Character.charCount(codePoint);
+        }
+        return pos;
+    }
+
+    /**
+     * Returns the index of the first of the first {@code n} bytes that
+     * differs between the two views, or -1.
+     */
+    private int mismatch(Utf8View that, int n) {
+        ByteBuffer a = buffer;
+        ByteBuffer b = that.buffer;
+        int i = 0;
+        if (a.order() == b.order()) {
+            for (; i + Long.BYTES <= n; i += Long.BYTES) {
+                if (a.getLong(offset + i) != b.getLong(that.offset + i)) {
+                    break;
+                }
+            }
+        }
+        for (; i < n; i++) {
+            if (a.get(offset + i) != b.get(that.offset + i)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        return o instanceof Utf8View that && length == that.length
+                && (!hashed || !that.hashed || hash == that.hash)
+                && mismatch(that, length) < 0;
+    }
+
+    @Override
+    public int hashCode() {
+        if (!hashed) {
+            hash = computeHash();
+            hashed = true;
+        }
+        return hash;
+    }
+
+    private int computeHash() {
+        int h = 0;
+        ByteBuffer buffer = this.buffer;
+        int end = offset + length;
+        if (isAscii()) {
+            for (int i = offset; i < end; i++) {
+                h = 31 * h + buffer.get(i);
+            }
+            return h;
+        }
+        for (int i = offset; i < end; ) {
+            int decoded = decode(i);
+            int codePoint = decoded & 0xFFFFFF;
+            if (Character.isBmpCodePoint(codePoint)) {
+                h = 31 * h + codePoint;
+            } else {
+                h = 31 * h + Character.highSurrogate(codePoint);
+                h = 31 * h + Character.lowSurrogate(codePoint);
+            }
+            i += decoded >>> 24;
+        }
+        return h;
+    }
+
+    @Override
+    public int compareTo(Utf8View that) {
+        int n = Math.min(length, that.length);
+        int i = mismatch(that, n);
+        if (i < 0) {
+            return Integer.compare(length, that.length);
+        }
+        return Integer.compare(buffer.get(offset + i) & 0xFF, that.buffer.get(that.offset + i) & 0xFF);
+    }
+
+    /**
+     * Decodes the text into a new string.
+     *
+     * @return the text
+     */
+    @Override
+    public String toString() {
+        if (isAscii()) {
+            if (buffer.hasArray()) {
+                return new String(buffer.array(), buffer.arrayOffset() + offset, length, StandardCharsets.ISO_8859_1);
+            }
+            byte[] bytes = new byte[length];
+            buffer.get(offset, bytes);
+            return new String(bytes, StandardCharsets.ISO_8859_1);
+        }
+        StringBuilder sb = new StringBuilder(length());
+        for (int i = offset, end = offset + length; i < end; ) {
+            int decoded = decode(i);
+            sb.appendCodePoint(decoded & 0xFFFFFF);
+            i += decoded >>> 24;
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,5 @@
+/**
+ * Adaptors bridging {@code java.io} streams, NIO channels and byte buffers
+ * without intermediate copies where the platform allows it.
+ */
+package io.github.atcurtis.crap4java.adaptors.io;
@@ -0,0 +1,55 @@
+package io.github.atcurtis.crap4java.adaptors.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * The search for an adaptor from one class to another. Resolutions are
+ * cached, so this is recorded once per pair of classes and registry
+ * generation; a steady stream of them means the cache is being defeated.
+ *
+ * <p>Usage: create the event, {@link #begin()} it before the search and
+ * {@link #emit(Class, Class, String) emit} it afterwards.
+ */
+@Name("io.github.atcurtis.crap4java.AdaptorResolution")
+@Label("Adaptor Resolution")
+@Category({"crap4java", "Adaptors"})
+@Description("Resolution of an adaptor on a cache miss")
+public final class AdaptorResolutionEvent extends Event {
+
+    @Label("Source Class")
+    private Class<?> source;
+
+    @Label("Target Class")
+    private Class<?> target;
+
+    @Label("Outcome")
+    @Description("identity, adaptor or none")
+    private String outcome;
+
+    /**
+     * Creates an event; it is committed only by
+     * {@link #emit(Class, Class, String)}.
+     */
+    public AdaptorResolutionEvent() {
+    }
+
+    /**
+     * Ends the search and commits it if it is enabled.
+     *
+     * @param source  the class adapted from
+     * @param target  the class adapted to
+     * @param outcome {@code "identity"}, {@code "adaptor"} or {@code "none"}
+     */
+    public void emit(Class<?> source, Class<?> target, String outcome) {
+        if (shouldCommit()) {
+            this.source = source;
+            this.target = target;
+            this.outcome = outcome;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package io.github.atcurtis.crap4java.adaptors.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * A batching sink handing a batch downstream; the duration is the time spent
+ * downstream.
+ *
+ * <p>Usage: create the event, {@link #begin()} it before the hand-off and
+ * {@link #emit(String, int, long, boolean) emit} it afterwards.
+ */
+@Name("io.github.atcurtis.crap4java.BatchFlush")
+@Label("Batch Flush")
+@Category({"crap4java", "Parts", "Batch"})
+@Description("A batch handed to the downstream consumer")
+public final class BatchFlushEvent extends Event {
+
+    @Label("Trigger")
+    @Description("What caused the flush")
+    private String trigger;
+
+    @Label("Items")
+    private int items;
+
+    @Label("Batch Latency")
+    @Description("Time from the first item of the batch to the end of the flush")
+    @Timespan(Timespan.NANOSECONDS)
+    private long latency;
+
+    @Label("Failed")
+    @Description("Whether the downstream consumer threw")
+    private boolean failed;
+
+    /**
+     * Creates an event; it is committed only by
+     * {@link #emit(String, int, long, boolean)}.
+     */
+    public BatchFlushEvent() {
+    }
+
+    /**
+     * Ends the flush and commits it if it is enabled.
+     *
+     * @param trigger      the name of what caused the flush
+     * @param items        the number of items in the batch
+     * @param latencyNanos the time from the first item to the end of the flush
+     * @param failed       {@code true} if the downstream consumer threw
+     */
+    public void emit(String trigger, int items, long latencyNanos, boolean failed) {
+        if (shouldCommit()) {
+            this.trigger = trigger;
+            this.items = items;
+            this.latency = latencyNanos;
+            this.failed = failed;
+            commit();
+        }
+    }
+}
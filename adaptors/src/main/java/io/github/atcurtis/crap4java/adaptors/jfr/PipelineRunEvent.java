@@ -0,0 +1,60 @@
+package io.github.atcurtis.crap4java.adaptors.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Threshold;
+
+/**
+ * One terminal operation of an adaptor pipeline, from the first element the
+ * source pushes to the last, including runs that end in an exception. A
+ * pipeline reading from others ({@code map}, {@code flatMap} ...) is
+ * recorded as one run of the outermost pipeline.
+ *
+ * <p>Usage: create the event, {@link #begin()} it before running the
+ * pipeline and {@link #emit(Class, boolean, Throwable) emit} it in a
+ * {@code finally} block.
+ */
+@Name("io.github.atcurtis.crap4java.PipelineRun")
+@Label("Pipeline Run")
+@Category({"crap4java", "Adaptors"})
+@Description("A terminal operation of an adaptor pipeline")
+@Threshold("10 ms")
+public final class PipelineRunEvent extends Event {
+
+    @Label("Pipeline Class")
+    private Class<?> pipeline;
+
+    @Label("Completed")
+    @Description("Whether the source was exhausted rather than stopped")
+    private boolean completed;
+
+    @Label("Failure")
+    @Description("The class of the exception that ended the run, if any")
+    private Class<?> failure;
+
+    /**
+     * Creates an event; it is committed only by
+     * {@link #emit(Class, boolean, Throwable)}.
+     */
+    public PipelineRunEvent() {
+    }
+
+    /**
+     * Ends the run and commits it if it is enabled and above its threshold.
+     *
+     * @param pipeline  the class of the pipeline that ran
+     * @param completed {@code true} if the source was exhausted
+     * @param failure   the exception the run ended in, or {@code null}
+     */
+    public void emit(Class<?> pipeline, boolean completed, Throwable failure) {
+        if (shouldCommit()) {
+            this.pipeline = pipeline;
+            this.completed = completed;
+            this.failure = failure == null ? null : failure.getClass();
+            commit();
+        }
+    }
+}
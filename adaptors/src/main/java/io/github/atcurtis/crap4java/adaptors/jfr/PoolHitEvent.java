@@ -0,0 +1,50 @@
+package io.github.atcurtis.crap4java.adaptors.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * An object pool handing out a pooled object. Fired on every hit, so it is
+ * disabled by default.
+ */
+@Name("io.github.atcurtis.crap4java.PoolHit")
+@Label("Pool Hit")
+@Category({"crap4java", "Parts", "Pool"})
+@Description("An object acquired from a pool without creating it")
+@Enabled(false)
+@StackTrace(false)
+public final class PoolHitEvent extends Event {
+
+    @Label("Object Class")
+    private Class<?> objectClass;
+
+    @Label("Thread Cache")
+    @Description("Whether the object came from the acquiring thread's cache rather than the shared slots")
+    private boolean threadCache;
+
+    /**
+     * Creates an event; it is committed only by {@link #emit(Class, boolean)}.
+     */
+    public PoolHitEvent() {
+    }
+
+    /**
+     * Commits a hit if the event is enabled.
+     *
+     * @param objectClass the class of the pooled object
+     * @param threadCache {@code true} for a thread cache hit
+     */
+    public static void emit(Class<?> objectClass, boolean threadCache) {
+        PoolHitEvent event = new PoolHitEvent();
+        if (event.shouldCommit()) {
+            event.objectClass = objectClass;
+            event.threadCache = threadCache;
+            event.commit();
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package io.github.atcurtis.crap4java.adaptors.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * An object pool creating an object because it had none to hand out; the
+ * duration is the time spent in the factory.
+ *
+ * <p>Usage: create the event, {@link #begin()} it before calling the factory
+ * and {@link #emit(Class) emit} it afterwards.
+ */
+@Name("io.github.atcurtis.crap4java.PoolMiss")
+@Label("Pool Miss")
+@Category({"crap4java", "Parts", "Pool"})
+@Description("An object created because the pool was empty")
+public final class PoolMissEvent extends Event {
+
+    @Label("Object Class")
+    private Class<?> objectClass;
+
+    /**
+     * Creates an event; it is committed only by {@link #emit(Class)}.
+     */
+    public PoolMissEvent() {
+    }
+
+    /**
+     * Ends the creation and commits it if it is enabled.
+     *
+     * @param objectClass the class of the created object
+     */
+    public void emit(Class<?> objectClass) {
+        if (shouldCommit()) {
+            this.objectClass = objectClass;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package io.github.atcurtis.crap4java.adaptors.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A queue polled while empty. Consumers that spin on {@code poll} fire this
+ * at a high rate, so it is disabled by default.
+ */
+@Name("io.github.atcurtis.crap4java.QueueEmpty")
+@Label("Queue Empty")
+@Category({"crap4java", "Parts", "Queue"})
+@Description("A poll that found the queue empty")
+@Enabled(false)
+@StackTrace(false)
+public final class QueueEmptyEvent extends Event {
+
+    @Label("Queue Class")
+    private Class<?> queueClass;
+
+    /**
+     * Creates an event; it is committed only by {@link #emit(Class)}.
+     */
+    public QueueEmptyEvent() {
+    }
+
+    /**
+     * Commits an empty poll if the event is enabled.
+     *
+     * @param queueClass the class of the queue
+     */
+    public static void emit(Class<?> queueClass) {
+        QueueEmptyEvent event = new QueueEmptyEvent();
+        if (event.shouldCommit()) {
+            event.queueClass = queueClass;
+            event.commit();
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package io.github.atcurtis.crap4java.adaptors.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * A bounded queue refusing an element because it was full. The stack trace
+ * shows the producer that has to back off.
+ */
+@Name("io.github.atcurtis.crap4java.QueueFull")
+@Label("Queue Full")
+@Category({"crap4java", "Parts", "Queue"})
+@Description("An offer refused by a full bounded queue")
+public final class QueueFullEvent extends Event {
+
+    @Label("Queue Class")
+    private Class<?> queueClass;
+
+    @Label("Capacity")
+    private int capacity;
+
+    /**
+     * Creates an event; it is committed only by {@link #emit(Class, int)}.
+     */
+    public QueueFullEvent() {
+    }
+
+    /**
+     * Commits a refused offer if the event is enabled.
+     *
+     * @param queueClass the class of the queue
+     * @param capacity   the capacity of the queue
+     */
+    public static void emit(Class<?> queueClass, int capacity) {
+        QueueFullEvent event = new QueueFullEvent();
+        if (event.shouldCommit()) {
+            event.queueClass = queueClass;
+            event.capacity = capacity;
+            event.commit();
+        }
+    }
+}
@@ -0,0 +1,15 @@
+/**
+ * Java Flight Recorder events emitted by the adaptor core and the parts built
+ * on it, so that time spent inside adaptor layers shows up in a recording.
+ *
+ * <p>Every event is named {@code io.github.atcurtis.crap4java.<Event>} and
+ * filed under the {@code crap4java} category. Emitters create the event,
+ * check {@link jdk.jfr.Event#shouldCommit()} and only then fill in and commit
+ * it; while no recording enables an event, the JIT reduces that to a test of
+ * a constant and eliminates the allocation, so instrumented code costs
+ * nothing. Events fired per element or per object ({@link PoolHitEvent},
+ * {@link QueueEmptyEvent}) are disabled by default and pipeline runs are only
+ * recorded above a threshold; they can be enabled with a custom
+ * {@code .jfc} file or {@link jdk.jfr.Recording#enable(Class)}.
+ */
+package io.github.atcurtis.crap4java.adaptors.jfr;
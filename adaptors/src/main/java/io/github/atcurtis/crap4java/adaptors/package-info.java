@@ -0,0 +1,6 @@
+/**
+ * The adaptor core: self-typed ({@code SELF extends Base<SELF>}) bases that let
+ * fluent adaptors and builders be extended without losing their concrete type
+ * and without reflection on the hot path.
+ */
+package io.github.atcurtis.crap4java.adaptors;
@@ -0,0 +1,8 @@
+/**
+ * {@code int}, {@code long} and {@code double} specializations of the
+ * adaptors: sources, sinks and self-typed pipelines that never box.
+ *
+ * <p>Every type in this package is generated from the templates in
+ * {@code src/main/templates}; edit the templates, not the generated code.
+ */
+package io.github.atcurtis.crap4java.adaptors.primitive;
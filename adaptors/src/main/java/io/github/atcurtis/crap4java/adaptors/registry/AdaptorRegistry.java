@@ -0,0 +1,187 @@
+package io.github.atcurtis.crap4java.adaptors.registry;
+
+import io.github.atcurtis.crap4java.adaptors.jfr.AdaptorResolutionEvent;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Registry of adaptor functions keyed by source and target type.
+ *
+ * <p>{@link #adapt(Object, Class)} resolves an adaptor from the run-time class
+ * of the value. The first lookup for a (class, target) pair walks the class
+ * hierarchy: the class itself, then its superclasses and interfaces breadth
+ * first, superclass before interfaces, taking the first type with an adaptor
+ * registered for exactly that target. A value that already is an instance of
+ * the target is returned unchanged. The outcome, including the absence of an
+ * adaptor, is cached in a {@link ClassValue} per target holding a
+ * {@code ClassValue} per source class, so every later lookup is two
+ * identity-keyed reads with no hashing of type pairs and no locking. Each
+ * first lookup is recorded as an
+ * {@link io.github.atcurtis.crap4java.adaptors.jfr.AdaptorResolutionEvent}.
+ *
+ * <p>Because cached resolutions hang off the {@code Class} objects
+ * themselves, they are collected together with their class loader; the
+ * registry never pins a class that it has only seen as a lookup key.
+ * Registered adaptors and their declared types are of course strongly held.
+ *
+ * <p>Registration is expected to happen at start-up and is synchronized. Each
+ * registration publishes a new immutable snapshot of the adaptors together
+ * with a fresh cache, so lookups never observe a partially updated registry
+ * and never need to be invalidated individually.
+ */
+public final class AdaptorRegistry {
+
+    private static final Function<Object, Object> IDENTITY = value -> value;
+    private static final Function<Object, Object> NONE = value -> null;
+
+    private volatile Snapshot snapshot = new Snapshot(Map.of());
+
+    /**
+     * Creates an empty registry.
+     */
+    public AdaptorRegistry() {
+    }
+
+    /**
+     * Registers the adaptor from {@code source} to {@code target}, replacing
+     * any adaptor previously registered for the same pair. The adaptor is used
+     * for instances of {@code source} and of its subtypes unless a subtype has
+     * an adaptor of its own.
+     *
+     * @param source  the type adapted from
+     * @param target  the type adapted to
+     * @param adaptor the function; must not return {@code null}
+     * @param <S>     the source type
+     * @param <T>     the target type
+     * @return this registry
+     */
+    public synchronized <S, T> AdaptorRegistry register(Class<S> source, Class<T> target,
+                                                        Function<? super S, ? extends T> adaptor) {
+        Objects.requireNonNull(source, "source");
+        Objects.requireNonNull(target, "target");
+        Objects.requireNonNull(adaptor, "adaptor");
+        Map<Class<?>, Map<Class<?>, Function<Object, Object>>> byTarget = new HashMap<>(snapshot.adaptors);
+        Map<Class<?>, Function<Object, Object>> bySource = new HashMap<>(byTarget.getOrDefault(target, Map.of()));
+        bySource.put(source, erase(adaptor));
+        byTarget.put(target, Map.copyOf(bySource));
+        snapshot = new Snapshot(Map.copyOf(byTarget));
+        return this;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Function<Object, Object> erase(Function<?, ?> adaptor) {
+        return (Function<Object, Object>) adaptor;
+    }
+
+    /**
+     * Adapts {@code value} to {@code target}.
+     *
+     * @param value  the value to adapt
+     * @param target the type to adapt to
+     * @param <T>    the target type
+     * @return the adapted value
+     * @throws IllegalArgumentException if no adaptor applies to the class of
+     *                                  {@code value}
+     */
+    public <T> T adapt(Object value, Class<T> target) {
+        Function<Object, Object> adaptor = snapshot.resolve(value.getClass(), target);
+        if (adaptor == NONE) {
+            throw new IllegalArgumentException(
+                    "No adaptor from " + value.getClass().getName() + " to " + target.getName());
+        }
+        return target.cast(adaptor.apply(value));
+    }
+
+    /**
+     * Adapts {@code value} to {@code target} if an adaptor applies.
+     *
+     * @param value  the value to adapt
+     * @param target the type to adapt to
+     * @param <T>    the target type
+     * @return the adapted value, or empty if no adaptor applies
+     */
+    public <T> Optional<T> tryAdapt(Object value, Class<T> target) {
+        Function<Object, Object> adaptor = snapshot.resolve(value.getClass(), target);
+        return adaptor == NONE ? Optional.empty() : Optional.of(target.cast(adaptor.apply(value)));
+    }
+
+    /**
+     * Tells whether instances of {@code source} can be adapted to
+     * {@code target}.
+     *
+     * @param source the type adapted from
+     * @param target the type adapted to
+     * @return {@code true} if an adaptor applies, or if no adaptor is needed
+     */
+    public boolean canAdapt(Class<?> source, Class<?> target) {
+        return snapshot.resolve(source, target) != NONE;
+    }
+
+    private static final class Snapshot {
+
+        final Map<Class<?>, Map<Class<?>, Function<Object, Object>>> adaptors;
+        final ClassValue<ClassValue<Function<Object, Object>>> cache;
+
+        Snapshot(Map<Class<?>, Map<Class<?>, Function<Object, Object>>> adaptors) {
+            this.adaptors = adaptors;
+            this.cache = new ClassValue<>() {
+                @Override
+                protected ClassValue<Function<Object, Object>> computeValue(Class<?> target) {
+                    Map<Class<?>, Function<Object, Object>> bySource = adaptors.getOrDefault(target, Map.of());
+                    return new ClassValue<>() {
+                        @Override
+                        protected Function<Object, Object> computeValue(Class<?> source) {
+                            AdaptorResolutionEvent event = new AdaptorResolutionEvent();
+                            event.begin();
+                            Function<Object, Object> adaptor = find(source, target, bySource);
+                            event.emit(source, target,
+                                    adaptor == IDENTITY ? "identity" : adaptor == NONE ? "none" : "adaptor");
+                            return adaptor;
+                        }
+                    };
+                }
+            };
+        }
+
+        Function<Object, Object> resolve(Class<?> source, Class<?> target) {
+            return cache.get(target).get(source);
+        }
+
+        private static Function<Object, Object> find(Class<?> source, Class<?> target,
+                                                     Map<Class<?>, Function<Object, Object>> bySource) {
+            if (target.isAssignableFrom(source)) {
+                return IDENTITY;
+            }
+            if (bySource.isEmpty()) {
+                return NONE;
+            }
+            ArrayDeque<Class<?>> queue = new ArrayDeque<>();
+            Set<Class<?>> seen = new HashSet<>();
+            queue.add(source);
+            while (!queue.isEmpty()) {
+                Class<?> type = queue.poll();
+                if (!seen.add(type)) {
+                    continue;
+                }
+                Function<Object, Object> adaptor = bySource.get(type);
+                if (adaptor != null) {
+                    return adaptor;
+                }
+                if (type.getSuperclass() != null) {
+                    queue.add(type.getSuperclass());
+                }
+                for (Class<?> face : type.getInterfaces()) {
+                    queue.add(face);
+                }
+            }
+            return NONE;
+        }
+    }
+}
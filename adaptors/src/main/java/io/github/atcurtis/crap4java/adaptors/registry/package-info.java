@@ -0,0 +1,5 @@
+/**
+ * Run-time resolution of adaptors between arbitrary types, cached per class
+ * so that a resolved lookup costs no more than a field read.
+ */
+package io.github.atcurtis.crap4java.adaptors.registry;
@@ -0,0 +1,21 @@
+package io.github.atcurtis.crap4java.adaptors.trace;
+
+/**
+ * Receives the timings of traced operations while {@link Tracing} is
+ * enabled.
+ *
+ * <p>Tracers are called on the threads running the operations, possibly
+ * concurrently, so they must be thread-safe and should be cheap; a
+ * {@code LatencyHistogram} per class is a good fit.
+ */
+@FunctionalInterface
+public interface Tracer {
+
+    /**
+     * Records one traced operation.
+     *
+     * @param owner        the class of the adaptor that ran the operation
+     * @param elapsedNanos the time the operation took
+     */
+    void trace(Class<?> owner, long elapsedNanos);
+}
@@ -0,0 +1,153 @@
+package io.github.atcurtis.crap4java.adaptors.trace;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.invoke.MutableCallSite;
+import java.util.Objects;
+
+/**
+ * Process-wide tracing hook that can be switched on during an incident and
+ * off again, at no cost while it is off.
+ *
+ * <p>An instrumented operation brackets its work with {@link #start()} and
+ * {@link #end(Class, long)}:
+ *
+ * <pre>{@code
+ * long start = Tracing.start();
+ * try {
+ *     ... the work ...
+ * } finally {
+ *     Tracing.end(getClass(), start);
+ * }
+ * }</pre>
+ *
+ * Every adaptor pipeline run is bracketed this way. Both methods invoke
+ * the target of a {@link MutableCallSite} through a {@code static final}
+ * invoker, which the JIT compiles like a constant: it inlines the current
+ * target and registers a dependency on the call site instead of checking a
+ * flag. While tracing is off, the targets return {@link #OFF} and do
+ * nothing, so the bracket compiles to no code at all, not even a volatile
+ * read and a branch. {@link #enable(Tracer)} and {@link #disable()} retarget the call
+ * sites and {@linkplain MutableCallSite#syncAll synchronize} them, which
+ * deoptimizes the compiled code that inlined the old targets; it is
+ * recompiled with the new ones. Switching is therefore expensive and meant
+ * for an operator, not for a hot path.
+ *
+ * <p>A {@link java.lang.invoke.SwitchPoint} would serve equally well for
+ * turning tracing on once, but cannot be re-armed, so it could not be turned
+ * off again.
+ */
+public final class Tracing {
+
+    /**
+     * What {@link #start()} returns while tracing is off. It is not zero,
+     * which {@link System#nanoTime()} may return as well.
+     */
+    public static final long OFF = Long.MIN_VALUE;
+
+    private static final MethodType START_TYPE = MethodType.methodType(long.class);
+    private static final MethodType END_TYPE = MethodType.methodType(void.class, Class.class, long.class);
+
+    private static final MethodHandle NANO_TIME;
+    private static final MethodHandle TRACE;
+    private static final MethodHandle OFF_START = MethodHandles.constant(long.class, OFF);
+    private static final MethodHandle OFF_END = MethodHandles.empty(END_TYPE);
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            NANO_TIME = lookup.findStatic(System.class, "nanoTime", START_TYPE);
+            TRACE = lookup.findStatic(Tracing.class, "trace",
+                    MethodType.methodType(void.class, Tracer.class, Class.class, long.class));
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private static final MutableCallSite START = new MutableCallSite(OFF_START);
+    private static final MutableCallSite END = new MutableCallSite(OFF_END);
+    private static final MethodHandle START_INVOKER = START.dynamicInvoker();
+    private static final MethodHandle END_INVOKER = END.dynamicInvoker();
+
+    private static volatile Tracer tracer;
+
+    private Tracing() {
+    }
+
+    /**
+     * Starts passing every traced operation to {@code tracer}, replacing any
+     * tracer already enabled.
+     *
+     * @param tracer the tracer
+     */
+    public static synchronized void enable(Tracer tracer) {
+        Objects.requireNonNull(tracer, "tracer");
+        retarget(NANO_TIME, MethodHandles.insertArguments(TRACE, 0, tracer));
+        Tracing.tracer = tracer;
+    }
+
+    /**
+     * Stops tracing. Operations already started may still reach the
+     * previous tracer.
+     */
+    public static synchronized void disable() {
+        retarget(OFF_START, OFF_END);
+        tracer = null;
+    }
+
+    /**
+     * Returns the enabled tracer.
+     *
+     * @return the tracer, or {@code null} if tracing is off
+     */
+    public static Tracer tracer() {
+        return tracer;
+    }
+
+    /**
+     * Marks the start of a traced operation.
+     *
+     * @return the start time to pass to {@link #end(Class, long)};
+     *         {@link #OFF} while tracing is off
+     */
+    public static long start() {
+        try {
+            return (long) START_INVOKER.invokeExact();
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Marks the end of a traced operation, passing its duration to the
+     * tracer. Does nothing while tracing is off, nor for an operation that
+     * started while it was off.
+     *
+     * @param owner the class of the adaptor that ran the operation
+     * @param start the value returned by {@link #start()}
+     */
+    public static void end(Class<?> owner, long start) {
+        try {
+            END_INVOKER.invokeExact(owner, start);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void retarget(MethodHandle start, MethodHandle end) {
+        START.setTarget(start);
+        END.setTarget(end);
+        MutableCallSite.syncAll(new MutableCallSite[] {START, END});
+    }
+
+    private static void trace(Tracer tracer, Class<?> owner, long start) {
+        if (start != OFF) {
+            tracer.trace(owner, System.nanoTime() - start);
+        }
+    }
+}
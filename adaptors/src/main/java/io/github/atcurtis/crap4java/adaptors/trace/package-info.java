@@ -0,0 +1,5 @@
+/**
+ * A tracing hook switched on and off at run time through mutable call sites,
+ * so that while it is off the instrumented code compiles to nothing.
+ */
+package io.github.atcurtis.crap4java.adaptors.trace;
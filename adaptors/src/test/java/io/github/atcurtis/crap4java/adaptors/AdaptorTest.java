@@ -0,0 +1,111 @@
+package io.github.atcurtis.crap4java.adaptors;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AdaptorTest {
+
+    @Test
+    void fusesTypeChangingAndTypePreservingStages() {
+        List<String> words = List.of("alpha", "beta", "gamma", "delta", "epsilon");
+        Pipeline<Integer> lengths = Pipeline.from(words)
+                .filter(w -> w.contains("l"))
+                .map(String::length)
+                .skip(1)
+                .limit(2);
+        assertEquals(List.of(5, 7), lengths.toList());
+        assertEquals(2, lengths.count());
+        assertEquals(12, lengths.mapToInt(Integer::intValue).sum());
+    }
+
+    @Test
+    void flatMapRunsInnerSourcesInline() {
+        Pipeline<Character> chars = Pipeline.of("ab", "", "cde")
+                .flatMap(s -> sink -> {
+                    for (int i = 0; i < s.length(); i++) {
+                        if (!sink.accept(s.charAt(i))) {
+                            return false;
+                        }
+                    }
+                    return true;
+                });
+        assertEquals(List.of('a', 'b', 'c', 'd', 'e'), chars.toList());
+        assertEquals(List.of('a', 'b', 'c'), chars.limit(3).toList());
+    }
+
+    @Test
+    void limitStopsAnInfiniteSourceAndAnIterator() {
+        assertEquals(List.of(1, 2, 4, 8), Pipeline.from(Source.iterate(1, v -> v * 2)).limit(4).toList());
+
+        Iterator<Integer> iterator = List.of(1, 2, 3, 4).iterator();
+        assertEquals(Optional.of(2), Pipeline.from(Source.from(iterator)).filter(v -> v % 2 == 0).findFirst());
+        assertEquals(3, iterator.next());
+    }
+
+    @Test
+    void shortCircuitTerminalsAfterALimit() {
+        assertTrue(Pipeline.of(1, 2).limit(2).allMatch(x -> true));
+        assertTrue(Pipeline.of(1, 2).limit(1).allMatch(x -> x == 1));
+        assertFalse(Pipeline.of(1, 2).limit(2).allMatch(x -> x == 1));
+        assertFalse(Pipeline.of(1, 2).limit(1).anyMatch(x -> false));
+        assertFalse(Pipeline.of(1, 2).limit(2).anyMatch(x -> x == 3));
+        assertTrue(Pipeline.of(1, 2).limit(2).anyMatch(x -> x == 2));
+        assertEquals(Optional.empty(), Pipeline.of(1, 2).limit(0).findFirst());
+        assertEquals(Optional.empty(), Pipeline.of(1, 2).limit(1).filter(x -> x == 2).findFirst());
+        assertEquals(Optional.of(1), Pipeline.of(1, 2).limit(2).findFirst());
+        // an inner limit ends the inner source only
+        assertEquals(List.of(1, 3), Pipeline.of(1, 3).flatMap(x -> Pipeline.of(x, x + 1).limit(1).asSource())
+                .toList());
+    }
+
+    @Test
+    void terminals() {
+        Pipeline<String> p = Pipeline.of("x", "yy", "zzz");
+        assertEquals("xyyzzz", p.reduce("", String::concat));
+        assertTrue(p.anyMatch(s -> s.length() == 2));
+        assertFalse(p.allMatch(s -> s.length() < 3));
+        assertEquals(Set.of(1, 2, 3), p.map(String::length).collect(Collectors.toSet()));
+        assertEquals(6.0, p.mapToDouble(String::length).sum());
+        assertEquals(List.of("1", "9"), p.mapToLong(String::length).filter(v -> v != 2).map(v -> v * v)
+                .mapToObj(Long::toString).toList());
+        // type-preserving stages modify the pipeline they are called on
+        assertEquals(Optional.empty(), p.filter(String::isEmpty).findFirst());
+        assertEquals(0, p.count());
+    }
+
+    @Test
+    void subclassesKeepTheirTypeThroughTheChain() {
+        final class Lines extends Adaptor<String, Lines> {
+            Lines(List<String> lines) {
+                super(Source.from(lines));
+            }
+
+            Lines nonBlank() {
+                return filter(s -> !s.isBlank());
+            }
+
+            Lines trimmed() {
+                return then(downstream -> line -> downstream.accept(line.strip()));
+            }
+        }
+        List<String> seen = new ArrayList<>();
+        List<String> result = new Lines(List.of(" a ", "  ", "b", "c "))
+                .nonBlank()
+                .peek(seen::add)
+                .trimmed()
+                .limit(2)
+                .toList();
+        assertEquals(List.of("a", "b"), result);
+        assertEquals(List.of(" a ", "b"), seen);
+    }
+}
@@ -0,0 +1,136 @@
+package io.github.atcurtis.crap4java.adaptors.async;
+
+import io.github.atcurtis.crap4java.adaptors.Source;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AsyncAdaptorTest {
+
+    @Test
+    void runsOnVirtualThreads() throws Exception {
+        AsyncAdaptor adaptor = AsyncAdaptor.create("test", 1);
+
+        assertTrue(adaptor.supply(() -> Thread.currentThread().isVirtual()).get(5, TimeUnit.SECONDS));
+        assertTrue(adaptor.supply(() -> Thread.currentThread().getName()).get(5, TimeUnit.SECONDS)
+                .startsWith("test-"));
+    }
+
+    @Test
+    void capsConcurrency() {
+        AsyncAdaptor adaptor = AsyncAdaptor.create("capped", 4);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+        Function<Integer, CompletableFuture<Integer>> slow = adaptor.adapt(value -> {
+            peak.accumulateAndGet(running.incrementAndGet(), Math::max);
+            Thread.sleep(5);
+            running.decrementAndGet();
+            return value * 2;
+        });
+
+        List<CompletableFuture<Integer>> futures = IntStream.range(0, 64).boxed().map(slow).toList();
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+
+        assertEquals(126, futures.get(63).join());
+        assertTrue(peak.get() <= 4, "peak " + peak.get());
+        assertEquals(0, adaptor.running());
+    }
+
+    @Test
+    void propagatesFailures() {
+        AsyncAdaptor adaptor = AsyncAdaptor.create("failing", 2);
+        CompletableFuture<Object> future = adaptor.supply(() -> {
+            throw new IOException("boom");
+        });
+
+        ExecutionException e = assertThrows(ExecutionException.class, () -> future.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(IOException.class, e.getCause());
+    }
+
+    @Test
+    void cancellationInterruptsTheCall() throws InterruptedException {
+        AsyncAdaptor adaptor = AsyncAdaptor.create("cancelled", 1);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch interrupted = new CountDownLatch(1);
+        CompletableFuture<Object> future = adaptor.supply(() -> {
+            started.countDown();
+            try {
+                Thread.sleep(60_000);
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+            }
+            return null;
+        });
+
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        future.cancel(true);
+        assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void publisherHonoursDemand() throws InterruptedException {
+        AsyncAdaptor adaptor = AsyncAdaptor.create("publisher", 1);
+        AtomicInteger pulled = new AtomicInteger();
+        Source<Integer> source = sink -> {
+            for (int i = 0; i < 10; i++) {
+                pulled.incrementAndGet();
+                if (!sink.accept(i)) {
+                    return false;
+                }
+            }
+            return true;
+        };
+        List<Integer> received = new ArrayList<>();
+        CountDownLatch done = new CountDownLatch(1);
+        CountDownLatch three = new CountDownLatch(3);
+        Flow.Subscription[] subscription = new Flow.Subscription[1];
+
+        adaptor.publish(source).subscribe(new Flow.Subscriber<Integer>() {
+            @Override
+            public void onSubscribe(Flow.Subscription s) {
+                subscription[0] = s;
+                s.request(3);
+            }
+
+            @Override
+            public void onNext(Integer item) {
+                received.add(item);
+                three.countDown();
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                done.countDown();
+            }
+
+            @Override
+            public void onComplete() {
+                done.countDown();
+            }
+        });
+
+        assertTrue(three.await(5, TimeUnit.SECONDS));
+        Thread.sleep(50);
+        assertEquals(4, pulled.get());
+        assertEquals(List.of(0, 1, 2), List.copyOf(received));
+
+        subscription[0].request(Long.MAX_VALUE);
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals(10, received.size());
+    }
+}
@@ -0,0 +1,168 @@
+package io.github.atcurtis.crap4java.adaptors.flow;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PublisherTest {
+
+    private static final List<Integer> THOUSAND = IntStream.range(0, 1000).boxed().toList();
+
+    /**
+     * Records every signal and requests only when told to.
+     */
+    static final class Recorder<T> implements Flow.Subscriber<T> {
+        final List<T> items = new ArrayList<>();
+        final AtomicReference<Throwable> error = new AtomicReference<>();
+        final AtomicInteger completions = new AtomicInteger();
+        Flow.Subscription subscription;
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+        }
+
+        @Override
+        public void onNext(T item) {
+            items.add(item);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            error.set(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            completions.incrementAndGet();
+        }
+    }
+
+    @Test
+    void emitsOnlyWhatWasRequested() {
+        Recorder<Integer> recorder = new Recorder<>();
+        IteratorPublisher.of(THOUSAND).executor(Runnable::run).subscribe(recorder);
+
+        recorder.subscription.request(3);
+        assertEquals(List.of(0, 1, 2), recorder.items);
+        recorder.subscription.request(2);
+        assertEquals(5, recorder.items.size());
+        assertEquals(0, recorder.completions.get());
+
+        recorder.subscription.request(Long.MAX_VALUE);
+        assertEquals(THOUSAND, recorder.items);
+        assertEquals(1, recorder.completions.get());
+    }
+
+    @Test
+    void batchesAcrossExecutorTasks() throws Exception {
+        for (int prefetch : new int[] {1, 7, 256}) {
+            List<Integer> received = new ArrayList<>();
+            BatchingSubscriber<Integer> subscriber = new BatchingSubscriber<>(received::add, prefetch);
+            IteratorPublisher.of(THOUSAND).batchSize(64).subscribe(subscriber);
+
+            subscriber.completion().get(5, TimeUnit.SECONDS);
+            assertEquals(THOUSAND, received, "prefetch " + prefetch);
+        }
+    }
+
+    @Test
+    void synchronousExecutorDoesNotRecursePerBatch() throws Exception {
+        AtomicInteger count = new AtomicInteger();
+        BatchingSubscriber<Integer> subscriber = new BatchingSubscriber<>(i -> count.incrementAndGet() < 1_000_000);
+        SupplierPublisher.of(() -> 1).executor(Runnable::run).batchSize(1).subscribe(subscriber);
+
+        subscriber.completion().get(5, TimeUnit.SECONDS);
+        assertEquals(1_000_000, count.get());
+    }
+
+    @Test
+    void supplierNullCompletes() throws Exception {
+        Iterator<String> values = List.of("a", "b").iterator();
+        List<String> received = new ArrayList<>();
+        BatchingSubscriber<String> subscriber = new BatchingSubscriber<>(received::add, 1);
+        SupplierPublisher.of(() -> values.hasNext() ? values.next() : null).subscribe(subscriber);
+
+        subscriber.completion().get(5, TimeUnit.SECONDS);
+        assertEquals(List.of("a", "b"), received);
+    }
+
+    @Test
+    void queueDrainsThenCompletesOnClose() throws Exception {
+        LinkedBlockingQueue<Integer> queue = new LinkedBlockingQueue<>();
+        QueuePublisher<Integer> publisher = QueuePublisher.of(queue).pollInterval(1, TimeUnit.MILLISECONDS);
+        List<Integer> received = new ArrayList<>();
+        BatchingSubscriber<Integer> subscriber = new BatchingSubscriber<>(received::add, 4);
+        publisher.subscribe(subscriber);
+
+        for (int i = 0; i < 100; i++) {
+            queue.put(i);
+        }
+        publisher.close();
+
+        subscriber.completion().get(5, TimeUnit.SECONDS);
+        assertEquals(THOUSAND.subList(0, 100), received);
+    }
+
+    @Test
+    void cancelledQueueSubscriptionStopsSignallingAndPolling() throws Exception {
+        LinkedBlockingQueue<Integer> queue = new LinkedBlockingQueue<>();
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        QueuePublisher<Integer> publisher = QueuePublisher.of(queue).executor(executor)
+                .pollInterval(1, TimeUnit.MILLISECONDS);
+        Recorder<Integer> recorder = new Recorder<>();
+        publisher.subscribe(recorder);
+        recorder.subscription.request(1);
+        Thread.sleep(20);
+
+        recorder.subscription.cancel();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+        queue.put(1);
+        publisher.close();
+        assertEquals(List.of(), recorder.items);
+        assertEquals(0, recorder.completions.get());
+        assertEquals(1, queue.size());
+    }
+
+    @Test
+    void failuresReachTheSubscriber() {
+        Recorder<Integer> bad = new Recorder<>();
+        IteratorPublisher.of(THOUSAND).executor(Runnable::run).subscribe(bad);
+        bad.subscription.request(0);
+        assertInstanceOf(IllegalArgumentException.class, bad.error.get());
+
+        Iterator<Integer> iterator = THOUSAND.iterator();
+        IteratorPublisher<Integer> once = IteratorPublisher.of(iterator).executor(Runnable::run);
+        Recorder<Integer> first = new Recorder<>();
+        once.subscribe(first);
+        first.subscription.request(1);
+        Recorder<Integer> second = new Recorder<>();
+        once.subscribe(second);
+        second.subscription.request(1);
+        assertInstanceOf(IllegalStateException.class, second.error.get());
+
+        BatchingSubscriber<Integer> failing = new BatchingSubscriber<>(i -> {
+            throw new UnsupportedOperationException();
+        });
+        IteratorPublisher.of(THOUSAND).executor(Runnable::run).subscribe(failing);
+        ExecutionException e = assertThrows(ExecutionException.class, () -> failing.completion().get());
+        assertInstanceOf(UnsupportedOperationException.class, e.getCause());
+    }
+}
@@ -0,0 +1,168 @@
+package io.github.atcurtis.crap4java.adaptors.hidden;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.function.LongConsumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HiddenAdaptorFactoryTest {
+
+    private final HiddenAdaptorFactory factory = HiddenAdaptorFactory.create(MethodHandles.lookup());
+
+    interface Calculator {
+        long add(long a, int b);
+
+        double scale(double value, float factor, byte shift);
+
+        CharSequence describe(String prefix, char suffix);
+
+        void record(String event);
+
+        default String name() {
+            return "calculator";
+        }
+    }
+
+    static final class Engine {
+        final List<String> events = new ArrayList<>();
+
+        public long add(long a, int b) {
+            return a + b;
+        }
+
+        public double scale(double value, float factor, byte shift) {
+            return value * factor + shift;
+        }
+
+        public String describe(String prefix, char suffix) {
+            return prefix + suffix;
+        }
+
+        public boolean record(String event) {
+            return events.add(event);
+        }
+    }
+
+    static final class NamedEngine {
+        public long add(long a, int b) {
+            return a - b;
+        }
+
+        public double scale(double value, float factor, byte shift) {
+            return 0;
+        }
+
+        public String describe(String prefix, char suffix) {
+            return "";
+        }
+
+        public void record(String event) {
+        }
+
+        public String name() {
+            return "named";
+        }
+    }
+
+    interface Counter {
+        int next();
+    }
+
+    @Test
+    void delegatesEveryKindOfParameterAndReturn() {
+        Engine engine = new Engine();
+        Calculator calculator = factory.adapt(Calculator.class, engine);
+
+        assertEquals(Long.MAX_VALUE, calculator.add(Long.MAX_VALUE - 5, 5));
+        assertEquals(8.0, calculator.scale(2.5, 2.0f, (byte) 3));
+        assertEquals("id:", calculator.describe("id", ':').toString());
+        calculator.record("start");
+        assertEquals(List.of("start"), engine.events);
+        assertEquals("calculator", calculator.name());
+        assertTrue(calculator.getClass().isHidden());
+    }
+
+    @Test
+    void delegateOverridesDefaultMethods() {
+        assertEquals("named", factory.adapt(Calculator.class, new NamedEngine()).name());
+    }
+
+    @Test
+    void hiddenClassIsSpunOncePerPair() {
+        Calculator first = factory.adapt(Calculator.class, new Engine());
+        Calculator second = factory.adapt(Calculator.class, new Engine());
+        Calculator other = factory.adapt(Calculator.class, new NamedEngine());
+
+        assertSame(first.getClass(), second.getClass());
+        assertTrue(first.getClass() != other.getClass());
+    }
+
+    interface Sized {
+        int length();
+
+        char charAt(int index);
+
+        String toString();
+    }
+
+    @Test
+    void factoryDelegatesThroughInterfaceTypes() {
+        Function<CharSequence, Sized> sized = factory.factory(Sized.class, CharSequence.class);
+
+        Sized text = sized.apply("text");
+        Sized builder = sized.apply(new StringBuilder("builder"));
+        assertEquals(4, text.length());
+        assertEquals('b', builder.charAt(0));
+        assertEquals("builder", builder.toString());
+        assertSame(text.getClass(), builder.getClass());
+    }
+
+    @Test
+    void rejectsMissingMethodsAndNonInterfaces() {
+        assertThrows(IllegalArgumentException.class, () -> factory.adapt(Counter.class, new Engine()));
+        assertThrows(IllegalArgumentException.class, () -> factory.adapt(Engine.class, new Engine()));
+        assertThrows(IllegalArgumentException.class,
+                () -> HiddenAdaptorFactory.create(MethodHandles.publicLookup()));
+    }
+
+    @Test
+    void instrumentTimesEveryCallIncludingThrowingOnes() {
+        Map<String, List<Long>> timings = new TreeMap<>();
+        Function<Method, LongConsumer> timers = method -> {
+            List<Long> calls = timings.computeIfAbsent(method.getName(), name -> new ArrayList<>());
+            return calls::add;
+        };
+        Engine engine = new Engine();
+        Calculator calculator = factory.instrument(Calculator.class,
+                factory.adapt(Calculator.class, engine), timers);
+
+        assertEquals(42L, calculator.add(40L, 2));
+        assertEquals(7.0, calculator.scale(2.0, 3.0f, (byte) 1));
+        assertEquals("ab", calculator.describe("a", 'b'));
+        calculator.record("x");
+        calculator.record("y");
+        assertEquals("calculator", calculator.name());
+        assertEquals(List.of("x", "y"), engine.events);
+        assertEquals(List.of("add", "describe", "name", "record", "scale"), List.copyOf(timings.keySet()));
+        assertEquals(2, timings.get("record").size());
+        assertTrue(timings.values().stream().flatMap(List::stream).allMatch(nanos -> nanos >= 0));
+
+        Counter failing = factory.instrument(Counter.class, () -> {
+            throw new IllegalStateException("exhausted");
+        }, timers);
+        assertEquals("exhausted", assertThrows(IllegalStateException.class, failing::next).getMessage());
+        assertEquals(1, timings.get("next").size());
+        assertThrows(IllegalArgumentException.class, () -> factory.instrument(Object.class, engine, timers));
+    }
+}
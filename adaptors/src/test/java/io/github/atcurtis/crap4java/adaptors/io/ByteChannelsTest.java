@@ -0,0 +1,145 @@
+package io.github.atcurtis.crap4java.adaptors.io;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class ByteChannelsTest {
+
+    @TempDir
+    Path dir;
+
+    private static byte[] data(int size) {
+        byte[] bytes = new byte[size];
+        new Random(size).nextBytes(bytes);
+        return bytes;
+    }
+
+    @Test
+    void fileToFileIsTransferred() throws IOException {
+        byte[] bytes = data(300_000);
+        Path source = Files.write(dir.resolve("in"), bytes);
+        Path target = dir.resolve("out");
+        TransferMetrics metrics = new TransferMetrics();
+        try (FileInputStream in = new FileInputStream(source.toFile());
+             FileOutputStream out = new FileOutputStream(target.toFile())) {
+            assertEquals(10, in.skip(10));
+            assertEquals(bytes.length - 10, ByteChannels.transfer(in, out, metrics));
+        }
+        assertEquals(bytes.length - 10, metrics.bytesTransferred());
+        assertEquals(0, metrics.bytesCopied());
+        assertArrayEquals(java.util.Arrays.copyOfRange(bytes, 10, bytes.length), Files.readAllBytes(target));
+    }
+
+    @Test
+    void fileToArbitraryStreamIsCountedAsCopied() throws IOException {
+        byte[] bytes = data(70_000);
+        Path source = Files.write(dir.resolve("in"), bytes);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        TransferMetrics metrics = new TransferMetrics();
+        try (FileChannel in = FileChannel.open(source)) {
+            ByteChannels.transfer(in, Channels.newChannel(out), metrics);
+        }
+        assertArrayEquals(bytes, out.toByteArray());
+        assertEquals(bytes.length, metrics.bytesCopied());
+    }
+
+    @Test
+    void fileReportingNoSizeIsReadToItsEnd() throws IOException {
+        Path status = Path.of("/proc/self/status");
+        assumeTrue(Files.isReadable(status), "needs procfs");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        TransferMetrics metrics = new TransferMetrics();
+        try (FileInputStream in = new FileInputStream(status.toFile())) {
+            long n = ByteChannels.transfer(in, out, metrics);
+            assertTrue(n > 0);
+            assertEquals(n, out.size());
+        }
+        assertTrue(out.toString(StandardCharsets.US_ASCII).startsWith("Name:"));
+        assertEquals(out.size(), metrics.bytesCopied());
+    }
+
+    @Test
+    void genericChannelsCopyThroughTheStagingBuffer() throws IOException {
+        byte[] bytes = data(100_000);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        TransferMetrics metrics = new TransferMetrics();
+        ReadableByteChannel in = Channels.newChannel(new ByteArrayInputStream(bytes));
+        assertEquals(bytes.length,
+                ByteChannels.transfer(in, Channels.newChannel(out), ByteBuffer.allocateDirect(4096), metrics));
+        assertArrayEquals(bytes, out.toByteArray());
+        assertEquals(bytes.length, metrics.bytesCopied());
+    }
+
+    @Test
+    void heapBufferStreamsHandOverTheirArray() throws IOException {
+        byte[] bytes = "0123456789".getBytes(StandardCharsets.US_ASCII);
+        TransferMetrics metrics = new TransferMetrics();
+        InputStream in = ByteChannels.newInputStream(ByteBuffer.wrap(bytes, 2, 6), metrics);
+        assertEquals('2', in.read());
+        assertEquals(1, in.skip(1));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        assertEquals(4, ByteChannels.transfer(in, out, metrics));
+        assertEquals("4567", out.toString(StandardCharsets.US_ASCII));
+        assertEquals(4, metrics.bytesTransferred());
+        assertEquals(-1, in.read());
+
+        ByteBuffer direct = ByteBuffer.allocateDirect(5).put(bytes, 0, 5).flip();
+        out.reset();
+        ByteChannels.newInputStream(direct, metrics).transferTo(out);
+        assertEquals("01234", out.toString(StandardCharsets.US_ASCII));
+        assertEquals(5, metrics.bytesCopied());
+    }
+
+    @Test
+    void gatheringWriteAndScatteringRead() throws IOException {
+        Path file = dir.resolve("msg");
+        TransferMetrics metrics = new TransferMetrics();
+        try (FileChannel out = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            ByteBuffer header = ByteBuffer.allocate(4).putInt(0, 5);
+            ByteBuffer body = ByteBuffer.wrap("hello".getBytes(StandardCharsets.US_ASCII));
+            assertEquals(9, ByteChannels.write(out, new ByteBuffer[]{header, body}, metrics));
+        }
+        try (FileChannel in = FileChannel.open(file)) {
+            ByteBuffer header = ByteBuffer.allocate(4);
+            ByteBuffer body = ByteBuffer.allocate(8);
+            assertEquals(9, ByteChannels.read(in, new ByteBuffer[]{header, body}, metrics));
+            assertEquals(5, header.getInt(0));
+            assertEquals("hello", new String(body.array(), 0, body.position(), StandardCharsets.US_ASCII));
+            assertEquals(-1, ByteChannels.read(in, new ByteBuffer[]{ByteBuffer.allocate(1)}, metrics));
+        }
+        assertEquals(18, metrics.bytesTransferred());
+    }
+
+    @Test
+    void bufferChannelCopiesIntoTheCallersBuffer() throws IOException {
+        TransferMetrics metrics = new TransferMetrics();
+        ReadableByteChannel channel = ByteChannels.newChannel(ByteBuffer.wrap(data(10)), metrics);
+        ByteBuffer dst = ByteBuffer.allocate(6);
+        assertEquals(6, channel.read(dst));
+        dst.clear();
+        assertEquals(4, channel.read(dst));
+        assertEquals(-1, channel.read(dst));
+        assertEquals(10, metrics.bytesCopied());
+    }
+}
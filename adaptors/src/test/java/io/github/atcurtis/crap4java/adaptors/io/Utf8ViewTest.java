@@ -0,0 +1,105 @@
+package io.github.atcurtis.crap4java.adaptors.io;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class Utf8ViewTest {
+
+    private static final List<String> SAMPLES = List.of(
+            "", "content-type", "x-request-id: 0123456789abcdef",
+            "café", "naïve résumé", "日本語テキスト", "emoji 😀 and 🎉!", "😀");
+
+    /** Embeds {@code text} between junk bytes in a direct buffer. */
+    private static Utf8View view(String text) {
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer buffer = ByteBuffer.allocateDirect(bytes.length + 6);
+        buffer.put(new byte[]{(byte) 0xFF, 'x', 'y'}).put(bytes).put(new byte[]{'z', (byte) 0xC3, 0});
+        return Utf8View.of(buffer, 3, bytes.length);
+    }
+
+    @Test
+    void readsLikeTheDecodedString() {
+        for (String text : SAMPLES) {
+            Utf8View view = view(text);
+            assertEquals(text, view.toString());
+            assertEquals(text.length(), view.length());
+            assertEquals(text.hashCode(), view.hashCode());
+            for (int i = 0; i < text.length(); i++) {
+                assertEquals(text.charAt(i), view.charAt(i), text);
+            }
+            // backwards access restarts the decoder
+            for (int i = text.length() - 1; i >= 0; i--) {
+                assertEquals(text.charAt(i), view.charAt(i), text);
+            }
+            assertEquals(text.chars().allMatch(c -> c < 0x80), view.isAscii());
+            assertTrue(view.contentEquals(text));
+            assertFalse(view.contentEquals(text + "."));
+            if (!text.isEmpty()) {
+                assertEquals(text.substring(1), view.subSequence(1, text.length()).toString());
+            }
+        }
+    }
+
+    @Test
+    void comparesAndMatchesPrefixesInPlace() {
+        Utf8View header = view("content-type: text/plain");
+        assertTrue(header.startsWith("content-"));
+        assertTrue(header.startsWith(Utf8View.of("content-type")));
+        assertFalse(header.startsWith("content-length"));
+        assertFalse(view("caf").startsWith("café"));
+        assertTrue(view("café au lait").startsWith("café"));
+
+        assertEquals(view("naïve"), Utf8View.of("naïve"));
+        assertNotEquals(view("naïve"), Utf8View.of("naive"));
+        assertTrue(view("abc").compareTo(Utf8View.of("abd")) < 0);
+        assertTrue(view("abc").compareTo(Utf8View.of("ab")) > 0);
+        // byte order is code point order: U+FFFD sorts before U+1F600
+        assertTrue(Utf8View.of("�").compareTo(Utf8View.of("😀")) < 0);
+
+        ByteBuffer little = ByteBuffer.allocate(32).order(ByteOrder.LITTLE_ENDIAN);
+        little.put("0123456789abcdefghij".getBytes(StandardCharsets.US_ASCII));
+        assertEquals(Utf8View.of("0123456789abcdefghij"), Utf8View.of(little, 0, 20));
+    }
+
+    @Test
+    void flyweightProbesMapsWithoutDecoding() {
+        Map<Utf8View, Integer> ids = new HashMap<>();
+        ids.put(Utf8View.of("host"), 1);
+        ids.put(Utf8View.of("accept"), 2);
+        ids.put(Utf8View.of("über"), 3);
+
+        ByteBuffer message = ByteBuffer.wrap("accept|über|host|other".getBytes(StandardCharsets.UTF_8));
+        Utf8View probe = new Utf8View();
+        int[] expected = {2, 3, 1, -1};
+        int start = 0;
+        for (int i = 0, field = 0; i <= message.limit(); i++) {
+            if (i == message.limit() || message.get(i) == '|') {
+                assertEquals(expected[field++], ids.getOrDefault(probe.wrap(message, start, i - start), -1));
+                start = i + 1;
+            }
+        }
+    }
+
+    @Test
+    void malformedBytesReadAsReplacement() {
+        ByteBuffer buffer = ByteBuffer.wrap(new byte[]{'a', (byte) 0xC3, 'b', (byte) 0xE2, (byte) 0x82});
+        Utf8View view = Utf8View.of(buffer, 0, 5);
+        assertEquals("a�b��", view.toString());
+        assertEquals(5, view.length());
+        assertEquals('�', view.charAt(4));
+        assertThrows(IndexOutOfBoundsException.class, () -> view.charAt(5));
+        assertThrows(IndexOutOfBoundsException.class, () -> Utf8View.of(buffer, 3, 3));
+    }
+}
@@ -0,0 +1,90 @@
+package io.github.atcurtis.crap4java.adaptors.jfr;
+
+import io.github.atcurtis.crap4java.adaptors.Pipeline;
+import io.github.atcurtis.crap4java.adaptors.primitive.IntAdaptor;
+import io.github.atcurtis.crap4java.adaptors.registry.AdaptorRegistry;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FlightRecorderEventsTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void recordsPipelineRuns() throws IOException {
+        List<RecordedEvent> events;
+        try (Recording recording = new Recording()) {
+            recording.enable(PipelineRunEvent.class).withThreshold(Duration.ZERO);
+            recording.start();
+            Pipeline.of(1, 2, 3).map(i -> i * 2).forEach(i -> { });
+            IntAdaptor.of(1, 2, 3).anyMatch(i -> i == 2);
+            assertThrows(ArithmeticException.class, () -> IntAdaptor.of(1, 0).map(i -> 1 / i).sum());
+            recording.stop();
+            events = read(recording, "io.github.atcurtis.crap4java.PipelineRun");
+        }
+        // map() runs the upstream pipeline inside the downstream one, unrecorded
+        assertEquals(3, events.size());
+        assertTrue(events.stream().anyMatch(e -> !e.getBoolean("completed")
+                && e.getClass("pipeline").getName().equals(IntAdaptor.class.getName())
+                && e.getClass("failure") == null));
+        assertEquals(1, events.stream().filter(e -> e.getClass("failure") != null
+                && e.getClass("failure").getName().equals(ArithmeticException.class.getName())).count());
+    }
+
+    @Test
+    void recordsOneRunPerTerminalOperation() throws IOException {
+        List<RecordedEvent> events;
+        try (Recording recording = new Recording()) {
+            recording.enable(PipelineRunEvent.class).withThreshold(Duration.ZERO);
+            recording.start();
+            Pipeline.of("a", "bb").map(String::length).map(i -> i * 2).mapToInt(Integer::intValue)
+                    .mapToObj(Integer::toString).flatMap(s -> Pipeline.of(s, s).asSource()).toList();
+            recording.stop();
+            events = read(recording, "io.github.atcurtis.crap4java.PipelineRun");
+        }
+        assertEquals(1, events.size());
+        assertEquals(Pipeline.class.getName(), events.get(0).getClass("pipeline").getName());
+    }
+
+    @Test
+    void recordsResolutionsOnlyOnCacheMisses() throws IOException {
+        AdaptorRegistry registry = new AdaptorRegistry().register(Integer.class, String.class, String::valueOf);
+        List<RecordedEvent> events;
+        try (Recording recording = new Recording()) {
+            recording.enable(AdaptorResolutionEvent.class);
+            recording.start();
+            for (int i = 0; i < 3; i++) {
+                registry.adapt(i, String.class);
+                registry.adapt("s", CharSequence.class);
+                registry.canAdapt(Long.class, String.class);
+            }
+            recording.stop();
+            events = read(recording, "io.github.atcurtis.crap4java.AdaptorResolution");
+        }
+        assertEquals(List.of("adaptor", "identity", "none"),
+                events.stream().map(e -> e.getString("outcome")).toList());
+        assertEquals(Integer.class.getName(), events.get(0).getClass("source").getName());
+        assertEquals(String.class.getName(), events.get(0).getClass("target").getName());
+    }
+
+    private List<RecordedEvent> read(Recording recording, String name) throws IOException {
+        Path file = dir.resolve("recording.jfr");
+        recording.dump(file);
+        return RecordingFile.readAllEvents(file).stream()
+                .filter(e -> e.getEventType().getName().equals(name))
+                .toList();
+    }
+}
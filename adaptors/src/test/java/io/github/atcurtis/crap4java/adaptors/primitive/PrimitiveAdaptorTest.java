@@ -0,0 +1,101 @@
+package io.github.atcurtis.crap4java.adaptors.primitive;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.OptionalInt;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PrimitiveAdaptorTest {
+
+    @Test
+    void fusesStagesInOrder() {
+        IntAdaptor pipeline = IntAdaptor.of(IntStream.range(0, 20).toArray())
+                .filter(v -> v % 2 == 0)
+                .map(v -> v * 10)
+                .skip(1)
+                .limit(3);
+        assertArrayEquals(new int[]{20, 40, 60}, pipeline.toArray());
+        // stages are re-applied, so the pipeline can be run again
+        assertEquals(120, pipeline.sum());
+        assertEquals(3, pipeline.count());
+    }
+
+    @Test
+    void limitStopsTheSource() {
+        int[] pulled = new int[1];
+        LongAdaptor pipeline = LongAdaptor.from(LongSource.iterate(1, v -> v * 2))
+                .peek(v -> pulled[0]++)
+                .limit(5);
+        assertArrayEquals(new long[]{1, 2, 4, 8, 16}, pipeline.toArray());
+        assertEquals(5, pulled[0]);
+        assertEquals(0, LongAdaptor.of(1, 2, 3).limit(0).count());
+    }
+
+    @Test
+    void shortCircuitingTerminals() {
+        assertEquals(OptionalInt.of(7), IntAdaptor.of(1, 3, 7, 9).filter(v -> v > 5).findFirst());
+        assertEquals(OptionalInt.empty(), IntAdaptor.of(1, 3).filter(v -> v > 5).findFirst());
+        assertTrue(DoubleAdaptor.of(0.5, 1.5).anyMatch(v -> v > 1));
+        assertFalse(DoubleAdaptor.of(0.5, 1.5).anyMatch(v -> v > 2));
+        assertEquals(6.0, DoubleAdaptor.of(1, 2, 3).reduce(1, (a, b) -> a * b));
+    }
+
+    @Test
+    void shortCircuitingTerminalsAfterALimit() {
+        assertEquals(OptionalInt.empty(), IntAdaptor.of(5, 6).limit(0).findFirst());
+        assertEquals(OptionalInt.empty(), IntAdaptor.of(5, 6).limit(1).filter(x -> false).findFirst());
+        assertEquals(OptionalInt.of(5), IntAdaptor.of(5, 6).limit(2).findFirst());
+        assertFalse(IntAdaptor.of(1, 2).limit(1).anyMatch(x -> x == 99));
+        assertFalse(LongAdaptor.of(1, 2).limit(2).anyMatch(x -> x == 3));
+        assertTrue(DoubleAdaptor.of(1, 2).limit(2).anyMatch(x -> x == 2));
+    }
+
+    @Test
+    void adaptsIteratorsAndChainsPipelines() {
+        LongAdaptor inner = LongAdaptor.from(LongStream.rangeClosed(1, 10).iterator()).filter(v -> v > 5);
+        assertEquals(LongStream.rangeClosed(6, 10).map(v -> -v).sum(),
+                LongAdaptor.from(inner.asSource()).map(v -> -v).sum());
+    }
+
+    @Test
+    void subclassesKeepTheirTypeThroughTheChain() {
+        final class Telemetry extends AbstractIntAdaptor<Telemetry> {
+            Telemetry(int... values) {
+                super(IntSource.of(values));
+            }
+
+            Telemetry positive() {
+                return filter(v -> v > 0);
+            }
+        }
+        assertEquals(List.of(4, 6), IntStream.of(new Telemetry(-1, 2, -3, 3).map(v -> v * 2).positive().toArray())
+                .boxed().toList());
+    }
+
+    @Test
+    void doesNotAllocatePerElement() {
+        int[] values = IntStream.range(0, 1 << 20).toArray();
+        IntAdaptor pipeline = IntAdaptor.of(values).map(v -> v * 3).filter(v -> (v & 1) == 0).limit(values.length);
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long id = Thread.currentThread().threadId();
+        pipeline.sum();
+
+        long before = threads.getThreadAllocatedBytes(id);
+        int sum = pipeline.sum();
+        long allocated = threads.getThreadAllocatedBytes(id) - before;
+
+        assertEquals(IntStream.of(values).map(v -> v * 3).filter(v -> (v & 1) == 0).sum(), sum);
+        // boxing a million values would allocate megabytes; assembling the
+        // sinks costs a handful of small objects per run
+        assertTrue(allocated < 4096, "allocated " + allocated + " bytes");
+    }
+}
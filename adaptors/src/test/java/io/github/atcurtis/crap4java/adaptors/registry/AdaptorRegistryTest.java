@@ -0,0 +1,79 @@
+package io.github.atcurtis.crap4java.adaptors.registry;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AdaptorRegistryTest {
+
+    interface Shape {
+    }
+
+    record Circle(int radius) implements Shape {
+    }
+
+    record Square(int side) implements Shape {
+    }
+
+    @Test
+    void adaptsExactAndInheritedSources() {
+        AdaptorRegistry registry = new AdaptorRegistry()
+                .register(Shape.class, String.class, shape -> "shape")
+                .register(Circle.class, String.class, circle -> "circle " + circle.radius());
+
+        assertEquals("circle 2", registry.adapt(new Circle(2), String.class));
+        assertEquals("shape", registry.adapt(new Square(3), String.class));
+    }
+
+    @Test
+    void superclassWinsOverInterfaceAtSameDepth() {
+        AdaptorRegistry registry = new AdaptorRegistry()
+                .register(Number.class, String.class, n -> "number")
+                .register(Comparable.class, String.class, c -> "comparable");
+
+        assertEquals("number", registry.adapt(7, String.class));
+        assertEquals("comparable", registry.adapt(true, String.class));
+    }
+
+    @Test
+    void instancesOfTargetPassThrough() {
+        AdaptorRegistry registry = new AdaptorRegistry();
+        Circle circle = new Circle(1);
+
+        assertSame(circle, registry.adapt(circle, Shape.class));
+        assertTrue(registry.canAdapt(Circle.class, Object.class));
+    }
+
+    @Test
+    void missingAdaptorIsReportedAndCached() {
+        AdaptorRegistry registry = new AdaptorRegistry()
+                .register(Circle.class, Integer.class, Circle::radius);
+
+        assertThrows(IllegalArgumentException.class, () -> registry.adapt(new Square(1), Integer.class));
+        assertEquals(Optional.empty(), registry.tryAdapt(new Square(1), Integer.class));
+        assertFalse(registry.canAdapt(Square.class, Integer.class));
+        assertEquals(Optional.of(4), registry.tryAdapt(new Circle(4), Integer.class));
+    }
+
+    @Test
+    void registrationInvalidatesCachedResolutions() {
+        AdaptorRegistry registry = new AdaptorRegistry()
+                .register(Shape.class, String.class, shape -> "shape");
+        assertEquals("shape", registry.adapt(new Square(1), String.class));
+        assertFalse(registry.canAdapt(Square.class, List.class));
+
+        registry.register(Square.class, String.class, square -> "square")
+                .register(Square.class, List.class, square -> new ArrayList<>(List.of(square.side())));
+
+        assertEquals("square", registry.adapt(new Square(1), String.class));
+        assertEquals(List.of(5), registry.adapt(new Square(5), List.class));
+    }
+}
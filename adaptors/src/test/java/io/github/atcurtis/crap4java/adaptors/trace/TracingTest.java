@@ -0,0 +1,90 @@
+package io.github.atcurtis.crap4java.adaptors.trace;
+
+import io.github.atcurtis.crap4java.adaptors.Pipeline;
+import io.github.atcurtis.crap4java.adaptors.primitive.LongAdaptor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TracingTest {
+
+    // enough runs for the bracket to be compiled with whichever target is current
+    private static final int RUNS = 20_000;
+
+    private final Map<String, Long> traced = new ConcurrentHashMap<>();
+    private final Tracer tracer = (owner, elapsedNanos) -> {
+        assertTrue(elapsedNanos >= 0);
+        traced.merge(owner.getSimpleName(), 1L, Long::sum);
+    };
+
+    @AfterEach
+    void disable() {
+        Tracing.disable();
+    }
+
+    @Test
+    void tracesPipelineRunsOnlyWhileEnabled() {
+        runPipelines();
+        assertEquals(Map.of(), traced);
+
+        Tracing.enable(tracer);
+        assertSame(tracer, Tracing.tracer());
+        runPipelines();
+        assertEquals(Map.of("Pipeline", (long) RUNS, "LongAdaptor", (long) RUNS), traced);
+
+        Tracing.disable();
+        assertNull(Tracing.tracer());
+        runPipelines();
+        assertEquals(RUNS, traced.get("Pipeline"));
+
+        Tracing.enable(tracer);
+        runPipelines();
+        assertEquals(2 * RUNS, traced.get("LongAdaptor"));
+    }
+
+    @Test
+    void bracketsArbitraryOperations() {
+        long off = Tracing.start();
+        assertEquals(Tracing.OFF, off);
+        Tracing.enable(tracer);
+        // started while tracing was off, so it is not reported
+        Tracing.end(TracingTest.class, off);
+        assertEquals(Map.of(), traced);
+
+        long start = Tracing.start();
+        assertTrue(start != Tracing.OFF);
+        Tracing.end(TracingTest.class, start);
+        assertEquals(Map.of("TracingTest", 1L), traced);
+    }
+
+    @Test
+    void tracesPipelineRunsThatThrow() {
+        Tracing.enable(tracer);
+        assertThrows(IllegalStateException.class, () -> Pipeline.of("a").forEach(s -> {
+            throw new IllegalStateException(s);
+        }));
+        assertEquals(Map.of("Pipeline", 1L), traced);
+    }
+
+    @Test
+    void tracesOnlyTheOutermostRun() {
+        Tracing.enable(tracer);
+        Pipeline.of("a", "bb").mapToInt(String::length).map(i -> i * 2).mapToObj(i -> i).toList();
+        assertEquals(Map.of("Pipeline", 1L), traced);
+    }
+
+    private static void runPipelines() {
+        for (int i = 0; i < RUNS; i++) {
+            Pipeline.of("a", "b").forEach(s -> { });
+            LongAdaptor.of(1, 2, 3).sum();
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package io.github.atcurtis.crap4java.jmh;
+
+import io.github.atcurtis.crap4java.adaptors.registry.AdaptorRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Resolves adaptors for a mix of message classes through the cached
+ * registry, a linear scan of registrations and a map of maps keyed by exact
+ * class, the approaches the registry replaces.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class AdaptorRegistryBenchmark {
+
+    interface Message {
+        int id();
+    }
+
+    record Ping(int id) implements Message {
+    }
+
+    record Order(int id) implements Message {
+    }
+
+    record Cancel(int id) implements Message {
+    }
+
+    record Quote(int id) implements Message {
+    }
+
+    record Registration(Class<?> source, Class<?> target, Function<Object, Object> adaptor) {
+    }
+
+    @Param({"4", "64"})
+    public int registrations;
+
+    private Object[] messages;
+    private int next;
+    private AdaptorRegistry registry;
+    private List<Registration> linear;
+    private Map<Class<?>, Map<Class<?>, Function<Object, Object>>> nested;
+
+    @Setup
+    public void setup() {
+        messages = new Object[] {new Ping(1), new Order(2), new Cancel(3), new Quote(4)};
+        registry = new AdaptorRegistry();
+        linear = new ArrayList<>();
+        nested = new HashMap<>();
+        // Unrelated registrations ahead of the ones that match, as in a
+        // registry shared by many message families.
+        for (int i = 0; i < registrations - messages.length; i++) {
+            add(i % 2 == 0 ? StringBuilder.class : Thread.class, value -> 0L);
+        }
+        for (Object message : messages) {
+            add(message.getClass(), value -> (long) ((Message) value).id());
+        }
+    }
+
+    private void add(Class<?> source, Function<Object, Object> adaptor) {
+        registry.register(source, Long.class, value -> (Long) adaptor.apply(value));
+        linear.add(new Registration(source, Long.class, adaptor));
+        nested.computeIfAbsent(source, c -> new HashMap<>()).put(Long.class, adaptor);
+    }
+
+    private Object message() {
+        Object message = messages[next];
+        next = (next + 1) & 3;
+        return message;
+    }
+
+    @Benchmark
+    public Long registry() {
+        return registry.adapt(message(), Long.class);
+    }
+
+    @Benchmark
+    public Long linearScan() {
+        Object message = message();
+        for (Registration registration : linear) {
+            if (registration.target() == Long.class && registration.source().isInstance(message)) {
+                return Long.class.cast(registration.adaptor().apply(message));
+            }
+        }
+        throw new IllegalArgumentException();
+    }
+
+    @Benchmark
+    public Long mapOfMaps() {
+        Object message = message();
+        return Long.class.cast(nested.get(message.getClass()).get(Long.class).apply(message));
+    }
+}
@@ -0,0 +1,87 @@
+package io.github.atcurtis.crap4java.jmh;
+
+import io.github.atcurtis.crap4java.adaptors.async.AsyncAdaptor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Completes a burst of blocking calls, each sleeping one millisecond to stand
+ * in for a remote call, through a fixed pool of platform threads and through
+ * the virtual-thread adaptor. The pool needs at least {@code burst / 64}
+ * milliseconds per burst; the adaptor is bounded by the cost of starting
+ * virtual threads, and pays for it in heap, which {@code gc.alloc.rate.norm}
+ * shows.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AsyncAdaptorBenchmark {
+
+    @Param({"1000", "10000"})
+    public int burst;
+
+    private ExecutorService pool;
+    private AsyncAdaptor adaptor;
+
+    @Setup
+    public void setup() {
+        pool = Executors.newFixedThreadPool(64);
+        adaptor = AsyncAdaptor.create("bench", burst);
+    }
+
+    @TearDown
+    public void tearDown() {
+        pool.shutdownNow();
+    }
+
+    private static long call(long value) throws InterruptedException {
+        Thread.sleep(1);
+        return value;
+    }
+
+    @Benchmark
+    public long platformPool() {
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[burst];
+        for (int i = 0; i < burst; i++) {
+            long value = i;
+            futures[i] = CompletableFuture.supplyAsync(() -> {
+                try {
+                    return call(value);
+                } catch (InterruptedException e) {
+                    throw new IllegalStateException(e);
+                }
+            }, pool);
+        }
+        CompletableFuture.allOf(futures).join();
+        return futures.length;
+    }
+
+    @Benchmark
+    public long virtualThreads() {
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[burst];
+        for (int i = 0; i < burst; i++) {
+            long value = i;
+            futures[i] = adaptor.supply(() -> call(value));
+        }
+        CompletableFuture.allOf(futures).join();
+        return futures.length;
+    }
+}
@@ -0,0 +1,73 @@
+package io.github.atcurtis.crap4java.jmh;
+
+import io.github.atcurtis.crap4java.parts.batch.BatchingSink;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes items to a simulated store whose calls carry a fixed overhead, one
+ * call per item and through batching sinks of increasing size. The store
+ * burns {@code callCost} JMH tokens per call and one per item.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BatchingSinkBenchmark {
+
+    @Param({"16", "256"})
+    public int maxCount;
+
+    @Param({"1000"})
+    public long callCost;
+
+    private BatchingSink<Long> sink;
+    private long next;
+
+    @Setup
+    public void setup() {
+        sink = BatchingSink.<Long>builder()
+                .downstream(this::writeAll)
+                .maxCount(maxCount)
+                .build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        sink.close();
+    }
+
+    private void write(Long item) {
+        Blackhole.consumeCPU(callCost + 1);
+    }
+
+    private void writeAll(List<Long> items) {
+        Blackhole.consumeCPU(callCost + items.size());
+    }
+
+    @Benchmark
+    public void perItem() {
+        write(next++);
+    }
+
+    @Benchmark
+    public void batched() {
+        sink.accept(next++);
+    }
+}
@@ -0,0 +1,103 @@
+package io.github.atcurtis.crap4java.jmh;
+
+import io.github.atcurtis.crap4java.adaptors.builder.GenerateBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.RecordComponent;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the generated builder against a direct constructor call and a
+ * reflective, name-keyed builder of the kind the generator replaces.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BuilderBenchmark {
+
+    /**
+     * A typical small request object.
+     */
+    @GenerateBuilder
+    public record Request(long id, int priority, String path, boolean retry) {
+    }
+
+    private long id;
+    private String path;
+    private BuilderBenchmark_RequestBuilder reused;
+    private ReflectiveBuilder<Request> reflective;
+
+    @Setup
+    public void setup() throws ReflectiveOperationException {
+        id = 42;
+        path = "/api/v1/items";
+        reused = new BuilderBenchmark_RequestBuilder();
+        reflective = new ReflectiveBuilder<>(Request.class);
+    }
+
+    @Benchmark
+    public Request constructor() {
+        return new Request(id, 3, path, true);
+    }
+
+    @Benchmark
+    public Request generatedBuilder() {
+        return new BuilderBenchmark_RequestBuilder().id(id).priority(3).path(path).retry(true).build();
+    }
+
+    @Benchmark
+    public Request generatedBuilderReused() {
+        return reused.reset().id(id).priority(3).path(path).retry(true).build();
+    }
+
+    @Benchmark
+    public Request reflectiveBuilder() throws ReflectiveOperationException {
+        return reflective.set("id", id).set("priority", 3).set("path", path).set("retry", true).build();
+    }
+
+    /**
+     * Name-keyed builder resolving the canonical constructor reflectively.
+     */
+    static final class ReflectiveBuilder<T extends Record> {
+        private final Constructor<T> constructor;
+        private final RecordComponent[] components;
+        private final Map<String, Object> values = new HashMap<>();
+
+        ReflectiveBuilder(Class<T> type) throws NoSuchMethodException {
+            components = type.getRecordComponents();
+            Class<?>[] types = new Class<?>[components.length];
+            for (int i = 0; i < components.length; i++) {
+                types[i] = components[i].getType();
+            }
+            constructor = type.getDeclaredConstructor(types);
+        }
+
+        ReflectiveBuilder<T> set(String name, Object value) {
+            values.put(name, value);
+            return this;
+        }
+
+        T build() throws ReflectiveOperationException {
+            Object[] args = new Object[components.length];
+            for (int i = 0; i < args.length; i++) {
+                args[i] = values.get(components[i].getName());
+            }
+            return constructor.newInstance(args);
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package io.github.atcurtis.crap4java.jmh;
+
+import io.github.atcurtis.crap4java.adaptors.io.ByteChannels;
+import io.github.atcurtis.crap4java.adaptors.io.TransferMetrics;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * File-to-file copies through the zero-copy adaptor and through the classic
+ * {@code byte[]} read/write loop, plus handing a heap buffer to an output
+ * stream.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ChannelTransferBenchmark {
+
+    @Param({"16777216"})
+    public int size;
+
+    private Path dir;
+    private Path source;
+    private Path target;
+    private ByteBuffer heap;
+    private final TransferMetrics metrics = new TransferMetrics();
+
+    @Setup
+    public void setup() throws IOException {
+        dir = Files.createTempDirectory("transfer");
+        byte[] bytes = new byte[size];
+        new Random(1).nextBytes(bytes);
+        source = Files.write(dir.resolve("source"), bytes);
+        target = dir.resolve("target");
+        heap = ByteBuffer.wrap(bytes);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(source);
+        Files.deleteIfExists(target);
+        Files.deleteIfExists(dir);
+    }
+
+    @Benchmark
+    public long fileTransfer() throws IOException {
+        try (FileInputStream in = new FileInputStream(source.toFile());
+             FileOutputStream out = new FileOutputStream(target.toFile())) {
+            return ByteChannels.transfer(in, out, metrics);
+        }
+    }
+
+    @Benchmark
+    public long fileCopyLoop() throws IOException {
+        try (InputStream in = Files.newInputStream(source);
+             OutputStream out = Files.newOutputStream(target)) {
+            byte[] chunk = new byte[8192];
+            long total = 0;
+            for (int n; (n = in.read(chunk)) >= 0; ) {
+                out.write(chunk, 0, n);
+                total += n;
+            }
+            return total;
+        }
+    }
+
+    @Benchmark
+    public long heapBufferToStream() throws IOException {
+        heap.clear();
+        return ByteChannels.transfer(ByteChannels.newInputStream(heap, metrics), OutputStream.nullOutputStream(),
+                metrics);
+    }
+
+    @Benchmark
+    public long heapBufferReadLoop() throws IOException {
+        heap.clear();
+        InputStream in = ByteChannels.newInputStream(heap, metrics);
+        OutputStream out = OutputStream.nullOutputStream();
+        byte[] chunk = new byte[8192];
+        long total = 0;
+        for (int n; (n = in.read(chunk)) >= 0; ) {
+            out.write(chunk, 0, n);
+            total += n;
+        }
+        return total;
+    }
+}
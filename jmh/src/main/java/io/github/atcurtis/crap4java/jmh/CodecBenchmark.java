@@ -0,0 +1,120 @@
+package io.github.atcurtis.crap4java.jmh;
+
+import io.github.atcurtis.crap4java.parts.codec.FixedWidth;
+import io.github.atcurtis.crap4java.parts.codec.Varint;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encodes and decodes 1024 longs as varints and as little-endian fixed
+ * widths, with the codec parts and with the per-byte {@link ByteBuffer} loops
+ * they replace. {@code small} values mostly fit one or two bytes, as counts
+ * and tags do; {@code wide} values are spread over every length.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CodecBenchmark {
+
+    private static final int COUNT = 1024;
+
+    @Param({"small", "wide"})
+    public String values;
+
+    private long[] input;
+    private long[] output;
+    private byte[] bytes;
+    private ByteBuffer buffer;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        input = new long[COUNT];
+        for (int i = 0; i < COUNT; i++) {
+            input[i] = values.equals("small") ? random.nextInt(300) : random.nextLong() >>> random.nextInt(64);
+        }
+        output = new long[COUNT];
+        bytes = new byte[COUNT * Varint.MAX_LONG_BYTES];
+        buffer = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+        // every trial starts from freshly encoded input
+        Varint.encode(input, 0, COUNT, bytes, 0);
+    }
+
+    @Benchmark
+    public int varintEncodeByteBuffer() {
+        ByteBuffer buffer = this.buffer.clear();
+        for (long value : input) {
+            while ((value & ~0x7FL) != 0) {
+                buffer.put((byte) (value | 0x80));
+                value >>>= 7;
+            }
+            buffer.put((byte) value);
+        }
+        return buffer.position();
+    }
+
+    @Benchmark
+    public int varintEncode() {
+        return Varint.encode(input, 0, COUNT, bytes, 0);
+    }
+
+    @Benchmark
+    public long[] varintDecodeByteBuffer() {
+        ByteBuffer buffer = this.buffer.clear();
+        for (int i = 0; i < COUNT; i++) {
+            long value = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = buffer.get();
+                value |= (long) (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+            output[i] = value;
+        }
+        return output;
+    }
+
+    @Benchmark
+    public long[] varintDecode() {
+        Varint.decode(bytes, 0, output, 0, COUNT);
+        return output;
+    }
+
+    @Benchmark
+    public int fixedEncodeByteBuffer() {
+        ByteBuffer buffer = this.buffer.clear();
+        for (long value : input) {
+            buffer.putLong(value);
+        }
+        return buffer.position();
+    }
+
+    @Benchmark
+    public int fixedEncode() {
+        return FixedWidth.putLongs(input, 0, COUNT, bytes, 0, ByteOrder.LITTLE_ENDIAN);
+    }
+
+    @Benchmark
+    public long[] fixedDecode() {
+        FixedWidth.getLongs(bytes, 0, output, 0, COUNT, ByteOrder.LITTLE_ENDIAN);
+        return output;
+    }
+}
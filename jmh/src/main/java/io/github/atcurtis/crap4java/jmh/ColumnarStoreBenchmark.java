@@ -0,0 +1,99 @@
+package io.github.atcurtis.crap4java.jmh;
+
+import io.github.atcurtis.crap4java.parts.columnar.Columnar;
+import io.github.atcurtis.crap4java.parts.columnar.ColumnarStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scans one field of many small records stored as a list of heap objects and
+ * as an off-heap column store read through a generated flyweight. The heap
+ * list is shuffled to model objects allocated over time, which are rarely laid
+ * out in scan order.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@State(Scope.Benchmark)
+public class ColumnarStoreBenchmark {
+
+    @Columnar(name = "ColumnarStoreBenchmark_TradeView")
+    public interface Trade {
+        long id();
+
+        void id(long value);
+
+        double price();
+
+        void price(double value);
+
+        int quantity();
+
+        void quantity(int value);
+    }
+
+    record HeapTrade(long id, double price, int quantity) {
+    }
+
+    @Param({"1000000"})
+    public int records;
+
+    private List<HeapTrade> heap;
+    private ColumnarStore store;
+    private ColumnarStoreBenchmark_TradeView view;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        heap = new ArrayList<>(records);
+        store = ColumnarStoreBenchmark_TradeView.newStore(records);
+        ColumnarStoreBenchmark_TradeView writer = new ColumnarStoreBenchmark_TradeView(store);
+        for (int i = 0; i < records; i++) {
+            double price = random.nextDouble() * 100;
+            int quantity = random.nextInt(1000);
+            heap.add(new HeapTrade(i, price, quantity));
+            writer.append();
+            writer.id(i);
+            writer.price(price);
+            writer.quantity(quantity);
+        }
+        Collections.shuffle(heap, random);
+        view = new ColumnarStoreBenchmark_TradeView(store);
+    }
+
+    @Benchmark
+    public long heapObjects() {
+        long total = 0;
+        for (int i = 0, n = heap.size(); i < n; i++) {
+            total += heap.get(i).quantity();
+        }
+        return total;
+    }
+
+    @Benchmark
+    public long offHeapFlyweight() {
+        long total = 0;
+        ColumnarStoreBenchmark_TradeView t = view.rewind();
+        while (t.next()) {
+            total += t.quantity();
+        }
+        return total;
+    }
+}
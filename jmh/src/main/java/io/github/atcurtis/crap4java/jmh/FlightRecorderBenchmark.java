@@ -0,0 +1,92 @@
+package io.github.atcurtis.crap4java.jmh;
+
+import io.github.atcurtis.crap4java.adaptors.Recyclable;
+import io.github.atcurtis.crap4java.adaptors.jfr.PipelineRunEvent;
+import io.github.atcurtis.crap4java.adaptors.jfr.PoolHitEvent;
+import io.github.atcurtis.crap4java.adaptors.jfr.QueueEmptyEvent;
+import io.github.atcurtis.crap4java.adaptors.primitive.IntAdaptor;
+import io.github.atcurtis.crap4java.parts.pool.ObjectPool;
+import io.github.atcurtis.crap4java.parts.queue.SpscArrayQueue;
+import jdk.jfr.Recording;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the hottest instrumented paths, an empty poll, a pool round trip
+ * and a short primitive pipeline, with no recording running and with a
+ * recording that has their events enabled. With {@code recording=false} the
+ * events are disabled and the numbers, and a zero
+ * {@code gc.alloc.rate.norm}, show what the instrumentation costs when
+ * nobody is listening.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FlightRecorderBenchmark {
+
+    static final class Buffer implements Recyclable<Buffer> {
+        @Override
+        public Buffer reset() {
+            return this;
+        }
+    }
+
+    @Param({"false", "true"})
+    public boolean recording;
+
+    private final SpscArrayQueue<Object> queue = new SpscArrayQueue<>(16);
+    private final ObjectPool<Buffer> pool = new ObjectPool<>(Buffer::new, 16, 4);
+    private final int[] values = new int[16];
+    private Recording jfr;
+
+    @Setup
+    public void setup() {
+        if (recording) {
+            jfr = new Recording();
+            jfr.enable(QueueEmptyEvent.class);
+            jfr.enable(PoolHitEvent.class);
+            jfr.enable(PipelineRunEvent.class).withoutThreshold();
+            jfr.setToDisk(false);
+            jfr.start();
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (jfr != null) {
+            jfr.close();
+        }
+    }
+
+    @Benchmark
+    public Object emptyPoll() {
+        return queue.poll();
+    }
+
+    @Benchmark
+    public Buffer poolRoundTrip() {
+        Buffer buffer = pool.acquire();
+        pool.release(buffer);
+        return buffer;
+    }
+
+    @Benchmark
+    public int pipelineRun() {
+        return IntAdaptor.of(values).map(i -> i + 1).sum();
+    }
+}
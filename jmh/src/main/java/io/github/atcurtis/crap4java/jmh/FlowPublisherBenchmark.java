@@ -0,0 +1,82 @@
+package io.github.atcurtis.crap4java.jmh;
+
+import io.github.atcurtis.crap4java.adaptors.flow.BatchingSubscriber;
+import io.github.atcurtis.crap4java.adaptors.flow.IteratorPublisher;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Streams ten thousand elements from a list to a summing subscriber with
+ * per-element {@code request(1)} (a prefetch of one) and with batched demand,
+ * on the caller's thread and on the common pool. {@link SubmissionPublisher}
+ * is included as the JDK's reference point.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class FlowPublisherBenchmark {
+
+    @Param({"1", "16", "256"})
+    public int prefetch;
+
+    @Param({"direct", "pool"})
+    public String executor;
+
+    private List<Integer> elements;
+    private Executor exec;
+    private long sum;
+
+    @Setup
+    public void setup() {
+        elements = IntStream.range(0, 10_000).boxed().toList();
+        exec = "direct".equals(executor) ? Runnable::run : ForkJoinPool.commonPool();
+    }
+
+    @Benchmark
+    public long iteratorPublisher() {
+        sum = 0;
+        BatchingSubscriber<Integer> subscriber = new BatchingSubscriber<>(value -> {
+            sum += value;
+            return true;
+        }, prefetch);
+        IteratorPublisher.of(elements).executor(exec).subscribe(subscriber);
+        subscriber.completion().join();
+        return sum;
+    }
+
+    @Benchmark
+    public long submissionPublisher() {
+        sum = 0;
+        BatchingSubscriber<Integer> subscriber = new BatchingSubscriber<>(value -> {
+            sum += value;
+            return true;
+        }, prefetch);
+        try (SubmissionPublisher<Integer> publisher = new SubmissionPublisher<>(exec, 1024)) {
+            publisher.subscribe(subscriber);
+            for (Integer element : elements) {
+                publisher.submit(element);
+            }
+        }
+        subscriber.completion().join();
+        return sum;
+    }
+}
@@ -0,0 +1,229 @@
+package io.github.atcurtis.crap4java.jmh;
+
+import io.github.atcurtis.crap4java.adaptors.Pipeline;
+import io.github.atcurtis.crap4java.adaptors.Source;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * filter / flatMap / map / limit over a list of orders, written as a plain
+ * loop, as a fused {@link Pipeline}, as a {@code java.util.stream} and as a
+ * chain of wrapper iterators (one per stage).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class FusedPipelineBenchmark {
+
+    record Order(long id, int amount, List<String> skus) {
+    }
+
+    private static final int ORDERS = 2048;
+    private static final int THRESHOLD = 500;
+    private static final int LIMIT = 4096;
+
+    private List<Order> orders;
+    private Pipeline<Integer> pipeline;
+
+    @Setup
+    public void setup() {
+        orders = new ArrayList<>(ORDERS);
+        for (int i = 0; i < ORDERS; i++) {
+            List<String> skus = new ArrayList<>();
+            for (int j = 0; j < 1 + i % 5; j++) {
+                skus.add("SKU-" + (i * 7 + j) % 10_000);
+            }
+            orders.add(new Order(i, i * 37 % 1000, skus));
+        }
+        pipeline = Pipeline.from(orders)
+                .filter(o -> o.amount() >= THRESHOLD)
+                .flatMap(o -> Source.from(o.skus()))
+                .map(String::length)
+                .limit(LIMIT);
+    }
+
+    @Benchmark
+    public int handWrittenLoop() {
+        int sum = 0;
+        int taken = 0;
+        outer:
+        for (int i = 0, n = orders.size(); i < n; i++) {
+            Order o = orders.get(i);
+            if (o.amount() >= THRESHOLD) {
+                List<String> skus = o.skus();
+                for (int j = 0, m = skus.size(); j < m; j++) {
+                    sum += skus.get(j).length();
+                    if (++taken == LIMIT) {
+                        break outer;
+                    }
+                }
+            }
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public int fusedPipeline() {
+        return pipeline.mapToInt(Integer::intValue).sum();
+    }
+
+    @Benchmark
+    public int fusedPipelineAssembledPerCall() {
+        return Pipeline.from(orders)
+                .filter(o -> o.amount() >= THRESHOLD)
+                .flatMap(o -> Source.from(o.skus()))
+                .limit(LIMIT)
+                .mapToInt(String::length)
+                .sum();
+    }
+
+    @Benchmark
+    public int stream() {
+        return orders.stream()
+                .filter(o -> o.amount() >= THRESHOLD)
+                .flatMap(o -> o.skus().stream())
+                .limit(LIMIT)
+                .mapToInt(String::length)
+                .sum();
+    }
+
+    @Benchmark
+    public int wrapperIterators() {
+        Iterator<Integer> it = new Limit<>(
+                new Map<>(
+                        new FlatMap<>(new Filter<>(orders.iterator(), o -> o.amount() >= THRESHOLD),
+                                o -> o.skus().iterator()),
+                        String::length),
+                LIMIT);
+        int sum = 0;
+        while (it.hasNext()) {
+            sum += it.next();
+        }
+        return sum;
+    }
+
+    private static final class Filter<T> implements Iterator<T> {
+        private final Iterator<T> in;
+        private final Predicate<? super T> p;
+        private T next;
+        private boolean ready;
+
+        Filter(Iterator<T> in, Predicate<? super T> p) {
+            this.in = in;
+            this.p = p;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (!ready && in.hasNext()) {
+                T v = in.next();
+                if (p.test(v)) {
+                    next = v;
+                    ready = true;
+                }
+            }
+            return ready;
+        }
+
+        @Override
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            ready = false;
+            return next;
+        }
+    }
+
+    private static final class Map<T, R> implements Iterator<R> {
+        private final Iterator<T> in;
+        private final Function<? super T, ? extends R> f;
+
+        Map(Iterator<T> in, Function<? super T, ? extends R> f) {
+            this.in = in;
+            this.f = f;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return in.hasNext();
+        }
+
+        @Override
+        public R next() {
+            return f.apply(in.next());
+        }
+    }
+
+    private static final class FlatMap<T, R> implements Iterator<R> {
+        private final Iterator<T> in;
+        private final Function<? super T, ? extends Iterator<R>> f;
+        private Iterator<R> current = java.util.Collections.emptyIterator();
+
+        FlatMap(Iterator<T> in, Function<? super T, ? extends Iterator<R>> f) {
+            this.in = in;
+            this.f = f;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (!current.hasNext()) {
+                if (!in.hasNext()) {
+                    return false;
+                }
+                current = f.apply(in.next());
+            }
+            return true;
+        }
+
+        @Override
+        public R next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return current.next();
+        }
+    }
+
+    private static final class Limit<T> implements Iterator<T> {
+        private final Iterator<T> in;
+        private long remaining;
+
+        Limit(Iterator<T> in, long max) {
+            this.in = in;
+            this.remaining = max;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return remaining > 0 && in.hasNext();
+        }
+
+        @Override
+        public T next() {
+            if (remaining-- <= 0) {
+                throw new NoSuchElementException();
+            }
+            return in.next();
+        }
+    }
+}
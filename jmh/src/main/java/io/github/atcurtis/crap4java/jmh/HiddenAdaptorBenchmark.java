@@ -0,0 +1,98 @@
+package io.github.atcurtis.crap4java.jmh;
+
+import io.github.atcurtis.crap4java.adaptors.hidden.HiddenAdaptorFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Proxy;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Calls a small interface method through a hand-written delegating class, a
+ * hidden-class adaptor and a {@link Proxy}, the dispatch the hidden classes
+ * replace. The proxy boxes both arguments and the result on every call.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class HiddenAdaptorBenchmark {
+
+    /**
+     * The interface callers are written against.
+     */
+    public interface Pricer {
+        long price(long quantity, int tier);
+    }
+
+    /**
+     * An implementation that does not know about {@link Pricer}.
+     */
+    public static final class Engine {
+        private final long unit;
+
+        Engine(long unit) {
+            this.unit = unit;
+        }
+
+        public long price(long quantity, int tier) {
+            return quantity * unit - tier;
+        }
+    }
+
+    static final class HandWritten implements Pricer {
+        private final Engine engine;
+
+        HandWritten(Engine engine) {
+            this.engine = engine;
+        }
+
+        @Override
+        public long price(long quantity, int tier) {
+            return engine.price(quantity, tier);
+        }
+    }
+
+    private Pricer handWritten;
+    private Pricer hidden;
+    private Pricer proxy;
+    private long quantity;
+    private int tier;
+
+    @Setup
+    public void setup() {
+        Engine engine = new Engine(3);
+        handWritten = new HandWritten(engine);
+        hidden = HiddenAdaptorFactory.create(MethodHandles.lookup()).adapt(Pricer.class, engine);
+        proxy = (Pricer) Proxy.newProxyInstance(Pricer.class.getClassLoader(), new Class<?>[] {Pricer.class},
+                (self, method, args) -> engine.price((Long) args[0], (Integer) args[1]));
+        quantity = 1_000;
+        tier = 2;
+    }
+
+    @Benchmark
+    public long handWritten() {
+        return handWritten.price(quantity++, tier);
+    }
+
+    @Benchmark
+    public long hiddenClass() {
+        return hidden.price(quantity++, tier);
+    }
+
+    @Benchmark
+    public long proxy() {
+        return proxy.price(quantity++, tier);
+    }
+}
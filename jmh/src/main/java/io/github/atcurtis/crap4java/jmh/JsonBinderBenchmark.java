@@ -0,0 +1,169 @@
+package io.github.atcurtis.crap4java.jmh;
+
+import io.github.atcurtis.crap4java.adaptors.builder.GenerateBuilder;
+import io.github.atcurtis.crap4java.parts.json.GenerateJsonBinder;
+import io.github.atcurtis.crap4java.parts.json.JsonReader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ingests a JSON array of orders into typed records, once by binding tokens
+ * straight into the generated builders and once the common way: parsing into
+ * a {@code Map}/{@code List} tree first and copying that into the builders.
+ * Both use the same tokenizer, so the difference is the intermediate tree;
+ * {@code gc.alloc.rate.norm} shows what it costs in garbage.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JsonBinderBenchmark {
+
+    /**
+     * An order line.
+     */
+    @GenerateBuilder
+    @GenerateJsonBinder
+    public record Line(String sku, int count, long priceCents) {
+    }
+
+    /**
+     * The state of an order.
+     */
+    public enum Status { NEW, PAID, SHIPPED }
+
+    /**
+     * An ingested order.
+     */
+    @GenerateBuilder
+    @GenerateJsonBinder
+    public record Order(long id, String customer, Status status, boolean express, double weight,
+                        List<Line> lines) {
+    }
+
+    @Param({"1000"})
+    public int orders;
+
+    private String json;
+
+    @Setup
+    public void setup() throws IOException {
+        Random random = new Random(42);
+        StringBuilder out = new StringBuilder("[");
+        for (int i = 0; i < orders; i++) {
+            out.append(i == 0 ? "" : ",").append("{\"id\":").append(1_000_000 + i)
+                    .append(",\"customer\":\"customer-").append(random.nextInt(10_000))
+                    .append("\",\"status\":\"").append(Status.values()[random.nextInt(3)])
+                    .append("\",\"express\":").append(random.nextBoolean())
+                    .append(",\"weight\":").append(random.nextInt(10_000) / 100.0)
+                    .append(",\"lines\":[");
+            for (int j = 0, n = 1 + random.nextInt(4); j < n; j++) {
+                out.append(j == 0 ? "" : ",").append("{\"sku\":\"SKU-").append(random.nextInt(100_000))
+                        .append("\",\"count\":").append(1 + random.nextInt(20))
+                        .append(",\"priceCents\":").append(random.nextInt(100_000)).append('}');
+            }
+            out.append("]}");
+        }
+        json = out.append(']').toString();
+        if (!bound().equals(treeThenCopy())) {
+            throw new IllegalStateException("the two paths disagree");
+        }
+    }
+
+    @Benchmark
+    public List<Order> bound() throws IOException {
+        JsonReader in = JsonReader.of(json);
+        List<Order> result = new ArrayList<>(orders);
+        in.beginArray();
+        while (in.hasNext()) {
+            result.add(JsonBinderBenchmark_OrderJsonBinder.INSTANCE.read(in));
+        }
+        in.endArray();
+        return result;
+    }
+
+    @Benchmark
+    public List<Order> treeThenCopy() throws IOException {
+        List<?> tree = (List<?>) tree(JsonReader.of(json));
+        List<Order> result = new ArrayList<>(orders);
+        for (Object element : tree) {
+            Map<?, ?> order = (Map<?, ?>) element;
+            List<Line> lines = new ArrayList<>();
+            for (Object line : (List<?>) order.get("lines")) {
+                Map<?, ?> map = (Map<?, ?>) line;
+                lines.add(new JsonBinderBenchmark_LineBuilder()
+                        .sku((String) map.get("sku"))
+                        .count(((Number) map.get("count")).intValue())
+                        .priceCents(((Number) map.get("priceCents")).longValue())
+                        .build());
+            }
+            result.add(new JsonBinderBenchmark_OrderBuilder()
+                    .id(((Number) order.get("id")).longValue())
+                    .customer((String) order.get("customer"))
+                    .status(Status.valueOf((String) order.get("status")))
+                    .express((Boolean) order.get("express"))
+                    .weight(((Number) order.get("weight")).doubleValue())
+                    .lines(lines)
+                    .build());
+        }
+        return result;
+    }
+
+    /**
+     * Parses any value into maps, lists, strings, doubles, booleans and nulls.
+     */
+    private static Object tree(JsonReader in) throws IOException {
+        switch (in.peek()) {
+            case BEGIN_OBJECT -> {
+                Map<String, Object> map = new LinkedHashMap<>();
+                in.beginObject();
+                while (in.hasNext()) {
+                    map.put(in.nextName(), tree(in));
+                }
+                in.endObject();
+                return map;
+            }
+            case BEGIN_ARRAY -> {
+                List<Object> list = new ArrayList<>();
+                in.beginArray();
+                while (in.hasNext()) {
+                    list.add(tree(in));
+                }
+                in.endArray();
+                return list;
+            }
+            case STRING -> {
+                return in.nextString();
+            }
+            case NUMBER -> {
+                return in.nextDouble();
+            }
+            case BOOLEAN -> {
+                return in.nextBoolean();
+            }
+            default -> {
+                in.nextNull();
+                return null;
+            }
+        }
+    }
+}
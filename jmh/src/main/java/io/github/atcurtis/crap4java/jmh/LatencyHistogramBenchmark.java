@@ -0,0 +1,68 @@
+package io.github.atcurtis.crap4java.jmh;
+
+import io.github.atcurtis.crap4java.adaptors.hidden.HiddenAdaptorFactory;
+import io.github.atcurtis.crap4java.parts.histogram.LatencyAdaptor;
+import io.github.atcurtis.crap4java.parts.histogram.LatencyHistogram;
+import io.github.atcurtis.crap4java.parts.queue.MessageQueue;
+import io.github.atcurtis.crap4java.parts.queue.SpscArrayQueue;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.invoke.MethodHandles;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures recording a value into a {@link LatencyHistogram}, and an
+ * offer/poll round trip on a queue called directly and through a
+ * {@link LatencyAdaptor} timing both calls. The difference between the
+ * round trips is what per-method p99s cost; {@code gc.alloc.rate.norm}
+ * should be zero throughout.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LatencyHistogramBenchmark {
+
+    private static final Object ELEMENT = new Object();
+
+    private final LatencyHistogram histogram = new LatencyHistogram(TimeUnit.HOURS.toNanos(1), 2);
+    private final MessageQueue<Object> queue = new SpscArrayQueue<>(16);
+    private MessageQueue<Object> timed;
+    private long value;
+
+    @Setup
+    public void setup() {
+        timed = LatencyAdaptor.<MessageQueue<Object>>wrap(HiddenAdaptorFactory.create(MethodHandles.lookup()),
+                MessageQueue.class, new SpscArrayQueue<>(16),
+                () -> new LatencyHistogram(TimeUnit.HOURS.toNanos(1), 2)).adaptor();
+    }
+
+    @Benchmark
+    public void record() {
+        value = value * 6364136223846793005L + 1442695040888963407L;
+        histogram.record(value >>> 40);
+    }
+
+    @Benchmark
+    public Object directRoundTrip() {
+        queue.offer(ELEMENT);
+        return queue.poll();
+    }
+
+    @Benchmark
+    public Object timedRoundTrip() {
+        timed.offer(ELEMENT);
+        return timed.poll();
+    }
+}
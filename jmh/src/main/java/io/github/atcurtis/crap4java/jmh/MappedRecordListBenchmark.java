@@ -0,0 +1,107 @@
+package io.github.atcurtis.crap4java.jmh;
+
+import io.github.atcurtis.crap4java.parts.mapped.MappedRecordList;
+import io.github.atcurtis.crap4java.parts.mapped.RecordView;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Opening a reference dataset by mapping it versus loading it onto the heap,
+ * and scanning it afterwards.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MappedRecordListBenchmark {
+
+    static final class Quote extends RecordView<Quote> {
+        long id() {
+            return buffer.getLong(offset);
+        }
+
+        double price() {
+            return buffer.getDouble(offset + 8);
+        }
+    }
+
+    record HeapQuote(long id, double price) {
+    }
+
+    @Param({"1000000"})
+    public int records;
+
+    private Path file;
+    private MappedRecordList<Quote> mapped;
+    private HeapQuote[] heap;
+
+    @Setup
+    public void setup() throws IOException {
+        ByteBuffer bytes = ByteBuffer.allocate(records * 16).order(ByteOrder.LITTLE_ENDIAN);
+        for (int i = 0; i < records; i++) {
+            bytes.putLong(i).putDouble(i * 0.25);
+        }
+        file = Files.write(Files.createTempFile("quotes", ".bin"), bytes.array());
+        mapped = openMapped();
+        heap = loadToHeap();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public MappedRecordList<Quote> openMapped() throws IOException {
+        return MappedRecordList.openFixed(file, 16, ByteOrder.LITTLE_ENDIAN, Quote::new);
+    }
+
+    @Benchmark
+    public HeapQuote[] loadToHeap() throws IOException {
+        ByteBuffer bytes = ByteBuffer.wrap(Files.readAllBytes(file)).order(ByteOrder.LITTLE_ENDIAN);
+        HeapQuote[] quotes = new HeapQuote[bytes.remaining() / 16];
+        for (int i = 0; i < quotes.length; i++) {
+            quotes[i] = new HeapQuote(bytes.getLong(), bytes.getDouble());
+        }
+        return quotes;
+    }
+
+    @Benchmark
+    public double scanMapped() {
+        double sum = 0;
+        Quote view = mapped.newView();
+        for (int i = 0, n = mapped.size(); i < n; i++) {
+            sum += mapped.get(i, view).price();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public double scanHeap() {
+        double sum = 0;
+        for (HeapQuote quote : heap) {
+            sum += quote.price();
+        }
+        return sum;
+    }
+}
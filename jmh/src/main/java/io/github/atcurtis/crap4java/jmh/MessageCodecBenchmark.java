@@ -0,0 +1,261 @@
+package io.github.atcurtis.crap4java.jmh;
+
+import io.github.atcurtis.crap4java.parts.codec.GenerateCodec;
+import io.github.atcurtis.crap4java.parts.codec.Tag;
+import io.github.atcurtis.crap4java.parts.codec.Varint;
+import io.github.atcurtis.crap4java.parts.codec.Wire;
+import io.github.atcurtis.crap4java.parts.codec.ZigZag;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.RecordComponent;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes and reads a small order message with the generated codec, with a
+ * reflective codec producing the same bytes, and with JDK serialization, the
+ * two kinds of serializer the generator replaces. The reflective codec caches
+ * its accessors and constructors, so what remains is the per-call cost of
+ * reflective invocation, boxing and type dispatch.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MessageCodecBenchmark {
+
+    /**
+     * An order line.
+     */
+    @GenerateCodec
+    public record Line(@Tag(1) String sku, @Tag(2) int count, @Tag(3) long priceCents) implements Serializable {
+    }
+
+    /**
+     * The state of an order.
+     */
+    public enum Status { NEW, PAID, SHIPPED }
+
+    /**
+     * A typical inter-service message.
+     */
+    @GenerateCodec
+    public record Order(@Tag(1) long id, @Tag(2) String customer, @Tag(3) Status status,
+                        @Tag(4) boolean express, @Tag(5) double weight,
+                        @Tag(6) List<Line> lines) implements Serializable {
+    }
+
+    private Order order;
+    private ByteBuffer out;
+    private ByteBuffer encoded;
+    private byte[] serialized;
+    private ReflectiveCodec reflective;
+
+    @Setup
+    public void setup() throws IOException, ReflectiveOperationException {
+        order = new Order(1_234_567L, "customer-4711", Status.PAID, true, 2.75, List.of(
+                new Line("SKU-100", 2, 1999), new Line("SKU-2001", 1, 45_000), new Line("SKU-31", 12, 250)));
+        out = ByteBuffer.allocate(1024);
+        MessageCodecBenchmark_OrderCodec.INSTANCE.write(order, out);
+        encoded = ByteBuffer.allocate(out.position()).put(out.flip()).flip();
+        serialized = serialize(order);
+        reflective = new ReflectiveCodec();
+        if (!order.equals(reflective.read(Order.class, encoded.duplicate()))) {
+            throw new IllegalStateException("reflective codec does not read the generated encoding");
+        }
+    }
+
+    @Benchmark
+    public int generatedWrite() {
+        MessageCodecBenchmark_OrderCodec.INSTANCE.write(order, out.clear());
+        return out.position();
+    }
+
+    @Benchmark
+    public Order generatedRead() {
+        return MessageCodecBenchmark_OrderCodec.INSTANCE.read(encoded.clear());
+    }
+
+    @Benchmark
+    public int reflectiveWrite() throws ReflectiveOperationException {
+        reflective.write(order, out.clear());
+        return out.position();
+    }
+
+    @Benchmark
+    public Object reflectiveRead() throws ReflectiveOperationException {
+        return reflective.read(Order.class, encoded.clear());
+    }
+
+    @Benchmark
+    public byte[] serializationWrite() throws IOException {
+        return serialize(order);
+    }
+
+    @Benchmark
+    public Object serializationRead() throws IOException, ClassNotFoundException {
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(serialized))) {
+            return in.readObject();
+        }
+    }
+
+    private static byte[] serialize(Object value) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(512);
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(value);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Writes and reads records in the {@link Wire} format by walking their
+     * components reflectively, tagging them by position.
+     */
+    static final class ReflectiveCodec {
+        private final Map<Class<?>, RecordComponent[]> components = new HashMap<>();
+        private final Map<Class<?>, Constructor<?>> constructors = new HashMap<>();
+
+        void write(Record value, ByteBuffer out) throws ReflectiveOperationException {
+            RecordComponent[] fields = components(value.getClass());
+            for (int i = 0; i < fields.length; i++) {
+                Method accessor = fields[i].getAccessor();
+                Object field = accessor.invoke(value);
+                if (field instanceof List<?> list) {
+                    for (Object element : list) {
+                        writeField(i + 1, element, out);
+                    }
+                } else {
+                    writeField(i + 1, field, out);
+                }
+            }
+            out.put((byte) Wire.END);
+        }
+
+        private void writeField(int tag, Object field, ByteBuffer out) throws ReflectiveOperationException {
+            if (field instanceof Long l) {
+                if (l != 0) {
+                    Varint.putInt(out, Wire.key(tag, Wire.VARINT));
+                    Varint.putLong(out, ZigZag.encode(l));
+                }
+            } else if (field instanceof Integer n) {
+                if (n != 0) {
+                    Varint.putInt(out, Wire.key(tag, Wire.VARINT));
+                    Varint.putInt(out, ZigZag.encode(n));
+                }
+            } else if (field instanceof Boolean b) {
+                if (b) {
+                    Varint.putInt(out, Wire.key(tag, Wire.VARINT));
+                    out.put((byte) 1);
+                }
+            } else if (field instanceof Double d) {
+                if (Double.doubleToRawLongBits(d) != 0) {
+                    Varint.putInt(out, Wire.key(tag, Wire.FIXED64));
+                    Wire.putFixed64(out, Double.doubleToRawLongBits(d));
+                }
+            } else if (field instanceof String s) {
+                Varint.putInt(out, Wire.key(tag, Wire.BYTES));
+                Wire.putString(out, s);
+            } else if (field instanceof Enum<?> e) {
+                Varint.putInt(out, Wire.key(tag, Wire.VARINT));
+                Varint.putInt(out, e.ordinal());
+            } else if (field instanceof Record r) {
+                Varint.putInt(out, Wire.key(tag, Wire.MESSAGE));
+                write(r, out);
+            } else if (field != null) {
+                throw new IllegalArgumentException("unsupported type: " + field.getClass());
+            }
+        }
+
+        Object read(Class<?> type, ByteBuffer in) throws ReflectiveOperationException {
+            RecordComponent[] fields = components(type);
+            Object[] values = new Object[fields.length];
+            for (int i = 0; i < fields.length; i++) {
+                Class<?> c = fields[i].getType();
+                values[i] = c == long.class ? (Object) 0L : c == int.class ? (Object) 0
+                        : c == boolean.class ? (Object) false : c == double.class ? (Object) 0.0 : null;
+            }
+            for (int key = Varint.getInt(in); key != Wire.END; key = Varint.getInt(in)) {
+                int index = Wire.tag(key) - 1;
+                if (index >= fields.length) {
+                    Wire.skip(in, key);
+                    continue;
+                }
+                RecordComponent field = fields[index];
+                Class<?> c = field.getType();
+                if (c == List.class) {
+                    Class<?> element = (Class<?>) ((ParameterizedType) field.getGenericType())
+                            .getActualTypeArguments()[0];
+                    @SuppressWarnings("unchecked")
+                    List<Object> list = values[index] == null
+                            ? (List<Object>) (values[index] = new ArrayList<>()) : (List<Object>) values[index];
+                    list.add(readValue(element, in));
+                } else {
+                    values[index] = readValue(c, in);
+                }
+            }
+            for (int i = 0; i < fields.length; i++) {
+                if (values[i] == null && fields[i].getType() == List.class) {
+                    values[i] = List.of();
+                }
+            }
+            return constructors.get(type).newInstance(values);
+        }
+
+        private Object readValue(Class<?> c, ByteBuffer in) throws ReflectiveOperationException {
+            if (c == long.class) {
+                return ZigZag.decode(Varint.getLong(in));
+            } else if (c == int.class) {
+                return ZigZag.decode(Varint.getInt(in));
+            } else if (c == boolean.class) {
+                return Varint.getInt(in) != 0;
+            } else if (c == double.class) {
+                return Double.longBitsToDouble(Wire.getFixed64(in));
+            } else if (c == String.class) {
+                return Wire.getString(in);
+            } else if (c.isEnum()) {
+                return c.getEnumConstants()[Varint.getInt(in)];
+            } else if (c.isRecord()) {
+                return read(c, in);
+            }
+            throw new IllegalArgumentException("unsupported type: " + c);
+        }
+
+        private RecordComponent[] components(Class<?> type) throws NoSuchMethodException {
+            RecordComponent[] fields = components.get(type);
+            if (fields == null) {
+                fields = type.getRecordComponents();
+                Class<?>[] types = new Class<?>[fields.length];
+                for (int i = 0; i < fields.length; i++) {
+                    types[i] = fields[i].getType();
+                }
+                components.put(type, fields);
+                constructors.put(type, type.getDeclaredConstructor(types));
+            }
+            return fields;
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package io.github.atcurtis.crap4java.jmh;
+
+import io.github.atcurtis.crap4java.parts.queue.MessageQueue;
+import io.github.atcurtis.crap4java.parts.queue.MpscArrayQueue;
+import io.github.atcurtis.crap4java.parts.queue.MpscChunkedQueue;
+import io.github.atcurtis.crap4java.parts.queue.SpscArrayQueue;
+import io.github.atcurtis.crap4java.parts.queue.SpscChunkedQueue;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Producers feed one consumer through the message queues and through a
+ * {@link ConcurrentLinkedQueue}: three producers for the multi-producer
+ * queues, one for the single-producer queues. The figure to compare is the
+ * {@code elements} counter, elements handed to the consumer per microsecond;
+ * the group score also counts producer attempts.
+ *
+ * <p>Producers stay at most {@value #BACKLOG} elements ahead of the consumer
+ * so the unbounded queues measure hand-off rather than heap growth. Elements
+ * are a cached {@code Integer}, so {@code gc.alloc.rate.norm} is the queue's
+ * own allocation.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MessageQueueBenchmark {
+
+    static final int BACKLOG = 8192;
+    private static final Integer ELEMENT = 42;
+
+    /**
+     * A {@link ConcurrentLinkedQueue} behind the message queue interface.
+     */
+    static final class LinkedQueue implements MessageQueue<Integer> {
+        private final ConcurrentLinkedQueue<Integer> queue = new ConcurrentLinkedQueue<>();
+
+        @Override
+        public boolean offer(Integer element) {
+            return queue.offer(element);
+        }
+
+        @Override
+        public Integer poll() {
+            return queue.poll();
+        }
+
+        @Override
+        public Integer peek() {
+            return queue.peek();
+        }
+
+        @Override
+        public int drain(java.util.function.Consumer<? super Integer> consumer, int limit) {
+            int drained = 0;
+            Integer element;
+            while (drained < limit && (element = queue.poll()) != null) {
+                consumer.accept(element);
+                drained++;
+            }
+            return drained;
+        }
+
+        @Override
+        public int size() {
+            return queue.size();
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return queue.isEmpty();
+        }
+
+        @Override
+        public int capacity() {
+            return UNBOUNDED;
+        }
+    }
+
+    /**
+     * The queue and the consumer's progress, shared by one group.
+     */
+    @State(Scope.Group)
+    public static class Shared {
+
+        @Param({"MpscArrayQueue", "MpscChunkedQueue", "SpscArrayQueue", "SpscChunkedQueue",
+                "ConcurrentLinkedQueue"})
+        public String queue;
+
+        MessageQueue<Integer> messages;
+        int producers;
+        volatile long consumed;
+
+        @Setup
+        public void setup() {
+            messages = switch (queue) {
+                case "MpscArrayQueue" -> new MpscArrayQueue<>(BACKLOG);
+                case "MpscChunkedQueue" -> new MpscChunkedQueue<>();
+                case "SpscArrayQueue" -> new SpscArrayQueue<>(BACKLOG);
+                case "SpscChunkedQueue" -> new SpscChunkedQueue<>();
+                default -> new LinkedQueue();
+            };
+            producers = queue.startsWith("Spsc") ? 1 : 3;
+        }
+    }
+
+    /**
+     * Elements offered by one producer.
+     */
+    @State(Scope.Thread)
+    public static class Producer {
+        long offered;
+    }
+
+    /**
+     * Elements received by the consumer, reported as a secondary result.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Consumer {
+        public long elements;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            elements = 0;
+        }
+    }
+
+    private static void produce(Shared shared, Producer producer) {
+        // Each producer keeps its share of the backlog; the single-producer
+        // queues are run with the surplus producers idle.
+        if (producer.offered - shared.consumed / shared.producers < BACKLOG / shared.producers
+                && shared.messages.offer(ELEMENT)) {
+            producer.offered++;
+        }
+    }
+
+    @Benchmark
+    @Group("handoff")
+    @GroupThreads(1)
+    public void producer(Shared shared, Producer producer) {
+        produce(shared, producer);
+    }
+
+    @Benchmark
+    @Group("handoff")
+    @GroupThreads(2)
+    public void extraProducers(Shared shared, Producer producer) {
+        if (shared.producers > 1) {
+            produce(shared, producer);
+        } else {
+            Thread.onSpinWait();
+        }
+    }
+
+    @Benchmark
+    @Group("handoff")
+    @GroupThreads(1)
+    public void consumer(Shared shared, Consumer consumer, Blackhole bh) {
+        int drained = shared.messages.drain(bh::consume, 256);
+        if (drained > 0) {
+            consumer.elements += drained;
+            shared.consumed += drained;
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package io.github.atcurtis.crap4java.jmh;
+
+import io.github.atcurtis.crap4java.adaptors.Recyclable;
+import io.github.atcurtis.crap4java.parts.pool.ObjectPool;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pooled versus freshly allocated scratch objects of two sizes, with four
+ * threads sharing one pool. Small objects are expected to favour allocation;
+ * the crossover is what this benchmark is for. The pooled benchmarks report
+ * their {@code hits} and {@code misses} as secondary results.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class ObjectPoolBenchmark {
+
+    static final class Scratch implements Recyclable<Scratch> {
+        final byte[] bytes;
+        int used;
+        // set until the first acquirer has counted the miss that created it
+        boolean created = true;
+
+        Scratch(int size) {
+            bytes = new byte[size];
+        }
+
+        @Override
+        public Scratch reset() {
+            used = 0;
+            return this;
+        }
+
+        int fill(int seed) {
+            int n = Math.min(bytes.length, 64);
+            for (int i = 0; i < n; i++) {
+                bytes[i] = (byte) (seed + i);
+            }
+            used = n;
+            return bytes[n - 1];
+        }
+    }
+
+    @Param({"16", "16384"})
+    public int size;
+
+    private ObjectPool<Scratch> pool;
+    private ObjectPool<Scratch> sharedOnly;
+
+    @Setup
+    public void setup() {
+        pool = new ObjectPool<>(() -> new Scratch(size), 64, 4);
+        sharedOnly = new ObjectPool<>(() -> new Scratch(size), 64, 0);
+    }
+
+    /**
+     * Acquisitions served from the pool and ones that had to create an
+     * object, reported as secondary results.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Counters {
+        public long hits;
+        public long misses;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            hits = 0;
+            misses = 0;
+        }
+
+        void count(Scratch s) {
+            if (s.created) {
+                s.created = false;
+                misses++;
+            } else {
+                hits++;
+            }
+        }
+    }
+
+    @Benchmark
+    public void allocate(Blackhole bh) {
+        Scratch s = new Scratch(size);
+        bh.consume(s.fill(size));
+        bh.consume(s);
+    }
+
+    @Benchmark
+    public void threadCachedPool(Blackhole bh, Counters counters) {
+        Scratch s = pool.acquire();
+        counters.count(s);
+        bh.consume(s.fill(size));
+        pool.release(s);
+    }
+
+    @Benchmark
+    public void sharedOnlyPool(Blackhole bh, Counters counters) {
+        Scratch s = sharedOnly.acquire();
+        counters.count(s);
+        bh.consume(s.fill(size));
+        sharedOnly.release(s);
+    }
+}
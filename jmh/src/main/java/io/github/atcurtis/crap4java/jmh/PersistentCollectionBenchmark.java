@@ -0,0 +1,120 @@
+package io.github.atcurtis.crap4java.jmh;
+
+import io.github.atcurtis.crap4java.parts.persistent.PersistentMap;
+import io.github.atcurtis.crap4java.parts.persistent.PersistentVector;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publishes an updated snapshot of a map and of a list of {@code size}
+ * entries, by copying the whole {@code java.util} collection and by updating
+ * a persistent one, and bulk-loads a persistent map through its transient.
+ * {@code gc.alloc.rate.norm} is the cost of one snapshot.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PersistentCollectionBenchmark {
+
+    @Param({"100", "10000"})
+    public int size;
+
+    private Map<String, Integer> hashMap;
+    private PersistentMap<String, Integer> persistentMap;
+    private List<Integer> arrayList;
+    private PersistentVector<Integer> persistentVector;
+    private String[] keys;
+    private int next;
+
+    @Setup
+    public void setup() {
+        keys = new String[size];
+        hashMap = new HashMap<>();
+        arrayList = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            keys[i] = "route-" + i;
+            hashMap.put(keys[i], i);
+            arrayList.add(i);
+        }
+        persistentMap = PersistentMap.from(hashMap);
+        persistentVector = PersistentVector.from(arrayList);
+    }
+
+    private String nextKey() {
+        int index = next++;
+        if (next == size) {
+            next = 0;
+        }
+        return keys[index];
+    }
+
+    @Benchmark
+    public Map<String, Integer> copyHashMap() {
+        Map<String, Integer> snapshot = new HashMap<>(hashMap);
+        snapshot.put(nextKey(), -1);
+        return snapshot;
+    }
+
+    @Benchmark
+    public PersistentMap<String, Integer> persistentMapWith() {
+        return persistentMap.with(nextKey(), -1);
+    }
+
+    @Benchmark
+    public List<Integer> copyArrayList() {
+        List<Integer> snapshot = new ArrayList<>(arrayList.size() + 1);
+        snapshot.addAll(arrayList);
+        snapshot.add(-1);
+        return snapshot;
+    }
+
+    @Benchmark
+    public PersistentVector<Integer> persistentVectorAppend() {
+        return persistentVector.append(-1);
+    }
+
+    @Benchmark
+    public Map<String, Integer> bulkLoadHashMap() {
+        Map<String, Integer> map = new HashMap<>();
+        for (int i = 0; i < size; i++) {
+            map.put(keys[i], i);
+        }
+        return map;
+    }
+
+    @Benchmark
+    public PersistentMap<String, Integer> bulkLoadTransient() {
+        PersistentMap.Transient<String, Integer> builder = PersistentMap.<String, Integer>empty().asTransient();
+        for (int i = 0; i < size; i++) {
+            builder.put(keys[i], i);
+        }
+        return builder.persistent();
+    }
+
+    @Benchmark
+    public PersistentMap<String, Integer> bulkLoadPersistent() {
+        PersistentMap<String, Integer> map = PersistentMap.empty();
+        for (int i = 0; i < size; i++) {
+            map = map.with(keys[i], i);
+        }
+        return map;
+    }
+}
@@ -0,0 +1,98 @@
+package io.github.atcurtis.crap4java.jmh;
+
+import io.github.atcurtis.crap4java.adaptors.primitive.IntAdaptor;
+import io.github.atcurtis.crap4java.adaptors.primitive.LongAdaptor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+/**
+ * Map/filter/sum over numeric telemetry. Results are normalised per element,
+ * so {@code gc.alloc.rate.norm} reads as bytes allocated per element: the
+ * primitive pipelines should report (close to) zero, the boxed baseline about
+ * 16 bytes.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+@OperationsPerInvocation(PrimitiveAdaptorBenchmark.SIZE)
+public class PrimitiveAdaptorBenchmark {
+
+    static final int SIZE = 4096;
+
+    @Param({"true", "false"})
+    public boolean reusePipeline;
+
+    private int[] ints;
+    private long[] longs;
+    private List<Integer> boxed;
+    private IntAdaptor intPipeline;
+    private LongAdaptor longPipeline;
+
+    @Setup
+    public void setup() {
+        ints = IntStream.range(0, SIZE).map(i -> i * 31 % 1000).toArray();
+        longs = IntStream.of(ints).asLongStream().toArray();
+        boxed = IntStream.of(ints).boxed().toList();
+        intPipeline = IntAdaptor.of(ints).map(v -> v * 3).filter(v -> (v & 1) == 0);
+        longPipeline = LongAdaptor.of(longs).map(v -> v * 3).filter(v -> (v & 1) == 0);
+    }
+
+    @Benchmark
+    public int handWrittenLoop() {
+        int sum = 0;
+        for (int v : ints) {
+            int m = v * 3;
+            if ((m & 1) == 0) {
+                sum += m;
+            }
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public int intAdaptor() {
+        IntAdaptor pipeline = reusePipeline ? intPipeline
+                : IntAdaptor.of(ints).map(v -> v * 3).filter(v -> (v & 1) == 0);
+        return pipeline.sum();
+    }
+
+    @Benchmark
+    public long longAdaptor() {
+        LongAdaptor pipeline = reusePipeline ? longPipeline
+                : LongAdaptor.of(longs).map(v -> v * 3).filter(v -> (v & 1) == 0);
+        return pipeline.sum();
+    }
+
+    @Benchmark
+    public int intStream() {
+        return IntStream.of(ints).map(v -> v * 3).filter(v -> (v & 1) == 0).sum();
+    }
+
+    @Benchmark
+    public long longStream() {
+        return LongStream.of(longs).map(v -> v * 3).filter(v -> (v & 1) == 0).sum();
+    }
+
+    @Benchmark
+    public int boxedStream() {
+        return boxed.stream().map(v -> v * 3).filter(v -> (v & 1) == 0).reduce(0, Integer::sum);
+    }
+}
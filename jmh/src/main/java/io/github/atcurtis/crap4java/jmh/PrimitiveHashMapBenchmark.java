@@ -0,0 +1,117 @@
+package io.github.atcurtis.crap4java.jmh;
+
+import io.github.atcurtis.crap4java.parts.hash.LongLongHashMap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Builds, probes and iterates a {@code long -> long} map as a
+ * {@link LongLongHashMap} and as a {@code HashMap<Long, Long>}. Lookups visit
+ * every key in random order; {@code gc.alloc.rate.norm} on the put
+ * benchmarks is the footprint of a map of {@code entries} entries, since
+ * both maps are presized and nothing else is allocated.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@State(Scope.Benchmark)
+public class PrimitiveHashMapBenchmark {
+
+    @Param({"10000", "1000000"})
+    public int entries;
+
+    private long[] keys;
+    private long[] probes;
+    private LongLongHashMap primitive;
+    private Map<Long, Long> boxed;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        keys = random.longs(entries).toArray();
+        probes = keys.clone();
+        for (int i = probes.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            long swap = probes[i];
+            probes[i] = probes[j];
+            probes[j] = swap;
+        }
+        primitive = new LongLongHashMap(entries);
+        boxed = HashMap.newHashMap(entries);
+        for (long key : keys) {
+            primitive.put(key, key);
+            boxed.put(key, key);
+        }
+    }
+
+    @Benchmark
+    public LongLongHashMap putPrimitive() {
+        LongLongHashMap map = new LongLongHashMap(entries);
+        for (long key : keys) {
+            map.put(key, key);
+        }
+        return map;
+    }
+
+    @Benchmark
+    public Map<Long, Long> putBoxed() {
+        Map<Long, Long> map = HashMap.newHashMap(entries);
+        for (long key : keys) {
+            map.put(key, key);
+        }
+        return map;
+    }
+
+    @Benchmark
+    public long getPrimitive() {
+        long total = 0;
+        for (long key : probes) {
+            total += primitive.get(key);
+        }
+        return total;
+    }
+
+    @Benchmark
+    public long getBoxed() {
+        long total = 0;
+        for (long key : probes) {
+            total += boxed.get(key);
+        }
+        return total;
+    }
+
+    @Benchmark
+    public long iteratePrimitive() {
+        long[] total = new long[1];
+        primitive.values().forEachWhile(value -> {
+            total[0] += value;
+            return true;
+        });
+        return total[0];
+    }
+
+    @Benchmark
+    public long iterateBoxed() {
+        long total = 0;
+        for (long value : boxed.values()) {
+            total += value;
+        }
+        return total;
+    }
+}
@@ -0,0 +1,106 @@
+package io.github.atcurtis.crap4java.jmh;
+
+import io.github.atcurtis.crap4java.parts.ring.BatchEventProcessor;
+import io.github.atcurtis.crap4java.parts.ring.BusySpinWaitStrategy;
+import io.github.atcurtis.crap4java.parts.ring.RingBuffer;
+import io.github.atcurtis.crap4java.parts.ring.YieldingWaitStrategy;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hands events from the benchmark thread to one consumer thread through a
+ * single-producer ring buffer and through an {@link ArrayBlockingQueue} of the
+ * same capacity. Each operation publishes one event, so the score is the
+ * sustained cost per hand-off including any wait for the consumer; the
+ * queue additionally boxes every value.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RingBufferBenchmark {
+
+    /**
+     * The ring buffer slot.
+     */
+    public static final class ValueEvent {
+        long value;
+    }
+
+    @Param({"busySpin", "yielding"})
+    public String waitStrategy;
+
+    private RingBuffer<ValueEvent> ring;
+    private BatchEventProcessor<ValueEvent> processor;
+    private Thread ringConsumer;
+    private BlockingQueue<Long> queue;
+    private Thread queueConsumer;
+    private long next;
+    volatile long consumed;
+
+    @Setup
+    public void setup() {
+        ring = RingBuffer.singleProducer(ValueEvent::new, 1024,
+                "busySpin".equals(waitStrategy) ? new BusySpinWaitStrategy() : new YieldingWaitStrategy());
+        processor = new BatchEventProcessor<>(ring, ring.newBarrier(), (event, sequence, endOfBatch) -> {
+            if (endOfBatch) {
+                consumed = event.value;
+            }
+        });
+        ring.addGatingSequences(processor.sequence());
+        ringConsumer = new Thread(processor, "ring-consumer");
+        ringConsumer.setDaemon(true);
+        ringConsumer.start();
+
+        queue = new ArrayBlockingQueue<>(1024);
+        queueConsumer = new Thread(() -> {
+            try {
+                while (true) {
+                    consumed = queue.take();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, "queue-consumer");
+        queueConsumer.setDaemon(true);
+        queueConsumer.start();
+    }
+
+    @TearDown
+    public void tearDown() throws InterruptedException {
+        processor.halt();
+        queueConsumer.interrupt();
+        ringConsumer.join(1_000);
+        queueConsumer.join(1_000);
+    }
+
+    private static void write(ValueEvent event, long value) {
+        event.value = value;
+    }
+
+    @Benchmark
+    public void ringBuffer() {
+        ring.publishEvent(RingBufferBenchmark::write, next++);
+    }
+
+    @Benchmark
+    public void blockingQueue() throws InterruptedException {
+        queue.put(next++);
+    }
+}
@@ -0,0 +1,83 @@
+package io.github.atcurtis.crap4java.jmh;
+
+import io.github.atcurtis.crap4java.parts.bitmap.RoaringBitmap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.BitSet;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Intersects two sets of a million random IDs drawn from a universe of
+ * {@code universe} values, as {@link BitSet}s and as {@link RoaringBitmap}s,
+ * both materializing the result and only counting it. The smaller universe is
+ * dense enough for bitmap containers; the larger one leaves the roaring
+ * chunks as sorted arrays.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@State(Scope.Benchmark)
+public class RoaringBitmapBenchmark {
+
+    private static final int IDS = 1_000_000;
+
+    @Param({"10000000", "1000000000"})
+    public int universe;
+
+    private BitSet bitSetA;
+    private BitSet bitSetB;
+    private RoaringBitmap roaringA;
+    private RoaringBitmap roaringB;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        bitSetA = new BitSet(universe);
+        bitSetB = new BitSet(universe);
+        roaringA = new RoaringBitmap();
+        roaringB = new RoaringBitmap();
+        for (int i = 0; i < IDS; i++) {
+            int a = random.nextInt(universe);
+            int b = random.nextInt(universe);
+            bitSetA.set(a);
+            roaringA.add(a);
+            bitSetB.set(b);
+            roaringB.add(b);
+        }
+    }
+
+    @Benchmark
+    public BitSet bitSetAnd() {
+        BitSet result = (BitSet) bitSetA.clone();
+        result.and(bitSetB);
+        return result;
+    }
+
+    @Benchmark
+    public RoaringBitmap roaringAnd() {
+        return RoaringBitmap.and(roaringA, roaringB);
+    }
+
+    @Benchmark
+    public long bitSetAndCardinality() {
+        return bitSetAnd().cardinality();
+    }
+
+    @Benchmark
+    public long roaringAndCardinality() {
+        return RoaringBitmap.andCardinality(roaringA, roaringB);
+    }
+}
@@ -0,0 +1,86 @@
+package io.github.atcurtis.crap4java.jmh;
+
+import io.github.atcurtis.crap4java.adaptors.trace.Tracer;
+import io.github.atcurtis.crap4java.adaptors.trace.Tracing;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Brackets a tiny operation with the {@link Tracing} hook and with the usual
+ * alternative, a volatile flag checked around it, next to the bare
+ * operation. With {@code tracing=false} the call-site hook should match the
+ * bare operation. The flag's load and well-predicted branch are nearly free
+ * in a loop this small on x86, but stay in the compiled code, where they
+ * take up inlining budget and block reordering; with {@code tracing=true}
+ * both hooks pay for two {@code nanoTime} reads and the tracer.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TracingBenchmark {
+
+    @Param({"false", "true"})
+    public boolean tracing;
+
+    private final LongAdder total = new LongAdder();
+    private final Tracer tracer = (owner, elapsedNanos) -> total.add(elapsedNanos);
+    private volatile boolean flag;
+    private long state = 1;
+
+    @Setup
+    public void setup() {
+        flag = tracing;
+        if (tracing) {
+            Tracing.enable(tracer);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        Tracing.disable();
+    }
+
+    @Benchmark
+    public long bare() {
+        return work();
+    }
+
+    @Benchmark
+    public long callSiteHook() {
+        long start = Tracing.start();
+        long result = work();
+        Tracing.end(TracingBenchmark.class, start);
+        return result;
+    }
+
+    @Benchmark
+    public long volatileFlagHook() {
+        long start = flag ? System.nanoTime() : 0;
+        long result = work();
+        if (flag) {
+            tracer.trace(TracingBenchmark.class, System.nanoTime() - start);
+        }
+        return result;
+    }
+
+    private long work() {
+        state = state * 6364136223846793005L + 1442695040888963407L;
+        return state >>> 33;
+    }
+}
@@ -0,0 +1,85 @@
+package io.github.atcurtis.crap4java.jmh;
+
+import io.github.atcurtis.crap4java.adaptors.io.Utf8View;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Resolves the header names of a message held in a direct buffer against a
+ * table of known headers, by decoding each name to a {@code String} and by
+ * probing with one re-pointed {@link Utf8View}. The view path should report
+ * zero bytes per operation.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class Utf8ViewBenchmark {
+
+    private static final String[] HEADERS = {
+            "host", "user-agent", "accept", "accept-encoding", "accept-language", "content-type",
+            "content-length", "authorization", "x-request-id", "x-forwarded-for", "cache-control", "cookie",
+    };
+
+    private ByteBuffer message;
+    private int[] starts;
+    private int[] lengths;
+    private Map<String, Integer> byString;
+    private Map<Utf8View, Integer> byView;
+    private final Utf8View probe = new Utf8View();
+
+    @Setup
+    public void setup() {
+        byString = new HashMap<>();
+        byView = new HashMap<>();
+        for (int i = 0; i < HEADERS.length; i++) {
+            byString.put(HEADERS[i], i);
+            byView.put(Utf8View.of(HEADERS[i]), i);
+        }
+        byte[] bytes = String.join(":", HEADERS).getBytes(StandardCharsets.UTF_8);
+        message = ByteBuffer.allocateDirect(bytes.length).put(bytes).flip();
+        starts = new int[HEADERS.length];
+        lengths = new int[HEADERS.length];
+        for (int i = 0, start = 0; i < HEADERS.length; i++) {
+            starts[i] = start;
+            lengths[i] = HEADERS[i].length();
+            start += lengths[i] + 1;
+        }
+    }
+
+    @Benchmark
+    public int decodeToString() {
+        int sum = 0;
+        byte[] scratch = new byte[64];
+        for (int i = 0; i < starts.length; i++) {
+            message.get(starts[i], scratch, 0, lengths[i]);
+            sum += byString.get(new String(scratch, 0, lengths[i], StandardCharsets.UTF_8));
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public int utf8View() {
+        int sum = 0;
+        for (int i = 0; i < starts.length; i++) {
+            sum += byView.get(probe.wrap(message, starts[i], lengths[i]));
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,6 @@
+/**
+ * JMH benchmarks for the adaptors and parts. Run them with
+ * {@code ./gradlew :jmh:jmh}; the report is written to {@code bench_output.txt}
+ * at the repository root.
+ */
+package io.github.atcurtis.crap4java.jmh;
@@ -0,0 +1,253 @@
+package io.github.atcurtis.crap4java.parts.batch;
+
+import io.github.atcurtis.crap4java.adaptors.builder.GenerateBuilder;
+import io.github.atcurtis.crap4java.adaptors.jfr.BatchFlushEvent;
+
+import java.io.Flushable;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.ToLongFunction;
+
+/**
+ * Adapts a batch consumer to a single-item {@link Consumer}, collecting items
+ * and handing them downstream as a {@link List} once any trigger fires:
+ *
+ * <ul>
+ *   <li><b>count</b>: the batch holds {@code maxCount} items;</li>
+ *   <li><b>bytes</b>: the sizes of the items, as reported by {@code sizer},
+ *       add up to {@code maxBytes};</li>
+ *   <li><b>linger</b>: {@code linger} has passed since the first item entered
+ *       the batch; the flush runs on the caller-supplied {@code scheduler}.</li>
+ * </ul>
+ *
+ * A trigger left at zero is disabled; at least one must be set. Sinks are
+ * configured through the generated {@link BatchingSinkBuilder}:
+ *
+ * <pre>{@code
+ * BatchingSink<Event> sink = BatchingSink.<Event>builder()
+ *         .downstream(store::writeAll)
+ *         .maxCount(500)
+ *         .linger(Duration.ofMillis(5))
+ *         .scheduler(scheduler)
+ *         .build();
+ * }</pre>
+ *
+ * <p>The sink is thread-safe. The downstream consumer is called with the
+ * sink's lock held, so batches are delivered one at a time and in order, and
+ * producers wait while a flush is running, which is the back-pressure a slow
+ * store needs. The list passed downstream is not reused and may be kept. If
+ * the downstream consumer throws, the batch is dropped, the failure is
+ * counted and the exception propagates to the thread that triggered the
+ * flush; for linger flushes that is a scheduler thread.
+ *
+ * <p>Every flush is counted in the sink's {@link FlushMetrics} and recorded
+ * as a {@link BatchFlushEvent} for Java Flight Recorder.
+ *
+ * @param <T> the item type
+ */
+public final class BatchingSink<T> implements Consumer<T>, Flushable, AutoCloseable {
+
+    /**
+     * What caused a flush.
+     */
+    public enum Trigger {
+        /** The batch reached {@code maxCount} items. */
+        COUNT,
+        /** The batch reached {@code maxBytes} bytes. */
+        BYTES,
+        /** The first item of the batch has waited {@code linger}. */
+        LINGER,
+        /** {@link BatchingSink#flush()} was called. */
+        FLUSH,
+        /** {@link BatchingSink#close()} was called. */
+        CLOSE
+    }
+
+    private final Consumer<? super List<T>> downstream;
+    private final int maxCount;
+    private final long maxBytes;
+    private final ToLongFunction<? super T> sizer;
+    private final long lingerNanos;
+    private final ScheduledExecutorService scheduler;
+    private final FlushMetrics metrics;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private List<T> batch;
+    private long bytes;
+    private long startNanos;
+    private long generation;
+    private ScheduledFuture<?> lingerTask;
+    private boolean closed;
+
+    /**
+     * Creates a sink; use {@link #builder()}.
+     *
+     * @param downstream receives each batch
+     * @param maxCount   the count trigger, or zero
+     * @param maxBytes   the byte trigger, or zero
+     * @param sizer      reports the size of an item in bytes; required with
+     *                   {@code maxBytes}
+     * @param linger     the linger trigger, or {@code null}
+     * @param scheduler  runs linger flushes; required with {@code linger}
+     * @param metrics    where to record flushes, or {@code null}
+     */
+    @GenerateBuilder(name = "BatchingSinkBuilder")
+    BatchingSink(Consumer<? super List<T>> downstream, int maxCount, long maxBytes,
+                 ToLongFunction<? super T> sizer, Duration linger, ScheduledExecutorService scheduler,
+                 FlushMetrics metrics) {
+        this.downstream = Objects.requireNonNull(downstream, "downstream");
+        if (maxCount < 0) {
+            throw new IllegalArgumentException("maxCount: " + maxCount);
+        }
+        if (maxBytes < 0) {
+            throw new IllegalArgumentException("maxBytes: " + maxBytes);
+        }
+        if (maxBytes > 0 && sizer == null) {
+            throw new IllegalArgumentException("maxBytes needs a sizer");
+        }
+        long lingerNanos = linger == null ? 0 : linger.toNanos();
+        if (lingerNanos < 0) {
+            throw new IllegalArgumentException("linger: " + linger);
+        }
+        if (lingerNanos > 0 && scheduler == null) {
+            throw new IllegalArgumentException("linger needs a scheduler");
+        }
+        if (maxCount == 0 && maxBytes == 0 && lingerNanos == 0) {
+            throw new IllegalArgumentException("No flush trigger set");
+        }
+        this.maxCount = maxCount;
+        this.maxBytes = maxBytes;
+        this.sizer = sizer;
+        this.lingerNanos = lingerNanos;
+        this.scheduler = scheduler;
+        this.metrics = metrics == null ? new FlushMetrics() : metrics;
+    }
+
+    /**
+     * Returns a new builder.
+     *
+     * @param <T> the item type
+     * @return the builder
+     */
+    public static <T> BatchingSinkBuilder<T> builder() {
+        return new BatchingSinkBuilder<>();
+    }
+
+    /**
+     * Returns the metrics this sink records into.
+     *
+     * @return the metrics
+     */
+    public FlushMetrics metrics() {
+        return metrics;
+    }
+
+    /**
+     * Adds {@code item} to the current batch, flushing it if a count or byte
+     * trigger fires.
+     *
+     * @param item the item
+     * @throws IllegalStateException if the sink is closed
+     */
+    @Override
+    public void accept(T item) {
+        lock.lock();
+        try {
+            if (closed) {
+                throw new IllegalStateException("Sink is closed");
+            }
+            if (batch == null) {
+                batch = new ArrayList<>(maxCount > 0 ? Math.min(maxCount, 1024) : 16);
+                startNanos = System.nanoTime();
+                if (lingerNanos > 0) {
+                    long scheduled = generation;
+                    lingerTask = scheduler.schedule(() -> lingered(scheduled), lingerNanos, TimeUnit.NANOSECONDS);
+                }
+            }
+            batch.add(item);
+            if (maxCount > 0 && batch.size() >= maxCount) {
+                flushLocked(Trigger.COUNT);
+            } else if (maxBytes > 0 && (bytes += sizer.applyAsLong(item)) >= maxBytes) {
+                flushLocked(Trigger.BYTES);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Flushes the current batch, if any.
+     */
+    @Override
+    public void flush() {
+        lock.lock();
+        try {
+            flushLocked(Trigger.FLUSH);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Flushes the current batch, if any, and rejects further items. The
+     * scheduler is not shut down.
+     */
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            if (!closed) {
+                closed = true;
+                flushLocked(Trigger.CLOSE);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void lingered(long scheduled) {
+        lock.lock();
+        try {
+            // A count or byte flush may have beaten the timer to this batch.
+            if (generation == scheduled) {
+                flushLocked(Trigger.LINGER);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void flushLocked(Trigger trigger) {
+        List<T> flushed = batch;
+        if (flushed == null) {
+            return;
+        }
+        batch = null;
+        bytes = 0;
+        generation++;
+        if (lingerTask != null) {
+            if (trigger != Trigger.LINGER) {
+                lingerTask.cancel(false);
+            }
+            lingerTask = null;
+        }
+        BatchFlushEvent event = new BatchFlushEvent();
+        event.begin();
+        boolean failed = true;
+        try {
+            downstream.accept(flushed);
+            failed = false;
+        } finally {
+            long latency = System.nanoTime() - startNanos;
+            metrics.flushed(trigger, flushed.size(), latency, failed);
+            event.emit(trigger.name(), flushed.size(), latency, failed);
+        }
+    }
+}
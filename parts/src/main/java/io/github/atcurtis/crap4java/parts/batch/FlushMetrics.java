@@ -0,0 +1,141 @@
+package io.github.atcurtis.crap4java.parts.batch;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts the flushes of one or more {@link BatchingSink}s.
+ *
+ * <p>Each flush is recorded with its trigger, its size and its
+ * <em>latency</em>: the time from the first item entering the batch until the
+ * downstream consumer returned. The latency is the delay batching adds to an
+ * item, bounded by the linger time plus the downstream call when the linger
+ * trigger is set.
+ *
+ * <p>Instances are thread-safe and may be shared by many sinks.
+ */
+public final class FlushMetrics {
+
+    private final Map<BatchingSink.Trigger, LongAdder> flushes = new EnumMap<>(BatchingSink.Trigger.class);
+    private final LongAdder items = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder latencyNanos = new LongAdder();
+    private final LongAccumulator maxLatencyNanos = new LongAccumulator(Math::max, 0);
+
+    /**
+     * Creates metrics with every counter at zero.
+     */
+    public FlushMetrics() {
+        for (BatchingSink.Trigger trigger : BatchingSink.Trigger.values()) {
+            flushes.put(trigger, new LongAdder());
+        }
+    }
+
+    /**
+     * Returns the number of flushes caused by {@code trigger}.
+     *
+     * @param trigger the trigger
+     * @return the flush count
+     */
+    public long flushes(BatchingSink.Trigger trigger) {
+        return flushes.get(trigger).sum();
+    }
+
+    /**
+     * Returns the number of flushes for any trigger.
+     *
+     * @return the flush count
+     */
+    public long flushes() {
+        long total = 0;
+        for (LongAdder count : flushes.values()) {
+            total += count.sum();
+        }
+        return total;
+    }
+
+    /**
+     * Returns the number of items flushed.
+     *
+     * @return the item count
+     */
+    public long items() {
+        return items.sum();
+    }
+
+    /**
+     * Returns the number of flushes whose downstream consumer threw.
+     *
+     * @return the failure count
+     */
+    public long failures() {
+        return failures.sum();
+    }
+
+    /**
+     * Returns the mean number of items per flush.
+     *
+     * @return the mean batch size, or zero before the first flush
+     */
+    public double meanBatchSize() {
+        long count = flushes();
+        return count == 0 ? 0.0 : (double) items() / count;
+    }
+
+    /**
+     * Returns the mean flush latency.
+     *
+     * @return the mean latency in nanoseconds, or zero before the first flush
+     */
+    public double meanLatencyNanos() {
+        long count = flushes();
+        return count == 0 ? 0.0 : (double) latencyNanos.sum() / count;
+    }
+
+    /**
+     * Returns the highest flush latency seen.
+     *
+     * @return the maximum latency in nanoseconds
+     */
+    public long maxLatencyNanos() {
+        return maxLatencyNanos.get();
+    }
+
+    /**
+     * Records a flush.
+     *
+     * @param trigger      what caused the flush
+     * @param size         the number of items flushed
+     * @param latencyNanos the time from the first item to the end of the
+     *                     downstream call
+     * @param failed       whether the downstream call threw
+     */
+    public void flushed(BatchingSink.Trigger trigger, int size, long latencyNanos, boolean failed) {
+        flushes.get(trigger).increment();
+        items.add(size);
+        this.latencyNanos.add(latencyNanos);
+        maxLatencyNanos.accumulate(latencyNanos);
+        if (failed) {
+            failures.increment();
+        }
+    }
+
+    /**
+     * Resets every counter to zero.
+     */
+    public void reset() {
+        flushes.values().forEach(LongAdder::reset);
+        items.reset();
+        failures.reset();
+        latencyNanos.reset();
+        maxLatencyNanos.reset();
+    }
+
+    @Override
+    public String toString() {
+        return "FlushMetrics[flushes=" + flushes() + ", items=" + items() + ", failures=" + failures()
+                + ", meanLatencyNanos=" + (long) meanLatencyNanos() + ", maxLatencyNanos=" + maxLatencyNanos() + "]";
+    }
+}
@@ -0,0 +1,4 @@
+/**
+ * Batching of single-item writes into size- and time-bounded batches.
+ */
+package io.github.atcurtis.crap4java.parts.batch;
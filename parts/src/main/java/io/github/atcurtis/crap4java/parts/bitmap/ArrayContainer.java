@@ -0,0 +1,217 @@
+package io.github.atcurtis.crap4java.parts.bitmap;
+
+import io.github.atcurtis.crap4java.adaptors.primitive.IntSink;
+
+import java.util.Arrays;
+
+/**
+ * A sparse chunk: at most {@value #ARRAY_MAX} values in a sorted array.
+ */
+final class ArrayContainer extends Container {
+
+    private char[] values;
+    private int cardinality;
+
+    ArrayContainer() {
+        this(new char[4], 0);
+    }
+
+    ArrayContainer(char[] values, int cardinality) {
+        this.values = values;
+        this.cardinality = cardinality;
+    }
+
+    @Override
+    int cardinality() {
+        return cardinality;
+    }
+
+    @Override
+    boolean contains(char value) {
+        return Arrays.binarySearch(values, 0, cardinality, value) >= 0;
+    }
+
+    @Override
+    Container add(char value) {
+        int index = Arrays.binarySearch(values, 0, cardinality, value);
+        if (index >= 0) {
+            return this;
+        }
+        if (cardinality == ARRAY_MAX) {
+            return toBitmap().add(value);
+        }
+        index = -index - 1;
+        if (cardinality == values.length) {
+            values = Arrays.copyOf(values, Math.min(Math.max(cardinality << 1, 4), ARRAY_MAX));
+        }
+        System.arraycopy(values, index, values, index + 1, cardinality - index);
+        values[index] = value;
+        cardinality++;
+        return this;
+    }
+
+    @Override
+    Container remove(char value) {
+        int index = Arrays.binarySearch(values, 0, cardinality, value);
+        if (index >= 0) {
+            System.arraycopy(values, index + 1, values, index, cardinality - index - 1);
+            cardinality--;
+        }
+        return this;
+    }
+
+    @Override
+    Container copy() {
+        return new ArrayContainer(Arrays.copyOf(values, cardinality), cardinality);
+    }
+
+    @Override
+    BitmapContainer toBitmap() {
+        BitmapContainer bitmap = new BitmapContainer();
+        for (int i = 0; i < cardinality; i++) {
+            bitmap.set(values[i]);
+        }
+        bitmap.cardinality = cardinality;
+        return bitmap;
+    }
+
+    @Override
+    int runCount() {
+        int runs = 0;
+        for (int i = 0; i < cardinality; i++) {
+            if (i == 0 || values[i - 1] + 1 != values[i]) {
+                runs++;
+            }
+        }
+        return runs;
+    }
+
+    @Override
+    int sizeInBytes() {
+        return 2 * values.length;
+    }
+
+    @Override
+    Cursor cursor() {
+        return new Cursor() {
+            int index;
+
+            @Override
+            public int next() {
+                return index < cardinality ? values[index++] : -1;
+            }
+        };
+    }
+
+    @Override
+    boolean forEachWhile(int high, IntSink sink) {
+        for (int i = 0; i < cardinality; i++) {
+            if (!sink.accept(high | values[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    Container and(Container other) {
+        char[] result = new char[cardinality];
+        int count = 0;
+        if (other instanceof ArrayContainer array) {
+            char[] those = array.values;
+            for (int i = 0, j = 0; i < cardinality && j < array.cardinality; ) {
+                char a = values[i];
+                char b = those[j];
+                if (a < b) {
+                    i++;
+                } else if (a > b) {
+                    j++;
+                } else {
+                    result[count++] = a;
+                    i++;
+                    j++;
+                }
+            }
+        } else {
+            for (int i = 0; i < cardinality; i++) {
+                if (other.contains(values[i])) {
+                    result[count++] = values[i];
+                }
+            }
+        }
+        return new ArrayContainer(result, count);
+    }
+
+    @Override
+    int andCardinality(Container other) {
+        int count = 0;
+        if (other instanceof ArrayContainer array) {
+            char[] those = array.values;
+            for (int i = 0, j = 0; i < cardinality && j < array.cardinality; ) {
+                char a = values[i];
+                char b = those[j];
+                if (a < b) {
+                    i++;
+                } else if (a > b) {
+                    j++;
+                } else {
+                    count++;
+                    i++;
+                    j++;
+                }
+            }
+        } else {
+            for (int i = 0; i < cardinality; i++) {
+                if (other.contains(values[i])) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    @Override
+    Container or(Container other) {
+        if (!(other instanceof ArrayContainer array) || cardinality + array.cardinality > ARRAY_MAX) {
+            return super.or(other);
+        }
+        char[] result = new char[cardinality + array.cardinality];
+        char[] those = array.values;
+        int count = 0;
+        int i = 0;
+        int j = 0;
+        while (i < cardinality && j < array.cardinality) {
+            char a = values[i];
+            char b = those[j];
+            if (a <= b) {
+                result[count++] = a;
+                i++;
+                if (a == b) {
+                    j++;
+                }
+            } else {
+                result[count++] = b;
+                j++;
+            }
+        }
+        while (i < cardinality) {
+            result[count++] = values[i++];
+        }
+        while (j < array.cardinality) {
+            result[count++] = those[j++];
+        }
+        return new ArrayContainer(result, count);
+    }
+
+    @Override
+    Container andNot(Container other) {
+        char[] result = new char[cardinality];
+        int count = 0;
+        for (int i = 0; i < cardinality; i++) {
+            if (!other.contains(values[i])) {
+                result[count++] = values[i];
+            }
+        }
+        return new ArrayContainer(result, count);
+    }
+}
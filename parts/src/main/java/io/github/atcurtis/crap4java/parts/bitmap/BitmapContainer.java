@@ -0,0 +1,275 @@
+package io.github.atcurtis.crap4java.parts.bitmap;
+
+import io.github.atcurtis.crap4java.adaptors.primitive.IntSink;
+
+/**
+ * A dense chunk: one bit for each of the 65536 possible values.
+ */
+final class BitmapContainer extends Container {
+
+    private static final int WORDS = 1024;
+
+    final long[] words;
+    int cardinality;
+
+    BitmapContainer() {
+        this(new long[WORDS], 0);
+    }
+
+    private BitmapContainer(long[] words, int cardinality) {
+        this.words = words;
+        this.cardinality = cardinality;
+    }
+
+    void set(char value) {
+        words[value >>> 6] |= 1L << value;
+    }
+
+    /**
+     * Sets the bits in {@code [from, to)}.
+     */
+    static void setRange(long[] words, int from, int to) {
+        if (from >= to) {
+            return;
+        }
+        int first = from >>> 6;
+        int last = (to - 1) >>> 6;
+        long firstMask = -1L << from;
+        long lastMask = -1L >>> -to;
+        if (first == last) {
+            words[first] |= firstMask & lastMask;
+            return;
+        }
+        words[first] |= firstMask;
+        for (int i = first + 1; i < last; i++) {
+            words[i] = -1L;
+        }
+        words[last] |= lastMask;
+    }
+
+    /**
+     * Clears the bits in {@code [from, to)}.
+     */
+    static void clearRange(long[] words, int from, int to) {
+        if (from >= to) {
+            return;
+        }
+        int first = from >>> 6;
+        int last = (to - 1) >>> 6;
+        long firstMask = -1L << from;
+        long lastMask = -1L >>> -to;
+        if (first == last) {
+            words[first] &= ~(firstMask & lastMask);
+            return;
+        }
+        words[first] &= ~firstMask;
+        for (int i = first + 1; i < last; i++) {
+            words[i] = 0;
+        }
+        words[last] &= ~lastMask;
+    }
+
+    @Override
+    int cardinality() {
+        return cardinality;
+    }
+
+    @Override
+    boolean contains(char value) {
+        return (words[value >>> 6] & (1L << value)) != 0;
+    }
+
+    @Override
+    Container add(char value) {
+        long word = words[value >>> 6];
+        long updated = word | (1L << value);
+        if (updated != word) {
+            words[value >>> 6] = updated;
+            cardinality++;
+        }
+        return this;
+    }
+
+    @Override
+    Container remove(char value) {
+        long word = words[value >>> 6];
+        long updated = word & ~(1L << value);
+        if (updated != word) {
+            words[value >>> 6] = updated;
+            if (--cardinality <= ARRAY_MAX) {
+                return toArrayContainer();
+            }
+        }
+        return this;
+    }
+
+    @Override
+    Container copy() {
+        return new BitmapContainer(words.clone(), cardinality);
+    }
+
+    @Override
+    BitmapContainer toBitmap() {
+        return new BitmapContainer(words.clone(), cardinality);
+    }
+
+    ArrayContainer toArrayContainer() {
+        char[] values = new char[cardinality];
+        int count = 0;
+        for (int i = 0; i < WORDS; i++) {
+            for (long word = words[i]; word != 0; word &= word - 1) {
+                values[count++] = (char) ((i << 6) | Long.numberOfTrailingZeros(word));
+            }
+        }
+        return new ArrayContainer(values, count);
+    }
+
+    /**
+     * Returns the array form if the values now fit in one, otherwise this.
+     */
+    Container repair() {
+        return cardinality <= ARRAY_MAX ? toArrayContainer() : this;
+    }
+
+    BitmapContainer andInPlace(Container other) {
+        long[] those = (other instanceof BitmapContainer bitmap ? bitmap : other.toBitmap()).words;
+        int count = 0;
+        for (int i = 0; i < WORDS; i++) {
+            count += Long.bitCount(words[i] &= those[i]);
+        }
+        cardinality = count;
+        return this;
+    }
+
+    BitmapContainer orInPlace(Container other) {
+        switch (other) {
+            case BitmapContainer bitmap -> {
+                for (int i = 0; i < WORDS; i++) {
+                    words[i] |= bitmap.words[i];
+                }
+            }
+            case RunContainer runs -> runs.forEachRun((from, to) -> setRange(words, from, to));
+            case ArrayContainer array -> {
+                Cursor cursor = array.cursor();
+                for (int value; (value = cursor.next()) >= 0; ) {
+                    set((char) value);
+                }
+            }
+        }
+        return recount();
+    }
+
+    BitmapContainer andNotInPlace(Container other) {
+        switch (other) {
+            case BitmapContainer bitmap -> {
+                for (int i = 0; i < WORDS; i++) {
+                    words[i] &= ~bitmap.words[i];
+                }
+            }
+            case RunContainer runs -> runs.forEachRun((from, to) -> clearRange(words, from, to));
+            case ArrayContainer array -> {
+                Cursor cursor = array.cursor();
+                for (int value; (value = cursor.next()) >= 0; ) {
+                    words[value >>> 6] &= ~(1L << value);
+                }
+            }
+        }
+        return recount();
+    }
+
+    private BitmapContainer recount() {
+        int count = 0;
+        for (long word : words) {
+            count += Long.bitCount(word);
+        }
+        cardinality = count;
+        return this;
+    }
+
+    @Override
+    Container and(Container other) {
+        if (!(other instanceof BitmapContainer bitmap)) {
+            return super.and(other);
+        }
+        // count first so a sparse result goes straight into an array
+        int cardinality = andCardinality(bitmap);
+        if (cardinality > ARRAY_MAX) {
+            long[] result = new long[WORDS];
+            for (int i = 0; i < WORDS; i++) {
+                result[i] = words[i] & bitmap.words[i];
+            }
+            return new BitmapContainer(result, cardinality);
+        }
+        char[] values = new char[cardinality];
+        int count = 0;
+        for (int i = 0; i < WORDS; i++) {
+            for (long word = words[i] & bitmap.words[i]; word != 0; word &= word - 1) {
+                values[count++] = (char) ((i << 6) | Long.numberOfTrailingZeros(word));
+            }
+        }
+        return new ArrayContainer(values, count);
+    }
+
+    @Override
+    int andCardinality(Container other) {
+        if (other instanceof BitmapContainer bitmap) {
+            int count = 0;
+            for (int i = 0; i < WORDS; i++) {
+                count += Long.bitCount(words[i] & bitmap.words[i]);
+            }
+            return count;
+        }
+        return super.andCardinality(other);
+    }
+
+    @Override
+    int runCount() {
+        int runs = 0;
+        long carry = 0;
+        for (long word : words) {
+            // a run starts at every set bit whose lower neighbour is clear
+            runs += Long.bitCount(word & ~((word << 1) | carry));
+            carry = word >>> 63;
+        }
+        return runs;
+    }
+
+    @Override
+    int sizeInBytes() {
+        return BITMAP_BYTES;
+    }
+
+    @Override
+    Cursor cursor() {
+        return new Cursor() {
+            int index;
+            long word = words[0];
+
+            @Override
+            public int next() {
+                while (word == 0) {
+                    if (++index >= WORDS) {
+                        index = WORDS;
+                        return -1;
+                    }
+                    word = words[index];
+                }
+                int value = (index << 6) | Long.numberOfTrailingZeros(word);
+                word &= word - 1;
+                return value;
+            }
+        };
+    }
+
+    @Override
+    boolean forEachWhile(int high, IntSink sink) {
+        for (int i = 0; i < WORDS; i++) {
+            for (long word = words[i]; word != 0; word &= word - 1) {
+                if (!sink.accept(high | (i << 6) | Long.numberOfTrailingZeros(word))) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+}
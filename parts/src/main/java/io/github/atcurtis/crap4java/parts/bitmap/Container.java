@@ -0,0 +1,107 @@
+package io.github.atcurtis.crap4java.parts.bitmap;
+
+import io.github.atcurtis.crap4java.adaptors.primitive.IntSink;
+
+/**
+ * The low 16 bits of the values in one chunk of a {@link RoaringBitmap}.
+ *
+ * <p>Mutators may convert the representation and return the replacement,
+ * which the caller stores in place of the receiver. Binary operations never
+ * modify either operand and return a container the caller owns.
+ */
+abstract sealed class Container permits ArrayContainer, BitmapContainer, RunContainer {
+
+    /** The most values an array container holds; beyond it a bitmap is smaller. */
+    static final int ARRAY_MAX = 4096;
+
+    /** The size of a bitmap container's payload, in bytes. */
+    static final int BITMAP_BYTES = 8192;
+
+    /**
+     * Iterates the values of a container in ascending order.
+     */
+    interface Cursor {
+
+        /**
+         * Returns the next value.
+         *
+         * @return the next low 16 bits, or {@code -1} when exhausted
+         */
+        int next();
+    }
+
+    abstract int cardinality();
+
+    abstract boolean contains(char value);
+
+    abstract Container add(char value);
+
+    abstract Container remove(char value);
+
+    abstract Container copy();
+
+    /**
+     * Returns a new bitmap container holding the same values.
+     */
+    abstract BitmapContainer toBitmap();
+
+    abstract int runCount();
+
+    /**
+     * Returns the size of the payload, in bytes.
+     */
+    abstract int sizeInBytes();
+
+    abstract Cursor cursor();
+
+    /**
+     * Pushes the values, combined with {@code high}, into {@code sink}.
+     */
+    abstract boolean forEachWhile(int high, IntSink sink);
+
+    Container and(Container other) {
+        if (other instanceof ArrayContainer) {
+            return other.and(this);
+        }
+        return toBitmap().andInPlace(other).repair();
+    }
+
+    int andCardinality(Container other) {
+        if (other instanceof ArrayContainer) {
+            return other.andCardinality(this);
+        }
+        return and(other).cardinality();
+    }
+
+    Container or(Container other) {
+        return toBitmap().orInPlace(other).repair();
+    }
+
+    Container andNot(Container other) {
+        return toBitmap().andNotInPlace(other).repair();
+    }
+
+    /**
+     * Returns the smallest of the three representations of these values.
+     */
+    final Container optimize() {
+        int cardinality = cardinality();
+        int runBytes = RunContainer.sizeInBytes(runCount());
+        if (runBytes < Math.min(2 * cardinality, BITMAP_BYTES)) {
+            return this instanceof RunContainer ? this : RunContainer.from(cursor(), cardinality);
+        }
+        if (cardinality <= ARRAY_MAX) {
+            return this instanceof ArrayContainer ? this : toBitmap().toArrayContainer();
+        }
+        return this instanceof BitmapContainer ? this : toBitmap();
+    }
+
+    /**
+     * Returns whether both containers hold the same values, whatever their
+     * representations.
+     */
+    final boolean sameValues(Container other) {
+        int cardinality = cardinality();
+        return cardinality == other.cardinality() && andCardinality(other) == cardinality;
+    }
+}
@@ -0,0 +1,469 @@
+package io.github.atcurtis.crap4java.parts.bitmap;
+
+import io.github.atcurtis.crap4java.adaptors.primitive.IntSink;
+import io.github.atcurtis.crap4java.adaptors.primitive.IntSource;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.PrimitiveIterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.IntStream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Compressed set of unsigned 32-bit integers, after the Roaring bitmap.
+ *
+ * <p>Values are grouped by their high 16 bits into chunks of 65536. Each
+ * chunk keeps its low 16 bits in the smallest fitting container: a sorted
+ * array of up to 4096 values, a 8 KiB bitmap, or a list of runs. A sparse
+ * set therefore costs about two bytes per value where a {@link java.util.BitSet}
+ * spanning the same range costs a bit per possible value, and intersections
+ * skip every chunk that only one operand has. Point updates keep arrays and
+ * bitmaps in their best form; {@link #runOptimize()} additionally converts
+ * clustered chunks to runs.
+ *
+ * <p>Values compare as unsigned, so iteration visits {@code 0} to
+ * {@code Integer.MAX_VALUE} and then the negative values. The bitmap is
+ * itself an {@link IntSource}, so it feeds a primitive pipeline directly.
+ *
+ * <p>Instances are not thread-safe.
+ */
+public final class RoaringBitmap implements IntSource {
+
+    private char[] keys;
+    private Container[] containers;
+    private int size;
+
+    /**
+     * Creates an empty bitmap.
+     */
+    public RoaringBitmap() {
+        this(new char[4], new Container[4], 0);
+    }
+
+    private RoaringBitmap(char[] keys, Container[] containers, int size) {
+        this.keys = keys;
+        this.containers = containers;
+        this.size = size;
+    }
+
+    /**
+     * Creates a bitmap holding {@code values}.
+     *
+     * @param values the values
+     * @return a new bitmap
+     */
+    public static RoaringBitmap of(int... values) {
+        RoaringBitmap bitmap = new RoaringBitmap();
+        for (int value : values) {
+            bitmap.add(value);
+        }
+        return bitmap;
+    }
+
+    /**
+     * Creates a bitmap holding every value of {@code source}.
+     *
+     * @param source the values
+     * @return a new bitmap
+     */
+    public static RoaringBitmap from(IntSource source) {
+        RoaringBitmap bitmap = new RoaringBitmap();
+        source.forEachWhile(value -> {
+            bitmap.add(value);
+            return true;
+        });
+        return bitmap;
+    }
+
+    /**
+     * Creates a bitmap holding every value of {@code iterator}, which is
+     * drained.
+     *
+     * @param iterator the values
+     * @return a new bitmap
+     */
+    public static RoaringBitmap from(PrimitiveIterator.OfInt iterator) {
+        return from(IntSource.from(iterator));
+    }
+
+    /**
+     * Creates a bitmap holding every value of {@code stream}, which is
+     * consumed.
+     *
+     * @param stream the values
+     * @return a new bitmap
+     */
+    public static RoaringBitmap from(IntStream stream) {
+        RoaringBitmap bitmap = new RoaringBitmap();
+        stream.sequential().forEachOrdered(bitmap::add);
+        return bitmap;
+    }
+
+    /**
+     * Adds {@code value}.
+     *
+     * @param value the value
+     * @return whether the bitmap changed
+     */
+    public boolean add(int value) {
+        char high = (char) (value >>> 16);
+        int index = indexOf(high);
+        if (index < 0) {
+            insert(-index - 1, high, new ArrayContainer().add((char) value));
+            return true;
+        }
+        Container container = containers[index];
+        int before = container.cardinality();
+        container = containers[index] = container.add((char) value);
+        return container.cardinality() != before;
+    }
+
+    /**
+     * Adds every value in {@code [startInclusive, endExclusive)}, both
+     * treated as unsigned: the range may extend to {@code 1L << 32}.
+     *
+     * @param startInclusive the first value
+     * @param endExclusive   the end of the range
+     * @return this bitmap
+     */
+    public RoaringBitmap addRange(long startInclusive, long endExclusive) {
+        if (startInclusive < 0 || endExclusive > 1L << 32 || startInclusive > endExclusive) {
+            throw new IllegalArgumentException("range: [" + startInclusive + ", " + endExclusive + ")");
+        }
+        for (long chunkStart = startInclusive; chunkStart < endExclusive; ) {
+            char high = (char) (chunkStart >>> 16);
+            long chunkEnd = Math.min(endExclusive, ((chunkStart >>> 16) + 1) << 16);
+            Container range = RunContainer.range((int) (chunkStart & 0xFFFF), (int) (chunkEnd - (chunkStart & ~0xFFFFL)));
+            int index = indexOf(high);
+            if (index < 0) {
+                insert(-index - 1, high, range);
+            } else {
+                containers[index] = containers[index].or(range);
+            }
+            chunkStart = chunkEnd;
+        }
+        return this;
+    }
+
+    /**
+     * Removes {@code value}.
+     *
+     * @param value the value
+     * @return whether the bitmap changed
+     */
+    public boolean remove(int value) {
+        int index = indexOf((char) (value >>> 16));
+        if (index < 0) {
+            return false;
+        }
+        Container container = containers[index];
+        int before = container.cardinality();
+        container = containers[index] = container.remove((char) value);
+        if (container.cardinality() == 0) {
+            System.arraycopy(keys, index + 1, keys, index, size - index - 1);
+            System.arraycopy(containers, index + 1, containers, index, size - index - 1);
+            containers[--size] = null;
+        }
+        return container.cardinality() != before;
+    }
+
+    /**
+     * Returns whether {@code value} is present.
+     *
+     * @param value the value
+     * @return whether the bitmap contains {@code value}
+     */
+    public boolean contains(int value) {
+        int index = indexOf((char) (value >>> 16));
+        return index >= 0 && containers[index].contains((char) value);
+    }
+
+    /**
+     * Returns the number of values.
+     *
+     * @return the cardinality, up to {@code 1L << 32}
+     */
+    public long cardinality() {
+        long cardinality = 0;
+        for (int i = 0; i < size; i++) {
+            cardinality += containers[i].cardinality();
+        }
+        return cardinality;
+    }
+
+    /**
+     * Returns whether the bitmap has no values.
+     *
+     * @return whether the cardinality is zero
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns the intersection of two bitmaps. Neither operand is modified.
+     *
+     * @param a a bitmap
+     * @param b a bitmap
+     * @return a new bitmap holding the values in both
+     */
+    public static RoaringBitmap and(RoaringBitmap a, RoaringBitmap b) {
+        RoaringBitmap result = new RoaringBitmap(new char[Math.min(a.size, b.size)],
+                new Container[Math.min(a.size, b.size)], 0);
+        for (int i = 0, j = 0; i < a.size && j < b.size; ) {
+            if (a.keys[i] < b.keys[j]) {
+                i++;
+            } else if (a.keys[i] > b.keys[j]) {
+                j++;
+            } else {
+                result.append(a.keys[i], a.containers[i++].and(b.containers[j++]));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Counts the intersection of two bitmaps without materializing it.
+     *
+     * @param a a bitmap
+     * @param b a bitmap
+     * @return the number of values in both
+     */
+    public static long andCardinality(RoaringBitmap a, RoaringBitmap b) {
+        long cardinality = 0;
+        for (int i = 0, j = 0; i < a.size && j < b.size; ) {
+            if (a.keys[i] < b.keys[j]) {
+                i++;
+            } else if (a.keys[i] > b.keys[j]) {
+                j++;
+            } else {
+                cardinality += a.containers[i++].andCardinality(b.containers[j++]);
+            }
+        }
+        return cardinality;
+    }
+
+    /**
+     * Returns the union of two bitmaps. Neither operand is modified.
+     *
+     * @param a a bitmap
+     * @param b a bitmap
+     * @return a new bitmap holding the values in either
+     */
+    public static RoaringBitmap or(RoaringBitmap a, RoaringBitmap b) {
+        RoaringBitmap result = new RoaringBitmap(new char[a.size + b.size], new Container[a.size + b.size], 0);
+        int i = 0;
+        int j = 0;
+        while (i < a.size && j < b.size) {
+            if (a.keys[i] < b.keys[j]) {
+                result.append(a.keys[i], a.containers[i++].copy());
+            } else if (a.keys[i] > b.keys[j]) {
+                result.append(b.keys[j], b.containers[j++].copy());
+            } else {
+                result.append(a.keys[i], a.containers[i++].or(b.containers[j++]));
+            }
+        }
+        for (; i < a.size; i++) {
+            result.append(a.keys[i], a.containers[i].copy());
+        }
+        for (; j < b.size; j++) {
+            result.append(b.keys[j], b.containers[j].copy());
+        }
+        return result;
+    }
+
+    /**
+     * Returns the values of {@code a} that are not in {@code b}. Neither
+     * operand is modified.
+     *
+     * @param a a bitmap
+     * @param b the values to exclude
+     * @return a new bitmap holding the difference
+     */
+    public static RoaringBitmap andNot(RoaringBitmap a, RoaringBitmap b) {
+        RoaringBitmap result = new RoaringBitmap(new char[a.size], new Container[a.size], 0);
+        for (int i = 0, j = 0; i < a.size; i++) {
+            while (j < b.size && b.keys[j] < a.keys[i]) {
+                j++;
+            }
+            if (j < b.size && b.keys[j] == a.keys[i]) {
+                result.append(a.keys[i], a.containers[i].andNot(b.containers[j]));
+            } else {
+                result.append(a.keys[i], a.containers[i].copy());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Converts every chunk to its smallest representation, including runs.
+     *
+     * @return this bitmap
+     */
+    public RoaringBitmap runOptimize() {
+        for (int i = 0; i < size; i++) {
+            containers[i] = containers[i].optimize();
+        }
+        return this;
+    }
+
+    /**
+     * Returns the approximate size of the values' storage, in bytes.
+     *
+     * @return the payload size of the chunk index and the containers
+     */
+    public long sizeInBytes() {
+        long bytes = 6L * keys.length;
+        for (int i = 0; i < size; i++) {
+            bytes += containers[i].sizeInBytes();
+        }
+        return bytes;
+    }
+
+    @Override
+    public boolean forEachWhile(IntSink sink) {
+        Objects.requireNonNull(sink, "sink");
+        for (int i = 0; i < size; i++) {
+            if (!containers[i].forEachWhile(keys[i] << 16, sink)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns an iterator over the values in unsigned order.
+     *
+     * @return an iterator reading the live bitmap
+     */
+    public PrimitiveIterator.OfInt iterator() {
+        return new PrimitiveIterator.OfInt() {
+            int index = -1;
+            Container.Cursor cursor;
+            int next = advance();
+
+            private int advance() {
+                int low;
+                while (cursor == null || (low = cursor.next()) < 0) {
+                    if (++index >= size) {
+                        cursor = null;
+                        return -1;
+                    }
+                    cursor = containers[index].cursor();
+                }
+                return low;
+            }
+
+            @Override
+            public boolean hasNext() {
+                return next >= 0;
+            }
+
+            @Override
+            public int nextInt() {
+                if (next < 0) {
+                    throw new NoSuchElementException();
+                }
+                int value = keys[index] << 16 | next;
+                next = advance();
+                return value;
+            }
+        };
+    }
+
+    /**
+     * Returns a sequential stream of the values in unsigned order.
+     *
+     * @return a stream reading the live bitmap
+     */
+    public IntStream stream() {
+        return StreamSupport.intStream(Spliterators.spliterator(iterator(), cardinality(),
+                Spliterator.ORDERED | Spliterator.DISTINCT | Spliterator.NONNULL), false);
+    }
+
+    /**
+     * Copies the values into a new array, in unsigned order.
+     *
+     * @return the values
+     */
+    public int[] toArray() {
+        long cardinality = cardinality();
+        if (cardinality > Integer.MAX_VALUE - 8) {
+            throw new IllegalStateException("too many values for an array: " + cardinality);
+        }
+        int[] values = new int[(int) cardinality];
+        int[] count = new int[1];
+        forEachWhile(value -> {
+            values[count[0]++] = value;
+            return true;
+        });
+        return values;
+    }
+
+    private int indexOf(char high) {
+        // appending ascending values hits the last chunk
+        if (size > 0 && keys[size - 1] == high) {
+            return size - 1;
+        }
+        return Arrays.binarySearch(keys, 0, size, high);
+    }
+
+    private void insert(int index, char high, Container container) {
+        if (size == keys.length) {
+            int capacity = Math.max(size << 1, 4);
+            keys = Arrays.copyOf(keys, capacity);
+            containers = Arrays.copyOf(containers, capacity);
+        }
+        System.arraycopy(keys, index, keys, index + 1, size - index);
+        System.arraycopy(containers, index, containers, index + 1, size - index);
+        keys[index] = high;
+        containers[index] = container;
+        size++;
+    }
+
+    private void append(char high, Container container) {
+        if (container.cardinality() > 0) {
+            keys[size] = high;
+            containers[size++] = container;
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof RoaringBitmap that) || size != that.size) {
+            return false;
+        }
+        for (int i = 0; i < size; i++) {
+            if (keys[i] != that.keys[i] || !containers[i].sameValues(that.containers[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        int[] hash = {1};
+        forEachWhile(value -> {
+            hash[0] = 31 * hash[0] + value;
+            return true;
+        });
+        return hash[0];
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("{");
+        forEachWhile(value -> {
+            sb.append(sb.length() > 1 ? ", " : "").append(Integer.toUnsignedString(value));
+            return true;
+        });
+        return sb.append('}').toString();
+    }
+}
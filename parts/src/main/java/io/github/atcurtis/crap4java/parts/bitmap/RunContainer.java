@@ -0,0 +1,316 @@
+package io.github.atcurtis.crap4java.parts.bitmap;
+
+import io.github.atcurtis.crap4java.adaptors.primitive.IntSink;
+
+import java.util.Arrays;
+
+/**
+ * A clustered chunk: sorted, disjoint, non-adjacent runs of consecutive
+ * values, stored as {@code (start, length - 1)} pairs.
+ */
+final class RunContainer extends Container {
+
+    /**
+     * Receives the runs of a container as half-open ranges.
+     */
+    @FunctionalInterface
+    interface RangeConsumer {
+        void accept(int from, int to);
+    }
+
+    private char[] runs;
+    private int runCount;
+    private int cardinality;
+
+    private RunContainer(char[] runs, int runCount, int cardinality) {
+        this.runs = runs;
+        this.runCount = runCount;
+        this.cardinality = cardinality;
+    }
+
+    static int sizeInBytes(int runCount) {
+        return 4 * runCount;
+    }
+
+    /**
+     * Returns a container holding {@code [from, to)}.
+     */
+    static RunContainer range(int from, int to) {
+        return new RunContainer(new char[]{(char) from, (char) (to - from - 1)}, 1, to - from);
+    }
+
+    /**
+     * Collects the ascending values of {@code cursor} into runs.
+     */
+    static RunContainer from(Cursor cursor, int cardinality) {
+        char[] runs = new char[8];
+        int count = 0;
+        int start = -1;
+        int end = -2;
+        for (int value; (value = cursor.next()) >= 0; ) {
+            if (value != end + 1) {
+                if (start >= 0) {
+                    runs = append(runs, count++, start, end);
+                }
+                start = value;
+            }
+            end = value;
+        }
+        if (start >= 0) {
+            runs = append(runs, count++, start, end);
+        }
+        return new RunContainer(runs, count, cardinality);
+    }
+
+    private static char[] append(char[] runs, int index, int start, int end) {
+        if (2 * index + 2 > runs.length) {
+            runs = Arrays.copyOf(runs, runs.length << 1);
+        }
+        runs[2 * index] = (char) start;
+        runs[2 * index + 1] = (char) (end - start);
+        return runs;
+    }
+
+    private int start(int run) {
+        return runs[2 * run];
+    }
+
+    private int end(int run) {
+        return runs[2 * run] + runs[2 * run + 1];
+    }
+
+    /**
+     * Returns the last run starting at or before {@code value}, or -1.
+     */
+    private int floorRun(int value) {
+        int low = 0;
+        int high = runCount - 1;
+        int found = -1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (start(mid) <= value) {
+                found = mid;
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return found;
+    }
+
+    private void setRun(int run, int start, int end) {
+        runs[2 * run] = (char) start;
+        runs[2 * run + 1] = (char) (end - start);
+    }
+
+    private void insertRun(int run, int start, int end) {
+        if (2 * runCount + 2 > runs.length) {
+            runs = Arrays.copyOf(runs, Math.max(runs.length << 1, 4));
+        }
+        System.arraycopy(runs, 2 * run, runs, 2 * run + 2, 2 * (runCount - run));
+        runCount++;
+        setRun(run, start, end);
+    }
+
+    private void removeRun(int run) {
+        System.arraycopy(runs, 2 * run + 2, runs, 2 * run, 2 * (runCount - run - 1));
+        runCount--;
+    }
+
+    void forEachRun(RangeConsumer action) {
+        for (int i = 0; i < runCount; i++) {
+            action.accept(start(i), end(i) + 1);
+        }
+    }
+
+    @Override
+    int cardinality() {
+        return cardinality;
+    }
+
+    @Override
+    boolean contains(char value) {
+        int run = floorRun(value);
+        return run >= 0 && value <= end(run);
+    }
+
+    @Override
+    Container add(char value) {
+        int run = floorRun(value);
+        if (run >= 0 && value <= end(run)) {
+            return this;
+        }
+        cardinality++;
+        boolean joinsNext = run + 1 < runCount && start(run + 1) == value + 1;
+        if (run >= 0 && end(run) + 1 == value) {
+            setRun(run, start(run), joinsNext ? end(run + 1) : value);
+            if (joinsNext) {
+                removeRun(run + 1);
+            }
+        } else if (joinsNext) {
+            setRun(run + 1, value, end(run + 1));
+        } else {
+            insertRun(run + 1, value, value);
+            if (sizeInBytes(runCount) > BITMAP_BYTES) {
+                return toBitmap().repair();
+            }
+        }
+        return this;
+    }
+
+    @Override
+    Container remove(char value) {
+        int run = floorRun(value);
+        if (run < 0 || value > end(run)) {
+            return this;
+        }
+        cardinality--;
+        int start = start(run);
+        int end = end(run);
+        if (start == end) {
+            removeRun(run);
+        } else if (value == start) {
+            setRun(run, start + 1, end);
+        } else if (value == end) {
+            setRun(run, start, end - 1);
+        } else {
+            setRun(run, start, value - 1);
+            insertRun(run + 1, value + 1, end);
+        }
+        return this;
+    }
+
+    @Override
+    Container copy() {
+        return new RunContainer(Arrays.copyOf(runs, 2 * runCount), runCount, cardinality);
+    }
+
+    @Override
+    BitmapContainer toBitmap() {
+        BitmapContainer bitmap = new BitmapContainer();
+        forEachRun((from, to) -> BitmapContainer.setRange(bitmap.words, from, to));
+        bitmap.cardinality = cardinality;
+        return bitmap;
+    }
+
+    @Override
+    int runCount() {
+        return runCount;
+    }
+
+    @Override
+    int sizeInBytes() {
+        return 2 * runs.length;
+    }
+
+    @Override
+    Cursor cursor() {
+        return new Cursor() {
+            int run;
+            int next = runCount > 0 ? start(0) : -1;
+
+            @Override
+            public int next() {
+                if (run >= runCount) {
+                    return -1;
+                }
+                int value = next;
+                if (value == end(run)) {
+                    next = ++run < runCount ? start(run) : -1;
+                } else {
+                    next++;
+                }
+                return value;
+            }
+        };
+    }
+
+    @Override
+    boolean forEachWhile(int high, IntSink sink) {
+        for (int i = 0; i < runCount; i++) {
+            for (int value = start(i), end = end(i); value <= end; value++) {
+                if (!sink.accept(high | value)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    @Override
+    Container and(Container other) {
+        if (!(other instanceof RunContainer those)) {
+            return super.and(other);
+        }
+        char[] result = new char[2 * (runCount + those.runCount)];
+        int count = 0;
+        int cardinality = 0;
+        for (int i = 0, j = 0; i < runCount && j < those.runCount; ) {
+            int start = Math.max(start(i), those.start(j));
+            int end = Math.min(end(i), those.end(j));
+            if (start <= end) {
+                result = append(result, count++, start, end);
+                cardinality += end - start + 1;
+            }
+            if (end(i) < those.end(j)) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        return new RunContainer(result, count, cardinality);
+    }
+
+    @Override
+    int andCardinality(Container other) {
+        if (!(other instanceof RunContainer those)) {
+            return super.andCardinality(other);
+        }
+        int cardinality = 0;
+        for (int i = 0, j = 0; i < runCount && j < those.runCount; ) {
+            int start = Math.max(start(i), those.start(j));
+            int end = Math.min(end(i), those.end(j));
+            if (start <= end) {
+                cardinality += end - start + 1;
+            }
+            if (end(i) < those.end(j)) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        return cardinality;
+    }
+
+    @Override
+    Container or(Container other) {
+        if (!(other instanceof RunContainer those)) {
+            return super.or(other);
+        }
+        char[] result = new char[2 * (runCount + those.runCount)];
+        int count = 0;
+        int cardinality = 0;
+        int start = -1;
+        int end = -2;
+        for (int i = 0, j = 0; i < runCount || j < those.runCount; ) {
+            boolean takeMine = j >= those.runCount || (i < runCount && start(i) <= those.start(j));
+            int runStart = takeMine ? start(i) : those.start(j);
+            int runEnd = takeMine ? end(i++) : those.end(j++);
+            if (runStart > end + 1) {
+                if (start >= 0) {
+                    result = append(result, count++, start, end);
+                    cardinality += end - start + 1;
+                }
+                start = runStart;
+                end = runEnd;
+            } else {
+                end = Math.max(end, runEnd);
+            }
+        }
+        if (start >= 0) {
+            result = append(result, count++, start, end);
+            cardinality += end - start + 1;
+        }
+        return new RunContainer(result, count, cardinality);
+    }
+}
@@ -0,0 +1,10 @@
+/**
+ * Compressed bitmaps of unsigned 32-bit integers.
+ *
+ * <p>{@link io.github.atcurtis.crap4java.parts.bitmap.RoaringBitmap} splits
+ * its values by their high 16 bits into chunks, each held in whichever of a
+ * sorted array, a 65536-bit bitmap or a list of runs is smallest for that
+ * chunk, so sparse, dense and clustered sets all stay compact and set
+ * operations work a chunk at a time.
+ */
+package io.github.atcurtis.crap4java.parts.bitmap;
@@ -0,0 +1,424 @@
+package io.github.atcurtis.crap4java.parts.codec;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Objects;
+
+/**
+ * Fixed-width little- and big-endian integers in {@code byte[]} and
+ * {@link ByteBuffer}.
+ *
+ * <p>Every access is a single view {@link VarHandle} load or store, which the
+ * JIT compiles to one unaligned memory access plus a byte swap where the
+ * order differs from the platform's, instead of assembling the value a byte
+ * at a time. The byte order is part of the method name, so the handle is a
+ * constant; the {@link ByteBuffer} methods take an absolute index and ignore
+ * the buffer's own order and position. Writers on {@code byte[]} return the
+ * offset after the value. Floating-point values go through
+ * {@link Float#floatToRawIntBits} and {@link Double#doubleToRawLongBits}.
+ */
+public final class FixedWidth {
+
+    private static final VarHandle SHORT_ARRAY_LE = MethodHandles.byteArrayViewVarHandle(short[].class, ByteOrder.LITTLE_ENDIAN);
+    private static final VarHandle SHORT_BUFFER_LE = MethodHandles.byteBufferViewVarHandle(short[].class, ByteOrder.LITTLE_ENDIAN);
+    private static final VarHandle SHORT_ARRAY_BE = MethodHandles.byteArrayViewVarHandle(short[].class, ByteOrder.BIG_ENDIAN);
+    private static final VarHandle SHORT_BUFFER_BE = MethodHandles.byteBufferViewVarHandle(short[].class, ByteOrder.BIG_ENDIAN);
+    private static final VarHandle INT_ARRAY_LE = MethodHandles.byteArrayViewVarHandle(int[].class, ByteOrder.LITTLE_ENDIAN);
+    private static final VarHandle INT_BUFFER_LE = MethodHandles.byteBufferViewVarHandle(int[].class, ByteOrder.LITTLE_ENDIAN);
+    private static final VarHandle INT_ARRAY_BE = MethodHandles.byteArrayViewVarHandle(int[].class, ByteOrder.BIG_ENDIAN);
+    private static final VarHandle INT_BUFFER_BE = MethodHandles.byteBufferViewVarHandle(int[].class, ByteOrder.BIG_ENDIAN);
+    private static final VarHandle LONG_ARRAY_LE = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+    private static final VarHandle LONG_BUFFER_LE = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+    private static final VarHandle LONG_ARRAY_BE = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.BIG_ENDIAN);
+    private static final VarHandle LONG_BUFFER_BE = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.BIG_ENDIAN);
+
+    private FixedWidth() {
+    }
+
+    /**
+     * Reads a little-endian {@code short}.
+     *
+     * @param src    the bytes
+     * @param offset the offset of the first byte
+     * @return the value
+     */
+    public static short getShortLE(byte[] src, int offset) {
+        return (short) SHORT_ARRAY_LE.get(src, offset);
+    }
+
+    /**
+     * Writes a little-endian {@code short}.
+     *
+     * @param dst    the destination
+     * @param offset the offset of the first byte
+     * @param value  the value
+     * @return {@code offset + 2}
+     */
+    public static int putShortLE(byte[] dst, int offset, short value) {
+        SHORT_ARRAY_LE.set(dst, offset, value);
+        return offset + 2;
+    }
+
+    /**
+     * Reads a little-endian {@code short} at an absolute index.
+     *
+     * @param src   the buffer
+     * @param index the index of the first byte
+     * @return the value
+     */
+    public static short getShortLE(ByteBuffer src, int index) {
+        return (short) SHORT_BUFFER_LE.get(src, index);
+    }
+
+    /**
+     * Writes a little-endian {@code short} at an absolute index.
+     *
+     * @param dst   the buffer
+     * @param index the index of the first byte
+     * @param value the value
+     */
+    public static void putShortLE(ByteBuffer dst, int index, short value) {
+        SHORT_BUFFER_LE.set(dst, index, value);
+    }
+
+    /**
+     * Reads a big-endian {@code short}.
+     *
+     * @param src    the bytes
+     * @param offset the offset of the first byte
+     * @return the value
+     */
+    public static short getShortBE(byte[] src, int offset) {
+        return (short) SHORT_ARRAY_BE.get(src, offset);
+    }
+
+    /**
+     * Writes a big-endian {@code short}.
+     *
+     * @param dst    the destination
+     * @param offset the offset of the first byte
+     * @param value  the value
+     * @return {@code offset + 2}
+     */
+    public static int putShortBE(byte[] dst, int offset, short value) {
+        SHORT_ARRAY_BE.set(dst, offset, value);
+        return offset + 2;
+    }
+
+    /**
+     * Reads a big-endian {@code short} at an absolute index.
+     *
+     * @param src   the buffer
+     * @param index the index of the first byte
+     * @return the value
+     */
+    public static short getShortBE(ByteBuffer src, int index) {
+        return (short) SHORT_BUFFER_BE.get(src, index);
+    }
+
+    /**
+     * Writes a big-endian {@code short} at an absolute index.
+     *
+     * @param dst   the buffer
+     * @param index the index of the first byte
+     * @param value the value
+     */
+    public static void putShortBE(ByteBuffer dst, int index, short value) {
+        SHORT_BUFFER_BE.set(dst, index, value);
+    }
+
+    /**
+     * Reads a little-endian {@code int}.
+     *
+     * @param src    the bytes
+     * @param offset the offset of the first byte
+     * @return the value
+     */
+    public static int getIntLE(byte[] src, int offset) {
+        return (int) INT_ARRAY_LE.get(src, offset);
+    }
+
+    /**
+     * Writes a little-endian {@code int}.
+     *
+     * @param dst    the destination
+     * @param offset the offset of the first byte
+     * @param value  the value
+     * @return {@code offset + 4}
+     */
+    public static int putIntLE(byte[] dst, int offset, int value) {
+        INT_ARRAY_LE.set(dst, offset, value);
+        return offset + 4;
+    }
+
+    /**
+     * Reads a little-endian {@code int} at an absolute index.
+     *
+     * @param src   the buffer
+     * @param index the index of the first byte
+     * @return the value
+     */
+    public static int getIntLE(ByteBuffer src, int index) {
+        return (int) INT_BUFFER_LE.get(src, index);
+    }
+
+    /**
+     * Writes a little-endian {@code int} at an absolute index.
+     *
+     * @param dst   the buffer
+     * @param index the index of the first byte
+     * @param value the value
+     */
+    public static void putIntLE(ByteBuffer dst, int index, int value) {
+        INT_BUFFER_LE.set(dst, index, value);
+    }
+
+    /**
+     * Reads a big-endian {@code int}.
+     *
+     * @param src    the bytes
+     * @param offset the offset of the first byte
+     * @return the value
+     */
+    public static int getIntBE(byte[] src, int offset) {
+        return (int) INT_ARRAY_BE.get(src, offset);
+    }
+
+    /**
+     * Writes a big-endian {@code int}.
+     *
+     * @param dst    the destination
+     * @param offset the offset of the first byte
+     * @param value  the value
+     * @return {@code offset + 4}
+     */
+    public static int putIntBE(byte[] dst, int offset, int value) {
+        INT_ARRAY_BE.set(dst, offset, value);
+        return offset + 4;
+    }
+
+    /**
+     * Reads a big-endian {@code int} at an absolute index.
+     *
+     * @param src   the buffer
+     * @param index the index of the first byte
+     * @return the value
+     */
+    public static int getIntBE(ByteBuffer src, int index) {
+        return (int) INT_BUFFER_BE.get(src, index);
+    }
+
+    /**
+     * Writes a big-endian {@code int} at an absolute index.
+     *
+     * @param dst   the buffer
+     * @param index the index of the first byte
+     * @param value the value
+     */
+    public static void putIntBE(ByteBuffer dst, int index, int value) {
+        INT_BUFFER_BE.set(dst, index, value);
+    }
+
+    /**
+     * Reads a little-endian {@code long}.
+     *
+     * @param src    the bytes
+     * @param offset the offset of the first byte
+     * @return the value
+     */
+    public static long getLongLE(byte[] src, int offset) {
+        return (long) LONG_ARRAY_LE.get(src, offset);
+    }
+
+    /**
+     * Writes a little-endian {@code long}.
+     *
+     * @param dst    the destination
+     * @param offset the offset of the first byte
+     * @param value  the value
+     * @return {@code offset + 8}
+     */
+    public static int putLongLE(byte[] dst, int offset, long value) {
+        LONG_ARRAY_LE.set(dst, offset, value);
+        return offset + 8;
+    }
+
+    /**
+     * Reads a little-endian {@code long} at an absolute index.
+     *
+     * @param src   the buffer
+     * @param index the index of the first byte
+     * @return the value
+     */
+    public static long getLongLE(ByteBuffer src, int index) {
+        return (long) LONG_BUFFER_LE.get(src, index);
+    }
+
+    /**
+     * Writes a little-endian {@code long} at an absolute index.
+     *
+     * @param dst   the buffer
+     * @param index the index of the first byte
+     * @param value the value
+     */
+    public static void putLongLE(ByteBuffer dst, int index, long value) {
+        LONG_BUFFER_LE.set(dst, index, value);
+    }
+
+    /**
+     * Reads a big-endian {@code long}.
+     *
+     * @param src    the bytes
+     * @param offset the offset of the first byte
+     * @return the value
+     */
+    public static long getLongBE(byte[] src, int offset) {
+        return (long) LONG_ARRAY_BE.get(src, offset);
+    }
+
+    /**
+     * Writes a big-endian {@code long}.
+     *
+     * @param dst    the destination
+     * @param offset the offset of the first byte
+     * @param value  the value
+     * @return {@code offset + 8}
+     */
+    public static int putLongBE(byte[] dst, int offset, long value) {
+        LONG_ARRAY_BE.set(dst, offset, value);
+        return offset + 8;
+    }
+
+    /**
+     * Reads a big-endian {@code long} at an absolute index.
+     *
+     * @param src   the buffer
+     * @param index the index of the first byte
+     * @return the value
+     */
+    public static long getLongBE(ByteBuffer src, int index) {
+        return (long) LONG_BUFFER_BE.get(src, index);
+    }
+
+    /**
+     * Writes a big-endian {@code long} at an absolute index.
+     *
+     * @param dst   the buffer
+     * @param index the index of the first byte
+     * @param value the value
+     */
+    public static void putLongBE(ByteBuffer dst, int index, long value) {
+        LONG_BUFFER_BE.set(dst, index, value);
+    }
+
+    /**
+     * Writes {@code count} values of {@code src} back to back in the given
+     * byte order.
+     *
+     * @param src       the values
+     * @param srcOffset the first value
+     * @param count     the number of values
+     * @param dst       the destination
+     * @param dstOffset the offset to write at
+     * @param order     the byte order
+     * @return the offset after the last value
+     */
+    public static int putInts(int[] src, int srcOffset, int count, byte[] dst, int dstOffset, ByteOrder order) {
+        Objects.checkFromIndexSize(srcOffset, count, src.length);
+        Objects.checkFromIndexSize(dstOffset, count * 4, dst.length);
+        // one loop per order keeps each handle a constant
+        if (order == ByteOrder.LITTLE_ENDIAN) {
+            for (int i = 0; i < count; i++) {
+                INT_ARRAY_LE.set(dst, dstOffset + i * 4, src[srcOffset + i]);
+            }
+        } else {
+            for (int i = 0; i < count; i++) {
+                INT_ARRAY_BE.set(dst, dstOffset + i * 4, src[srcOffset + i]);
+            }
+        }
+        return dstOffset + count * 4;
+    }
+
+    /**
+     * Reads {@code count} back-to-back values in the given byte order.
+     *
+     * @param src       the bytes
+     * @param srcOffset the offset of the first value
+     * @param dst       the destination
+     * @param dstOffset the first value to fill
+     * @param count     the number of values
+     * @param order     the byte order
+     * @return the offset after the last value
+     */
+    public static int getInts(byte[] src, int srcOffset, int[] dst, int dstOffset, int count, ByteOrder order) {
+        Objects.checkFromIndexSize(dstOffset, count, dst.length);
+        Objects.checkFromIndexSize(srcOffset, count * 4, src.length);
+        if (order == ByteOrder.LITTLE_ENDIAN) {
+            for (int i = 0; i < count; i++) {
+                dst[dstOffset + i] = (int) INT_ARRAY_LE.get(src, srcOffset + i * 4);
+            }
+        } else {
+            for (int i = 0; i < count; i++) {
+                dst[dstOffset + i] = (int) INT_ARRAY_BE.get(src, srcOffset + i * 4);
+            }
+        }
+        return srcOffset + count * 4;
+    }
+
+    /**
+     * Writes {@code count} values of {@code src} back to back in the given
+     * byte order.
+     *
+     * @param src       the values
+     * @param srcOffset the first value
+     * @param count     the number of values
+     * @param dst       the destination
+     * @param dstOffset the offset to write at
+     * @param order     the byte order
+     * @return the offset after the last value
+     */
+    public static int putLongs(long[] src, int srcOffset, int count, byte[] dst, int dstOffset, ByteOrder order) {
+        Objects.checkFromIndexSize(srcOffset, count, src.length);
+        Objects.checkFromIndexSize(dstOffset, count * 8, dst.length);
+        // one loop per order keeps each handle a constant
+        if (order == ByteOrder.LITTLE_ENDIAN) {
+            for (int i = 0; i < count; i++) {
+                LONG_ARRAY_LE.set(dst, dstOffset + i * 8, src[srcOffset + i]);
+            }
+        } else {
+            for (int i = 0; i < count; i++) {
+                LONG_ARRAY_BE.set(dst, dstOffset + i * 8, src[srcOffset + i]);
+            }
+        }
+        return dstOffset + count * 8;
+    }
+
+    /**
+     * Reads {@code count} back-to-back values in the given byte order.
+     *
+     * @param src       the bytes
+     * @param srcOffset the offset of the first value
+     * @param dst       the destination
+     * @param dstOffset the first value to fill
+     * @param count     the number of values
+     * @param order     the byte order
+     * @return the offset after the last value
+     */
+    public static int getLongs(byte[] src, int srcOffset, long[] dst, int dstOffset, int count, ByteOrder order) {
+        Objects.checkFromIndexSize(dstOffset, count, dst.length);
+        Objects.checkFromIndexSize(srcOffset, count * 8, src.length);
+        if (order == ByteOrder.LITTLE_ENDIAN) {
+            for (int i = 0; i < count; i++) {
+                dst[dstOffset + i] = (long) LONG_ARRAY_LE.get(src, srcOffset + i * 8);
+            }
+        } else {
+            for (int i = 0; i < count; i++) {
+                dst[dstOffset + i] = (long) LONG_ARRAY_BE.get(src, srcOffset + i * 8);
+            }
+        }
+        return srcOffset + count * 8;
+    }
+
+}
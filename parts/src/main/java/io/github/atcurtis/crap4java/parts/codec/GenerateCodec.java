@@ -0,0 +1,40 @@
+package io.github.atcurtis.crap4java.parts.codec;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Requests a binary {@link MessageCodec} for a record to be generated at
+ * compile time.
+ *
+ * <p>Every record component is a field of the message, identified by the
+ * {@link Tag} it must carry; a component without one is a compile error.
+ * Supported component types are the primitives, {@code String},
+ * {@code byte[]}, enums, other records annotated with {@code @GenerateCodec},
+ * and {@code List}s of strings, enums or such records. The generated class,
+ * {@code <Record>Codec} by default, lives in the same package, reads the
+ * components through their accessors and decodes through the canonical
+ * constructor, so no reflection is involved; see {@link Wire} for the format
+ * and its evolution rules.
+ *
+ * <p>The annotation is kept in class files so records compiled separately can
+ * still be nested. The annotation processor lives in the {@code processor}
+ * module and must be on the annotation processor path.
+ */
+@Documented
+@Retention(RetentionPolicy.CLASS)
+@Target(ElementType.TYPE)
+public @interface GenerateCodec {
+
+    /**
+     * The simple name of the generated class. Defaults to the record name
+     * followed by {@code Codec}; nested types are prefixed with their
+     * enclosing type names separated by {@code _}.
+     *
+     * @return the class name, or empty for the default
+     */
+    String name() default "";
+}
@@ -0,0 +1,33 @@
+package io.github.atcurtis.crap4java.parts.codec;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Writes and reads values of one type in the {@link Wire} format.
+ *
+ * <p>Implementations are usually generated from a {@link GenerateCodec}
+ * record; they are stateless and thread-safe.
+ *
+ * @param <T> the value type
+ */
+public interface MessageCodec<T> {
+
+    /**
+     * Writes {@code value} at the buffer's position, followed by the end
+     * marker.
+     *
+     * @param value the value
+     * @param out   the destination; it must have room for the whole message
+     */
+    void write(T value, ByteBuffer out);
+
+    /**
+     * Reads one message at the buffer's position, up to and including its
+     * end marker. Fields with unknown tags are skipped and fields that are
+     * absent keep their default.
+     *
+     * @param in the source
+     * @return the value
+     */
+    T read(ByteBuffer in);
+}
@@ -0,0 +1,26 @@
+package io.github.atcurtis.crap4java.parts.codec;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Assigns the wire tag of a record component in a {@link GenerateCodec}
+ * record. Tags are what keeps old and new encodings compatible: once
+ * published, a tag must keep its meaning even if the component is renamed,
+ * moved or removed.
+ */
+@Documented
+@Retention(RetentionPolicy.CLASS)
+@Target(ElementType.RECORD_COMPONENT)
+public @interface Tag {
+
+    /**
+     * The tag, unique within the record.
+     *
+     * @return a value from 1 to {@link Wire#MAX_TAG}
+     */
+    int value();
+}
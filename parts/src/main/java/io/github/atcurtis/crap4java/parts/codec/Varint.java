@@ -0,0 +1,422 @@
+package io.github.atcurtis.crap4java.parts.codec;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Objects;
+
+/**
+ * Unsigned LEB128 varints: seven bits per byte, least significant group
+ * first, the high bit set on every byte but the last.
+ *
+ * <p>{@code int} methods encode the 32-bit pattern as unsigned, at most five
+ * bytes; {@code long} methods at most ten. The {@code Signed} variants
+ * zig-zag the value first, so small negative numbers stay short. Methods on
+ * {@code byte[]} take an absolute offset and the writers return the offset
+ * after the value; methods on {@link ByteBuffer} are relative and advance its
+ * position. Decoders reject encodings longer than the type allows with
+ * {@link IllegalArgumentException}; a truncated value fails with
+ * {@link ArrayIndexOutOfBoundsException} or
+ * {@link BufferUnderflowException}.
+ */
+public final class Varint {
+
+    /** The longest encoding of an {@code int}. */
+    public static final int MAX_INT_BYTES = 5;
+
+    /** The longest encoding of a {@code long}. */
+    public static final int MAX_LONG_BYTES = 10;
+
+    private static final long CONTINUATION = 0x8080808080808080L;
+    private static final VarHandle LONG_LE = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+
+    private Varint() {
+    }
+
+    /**
+     * Returns the encoded size of {@code value}, read as unsigned.
+     *
+     * @param value the value
+     * @return the number of bytes, 1 to 5
+     */
+    public static int sizeOf(int value) {
+        // ceil(bits / 7) without a division or a branch per group
+        int bits = 32 - Integer.numberOfLeadingZeros(value | 1);
+        return (9 * bits + 64) >>> 6;
+    }
+
+    /**
+     * Returns the encoded size of {@code value}, read as unsigned.
+     *
+     * @param value the value
+     * @return the number of bytes, 1 to 10
+     */
+    public static int sizeOf(long value) {
+        int bits = 64 - Long.numberOfLeadingZeros(value | 1);
+        return (9 * bits + 64) >>> 6;
+    }
+
+    /**
+     * Returns the length of the varint starting at {@code offset}.
+     *
+     * @param src    the bytes
+     * @param offset the offset of the first byte
+     * @return the number of bytes up to and including the last one
+     */
+    public static int length(byte[] src, int offset) {
+        int i = offset;
+        while (src[i] < 0) {
+            if (++i - offset == MAX_LONG_BYTES) {
+                throw malformed();
+            }
+        }
+        return i - offset + 1;
+    }
+
+    /**
+     * Writes {@code value} as an unsigned varint.
+     *
+     * @param dst    the destination
+     * @param offset the offset to write at
+     * @param value  the value
+     * @return the offset after the value
+     */
+    public static int putInt(byte[] dst, int offset, int value) {
+        while ((value & ~0x7F) != 0) {
+            dst[offset++] = (byte) (value | 0x80);
+            value >>>= 7;
+        }
+        dst[offset++] = (byte) value;
+        return offset;
+    }
+
+    /**
+     * Writes {@code value} as an unsigned varint.
+     *
+     * @param dst    the destination
+     * @param offset the offset to write at
+     * @param value  the value
+     * @return the offset after the value
+     */
+    public static int putLong(byte[] dst, int offset, long value) {
+        while ((value & ~0x7FL) != 0) {
+            dst[offset++] = (byte) (value | 0x80);
+            value >>>= 7;
+        }
+        dst[offset++] = (byte) value;
+        return offset;
+    }
+
+    /**
+     * Writes {@code value} zig-zag encoded.
+     *
+     * @param dst    the destination
+     * @param offset the offset to write at
+     * @param value  the value
+     * @return the offset after the value
+     */
+    public static int putSignedInt(byte[] dst, int offset, int value) {
+        return putInt(dst, offset, ZigZag.encode(value));
+    }
+
+    /**
+     * Writes {@code value} zig-zag encoded.
+     *
+     * @param dst    the destination
+     * @param offset the offset to write at
+     * @param value  the value
+     * @return the offset after the value
+     */
+    public static int putSignedLong(byte[] dst, int offset, long value) {
+        return putLong(dst, offset, ZigZag.encode(value));
+    }
+
+    /**
+     * Reads the unsigned varint starting at {@code offset}; its length is
+     * {@link #length(byte[], int)}.
+     *
+     * @param src    the bytes
+     * @param offset the offset of the first byte
+     * @return the value
+     */
+    public static int getInt(byte[] src, int offset) {
+        // unrolled: most values end within the first two bytes
+        int b = src[offset];
+        if (b >= 0) {
+            return b;
+        }
+        int value = b & 0x7F;
+        if ((b = src[offset + 1]) >= 0) {
+            return value | b << 7;
+        }
+        value |= (b & 0x7F) << 7;
+        if ((b = src[offset + 2]) >= 0) {
+            return value | b << 14;
+        }
+        value |= (b & 0x7F) << 14;
+        if ((b = src[offset + 3]) >= 0) {
+            return value | b << 21;
+        }
+        value |= (b & 0x7F) << 21;
+        if ((b = src[offset + 4]) >= 0) {
+            return value | b << 28;
+        }
+        throw malformed();
+    }
+
+    /**
+     * Reads the unsigned varint starting at {@code offset}; its length is
+     * {@link #length(byte[], int)}.
+     *
+     * @param src    the bytes
+     * @param offset the offset of the first byte
+     * @return the value
+     */
+    public static long getLong(byte[] src, int offset) {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = src[offset++];
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw malformed();
+    }
+
+    /**
+     * Reads a zig-zag encoded varint starting at {@code offset}.
+     *
+     * @param src    the bytes
+     * @param offset the offset of the first byte
+     * @return the signed value
+     */
+    public static int getSignedInt(byte[] src, int offset) {
+        return ZigZag.decode(getInt(src, offset));
+    }
+
+    /**
+     * Reads a zig-zag encoded varint starting at {@code offset}.
+     *
+     * @param src    the bytes
+     * @param offset the offset of the first byte
+     * @return the signed value
+     */
+    public static long getSignedLong(byte[] src, int offset) {
+        return ZigZag.decode(getLong(src, offset));
+    }
+
+    /**
+     * Writes {@code value} as an unsigned varint at the buffer's position.
+     *
+     * @param dst   the destination
+     * @param value the value
+     * @return {@code dst}
+     */
+    public static ByteBuffer putInt(ByteBuffer dst, int value) {
+        if (dst.hasArray() && dst.remaining() >= MAX_INT_BYTES) {
+            int end = putInt(dst.array(), dst.arrayOffset() + dst.position(), value);
+            return dst.position(end - dst.arrayOffset());
+        }
+        while ((value & ~0x7F) != 0) {
+            dst.put((byte) (value | 0x80));
+            value >>>= 7;
+        }
+        return dst.put((byte) value);
+    }
+
+    /**
+     * Writes {@code value} as an unsigned varint at the buffer's position.
+     *
+     * @param dst   the destination
+     * @param value the value
+     * @return {@code dst}
+     */
+    public static ByteBuffer putLong(ByteBuffer dst, long value) {
+        if (dst.hasArray() && dst.remaining() >= MAX_LONG_BYTES) {
+            int end = putLong(dst.array(), dst.arrayOffset() + dst.position(), value);
+            return dst.position(end - dst.arrayOffset());
+        }
+        while ((value & ~0x7FL) != 0) {
+            dst.put((byte) (value | 0x80));
+            value >>>= 7;
+        }
+        return dst.put((byte) value);
+    }
+
+    /**
+     * Reads an unsigned varint at the buffer's position.
+     *
+     * @param src the source
+     * @return the value
+     */
+    public static int getInt(ByteBuffer src) {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            int b = src.get();
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw malformed();
+    }
+
+    /**
+     * Reads an unsigned varint at the buffer's position.
+     *
+     * @param src the source
+     * @return the value
+     */
+    public static long getLong(ByteBuffer src) {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = src.get();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw malformed();
+    }
+
+    /**
+     * Encodes {@code count} values of {@code src} back to back.
+     *
+     * @param src       the values
+     * @param srcOffset the first value
+     * @param count     the number of values
+     * @param dst       the destination, with room for the encodings
+     * @param dstOffset the offset to write at
+     * @return the offset after the last value; nothing past it is written
+     */
+    public static int encode(long[] src, int srcOffset, int count, byte[] dst, int dstOffset) {
+        Objects.checkFromIndexSize(srcOffset, count, src.length);
+        for (int i = srcOffset, end = srcOffset + count; i < end; i++) {
+            long value = src[i];
+            if ((value & ~0x7FL) == 0) {
+                dst[dstOffset++] = (byte) value;
+                continue;
+            }
+            int size = sizeOf(value);
+            if (value >>> 56 == 0 && dst.length - dstOffset >= Long.BYTES && end - i - 1 >= Long.BYTES - size) {
+                // up to eight groups: spread them into one word and store it
+                // whole; the values that follow write at least one byte each,
+                // so they overwrite every byte stored past this encoding
+                long word = spread(value) | CONTINUATION & ((1L << 8 * (size - 1)) - 1);
+                LONG_LE.set(dst, dstOffset, word);
+                dstOffset += size;
+            } else {
+                dstOffset = putLong(dst, dstOffset, value);
+            }
+        }
+        return dstOffset;
+    }
+
+    /**
+     * Decodes {@code count} back-to-back values into {@code dst}.
+     *
+     * @param src       the encodings
+     * @param srcOffset the offset of the first encoding
+     * @param dst       the destination
+     * @param dstOffset the first value to fill
+     * @param count     the number of values
+     * @return the offset after the last encoding
+     */
+    public static int decode(byte[] src, int srcOffset, long[] dst, int dstOffset, int count) {
+        Objects.checkFromIndexSize(dstOffset, count, dst.length);
+        for (int i = dstOffset, end = dstOffset + count; i < end; i++) {
+            int b = src[srcOffset];
+            if (b >= 0) {
+                dst[i] = b;
+                srcOffset++;
+                continue;
+            }
+            if (src.length - srcOffset >= Long.BYTES) {
+                // load eight bytes and find the terminator among them
+                long word = (long) LONG_LE.get(src, srcOffset);
+                long terminators = ~word & CONTINUATION;
+                if (terminators != 0) {
+                    int size = (Long.numberOfTrailingZeros(terminators) + 1) >>> 3;
+                    dst[i] = gather(word & (-1L >>> (64 - 8 * size)));
+                    srcOffset += size;
+                    continue;
+                }
+            }
+            dst[i] = getLong(src, srcOffset);
+            srcOffset += length(src, srcOffset);
+        }
+        return srcOffset;
+    }
+
+    /**
+     * Moves seven-bit group {@code g} of {@code value} to byte {@code g}.
+     */
+    private static long spread(long value) {
+        return value & 0x7FL
+                | (value & 0x7FL << 7) << 1
+                | (value & 0x7FL << 14) << 2
+                | (value & 0x7FL << 21) << 3
+                | (value & 0x7FL << 28) << 4
+                | (value & 0x7FL << 35) << 5
+                | (value & 0x7FL << 42) << 6
+                | (value & 0x7FL << 49) << 7;
+    }
+
+    /**
+     * Inverse of {@link #spread}, ignoring the continuation bits.
+     */
+    private static long gather(long word) {
+        return word & 0x7FL
+                | (word >>> 1) & 0x7FL << 7
+                | (word >>> 2) & 0x7FL << 14
+                | (word >>> 3) & 0x7FL << 21
+                | (word >>> 4) & 0x7FL << 28
+                | (word >>> 5) & 0x7FL << 35
+                | (word >>> 6) & 0x7FL << 42
+                | (word >>> 7) & 0x7FL << 49;
+    }
+
+    /**
+     * Encodes {@code count} values of {@code src} back to back, zig-zag
+     * encoding each.
+     *
+     * @param src       the values
+     * @param srcOffset the first value
+     * @param count     the number of values
+     * @param dst       the destination, with room for the encodings
+     * @param dstOffset the offset to write at
+     * @return the offset after the last value
+     */
+    public static int encodeSigned(long[] src, int srcOffset, int count, byte[] dst, int dstOffset) {
+        Objects.checkFromIndexSize(srcOffset, count, src.length);
+        for (int i = srcOffset, end = srcOffset + count; i < end; i++) {
+            dstOffset = putLong(dst, dstOffset, ZigZag.encode(src[i]));
+        }
+        return dstOffset;
+    }
+
+    /**
+     * Decodes {@code count} back-to-back zig-zag values into {@code dst}.
+     *
+     * @param src       the encodings
+     * @param srcOffset the offset of the first encoding
+     * @param dst       the destination
+     * @param dstOffset the first value to fill
+     * @param count     the number of values
+     * @return the offset after the last encoding
+     */
+    public static int decodeSigned(byte[] src, int srcOffset, long[] dst, int dstOffset, int count) {
+        int end = decode(src, srcOffset, dst, dstOffset, count);
+        for (int i = dstOffset; i < dstOffset + count; i++) {
+            dst[i] = ZigZag.decode(dst[i]);
+        }
+        return end;
+    }
+
+    private static IllegalArgumentException malformed() {
+        return new IllegalArgumentException("malformed varint: too many continuation bytes");
+    }
+}
@@ -0,0 +1,236 @@
+package io.github.atcurtis.crap4java.parts.codec;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * The tagged binary format written by {@link MessageCodec}s, and the helpers
+ * generated codecs call.
+ *
+ * <p>A message is a sequence of fields closed by an {@link #END} byte. Each
+ * field starts with a varint key, {@code tag << 3 | type}, followed by the
+ * value in the encoding its wire type names:
+ * <ul>
+ * <li>{@link #VARINT}: {@code boolean}, {@code char}, enum ordinals, and the
+ * other integral types zig-zag encoded;</li>
+ * <li>{@link #FIXED32} and {@link #FIXED64}: {@code float} and
+ * {@code double} bits, little-endian;</li>
+ * <li>{@link #BYTES}: a varint length followed by that many bytes, for
+ * {@code byte[]} and UTF-8 strings;</li>
+ * <li>{@link #MESSAGE}: a nested message with its own end marker.</li>
+ * </ul>
+ * Zero primitives and {@code null} references are not written at all, and a
+ * list is written as one field per element.
+ *
+ * <p>Because readers skip fields they do not know and default those that are
+ * missing, components can be added and removed freely as long as tags are
+ * never reused. Changing the type of a component changes its key, so old
+ * values are skipped rather than misread. Enum constants are written by
+ * ordinal and may only be appended; unknown ordinals read as {@code null}.
+ */
+public final class Wire {
+
+    /** The key closing a message. */
+    public static final int END = 0;
+
+    /** Wire type of varint values. */
+    public static final int VARINT = 0;
+
+    /** Wire type of eight-byte little-endian values. */
+    public static final int FIXED64 = 1;
+
+    /** Wire type of length-prefixed byte strings. */
+    public static final int BYTES = 2;
+
+    /** Wire type of nested messages. */
+    public static final int MESSAGE = 3;
+
+    /** Wire type of four-byte little-endian values. */
+    public static final int FIXED32 = 5;
+
+    /** The largest tag; keys must fit in an unsigned {@code int} varint. */
+    public static final int MAX_TAG = (1 << 29) - 1;
+
+    private Wire() {
+    }
+
+    /**
+     * Returns the key of a field.
+     *
+     * @param tag  the tag, 1 to {@link #MAX_TAG}
+     * @param type the wire type
+     * @return the key
+     */
+    public static int key(int tag, int type) {
+        return tag << 3 | type;
+    }
+
+    /**
+     * Returns the tag of a key.
+     *
+     * @param key the key
+     * @return the tag
+     */
+    public static int tag(int key) {
+        return key >>> 3;
+    }
+
+    /**
+     * Returns the wire type of a key.
+     *
+     * @param key the key
+     * @return the wire type
+     */
+    public static int type(int key) {
+        return key & 7;
+    }
+
+    /**
+     * Writes four bytes, little-endian, at the buffer's position.
+     *
+     * @param out   the destination
+     * @param value the value
+     */
+    public static void putFixed32(ByteBuffer out, int value) {
+        int position = out.position();
+        FixedWidth.putIntLE(out, position, value);
+        out.position(position + Integer.BYTES);
+    }
+
+    /**
+     * Writes eight bytes, little-endian, at the buffer's position.
+     *
+     * @param out   the destination
+     * @param value the value
+     */
+    public static void putFixed64(ByteBuffer out, long value) {
+        int position = out.position();
+        FixedWidth.putLongLE(out, position, value);
+        out.position(position + Long.BYTES);
+    }
+
+    /**
+     * Reads four bytes, little-endian, at the buffer's position.
+     *
+     * @param in the source
+     * @return the value
+     */
+    public static int getFixed32(ByteBuffer in) {
+        int position = in.position();
+        int value = FixedWidth.getIntLE(in, position);
+        in.position(position + Integer.BYTES);
+        return value;
+    }
+
+    /**
+     * Reads eight bytes, little-endian, at the buffer's position.
+     *
+     * @param in the source
+     * @return the value
+     */
+    public static long getFixed64(ByteBuffer in) {
+        int position = in.position();
+        long value = FixedWidth.getLongLE(in, position);
+        in.position(position + Long.BYTES);
+        return value;
+    }
+
+    /**
+     * Writes {@code value} as a length-prefixed UTF-8 byte string.
+     *
+     * @param out   the destination
+     * @param value the value
+     */
+    public static void putString(ByteBuffer out, String value) {
+        putBytes(out, value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Reads a length-prefixed UTF-8 byte string.
+     *
+     * @param in the source
+     * @return the value
+     */
+    public static String getString(ByteBuffer in) {
+        int length = checkLength(in, Varint.getInt(in));
+        String value;
+        if (in.hasArray()) {
+            value = new String(in.array(), in.arrayOffset() + in.position(), length, StandardCharsets.UTF_8);
+            in.position(in.position() + length);
+        } else {
+            byte[] bytes = new byte[length];
+            in.get(bytes);
+            value = new String(bytes, StandardCharsets.UTF_8);
+        }
+        return value;
+    }
+
+    /**
+     * Writes {@code value} as a length-prefixed byte string.
+     *
+     * @param out   the destination
+     * @param value the value
+     */
+    public static void putBytes(ByteBuffer out, byte[] value) {
+        Varint.putInt(out, value.length);
+        out.put(value);
+    }
+
+    /**
+     * Reads a length-prefixed byte string.
+     *
+     * @param in the source
+     * @return a new array
+     */
+    public static byte[] getBytes(ByteBuffer in) {
+        byte[] value = new byte[checkLength(in, Varint.getInt(in))];
+        in.get(value);
+        return value;
+    }
+
+    /**
+     * Returns the constant of {@code values} at {@code ordinal}, or
+     * {@code null} if a newer writer appended it.
+     *
+     * @param values  the constants of the enum
+     * @param ordinal the ordinal read
+     * @param <E>     the enum type
+     * @return the constant, or {@code null}
+     */
+    public static <E extends Enum<E>> E constant(E[] values, int ordinal) {
+        return ordinal >= 0 && ordinal < values.length ? values[ordinal] : null;
+    }
+
+    /**
+     * Skips the value of a field whose key has already been read.
+     *
+     * @param in  the source
+     * @param key the key
+     * @throws IllegalArgumentException if the wire type is unknown
+     */
+    public static void skip(ByteBuffer in, int key) {
+        switch (type(key)) {
+            case VARINT -> Varint.getLong(in);
+            case FIXED64 -> in.position(in.position() + Long.BYTES);
+            case BYTES -> {
+                int length = checkLength(in, Varint.getInt(in));
+                in.position(in.position() + length);
+            }
+            case MESSAGE -> {
+                for (int nested = Varint.getInt(in); nested != END; nested = Varint.getInt(in)) {
+                    skip(in, nested);
+                }
+            }
+            case FIXED32 -> in.position(in.position() + Integer.BYTES);
+            default -> throw new IllegalArgumentException("unknown wire type: " + type(key));
+        }
+    }
+
+    private static int checkLength(ByteBuffer in, int length) {
+        if (length < 0 || length > in.remaining()) {
+            throw new BufferUnderflowException();
+        }
+        return length;
+    }
+}
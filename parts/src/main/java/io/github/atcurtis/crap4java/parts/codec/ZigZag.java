@@ -0,0 +1,52 @@
+package io.github.atcurtis.crap4java.parts.codec;
+
+/**
+ * Zig-zag mapping of signed integers onto unsigned ones, so values of small
+ * magnitude, negative or not, encode as short varints:
+ * {@code 0, -1, 1, -2, 2...} map to {@code 0, 1, 2, 3, 4...}.
+ */
+public final class ZigZag {
+
+    private ZigZag() {
+    }
+
+    /**
+     * Maps a signed {@code int} to its zig-zag form.
+     *
+     * @param value the signed value
+     * @return the zig-zag encoded value
+     */
+    public static int encode(int value) {
+        return (value << 1) ^ (value >> 31);
+    }
+
+    /**
+     * Maps a signed {@code long} to its zig-zag form.
+     *
+     * @param value the signed value
+     * @return the zig-zag encoded value
+     */
+    public static long encode(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    /**
+     * Recovers a signed {@code int} from its zig-zag form.
+     *
+     * @param value the zig-zag encoded value
+     * @return the signed value
+     */
+    public static int decode(int value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    /**
+     * Recovers a signed {@code long} from its zig-zag form.
+     *
+     * @param value the zig-zag encoded value
+     * @return the signed value
+     */
+    public static long decode(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
@@ -0,0 +1,9 @@
+/**
+ * Binary encodings: LEB128 varints, zig-zag signed integers and fixed-width
+ * little- and big-endian values over {@code byte[]} and
+ * {@link java.nio.ByteBuffer}, and a tagged message format whose
+ * {@link io.github.atcurtis.crap4java.parts.codec.MessageCodec}s are
+ * generated for records annotated with
+ * {@link io.github.atcurtis.crap4java.parts.codec.GenerateCodec}.
+ */
+package io.github.atcurtis.crap4java.parts.codec;
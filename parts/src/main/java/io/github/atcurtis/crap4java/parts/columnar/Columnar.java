@@ -0,0 +1,37 @@
+package io.github.atcurtis.crap4java.parts.columnar;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Requests a {@link Flyweight} implementation of an interface to be generated
+ * at compile time.
+ *
+ * <p>Every abstract no-argument method returning a primitive type declares a
+ * column, in declaration order; {@code boolean} is stored as one byte. A
+ * {@code void} method taking one argument of the same type and having the same
+ * name is its setter. Columns cannot take the name of a {@link Flyweight}
+ * method such as {@code index} or {@code next}. The generated class,
+ * {@code <Interface>Flyweight} by default, implements the interface over a
+ * {@link ColumnarStore} and provides a {@code newStore(int)} factory creating
+ * a store with the matching layout.
+ *
+ * <p>The annotation processor lives in the {@code processor} module and must be
+ * on the annotation processor path.
+ */
+@Documented
+@Retention(RetentionPolicy.SOURCE)
+@Target(ElementType.TYPE)
+public @interface Columnar {
+
+    /**
+     * The simple name of the generated class. Defaults to the interface name
+     * followed by {@code Flyweight}.
+     *
+     * @return the class name, or empty for the default
+     */
+    String name() default "";
+}
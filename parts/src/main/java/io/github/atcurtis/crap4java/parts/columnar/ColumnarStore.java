@@ -0,0 +1,179 @@
+package io.github.atcurtis.crap4java.parts.columnar;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+/**
+ * Off-heap, column-wise store of fixed-shape records.
+ *
+ * <p>Every column is a direct {@link ByteBuffer} in native byte order holding
+ * one fixed-width value per record, so a scan over one field touches only that
+ * field's memory and the records cost the Java heap nothing but this object
+ * and one buffer header per column. Records are read and written through
+ * {@link Flyweight} views, usually generated from a {@link Columnar}
+ * interface.
+ *
+ * <p>The store grows by copying into larger buffers; the array returned by
+ * {@link #columns()} is updated in place, so flyweights stay valid across
+ * growth. Because columns are addressed with {@code int} byte offsets, a
+ * column holds at most {@code Integer.MAX_VALUE / width} records. Native
+ * memory is released when the store becomes unreachable.
+ *
+ * <p>Instances are not thread-safe.
+ */
+public final class ColumnarStore {
+
+    private final int[] widths;
+    private final ByteBuffer[] columns;
+    private final int maxCapacity;
+    private int capacity;
+    private int size;
+
+    /**
+     * Creates a store.
+     *
+     * @param initialCapacity the number of records to reserve space for
+     * @param widths          the width in bytes of each column
+     */
+    public ColumnarStore(int initialCapacity, int... widths) {
+        if (widths.length == 0) {
+            throw new IllegalArgumentException("at least one column is required");
+        }
+        int widest = 0;
+        for (int width : widths) {
+            if (width != 1 && width != 2 && width != 4 && width != 8) {
+                throw new IllegalArgumentException("column width must be 1, 2, 4 or 8: " + width);
+            }
+            widest = Math.max(widest, width);
+        }
+        this.maxCapacity = Integer.MAX_VALUE / widest;
+        if (initialCapacity < 0 || initialCapacity > maxCapacity) {
+            throw new IllegalArgumentException("initialCapacity: " + initialCapacity);
+        }
+        this.widths = widths.clone();
+        this.columns = new ByteBuffer[widths.length];
+        this.capacity = Math.max(initialCapacity, 1);
+        for (int i = 0; i < widths.length; i++) {
+            columns[i] = allocate(capacity * widths[i]);
+        }
+    }
+
+    private static ByteBuffer allocate(int bytes) {
+        return ByteBuffer.allocateDirect(bytes).order(ByteOrder.nativeOrder());
+    }
+
+    /**
+     * Returns the number of records.
+     *
+     * @return the size
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the number of records the store can hold without growing.
+     *
+     * @return the capacity
+     */
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * Returns the number of columns.
+     *
+     * @return the column count
+     */
+    public int columnCount() {
+        return widths.length;
+    }
+
+    /**
+     * Returns the width in bytes of {@code column}.
+     *
+     * @param column the column index
+     * @return the width
+     */
+    public int width(int column) {
+        return widths[column];
+    }
+
+    /**
+     * Returns whether this store has exactly the given column widths.
+     *
+     * @param widths the expected widths
+     * @return whether the layouts match
+     */
+    public boolean hasLayout(int... widths) {
+        return Arrays.equals(this.widths, widths);
+    }
+
+    /**
+     * Returns the column buffers. The array is owned by the store, which
+     * replaces its elements when it grows; callers may cache the array but not
+     * its elements.
+     *
+     * @return the columns
+     */
+    public ByteBuffer[] columns() {
+        return columns;
+    }
+
+    /**
+     * Appends a record with every field zero.
+     *
+     * @return the index of the new record
+     */
+    public int add() {
+        if (size == capacity) {
+            grow(size + 1);
+        }
+        int index = size++;
+        for (int i = 0; i < widths.length; i++) {
+            zero(columns[i], index * widths[i], widths[i]);
+        }
+        return index;
+    }
+
+    private static void zero(ByteBuffer column, int offset, int width) {
+        switch (width) {
+            case 1 -> column.put(offset, (byte) 0);
+            case 2 -> column.putShort(offset, (short) 0);
+            case 4 -> column.putInt(offset, 0);
+            default -> column.putLong(offset, 0L);
+        }
+    }
+
+    /**
+     * Ensures the store can hold {@code minCapacity} records without growing.
+     *
+     * @param minCapacity the required capacity
+     */
+    public void ensureCapacity(int minCapacity) {
+        if (minCapacity > capacity) {
+            grow(minCapacity);
+        }
+    }
+
+    private void grow(int minCapacity) {
+        if (minCapacity > maxCapacity) {
+            throw new IllegalStateException("store is full: " + maxCapacity + " records");
+        }
+        int newCapacity = (int) Math.min(maxCapacity, Math.max(minCapacity, capacity + (long) (capacity >> 1)));
+        for (int i = 0; i < widths.length; i++) {
+            ByteBuffer bigger = allocate(newCapacity * widths[i]);
+            bigger.put(0, columns[i], 0, size * widths[i]);
+            columns[i] = bigger;
+        }
+        capacity = newCapacity;
+    }
+
+    /**
+     * Removes every record. Capacity is retained.
+     */
+    public void clear() {
+        size = 0;
+    }
+}
@@ -0,0 +1,136 @@
+package io.github.atcurtis.crap4java.parts.columnar;
+
+import io.github.atcurtis.crap4java.adaptors.SelfTyped;
+import io.github.atcurtis.crap4java.adaptors.Source;
+
+import java.nio.ByteBuffer;
+import java.util.Objects;
+
+/**
+ * Movable, object-like view of one record of a {@link ColumnarStore}.
+ *
+ * <p>A flyweight holds only a reference to the store's columns and the index
+ * of the record it currently shows; moving it to another record is a field
+ * store, so millions of records can be visited through a single instance.
+ * Subclasses, normally generated from a {@link Columnar} interface, add
+ * accessors reading {@code columns[c]} at {@code index * width(c)}.
+ *
+ * <p>A flyweight is only meaningful until it is moved; copy out any values that
+ * must outlive that.
+ *
+ * @param <SELF> the concrete flyweight type
+ */
+public abstract class Flyweight<SELF extends Flyweight<SELF>> implements SelfTyped<SELF> {
+
+    /**
+     * The store this view reads from.
+     */
+    protected final ColumnarStore store;
+
+    /**
+     * The store's column array; its elements are replaced when the store grows.
+     */
+    protected final ByteBuffer[] columns;
+
+    /**
+     * The index of the current record, or {@code -1} before the first.
+     */
+    protected int index = -1;
+
+    /**
+     * Creates a view positioned before the first record.
+     *
+     * @param store  the store to view
+     * @param widths the column widths the subclass expects
+     */
+    protected Flyweight(ColumnarStore store, int... widths) {
+        this.store = Objects.requireNonNull(store, "store");
+        if (!store.hasLayout(widths)) {
+            throw new IllegalArgumentException("store layout does not match " + getClass().getName());
+        }
+        this.columns = store.columns();
+    }
+
+    /**
+     * Returns the store this view reads from.
+     *
+     * @return the store
+     */
+    public final ColumnarStore store() {
+        return store;
+    }
+
+    /**
+     * Returns the index of the current record.
+     *
+     * @return the index, or {@code -1} before the first record
+     */
+    public final int index() {
+        return index;
+    }
+
+    /**
+     * Moves this view to the record at {@code index}.
+     *
+     * @param index the record index
+     * @return this view
+     */
+    public final SELF moveTo(int index) {
+        this.index = Objects.checkIndex(index, store.size());
+        return self();
+    }
+
+    /**
+     * Appends a zeroed record to the store and moves this view to it.
+     *
+     * @return this view
+     */
+    public final SELF append() {
+        this.index = store.add();
+        return self();
+    }
+
+    /**
+     * Moves this view before the first record, for iteration with
+     * {@link #next()}.
+     *
+     * @return this view
+     */
+    public final SELF rewind() {
+        this.index = -1;
+        return self();
+    }
+
+    /**
+     * Advances this view to the following record.
+     *
+     * @return {@code false} if there was no following record
+     */
+    public final boolean next() {
+        if (index + 1 < store.size()) {
+            index++;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Returns a source pushing this view, moved to each record in turn, so the
+     * store can be scanned with an {@link io.github.atcurtis.crap4java.adaptors.Adaptor}
+     * pipeline without creating an object per record.
+     *
+     * @return a source over every record
+     */
+    public final Source<SELF> asSource() {
+        return sink -> {
+            SELF self = self();
+            for (int i = 0, n = store.size(); i < n; i++) {
+                index = i;
+                if (!sink.accept(self)) {
+                    return false;
+                }
+            }
+            return true;
+        };
+    }
+}
@@ -0,0 +1,6 @@
+/**
+ * Off-heap, struct-of-arrays storage of fixed-shape records with flyweight
+ * views generated from {@link io.github.atcurtis.crap4java.parts.columnar.Columnar}
+ * interfaces.
+ */
+package io.github.atcurtis.crap4java.parts.columnar;
@@ -0,0 +1,208 @@
+package io.github.atcurtis.crap4java.parts.hash;
+
+import io.github.atcurtis.crap4java.adaptors.SelfTyped;
+
+/**
+ * Self-typed base of the open-addressing tables in this package.
+ *
+ * <p>Subclasses own the slot arrays; the base owns the power-of-two sizing,
+ * the load-factor threshold and the hash mixing, so every map and set grows,
+ * trims and clears the same way and the sizing methods return the concrete
+ * type. Tables use linear probing with backward-shift deletion, so there are
+ * no tombstones and a lookup stops at the first empty slot.
+ *
+ * <p>Instances are not thread-safe.
+ *
+ * @param <SELF> the concrete table type
+ */
+public abstract class AbstractHashTable<SELF extends AbstractHashTable<SELF>> implements SelfTyped<SELF> {
+
+    /** The load factor used when none is given. */
+    public static final float DEFAULT_LOAD_FACTOR = 0.65f;
+
+    /** The number of entries reserved when no capacity is given. */
+    public static final int DEFAULT_EXPECTED_SIZE = 8;
+
+    private static final int MAX_TABLE_SIZE = 1 << 30;
+
+    private final float loadFactor;
+    /** Table length minus one; a slot index is {@code hash & mask}. */
+    protected int mask;
+    /** The number of entries. */
+    protected int size;
+    private int resizeAt;
+
+    /**
+     * Creates the base of a table sized for {@code expectedSize} entries. The
+     * subclass allocates its arrays with {@link #tableSize()} slots.
+     *
+     * @param expectedSize the number of entries to hold without growing
+     * @param loadFactor   the fraction of slots that may be occupied, in
+     *                     {@code (0, 1)}
+     */
+    protected AbstractHashTable(int expectedSize, float loadFactor) {
+        if (!(loadFactor > 0 && loadFactor < 1)) {
+            throw new IllegalArgumentException("loadFactor: " + loadFactor);
+        }
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException("expectedSize: " + expectedSize);
+        }
+        this.loadFactor = loadFactor;
+        resized(tableSizeFor(expectedSize));
+    }
+
+    /**
+     * Returns the number of entries.
+     *
+     * @return the size
+     */
+    public final int size() {
+        return size;
+    }
+
+    /**
+     * Returns whether the table has no entries.
+     *
+     * @return whether the size is zero
+     */
+    public final boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns the load factor.
+     *
+     * @return the fraction of slots that may be occupied before growing
+     */
+    public final float loadFactor() {
+        return loadFactor;
+    }
+
+    /**
+     * Grows the table, if needed, so {@code expectedSize} entries fit without
+     * rehashing.
+     *
+     * @param expectedSize the number of entries
+     * @return this table
+     */
+    public final SELF ensureCapacity(int expectedSize) {
+        int tableSize = tableSizeFor(expectedSize);
+        if (tableSize > tableSize()) {
+            rehash(tableSize);
+            resized(tableSize);
+        }
+        return self();
+    }
+
+    /**
+     * Shrinks the table to the smallest size holding the current entries.
+     *
+     * @return this table
+     */
+    public final SELF trimToSize() {
+        int tableSize = tableSizeFor(size);
+        if (tableSize < tableSize()) {
+            rehash(tableSize);
+            resized(tableSize);
+        }
+        return self();
+    }
+
+    /**
+     * Removes every entry, keeping the current table size.
+     *
+     * @return this table
+     */
+    public final SELF clear() {
+        clearSlots();
+        size = 0;
+        return self();
+    }
+
+    /**
+     * Returns the number of slots in the table.
+     *
+     * @return a power of two
+     */
+    protected final int tableSize() {
+        return mask + 1;
+    }
+
+    /**
+     * Records an insertion, doubling the table once the load factor is
+     * exceeded.
+     */
+    protected final void inserted() {
+        if (++size > resizeAt) {
+            int tableSize = tableSize();
+            if (tableSize == MAX_TABLE_SIZE) {
+                throw new IllegalStateException("table is full: " + size);
+            }
+            rehash(tableSize << 1);
+            resized(tableSize << 1);
+        }
+    }
+
+    /**
+     * Moves every entry into fresh arrays of {@code tableSize} slots. The
+     * mask still describes the old table while this runs.
+     *
+     * @param tableSize the new number of slots, a power of two
+     */
+    protected abstract void rehash(int tableSize);
+
+    /**
+     * Empties every slot.
+     */
+    protected abstract void clearSlots();
+
+    /**
+     * Returns whether the slot at {@code index} lies cyclically in
+     * {@code (home, hole]}, i.e. whether an entry whose home slot is
+     * {@code home} may not be moved back into {@code hole}. Used by the
+     * backward-shift deletion.
+     *
+     * @param home  the home slot of the entry being considered
+     * @param hole  the emptied slot
+     * @param index the slot the entry currently occupies
+     * @return whether the entry must stay where it is
+     */
+    protected static boolean staysPut(int home, int hole, int index) {
+        return hole <= index ? hole < home && home <= index : hole < home || home <= index;
+    }
+
+    /**
+     * Spreads an {@code int} key over the table.
+     *
+     * @param key the key
+     * @return the mixed hash
+     */
+    protected static int hash(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * Spreads a {@code long} key over the table.
+     *
+     * @param key the key
+     * @return the mixed hash
+     */
+    protected static int hash(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    private int tableSizeFor(int expectedSize) {
+        long slots = (long) Math.ceil(Math.max(expectedSize, 1) / (double) loadFactor);
+        if (slots > MAX_TABLE_SIZE) {
+            throw new IllegalArgumentException("expectedSize: " + expectedSize);
+        }
+        return Math.max(2, Integer.highestOneBit((int) Math.max(slots - 1, 1)) << 1);
+    }
+
+    private void resized(int tableSize) {
+        mask = tableSize - 1;
+        resizeAt = Math.min((int) (tableSize * (double) loadFactor), tableSize - 1);
+    }
+}
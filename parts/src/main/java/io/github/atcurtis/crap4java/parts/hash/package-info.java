@@ -0,0 +1,12 @@
+/**
+ * Open-addressing hash maps and sets keyed by {@code int} and {@code long}.
+ *
+ * <p>Keys and primitive values live in flat arrays probed linearly, so an
+ * entry costs its array slots and nothing else: no boxed key, no boxed value,
+ * no entry node. Every table shares the sizing, growth and hashing of
+ * {@link io.github.atcurtis.crap4java.parts.hash.AbstractHashTable}.
+ *
+ * <p>The concrete types are generated from the templates in
+ * {@code src/main/templates}; edit the templates, not the generated code.
+ */
+package io.github.atcurtis.crap4java.parts.hash;
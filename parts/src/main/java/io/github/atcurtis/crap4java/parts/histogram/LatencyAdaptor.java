@@ -0,0 +1,125 @@
+package io.github.atcurtis.crap4java.parts.histogram;
+
+import io.github.atcurtis.crap4java.adaptors.hidden.HiddenAdaptorFactory;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Wraps an implementation of any interface, typically a part, in an adaptor
+ * recording the latency of every method into a {@link LatencyHistogram} of
+ * its own:
+ *
+ * <pre>{@code
+ * LatencyAdaptor<MessageQueue<Order>> timed = LatencyAdaptor.wrap(
+ *         HiddenAdaptorFactory.create(MethodHandles.lookup()),
+ *         MessageQueue.class, queue,
+ *         () -> new LatencyHistogram(TimeUnit.SECONDS.toNanos(10), 2));
+ * MessageQueue<Order> orders = timed.adaptor();
+ * ...
+ * long p99 = timed.histogram("offer(Object)").snapshot().valueAtPercentile(99);
+ * }</pre>
+ *
+ * <p>The adaptor is a hidden class spun by
+ * {@link HiddenAdaptorFactory#instrument}: each method reads
+ * {@link System#nanoTime()} around a direct call of the delegate and records
+ * the difference into its histogram, also when the call throws. Nothing is
+ * allocated and no lock is taken per call. Methods are named by their name
+ * and simple parameter type names, e.g. {@code "drain(Consumer, int)"}.
+ *
+ * @param <I> the interface type
+ */
+public final class LatencyAdaptor<I> {
+
+    private final I adaptor;
+    private final Map<String, LatencyHistogram> histograms;
+
+    private LatencyAdaptor(I adaptor, Map<String, LatencyHistogram> histograms) {
+        this.adaptor = adaptor;
+        this.histograms = histograms;
+    }
+
+    /**
+     * Wraps {@code delegate}.
+     *
+     * @param factory    the factory spinning the adaptor class; the interface
+     *                   must be accessible from its lookup
+     * @param iface      the interface to time
+     * @param delegate   the implementation
+     * @param histograms creates the histogram of each method
+     * @param <I>        the interface type
+     * @return the wrapped delegate and its histograms
+     * @throws IllegalArgumentException if {@code iface} is not an accessible
+     *                                  interface
+     */
+    public static <I> LatencyAdaptor<I> wrap(HiddenAdaptorFactory factory, Class<? super I> iface, I delegate,
+                                             Supplier<LatencyHistogram> histograms) {
+        Objects.requireNonNull(histograms, "histograms");
+        Map<String, LatencyHistogram> byMethod = new LinkedHashMap<>();
+        @SuppressWarnings("unchecked")
+        Class<I> type = (Class<I>) iface;
+        I adaptor = factory.instrument(type, delegate,
+                method -> byMethod.computeIfAbsent(key(method), key -> histograms.get()));
+        return new LatencyAdaptor<>(adaptor, Collections.unmodifiableMap(byMethod));
+    }
+
+    private static String key(Method method) {
+        return Arrays.stream(method.getParameterTypes())
+                .map(Class::getSimpleName)
+                .collect(Collectors.joining(", ", method.getName() + "(", ")"));
+    }
+
+    /**
+     * Returns the timing adaptor.
+     *
+     * @return an implementation of the interface delegating to the wrapped
+     *         object
+     */
+    public I adaptor() {
+        return adaptor;
+    }
+
+    /**
+     * Returns the histogram of every method.
+     *
+     * @return the histograms by method name and parameter types, in the
+     *         order of {@link Class#getMethods()}
+     */
+    public Map<String, LatencyHistogram> histograms() {
+        return histograms;
+    }
+
+    /**
+     * Returns the histogram of one method.
+     *
+     * @param method the method name and parameter types, e.g.
+     *               {@code "offer(Object)"}
+     * @return the histogram
+     * @throws IllegalArgumentException if the interface has no such method
+     */
+    public LatencyHistogram histogram(String method) {
+        LatencyHistogram histogram = histograms.get(method);
+        if (histogram == null) {
+            throw new IllegalArgumentException("method: " + method);
+        }
+        return histogram;
+    }
+
+    /**
+     * Takes an {@linkplain LatencyHistogram#intervalSnapshot() interval
+     * snapshot} of every histogram.
+     *
+     * @return the snapshots by method name and parameter types
+     */
+    public Map<String, LatencyHistogram.Snapshot> intervalSnapshots() {
+        Map<String, LatencyHistogram.Snapshot> snapshots = new LinkedHashMap<>();
+        histograms.forEach((method, histogram) -> snapshots.put(method, histogram.intervalSnapshot()));
+        return snapshots;
+    }
+}
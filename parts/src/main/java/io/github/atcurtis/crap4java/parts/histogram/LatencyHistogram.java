@@ -0,0 +1,344 @@
+package io.github.atcurtis.crap4java.parts.histogram;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongConsumer;
+
+/**
+ * Lock-free histogram of non-negative {@code long} values, typically
+ * latencies in nanoseconds, with a fixed relative precision over a range of
+ * many orders of magnitude.
+ *
+ * <p>Buckets are laid out as in HdrHistogram: values below the sub-bucket
+ * count {@code 2^k} are counted exactly, and every further power of two is
+ * split into {@code 2^(k-1)} equal buckets, where {@code k} is the smallest
+ * number of bits holding {@code 2 * 10^significantDigits}. Any value is thus
+ * reported to within one part in {@code 10^significantDigits}, and the bucket
+ * of a value is found with a leading-zero count and two shifts. With two
+ * significant digits and an hour in nanoseconds as the highest value, the
+ * histogram takes 36 KiB.
+ *
+ * <p>{@link #record(long)} is one atomic increment of a bucket: it takes no
+ * lock and allocates nothing, so it can sit on any hot path and be called
+ * from any number of threads. Values outside {@code [0, highestTrackableValue]}
+ * are clamped rather than rejected. Readers take a {@link Snapshot}, either
+ * cumulative with {@link #snapshot()} or per interval with
+ * {@link #intervalSnapshot()}, which also empties the histogram; snapshots of
+ * histograms with the same layout can be merged.
+ */
+public final class LatencyHistogram implements LongConsumer {
+
+    private final long highestTrackableValue;
+    private final int significantDigits;
+    private final int subBucketBits;
+    private final AtomicLongArray counts;
+
+    /**
+     * Creates an empty histogram.
+     *
+     * @param highestTrackableValue the largest value to tell apart; larger
+     *                              values are recorded as this one
+     * @param significantDigits     the decimal precision, from 1 to 5
+     */
+    public LatencyHistogram(long highestTrackableValue, int significantDigits) {
+        if (highestTrackableValue < 1) {
+            throw new IllegalArgumentException("highestTrackableValue: " + highestTrackableValue);
+        }
+        if (significantDigits < 1 || significantDigits > 5) {
+            throw new IllegalArgumentException("significantDigits: " + significantDigits);
+        }
+        long largestExact = 2 * (long) Math.pow(10, significantDigits);
+        this.highestTrackableValue = highestTrackableValue;
+        this.significantDigits = significantDigits;
+        this.subBucketBits = 64 - Long.numberOfLeadingZeros(largestExact - 1);
+        this.counts = new AtomicLongArray(index(highestTrackableValue, subBucketBits) + 1);
+    }
+
+    /**
+     * Returns the highest value told apart from others.
+     *
+     * @return the highest trackable value
+     */
+    public long highestTrackableValue() {
+        return highestTrackableValue;
+    }
+
+    /**
+     * Returns the decimal precision.
+     *
+     * @return the number of significant digits
+     */
+    public int significantDigits() {
+        return significantDigits;
+    }
+
+    /**
+     * Records one occurrence of {@code value}.
+     *
+     * @param value the value, clamped to {@code [0, highestTrackableValue]}
+     */
+    public void record(long value) {
+        counts.getAndIncrement(index(clamp(value), subBucketBits));
+    }
+
+    /**
+     * Records {@code count} occurrences of {@code value}.
+     *
+     * @param value the value, clamped to {@code [0, highestTrackableValue]}
+     * @param count the number of occurrences
+     */
+    public void record(long value, long count) {
+        if (count < 0) {
+            throw new IllegalArgumentException("count: " + count);
+        }
+        counts.getAndAdd(index(clamp(value), subBucketBits), count);
+    }
+
+    /**
+     * Records the time elapsed since {@code startNanos}.
+     *
+     * @param startNanos a reading of {@link System#nanoTime()}
+     */
+    public void recordSince(long startNanos) {
+        record(System.nanoTime() - startNanos);
+    }
+
+    /**
+     * Records {@code value}, so that the histogram can be used as a timer.
+     *
+     * @param value the value, clamped to {@code [0, highestTrackableValue]}
+     */
+    @Override
+    public void accept(long value) {
+        record(value);
+    }
+
+    /**
+     * Adds the counts of {@code snapshot} to this histogram.
+     *
+     * @param snapshot a snapshot of a histogram with the same layout
+     * @throws IllegalArgumentException if the layouts differ
+     */
+    public void add(Snapshot snapshot) {
+        checkLayout(snapshot);
+        long[] other = snapshot.counts;
+        for (int i = 0; i < other.length; i++) {
+            if (other[i] != 0) {
+                counts.getAndAdd(i, other[i]);
+            }
+        }
+    }
+
+    /**
+     * Returns the counts recorded so far.
+     *
+     * @return a snapshot
+     */
+    public Snapshot snapshot() {
+        long[] copy = new long[counts.length()];
+        for (int i = 0; i < copy.length; i++) {
+            copy[i] = counts.get(i);
+        }
+        return new Snapshot(highestTrackableValue, significantDigits, subBucketBits, copy);
+    }
+
+    /**
+     * Returns the counts recorded since the previous interval snapshot and
+     * empties the histogram. Each bucket is read and cleared atomically, so
+     * every value recorded concurrently lands in exactly one interval.
+     *
+     * @return a snapshot of the interval
+     */
+    public Snapshot intervalSnapshot() {
+        long[] copy = new long[counts.length()];
+        for (int i = 0; i < copy.length; i++) {
+            if (counts.get(i) != 0) {
+                copy[i] = counts.getAndSet(i, 0);
+            }
+        }
+        return new Snapshot(highestTrackableValue, significantDigits, subBucketBits, copy);
+    }
+
+    private long clamp(long value) {
+        return value < 0 ? 0 : Math.min(value, highestTrackableValue);
+    }
+
+    private void checkLayout(Snapshot snapshot) {
+        if (snapshot.subBucketBits != subBucketBits || snapshot.counts.length != counts.length()) {
+            throw new IllegalArgumentException("histogram layouts differ: " + snapshot);
+        }
+    }
+
+    /**
+     * Returns the bucket of {@code value}: the value itself below the
+     * sub-bucket count, then {@code 2^(subBucketBits - 1)} buckets per power
+     * of two.
+     */
+    static int index(long value, int subBucketBits) {
+        int shift = Math.max(0, 64 - Long.numberOfLeadingZeros(value) - subBucketBits);
+        return (shift << (subBucketBits - 1)) + (int) (value >>> shift);
+    }
+
+    /**
+     * Returns the smallest value counted in bucket {@code index}.
+     */
+    static long lowestValue(int index, int subBucketBits) {
+        int shift = Math.max(0, (index >>> (subBucketBits - 1)) - 1);
+        return (long) (index - (shift << (subBucketBits - 1))) << shift;
+    }
+
+    /**
+     * Returns the largest value counted in bucket {@code index}.
+     */
+    static long highestValue(int index, int subBucketBits) {
+        int shift = Math.max(0, (index >>> (subBucketBits - 1)) - 1);
+        return lowestValue(index, subBucketBits) + (1L << shift) - 1;
+    }
+
+    /**
+     * Immutable counts of a {@link LatencyHistogram} at one point, or over
+     * one interval.
+     */
+    public static final class Snapshot {
+
+        private final long highestTrackableValue;
+        private final int significantDigits;
+        private final int subBucketBits;
+        private final long[] counts;
+        private final long count;
+
+        Snapshot(long highestTrackableValue, int significantDigits, int subBucketBits, long[] counts) {
+            this.highestTrackableValue = highestTrackableValue;
+            this.significantDigits = significantDigits;
+            this.subBucketBits = subBucketBits;
+            this.counts = counts;
+            long total = 0;
+            for (long c : counts) {
+                total += c;
+            }
+            this.count = total;
+        }
+
+        /**
+         * Returns the number of recorded values.
+         *
+         * @return the total count
+         */
+        public long count() {
+            return count;
+        }
+
+        /**
+         * Returns the smallest recorded value, to the histogram's precision.
+         *
+         * @return the minimum, or zero if nothing was recorded
+         */
+        public long min() {
+            for (int i = 0; i < counts.length; i++) {
+                if (counts[i] != 0) {
+                    return lowestValue(i, subBucketBits);
+                }
+            }
+            return 0;
+        }
+
+        /**
+         * Returns the largest recorded value, to the histogram's precision.
+         *
+         * @return the maximum, or zero if nothing was recorded
+         */
+        public long max() {
+            for (int i = counts.length - 1; i >= 0; i--) {
+                if (counts[i] != 0) {
+                    return value(i);
+                }
+            }
+            return 0;
+        }
+
+        /**
+         * Returns the mean of the recorded values, taking each at the middle
+         * of its bucket.
+         *
+         * @return the mean, or zero if nothing was recorded
+         */
+        public double mean() {
+            if (count == 0) {
+                return 0.0;
+            }
+            double total = 0;
+            for (int i = 0; i < counts.length; i++) {
+                if (counts[i] != 0) {
+                    long low = lowestValue(i, subBucketBits);
+                    total += (low + (highestValue(i, subBucketBits) - low) / 2.0) * counts[i];
+                }
+            }
+            return total / count;
+        }
+
+        /**
+         * Returns the value below or at which {@code percentile} percent of
+         * the recorded values fall, to the histogram's precision; for
+         * example {@code valueAtPercentile(99.9)} is the p999.
+         *
+         * @param percentile the percentile, from 0 to 100
+         * @return the value, or zero if nothing was recorded
+         */
+        public long valueAtPercentile(double percentile) {
+            if (!(percentile >= 0 && percentile <= 100)) {
+                throw new IllegalArgumentException("percentile: " + percentile);
+            }
+            long rank = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= rank) {
+                    return value(i);
+                }
+            }
+            return 0;
+        }
+
+        /**
+         * Returns the number of recorded values that are equivalent to
+         * {@code value} at the histogram's precision.
+         *
+         * @param value the value
+         * @return the count of its bucket
+         */
+        public long countAt(long value) {
+            long clamped = value < 0 ? 0 : Math.min(value, highestTrackableValue);
+            return counts[index(clamped, subBucketBits)];
+        }
+
+        /**
+         * Returns a snapshot holding the counts of both snapshots.
+         *
+         * @param other a snapshot of a histogram with the same layout
+         * @return the merged snapshot
+         * @throws IllegalArgumentException if the layouts differ
+         */
+        public Snapshot plus(Snapshot other) {
+            if (other.subBucketBits != subBucketBits || other.counts.length != counts.length) {
+                throw new IllegalArgumentException("histogram layouts differ: " + other);
+            }
+            long[] sum = Arrays.copyOf(counts, counts.length);
+            for (int i = 0; i < sum.length; i++) {
+                sum[i] += other.counts[i];
+            }
+            return new Snapshot(highestTrackableValue, significantDigits, subBucketBits, sum);
+        }
+
+        private long value(int index) {
+            return Math.min(highestValue(index, subBucketBits), highestTrackableValue);
+        }
+
+        @Override
+        public String toString() {
+            return "Snapshot[count=" + count + ", p50=" + valueAtPercentile(50) + ", p99=" + valueAtPercentile(99)
+                    + ", p999=" + valueAtPercentile(99.9) + ", max=" + max()
+                    + ", highestTrackableValue=" + highestTrackableValue
+                    + ", significantDigits=" + significantDigits + "]";
+        }
+    }
+}
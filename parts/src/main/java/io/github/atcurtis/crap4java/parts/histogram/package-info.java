@@ -0,0 +1,5 @@
+/**
+ * High-dynamic-range latency histograms that record without locks or
+ * allocation, and an adaptor timing every method of an interface into them.
+ */
+package io.github.atcurtis.crap4java.parts.histogram;
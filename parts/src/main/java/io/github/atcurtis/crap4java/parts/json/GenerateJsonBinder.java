@@ -0,0 +1,41 @@
+package io.github.atcurtis.crap4java.parts.json;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Requests a {@link JsonBinder} to be generated at compile time for a type
+ * that also has a generated builder, that is a record annotated with
+ * {@code @GenerateBuilder} or a class with such a constructor.
+ *
+ * <p>The binder reads one JSON object, matches each property name against the
+ * builder's properties with {@link JsonReader#selectName}, and passes the value
+ * straight to the setter; unknown properties are skipped and absent ones keep
+ * the builder's default. Supported property types are {@code boolean},
+ * {@code int}, {@code long}, {@code float} and {@code double} and their
+ * wrappers, {@code String}, enums by constant name, other types annotated with
+ * {@code @GenerateJsonBinder}, and {@code List}s of the reference types. The
+ * generated class, {@code <Type>JsonBinder} by default, lives in the same
+ * package.
+ *
+ * <p>The annotation is kept in class files so types compiled separately can
+ * still be nested. The annotation processor lives in the {@code processor}
+ * module and must be on the annotation processor path.
+ */
+@Documented
+@Retention(RetentionPolicy.CLASS)
+@Target(ElementType.TYPE)
+public @interface GenerateJsonBinder {
+
+    /**
+     * The simple name of the generated class. Defaults to the type name
+     * followed by {@code JsonBinder}; nested types are prefixed with their
+     * enclosing type names separated by {@code _}.
+     *
+     * @return the class name, or empty for the default
+     */
+    String name() default "";
+}
@@ -0,0 +1,23 @@
+package io.github.atcurtis.crap4java.parts.json;
+
+import java.io.IOException;
+
+/**
+ * Reads values of one type from a {@link JsonReader}.
+ *
+ * <p>Implementations are usually generated from a {@link GenerateJsonBinder}
+ * type; they are stateless and thread-safe.
+ *
+ * @param <T> the value type
+ */
+public interface JsonBinder<T> {
+
+    /**
+     * Reads one value at the reader's position.
+     *
+     * @param in the reader
+     * @return the value
+     * @throws IOException if the input cannot be read or is malformed
+     */
+    T read(JsonReader in) throws IOException;
+}
@@ -0,0 +1,94 @@
+package io.github.atcurtis.crap4java.parts.json;
+
+import java.util.Arrays;
+
+/**
+ * A fixed set of property names that {@link JsonReader#selectName} matches
+ * directly against its buffer, so known names are recognised without creating
+ * a {@code String}. Instances are immutable and can be shared between
+ * readers and threads.
+ */
+public final class JsonNames {
+
+    private final String[] names;
+    private final char[][] chars;
+
+    private JsonNames(String[] names) {
+        this.names = names;
+        this.chars = new char[names.length][];
+        for (int i = 0; i < names.length; i++) {
+            chars[i] = names[i].toCharArray();
+        }
+    }
+
+    /**
+     * Creates a set of names, indexed in argument order.
+     *
+     * @param names the names
+     * @return the set
+     * @throws IllegalArgumentException if a name occurs twice
+     */
+    public static JsonNames of(String... names) {
+        String[] copy = names.clone();
+        for (int i = 0; i < copy.length; i++) {
+            for (int j = 0; j < i; j++) {
+                if (copy[i].equals(copy[j])) {
+                    throw new IllegalArgumentException("duplicate name: " + copy[i]);
+                }
+            }
+        }
+        return new JsonNames(copy);
+    }
+
+    /**
+     * Returns the number of names.
+     *
+     * @return the size
+     */
+    public int size() {
+        return names.length;
+    }
+
+    /**
+     * Returns the name at {@code index}.
+     *
+     * @param index the index
+     * @return the name
+     */
+    public String name(int index) {
+        return names[index];
+    }
+
+    /**
+     * Returns the index of {@code name}.
+     *
+     * @param name the name
+     * @return the index, or -1
+     */
+    public int indexOf(String name) {
+        for (int i = 0; i < names.length; i++) {
+            if (names[i].equals(name)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the index of the name held in {@code buffer[offset, offset + length)}.
+     */
+    int indexOf(char[] buffer, int offset, int length) {
+        for (int i = 0; i < chars.length; i++) {
+            char[] candidate = chars[i];
+            if (candidate.length == length && Arrays.equals(candidate, 0, length, buffer, offset, offset + length)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(names);
+    }
+}
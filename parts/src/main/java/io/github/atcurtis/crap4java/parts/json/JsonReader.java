@@ -0,0 +1,762 @@
+package io.github.atcurtis.crap4java.parts.json;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Arrays;
+
+/**
+ * A strict, streaming JSON (RFC 8259) pull parser.
+ *
+ * <p>The reader walks the input one token at a time: {@link #peek()} reports
+ * the next token and the {@code begin}, {@code end} and {@code next} methods
+ * consume it. Tokens are decoded in place from one character buffer: numbers
+ * that fit a {@code long} are parsed without creating a string, strings
+ * without escapes are copied once, and {@link #selectName(JsonNames)}
+ * resolves property names against a fixed set without allocating at all. A
+ * streamed token is kept whole in the buffer, which grows to hold the longest
+ * one.
+ *
+ * <p>Syntax errors throw {@link MalformedJsonException}; consuming a token of
+ * the wrong kind throws {@link IllegalStateException} and leaves the token in
+ * place. Instances are not thread-safe.
+ */
+public final class JsonReader implements Closeable {
+
+    private static final int DEFAULT_BUFFER_SIZE = 8192;
+
+    // scopes on the stack
+    private static final int EMPTY_DOCUMENT = 0;
+    private static final int NONEMPTY_DOCUMENT = 1;
+    private static final int EMPTY_ARRAY = 2;
+    private static final int NONEMPTY_ARRAY = 3;
+    private static final int EMPTY_OBJECT = 4;
+    private static final int DANGLING_NAME = 5;
+    private static final int NONEMPTY_OBJECT = 6;
+
+    // peeked tokens; the opening quote of names and strings and the whole
+    // literal have already been consumed, numbers have only been measured
+    private static final int PEEKED_NONE = 0;
+    private static final int PEEKED_BEGIN_OBJECT = 1;
+    private static final int PEEKED_END_OBJECT = 2;
+    private static final int PEEKED_BEGIN_ARRAY = 3;
+    private static final int PEEKED_END_ARRAY = 4;
+    private static final int PEEKED_NAME = 5;
+    private static final int PEEKED_STRING = 6;
+    private static final int PEEKED_NUMBER = 7;
+    private static final int PEEKED_TRUE = 8;
+    private static final int PEEKED_FALSE = 9;
+    private static final int PEEKED_NULL = 10;
+    private static final int PEEKED_END_DOCUMENT = 11;
+
+    /** The longest integral number that always fits a {@code long}. */
+    private static final int MAX_FAST_LONG_LENGTH = 18;
+
+    /** The longest integral number that is always exact as a {@code double}. */
+    private static final int MAX_FAST_DOUBLE_LENGTH = 15;
+
+    private final Reader in;
+    private char[] buffer;
+    private int pos;
+    private int limit;
+    private long consumed;
+
+    private int[] stack = new int[32];
+    private int depth = 1;
+
+    private int peeked = PEEKED_NONE;
+    private int numberLength;
+    private boolean integral;
+
+    private JsonReader(Reader in, char[] buffer, int limit) {
+        this.in = in;
+        this.buffer = buffer;
+        this.limit = limit;
+        stack[0] = EMPTY_DOCUMENT;
+    }
+
+    /**
+     * Creates a reader over an in-memory document.
+     *
+     * @param json the document
+     * @return a new reader
+     */
+    public static JsonReader of(CharSequence json) {
+        char[] chars = json instanceof String s ? s.toCharArray() : json.toString().toCharArray();
+        return new JsonReader(null, chars, chars.length);
+    }
+
+    /**
+     * Creates a reader streaming from {@code in}, which it closes on
+     * {@link #close()}.
+     *
+     * @param in the source
+     * @return a new reader
+     */
+    public static JsonReader of(Reader in) {
+        return new JsonReader(in, new char[DEFAULT_BUFFER_SIZE], 0);
+    }
+
+    /**
+     * Returns the kind of the next token without consuming it.
+     *
+     * @return the token
+     * @throws IOException if the input cannot be read or is malformed
+     */
+    public JsonToken peek() throws IOException {
+        return switch (peeked()) {
+            case PEEKED_BEGIN_OBJECT -> JsonToken.BEGIN_OBJECT;
+            case PEEKED_END_OBJECT -> JsonToken.END_OBJECT;
+            case PEEKED_BEGIN_ARRAY -> JsonToken.BEGIN_ARRAY;
+            case PEEKED_END_ARRAY -> JsonToken.END_ARRAY;
+            case PEEKED_NAME -> JsonToken.NAME;
+            case PEEKED_STRING -> JsonToken.STRING;
+            case PEEKED_NUMBER -> JsonToken.NUMBER;
+            case PEEKED_TRUE, PEEKED_FALSE -> JsonToken.BOOLEAN;
+            case PEEKED_NULL -> JsonToken.NULL;
+            default -> JsonToken.END_DOCUMENT;
+        };
+    }
+
+    /**
+     * Returns whether the current array or object has another element.
+     *
+     * @return {@code false} at the end of an array, object or the document
+     * @throws IOException if the input cannot be read or is malformed
+     */
+    public boolean hasNext() throws IOException {
+        int p = peeked();
+        return p != PEEKED_END_OBJECT && p != PEEKED_END_ARRAY && p != PEEKED_END_DOCUMENT;
+    }
+
+    /**
+     * Consumes the opening brace of an object.
+     *
+     * @throws IOException if the input cannot be read or is malformed
+     */
+    public void beginObject() throws IOException {
+        expect(PEEKED_BEGIN_OBJECT, JsonToken.BEGIN_OBJECT);
+        push(EMPTY_OBJECT);
+        peeked = PEEKED_NONE;
+    }
+
+    /**
+     * Consumes the closing brace of an object.
+     *
+     * @throws IOException if the input cannot be read or is malformed
+     */
+    public void endObject() throws IOException {
+        expect(PEEKED_END_OBJECT, JsonToken.END_OBJECT);
+        depth--;
+        peeked = PEEKED_NONE;
+    }
+
+    /**
+     * Consumes the opening bracket of an array.
+     *
+     * @throws IOException if the input cannot be read or is malformed
+     */
+    public void beginArray() throws IOException {
+        expect(PEEKED_BEGIN_ARRAY, JsonToken.BEGIN_ARRAY);
+        push(EMPTY_ARRAY);
+        peeked = PEEKED_NONE;
+    }
+
+    /**
+     * Consumes the closing bracket of an array.
+     *
+     * @throws IOException if the input cannot be read or is malformed
+     */
+    public void endArray() throws IOException {
+        expect(PEEKED_END_ARRAY, JsonToken.END_ARRAY);
+        depth--;
+        peeked = PEEKED_NONE;
+    }
+
+    /**
+     * Consumes a property name.
+     *
+     * @return the name
+     * @throws IOException if the input cannot be read or is malformed
+     */
+    public String nextName() throws IOException {
+        expect(PEEKED_NAME, JsonToken.NAME);
+        String name = readString();
+        peeked = PEEKED_NONE;
+        return name;
+    }
+
+    /**
+     * Consumes a property name and returns its index in {@code names}. Names
+     * without escapes are compared in the buffer, so nothing is allocated.
+     *
+     * @param names the names to match
+     * @return the index of the name, or -1 if it is not one of them
+     * @throws IOException if the input cannot be read or is malformed
+     */
+    public int selectName(JsonNames names) throws IOException {
+        expect(PEEKED_NAME, JsonToken.NAME);
+        int length = 0;
+        while (true) {
+            int i = pos + length;
+            for (; i < limit; i++) {
+                char c = buffer[i];
+                if (c == '"') {
+                    int index = names.indexOf(buffer, pos, i - pos);
+                    pos = i + 1;
+                    peeked = PEEKED_NONE;
+                    return index;
+                }
+                if (c == '\\') {
+                    int index = names.indexOf(readString());
+                    peeked = PEEKED_NONE;
+                    return index;
+                }
+            }
+            length = i - pos;
+            if (!fill(length + 1)) {
+                throw syntax("unterminated name");
+            }
+        }
+    }
+
+    /**
+     * Consumes a string value.
+     *
+     * @return the string
+     * @throws IOException if the input cannot be read or is malformed
+     */
+    public String nextString() throws IOException {
+        expect(PEEKED_STRING, JsonToken.STRING);
+        String value = readString();
+        peeked = PEEKED_NONE;
+        return value;
+    }
+
+    /**
+     * Consumes a boolean value.
+     *
+     * @return the value
+     * @throws IOException if the input cannot be read or is malformed
+     */
+    public boolean nextBoolean() throws IOException {
+        int p = peeked();
+        if (p != PEEKED_TRUE && p != PEEKED_FALSE) {
+            throw unexpected(JsonToken.BOOLEAN);
+        }
+        peeked = PEEKED_NONE;
+        return p == PEEKED_TRUE;
+    }
+
+    /**
+     * Consumes a {@code null} if it is the next token.
+     *
+     * @return whether a {@code null} was consumed
+     * @throws IOException if the input cannot be read or is malformed
+     */
+    public boolean nextIfNull() throws IOException {
+        if (peeked() != PEEKED_NULL) {
+            return false;
+        }
+        peeked = PEEKED_NONE;
+        return true;
+    }
+
+    /**
+     * Consumes a {@code null}.
+     *
+     * @throws IOException if the input cannot be read or is malformed
+     */
+    public void nextNull() throws IOException {
+        expect(PEEKED_NULL, JsonToken.NULL);
+        peeked = PEEKED_NONE;
+    }
+
+    /**
+     * Consumes a number that is an exact {@code long}, such as {@code 12},
+     * {@code -3} or {@code 1.5e3}.
+     *
+     * @return the value
+     * @throws IOException if the input cannot be read or is malformed
+     */
+    public long nextLong() throws IOException {
+        expect(PEEKED_NUMBER, JsonToken.NUMBER);
+        long value;
+        if (integral && numberLength <= MAX_FAST_LONG_LENGTH) {
+            value = parseDigits();
+        } else {
+            String text = new String(buffer, pos, numberLength);
+            try {
+                value = integral ? Long.parseLong(text) : exactLong(Double.parseDouble(text), text);
+            } catch (NumberFormatException e) {
+                throw new IllegalStateException("not a long: " + text + at());
+            }
+        }
+        consumeNumber();
+        return value;
+    }
+
+    /**
+     * Consumes a number that is an exact {@code int}.
+     *
+     * @return the value
+     * @throws IOException if the input cannot be read or is malformed
+     */
+    public int nextInt() throws IOException {
+        expect(PEEKED_NUMBER, JsonToken.NUMBER);
+        if (integral && numberLength <= MAX_FAST_LONG_LENGTH) {
+            long value = parseDigits();
+            if ((int) value != value) {
+                throw new IllegalStateException("not an int: " + value + at());
+            }
+            consumeNumber();
+            return (int) value;
+        }
+        String text = new String(buffer, pos, numberLength);
+        double value = Double.parseDouble(text);
+        if ((int) value != value) {
+            throw new IllegalStateException("not an int: " + text + at());
+        }
+        consumeNumber();
+        return (int) value;
+    }
+
+    /**
+     * Consumes a number as a {@code double}.
+     *
+     * @return the value
+     * @throws IOException if the input cannot be read or is malformed
+     */
+    public double nextDouble() throws IOException {
+        expect(PEEKED_NUMBER, JsonToken.NUMBER);
+        double value;
+        if (integral && numberLength <= MAX_FAST_DOUBLE_LENGTH) {
+            long digits = parseDigits();
+            // a long has no negative zero
+            value = digits == 0 && buffer[pos] == '-' ? -0.0 : digits;
+        } else {
+            value = Double.parseDouble(new String(buffer, pos, numberLength));
+        }
+        consumeNumber();
+        return value;
+    }
+
+    /**
+     * Skips the next value, with everything nested in it. At a property name,
+     * skips the name and its value.
+     *
+     * @throws IOException if the input cannot be read or is malformed
+     */
+    public void skipValue() throws IOException {
+        int count = 0;
+        while (true) {
+            switch (peeked()) {
+                case PEEKED_BEGIN_OBJECT -> {
+                    push(EMPTY_OBJECT);
+                    count++;
+                }
+                case PEEKED_BEGIN_ARRAY -> {
+                    push(EMPTY_ARRAY);
+                    count++;
+                }
+                case PEEKED_END_OBJECT, PEEKED_END_ARRAY -> {
+                    if (count == 0) {
+                        throw new IllegalStateException("no value to skip" + at());
+                    }
+                    depth--;
+                    count--;
+                }
+                case PEEKED_NAME -> {
+                    skipString();
+                    peeked = PEEKED_NONE;
+                    continue;
+                }
+                case PEEKED_STRING -> skipString();
+                case PEEKED_NUMBER -> pos += numberLength;
+                case PEEKED_END_DOCUMENT -> throw new IllegalStateException("no value to skip" + at());
+                default -> {
+                    // literals are consumed by peek
+                }
+            }
+            peeked = PEEKED_NONE;
+            if (count == 0) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Closes the underlying reader, if any.
+     *
+     * @throws IOException if closing fails
+     */
+    @Override
+    public void close() throws IOException {
+        peeked = PEEKED_NONE;
+        depth = 1;
+        stack[0] = NONEMPTY_DOCUMENT;
+        pos = limit = 0;
+        if (in != null) {
+            in.close();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "JsonReader" + at();
+    }
+
+    private int peeked() throws IOException {
+        int p = peeked;
+        return p == PEEKED_NONE ? doPeek() : p;
+    }
+
+    private void expect(int token, JsonToken kind) throws IOException {
+        if (peeked() != token) {
+            throw unexpected(kind);
+        }
+    }
+
+    private int doPeek() throws IOException {
+        int scope = stack[depth - 1];
+        switch (scope) {
+            case EMPTY_ARRAY -> stack[depth - 1] = NONEMPTY_ARRAY;
+            case NONEMPTY_ARRAY -> {
+                int c = nextNonWhitespace(true);
+                if (c == ']') {
+                    return peeked = PEEKED_END_ARRAY;
+                }
+                if (c != ',') {
+                    throw syntax("expected ',' or ']'");
+                }
+            }
+            case EMPTY_OBJECT, NONEMPTY_OBJECT -> {
+                stack[depth - 1] = DANGLING_NAME;
+                int c = nextNonWhitespace(true);
+                if (scope == NONEMPTY_OBJECT) {
+                    if (c == '}') {
+                        return peeked = PEEKED_END_OBJECT;
+                    }
+                    if (c != ',') {
+                        throw syntax("expected ',' or '}'");
+                    }
+                    c = nextNonWhitespace(true);
+                } else if (c == '}') {
+                    return peeked = PEEKED_END_OBJECT;
+                }
+                if (c != '"') {
+                    throw syntax("expected a name");
+                }
+                return peeked = PEEKED_NAME;
+            }
+            case DANGLING_NAME -> {
+                stack[depth - 1] = NONEMPTY_OBJECT;
+                if (nextNonWhitespace(true) != ':') {
+                    throw syntax("expected ':'");
+                }
+            }
+            case EMPTY_DOCUMENT -> stack[depth - 1] = NONEMPTY_DOCUMENT;
+            default -> {
+                if (nextNonWhitespace(false) != -1) {
+                    throw syntax("expected the end of the document");
+                }
+                return peeked = PEEKED_END_DOCUMENT;
+            }
+        }
+
+        int c = nextNonWhitespace(true);
+        return peeked = switch (c) {
+            case '{' -> PEEKED_BEGIN_OBJECT;
+            case '[' -> PEEKED_BEGIN_ARRAY;
+            case '"' -> PEEKED_STRING;
+            case ']' -> {
+                if (scope != EMPTY_ARRAY) {
+                    throw syntax("expected a value");
+                }
+                yield PEEKED_END_ARRAY;
+            }
+            case 't' -> literal("rue", PEEKED_TRUE);
+            case 'f' -> literal("alse", PEEKED_FALSE);
+            case 'n' -> literal("ull", PEEKED_NULL);
+            default -> {
+                pos--;
+                yield number();
+            }
+        };
+    }
+
+    /**
+     * Checks the rest of a literal whose first character was consumed.
+     */
+    private int literal(String rest, int token) throws IOException {
+        int length = rest.length();
+        for (int k = 0; k < length; k++) {
+            if (charAt(k) != rest.charAt(k)) {
+                throw syntax("expected a value");
+            }
+        }
+        if (isLiteralPart(charAt(length))) {
+            throw syntax("expected a value");
+        }
+        pos += length;
+        return token;
+    }
+
+    /**
+     * Measures the number at {@code pos} without consuming it.
+     */
+    private int number() throws IOException {
+        int k = 0;
+        boolean whole = true;
+        if (charAt(k) == '-') {
+            k++;
+        }
+        int c = charAt(k);
+        if (c == '0') {
+            k++;
+        } else if (c >= '1' && c <= '9') {
+            k = digits(k + 1);
+        } else {
+            throw syntax("expected a value");
+        }
+        if (charAt(k) == '.') {
+            whole = false;
+            k = requireDigits(k + 1);
+        }
+        c = charAt(k);
+        if (c == 'e' || c == 'E') {
+            whole = false;
+            c = charAt(++k);
+            if (c == '+' || c == '-') {
+                k++;
+            }
+            k = requireDigits(k);
+        }
+        if (isLiteralPart(charAt(k))) {
+            throw syntax("malformed number");
+        }
+        numberLength = k;
+        integral = whole;
+        return PEEKED_NUMBER;
+    }
+
+    private int requireDigits(int k) throws IOException {
+        int c = charAt(k);
+        if (c < '0' || c > '9') {
+            throw syntax("malformed number");
+        }
+        return digits(k + 1);
+    }
+
+    private int digits(int k) throws IOException {
+        for (int c = charAt(k); c >= '0' && c <= '9'; c = charAt(++k)) {
+            // scan
+        }
+        return k;
+    }
+
+    private long parseDigits() {
+        int i = pos;
+        int end = pos + numberLength;
+        boolean negative = buffer[i] == '-';
+        if (negative) {
+            i++;
+        }
+        long value = 0;
+        for (; i < end; i++) {
+            value = value * 10 + (buffer[i] - '0');
+        }
+        return negative ? -value : value;
+    }
+
+    private long exactLong(double value, String text) {
+        long result = (long) value;
+        if (result != value || Math.abs(value) >= 0x1p63) {
+            throw new NumberFormatException(text);
+        }
+        return result;
+    }
+
+    private void consumeNumber() {
+        pos += numberLength;
+        peeked = PEEKED_NONE;
+    }
+
+    /**
+     * Reads the rest of a string whose opening quote was consumed.
+     */
+    private String readString() throws IOException {
+        StringBuilder builder = null;
+        int length = 0;
+        scan:
+        while (true) {
+            for (int i = pos + length; i < limit; i++) {
+                char c = buffer[i];
+                if (c == '"') {
+                    String value = builder == null ? new String(buffer, pos, i - pos)
+                            : builder.append(buffer, pos, i - pos).toString();
+                    pos = i + 1;
+                    return value;
+                }
+                if (c == '\\') {
+                    if (builder == null) {
+                        builder = new StringBuilder(Math.max(16, 2 * (i - pos)));
+                    }
+                    builder.append(buffer, pos, i - pos);
+                    pos = i + 1;
+                    // decoding may refill the buffer, so rescan from pos
+                    builder.append(readEscape());
+                    length = 0;
+                    continue scan;
+                }
+                if (c < 0x20) {
+                    pos = i;
+                    throw syntax("unescaped control character in string");
+                }
+            }
+            length = limit - pos;
+            if (!fill(length + 1)) {
+                throw syntax("unterminated string");
+            }
+        }
+    }
+
+    private void skipString() throws IOException {
+        scan:
+        while (true) {
+            for (int i = pos; i < limit; i++) {
+                char c = buffer[i];
+                if (c == '"') {
+                    pos = i + 1;
+                    return;
+                }
+                if (c == '\\') {
+                    pos = i + 1;
+                    readEscape();
+                    continue scan;
+                }
+                if (c < 0x20) {
+                    pos = i;
+                    throw syntax("unescaped control character in string");
+                }
+            }
+            pos = limit;
+            if (!fill(1)) {
+                throw syntax("unterminated string");
+            }
+        }
+    }
+
+    /**
+     * Decodes the escape sequence after a consumed backslash.
+     */
+    private char readEscape() throws IOException {
+        if (!fill(1)) {
+            throw syntax("unterminated escape sequence");
+        }
+        char c = buffer[pos++];
+        return switch (c) {
+            case '"', '\\', '/' -> c;
+            case 'b' -> '\b';
+            case 'f' -> '\f';
+            case 'n' -> '\n';
+            case 'r' -> '\r';
+            case 't' -> '\t';
+            case 'u' -> {
+                if (!fill(4)) {
+                    throw syntax("unterminated escape sequence");
+                }
+                int value = 0;
+                for (int end = pos + 4; pos < end; pos++) {
+                    int digit = Character.digit(buffer[pos], 16);
+                    if (digit < 0) {
+                        throw syntax("malformed unicode escape");
+                    }
+                    value = value << 4 | digit;
+                }
+                yield (char) value;
+            }
+            default -> {
+                pos--;
+                throw syntax("malformed escape sequence");
+            }
+        };
+    }
+
+    private int nextNonWhitespace(boolean required) throws IOException {
+        while (pos < limit || fill(1)) {
+            char c = buffer[pos++];
+            if (c != ' ' && c != '\n' && c != '\r' && c != '\t') {
+                return c;
+            }
+        }
+        if (required) {
+            throw syntax("unexpected end of input");
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the character {@code k} positions after {@code pos}, or -1 at
+     * the end of the input.
+     */
+    private int charAt(int k) throws IOException {
+        return pos + k < limit || fill(k + 1) ? buffer[pos + k] : -1;
+    }
+
+    /**
+     * Makes at least {@code minimum} characters available from {@code pos},
+     * moving them to the start of the buffer and growing it as needed.
+     *
+     * @return {@code false} if the input ends first
+     */
+    private boolean fill(int minimum) throws IOException {
+        if (limit - pos >= minimum) {
+            return true;
+        }
+        if (in == null) {
+            return false;
+        }
+        if (pos > 0) {
+            System.arraycopy(buffer, pos, buffer, 0, limit - pos);
+            consumed += pos;
+            limit -= pos;
+            pos = 0;
+        }
+        while (limit < minimum) {
+            if (limit == buffer.length) {
+                buffer = Arrays.copyOf(buffer, buffer.length << 1);
+            }
+            int n = in.read(buffer, limit, buffer.length - limit);
+            if (n < 0) {
+                return false;
+            }
+            limit += n;
+        }
+        return true;
+    }
+
+    private void push(int scope) {
+        if (depth == stack.length) {
+            stack = Arrays.copyOf(stack, depth << 1);
+        }
+        stack[depth++] = scope;
+    }
+
+    private static boolean isLiteralPart(int c) {
+        return c >= 'a' && c <= 'z' || c >= 'A' && c <= 'Z' || c >= '0' && c <= '9'
+                || c == '.' || c == '-' || c == '+' || c == '_';
+    }
+
+    private IllegalStateException unexpected(JsonToken expected) throws IOException {
+        return new IllegalStateException("expected " + expected + " but was " + peek() + at());
+    }
+
+    private MalformedJsonException syntax(String message) {
+        return new MalformedJsonException(message + at());
+    }
+
+    private String at() {
+        return " at offset " + (consumed + pos);
+    }
+}
@@ -0,0 +1,27 @@
+package io.github.atcurtis.crap4java.parts.json;
+
+/**
+ * The kinds of token {@link JsonReader#peek()} reports.
+ */
+public enum JsonToken {
+    /** The opening brace of an object. */
+    BEGIN_OBJECT,
+    /** The closing brace of an object. */
+    END_OBJECT,
+    /** The opening bracket of an array. */
+    BEGIN_ARRAY,
+    /** The closing bracket of an array. */
+    END_ARRAY,
+    /** A property name. */
+    NAME,
+    /** A string value. */
+    STRING,
+    /** A number value. */
+    NUMBER,
+    /** {@code true} or {@code false}. */
+    BOOLEAN,
+    /** {@code null}. */
+    NULL,
+    /** The end of the input, after the top-level value. */
+    END_DOCUMENT
+}
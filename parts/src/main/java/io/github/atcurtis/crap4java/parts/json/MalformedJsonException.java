@@ -0,0 +1,21 @@
+package io.github.atcurtis.crap4java.parts.json;
+
+import java.io.IOException;
+
+/**
+ * Signals that the input of a {@link JsonReader} is not valid JSON. The
+ * message ends with the character offset at which the problem was detected.
+ */
+public final class MalformedJsonException extends IOException {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Creates the exception.
+     *
+     * @param message the problem and its offset
+     */
+    public MalformedJsonException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,6 @@
+/**
+ * Streaming JSON: a pull parser that reads tokens straight out of its
+ * character buffer, and generated binders that feed them into the generated
+ * builders one property at a time, without an intermediate tree.
+ */
+package io.github.atcurtis.crap4java.parts.json;
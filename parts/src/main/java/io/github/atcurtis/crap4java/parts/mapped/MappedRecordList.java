@@ -0,0 +1,252 @@
+package io.github.atcurtis.crap4java.parts.mapped;
+
+import io.github.atcurtis.crap4java.adaptors.Source;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * Read-only, random-access sequence of records stored in a memory-mapped file.
+ *
+ * <p>The file is mapped, not read: opening a file of fixed-size records costs
+ * a handful of system calls whatever its size, pages are loaded on first touch,
+ * and the operating system's page cache shares them between every process
+ * mapping the same file. Files larger than one mapping are split into
+ * segments that always begin at a record boundary, so every record lies in a
+ * single buffer.
+ *
+ * <p>Two layouts are supported: {@linkplain #openFixed fixed-size} records,
+ * located by arithmetic, and {@linkplain #openLengthPrefixed length-prefixed}
+ * records, each preceded by a four-byte length; the latter are indexed by one
+ * sequential scan when opened, keeping four bytes of heap per record.
+ *
+ * <p>Records are read through {@link RecordView} flyweights. {@link #get(int)}
+ * re-points and returns one shared view, so this is deliberately not a
+ * {@link java.util.List}; use {@link #get(int, RecordView)} with a view per
+ * thread for concurrent readers. Mapped memory is released when the list
+ * becomes unreachable.
+ *
+ * @param <V> the view type
+ */
+public final class MappedRecordList<V extends RecordView<V>> {
+
+    static final int MAX_SEGMENT = 1 << 30;
+
+    private static final int PREFIX = Integer.BYTES;
+
+    private final ByteBuffer[] segments;
+    private final int size;
+    private final int recordSize;
+    private final int recordsPerSegment;
+    // length-prefixed layout only: first record index of each segment and the
+    // offset of every record's prefix within its segment
+    private final int[] segmentStarts;
+    private final int[] offsets;
+    private final Supplier<? extends V> views;
+    private final V shared;
+
+    private MappedRecordList(ByteBuffer[] segments, int size, int recordSize, int recordsPerSegment,
+                             int[] segmentStarts, int[] offsets, Supplier<? extends V> views) {
+        this.segments = segments;
+        this.size = size;
+        this.recordSize = recordSize;
+        this.recordsPerSegment = recordsPerSegment;
+        this.segmentStarts = segmentStarts;
+        this.offsets = offsets;
+        this.views = views;
+        this.shared = views.get();
+    }
+
+    /**
+     * Maps a file of records that are all {@code recordSize} bytes long. A
+     * trailing partial record is ignored.
+     *
+     * @param file       the file
+     * @param recordSize the size of every record in bytes
+     * @param order      the byte order of the record fields
+     * @param views      creates views
+     * @param <V>        the view type
+     * @return the mapped records
+     * @throws IOException if the file cannot be mapped
+     */
+    public static <V extends RecordView<V>> MappedRecordList<V> openFixed(
+            Path file, int recordSize, ByteOrder order, Supplier<? extends V> views) throws IOException {
+        return openFixed(file, recordSize, order, views, MAX_SEGMENT);
+    }
+
+    static <V extends RecordView<V>> MappedRecordList<V> openFixed(
+            Path file, int recordSize, ByteOrder order, Supplier<? extends V> views, int maxSegment)
+            throws IOException {
+        if (recordSize <= 0 || recordSize > maxSegment) {
+            throw new IllegalArgumentException("recordSize: " + recordSize);
+        }
+        Objects.requireNonNull(views, "views");
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long count = channel.size() / recordSize;
+            if (count > Integer.MAX_VALUE) {
+                throw new IOException("too many records: " + count);
+            }
+            int perSegment = maxSegment / recordSize;
+            int segmentCount = (int) ((count + perSegment - 1) / perSegment);
+            ByteBuffer[] segments = new ByteBuffer[segmentCount];
+            for (int s = 0; s < segmentCount; s++) {
+                long start = (long) s * perSegment * recordSize;
+                long records = Math.min(perSegment, count - (long) s * perSegment);
+                segments[s] = channel.map(FileChannel.MapMode.READ_ONLY, start, records * recordSize).order(order);
+            }
+            return new MappedRecordList<>(segments, (int) count, recordSize, perSegment, null, null, views);
+        }
+    }
+
+    /**
+     * Maps a file of records each preceded by its length as a four-byte
+     * integer in {@code order}, and indexes it with one sequential scan.
+     *
+     * @param file  the file
+     * @param order the byte order of the length prefixes and record fields
+     * @param views creates views
+     * @param <V>   the view type
+     * @return the mapped records
+     * @throws IOException if the file cannot be mapped or is malformed
+     */
+    public static <V extends RecordView<V>> MappedRecordList<V> openLengthPrefixed(
+            Path file, ByteOrder order, Supplier<? extends V> views) throws IOException {
+        return openLengthPrefixed(file, order, views, MAX_SEGMENT);
+    }
+
+    static <V extends RecordView<V>> MappedRecordList<V> openLengthPrefixed(
+            Path file, ByteOrder order, Supplier<? extends V> views, int maxSegment) throws IOException {
+        Objects.requireNonNull(views, "views");
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            List<ByteBuffer> segments = new ArrayList<>();
+            int[] segmentStarts = new int[4];
+            int[] offsets = new int[1024];
+            int count = 0;
+            long position = 0;
+            while (position < fileSize) {
+                ByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, position,
+                        Math.min(maxSegment, fileSize - position)).order(order);
+                int end = 0;
+                int first = count;
+                while (end + PREFIX <= window.limit()) {
+                    int length = window.getInt(end);
+                    if (length < 0 || length > maxSegment - PREFIX) {
+                        throw new IOException("invalid record length " + length + " at " + (position + end));
+                    }
+                    if (end + PREFIX + length > window.limit()) {
+                        break;
+                    }
+                    if (count == offsets.length) {
+                        offsets = Arrays.copyOf(offsets, count + (count >> 1));
+                    }
+                    offsets[count++] = end;
+                    end += PREFIX + length;
+                }
+                if (count == first) {
+                    // every valid record fits in a full-size window, so only
+                    // the tail of the file can fail to yield one
+                    throw new IOException("truncated record at " + position);
+                }
+                if (segments.size() == segmentStarts.length) {
+                    segmentStarts = Arrays.copyOf(segmentStarts, segmentStarts.length << 1);
+                }
+                segmentStarts[segments.size()] = first;
+                // re-map the window so the segment ends on a record boundary
+                segments.add(end == window.limit() ? window
+                        : channel.map(FileChannel.MapMode.READ_ONLY, position, end).order(order));
+                position += end;
+            }
+            return new MappedRecordList<>(segments.toArray(ByteBuffer[]::new), count, -1, -1,
+                    Arrays.copyOf(segmentStarts, segments.size()), Arrays.copyOf(offsets, count), views);
+        }
+    }
+
+    /**
+     * Returns the number of records.
+     *
+     * @return the size
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns whether there are no records.
+     *
+     * @return whether the list is empty
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Creates a new view, for use with {@link #get(int, RecordView)}.
+     *
+     * @return a view pointing at nothing
+     */
+    public V newView() {
+        return views.get();
+    }
+
+    /**
+     * Points the shared view at the record at {@code index}. The view is
+     * re-pointed by the next call, so this method is not thread-safe.
+     *
+     * @param index the record index
+     * @return the shared view
+     */
+    public V get(int index) {
+        return get(index, shared);
+    }
+
+    /**
+     * Points {@code view} at the record at {@code index}.
+     *
+     * @param index the record index
+     * @param view  the view to re-point
+     * @return {@code view}
+     */
+    public V get(int index, V view) {
+        Objects.checkIndex(index, size);
+        if (offsets == null) {
+            int segment = index / recordsPerSegment;
+            return view.wrap(segments[segment], (index - segment * recordsPerSegment) * recordSize, recordSize);
+        }
+        int segment = Arrays.binarySearch(segmentStarts, index);
+        if (segment < 0) {
+            segment = -segment - 2;
+        }
+        ByteBuffer buffer = segments[segment];
+        int offset = offsets[index];
+        return view.wrap(buffer, offset + PREFIX, buffer.getInt(offset));
+    }
+
+    /**
+     * Returns a source pushing a fresh view, re-pointed at each record in
+     * turn, for scanning with an {@link io.github.atcurtis.crap4java.adaptors.Adaptor}
+     * pipeline.
+     *
+     * @return a source over every record
+     */
+    public Source<V> asSource() {
+        return sink -> {
+            V view = views.get();
+            for (int i = 0; i < size; i++) {
+                if (!sink.accept(get(i, view))) {
+                    return false;
+                }
+            }
+            return true;
+        };
+    }
+}
@@ -0,0 +1,96 @@
+package io.github.atcurtis.crap4java.parts.mapped;
+
+import io.github.atcurtis.crap4java.adaptors.SelfTyped;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.Objects;
+
+/**
+ * Reusable view of one record held in a byte buffer.
+ *
+ * <p>Subclasses add typed accessors that read {@link #buffer} at
+ * {@link #offset} plus a field offset, for example
+ * {@code buffer.getLong(offset + 8)}. A {@link MappedRecordList} re-points one
+ * view from record to record, so reading millions of records allocates
+ * nothing.
+ *
+ * @param <SELF> the concrete view type
+ */
+public abstract class RecordView<SELF extends RecordView<SELF>> implements SelfTyped<SELF> {
+
+    /**
+     * The buffer holding the current record; never modified through a view.
+     */
+    protected ByteBuffer buffer;
+
+    /**
+     * The offset of the current record's first byte in {@link #buffer}.
+     */
+    protected int offset;
+
+    /**
+     * The length of the current record in bytes.
+     */
+    protected int length;
+
+    /**
+     * Creates a view that points at nothing yet.
+     */
+    protected RecordView() {
+    }
+
+    /**
+     * Points this view at {@code length} bytes of {@code buffer} starting at
+     * {@code offset}.
+     *
+     * @param buffer the buffer holding the record
+     * @param offset the offset of the record
+     * @param length the length of the record
+     * @return this view
+     */
+    public final SELF wrap(ByteBuffer buffer, int offset, int length) {
+        Objects.checkFromIndexSize(offset, length, buffer.limit());
+        this.buffer = buffer;
+        this.offset = offset;
+        this.length = length;
+        return self();
+    }
+
+    /**
+     * Returns the length of the current record in bytes.
+     *
+     * @return the record length
+     */
+    public final int length() {
+        return length;
+    }
+
+    /**
+     * Copies the current record's bytes into {@code dst} at {@code dstOffset}.
+     *
+     * @param dst       the destination array
+     * @param dstOffset the offset in {@code dst}
+     * @return the number of bytes copied
+     */
+    public final int copyTo(byte[] dst, int dstOffset) {
+        buffer.get(offset, dst, dstOffset, length);
+        return length;
+    }
+
+    /**
+     * Decodes {@code size} bytes of the current record starting at
+     * {@code fieldOffset} as text.
+     *
+     * @param fieldOffset the offset of the text within the record
+     * @param size        the number of bytes to decode
+     * @param charset     the charset
+     * @return the decoded text
+     */
+    protected final String string(int fieldOffset, int size, Charset charset) {
+        Objects.checkFromIndexSize(fieldOffset, size, length);
+        byte[] bytes = new byte[size];
+        buffer.get(offset + fieldOffset, bytes);
+        return new String(bytes, charset);
+    }
+}
@@ -0,0 +1,5 @@
+/**
+ * Memory-mapped files exposed as random-access sequences of reusable record
+ * views.
+ */
+package io.github.atcurtis.crap4java.parts.mapped;
@@ -0,0 +1,5 @@
+/**
+ * Parts: reusable data structures and I/O building blocks that plug into the
+ * adaptor core.
+ */
+package io.github.atcurtis.crap4java.parts;
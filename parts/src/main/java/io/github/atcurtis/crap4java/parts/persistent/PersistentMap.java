@@ -0,0 +1,656 @@
+package io.github.atcurtis.crap4java.parts.persistent;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+/**
+ * Persistent hash map: a compressed hash-array mapped prefix trie (CHAMP).
+ *
+ * <p>Every node covers five bits of the key's hash and keeps two 32-bit
+ * bitmaps, one for the entries stored inline and one for its child nodes, in
+ * a single compact array. {@link #with} and {@link #without} return a new map
+ * that shares every node off the updated path, so an update costs
+ * {@code O(log32 n)} node copies and an old map stays valid and unchanged: a
+ * snapshot is just a reference. Removals keep the trie in canonical form, so
+ * equal maps have the same shape.
+ *
+ * <p>Keys and values must not be {@code null}. The map is a read-only
+ * {@link Map}; the mutators inherited from {@code Map} throw
+ * {@link UnsupportedOperationException}. For bulk loads use
+ * {@link #asTransient()}, which updates nodes it created in place.
+ *
+ * @param <K> the key type
+ * @param <V> the value type
+ */
+public final class PersistentMap<K, V> extends AbstractMap<K, V> {
+
+    private static final PersistentMap<?, ?> EMPTY = new PersistentMap<>(BitmapNode.EMPTY, 0);
+
+    private final Node root;
+    private final int size;
+
+    private PersistentMap(Node root, int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    /**
+     * Returns the empty map.
+     *
+     * @param <K> the key type
+     * @param <V> the value type
+     * @return the empty map
+     */
+    @SuppressWarnings("unchecked")
+    public static <K, V> PersistentMap<K, V> empty() {
+        return (PersistentMap<K, V>) EMPTY;
+    }
+
+    /**
+     * Returns a map holding the entries of {@code map}.
+     *
+     * @param map the entries
+     * @param <K> the key type
+     * @param <V> the value type
+     * @return a persistent copy of {@code map}
+     */
+    @SuppressWarnings("unchecked")
+    public static <K, V> PersistentMap<K, V> from(Map<? extends K, ? extends V> map) {
+        if (map instanceof PersistentMap<?, ?> persistent) {
+            return (PersistentMap<K, V>) persistent;
+        }
+        Transient<K, V> builder = PersistentMap.<K, V>empty().asTransient();
+        map.forEach(builder::put);
+        return builder.persistent();
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V get(Object key) {
+        return key == null ? null : (V) root.find(key, key.hashCode(), 0);
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return get(key) != null;
+    }
+
+    /**
+     * Returns a map that also maps {@code key} to {@code value}.
+     *
+     * @param key   the key
+     * @param value the value
+     * @return the updated map, or this map if {@code key} is already mapped to
+     *         {@code value}
+     */
+    public PersistentMap<K, V> with(K key, V value) {
+        Objects.requireNonNull(key, "key");
+        Objects.requireNonNull(value, "value");
+        Change change = new Change();
+        Node updated = root.put(null, key, key.hashCode(), value, 0, change);
+        return updated == root ? this : new PersistentMap<>(updated, size + change.sizeDelta);
+    }
+
+    /**
+     * Returns a map without {@code key}.
+     *
+     * @param key the key
+     * @return the updated map, or this map if {@code key} is absent
+     */
+    public PersistentMap<K, V> without(Object key) {
+        if (key == null) {
+            return this;
+        }
+        Change change = new Change();
+        Node updated = root.remove(null, key, key.hashCode(), 0, change);
+        return updated == root ? this : new PersistentMap<>(updated, size + change.sizeDelta);
+    }
+
+    /**
+     * Returns a transient copy of this map. This map is not affected by
+     * changes to the transient.
+     *
+     * @return a transient starting from this map's entries
+     */
+    public Transient<K, V> asTransient() {
+        return new Transient<>(root, size);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void forEach(BiConsumer<? super K, ? super V> action) {
+        Objects.requireNonNull(action, "action");
+        root.forEach((BiConsumer<Object, Object>) action);
+    }
+
+    @Override
+    public Set<Entry<K, V>> entrySet() {
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Entry<K, V>> iterator() {
+                return new EntryIterator<>(root);
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+
+            @Override
+            public boolean contains(Object o) {
+                return o instanceof Entry<?, ?> entry && entry.getValue().equals(get(entry.getKey()));
+            }
+        };
+    }
+
+    /**
+     * A mutable map under construction, sharing structure with the persistent
+     * map it started from. Nodes it creates are updated in place; nodes it
+     * shares are copied on first write. Once {@link #persistent()} is called
+     * the transient can no longer be used.
+     *
+     * <p>Instances are not thread-safe.
+     *
+     * @param <K> the key type
+     * @param <V> the value type
+     */
+    public static final class Transient<K, V> {
+
+        private Object edit = new Object();
+        private Node root;
+        private int size;
+
+        private Transient(Node root, int size) {
+            this.root = root;
+            this.size = size;
+        }
+
+        /**
+         * Returns the number of entries.
+         *
+         * @return the size
+         */
+        public int size() {
+            ensureEditable();
+            return size;
+        }
+
+        /**
+         * Returns the value mapped to {@code key}.
+         *
+         * @param key the key
+         * @return the value, or {@code null}
+         */
+        @SuppressWarnings("unchecked")
+        public V get(Object key) {
+            ensureEditable();
+            return key == null ? null : (V) root.find(key, key.hashCode(), 0);
+        }
+
+        /**
+         * Maps {@code key} to {@code value}.
+         *
+         * @param key   the key
+         * @param value the value
+         * @return this transient
+         */
+        public Transient<K, V> put(K key, V value) {
+            Objects.requireNonNull(key, "key");
+            Objects.requireNonNull(value, "value");
+            ensureEditable();
+            Change change = new Change();
+            root = root.put(edit, key, key.hashCode(), value, 0, change);
+            size += change.sizeDelta;
+            return this;
+        }
+
+        /**
+         * Removes the mapping for {@code key}.
+         *
+         * @param key the key
+         * @return this transient
+         */
+        public Transient<K, V> remove(Object key) {
+            ensureEditable();
+            if (key != null) {
+                Change change = new Change();
+                root = root.remove(edit, key, key.hashCode(), 0, change);
+                size += change.sizeDelta;
+            }
+            return this;
+        }
+
+        /**
+         * Freezes the entries into a persistent map and retires this
+         * transient.
+         *
+         * @return the persistent map
+         */
+        public PersistentMap<K, V> persistent() {
+            ensureEditable();
+            edit = null;
+            return size == 0 ? empty() : new PersistentMap<>(root, size);
+        }
+
+        private void ensureEditable() {
+            if (edit == null) {
+                throw new IllegalStateException("transient used after persistent()");
+            }
+        }
+    }
+
+    /**
+     * What an update did, reported from the node it reached.
+     */
+    private static final class Change {
+        int sizeDelta;
+    }
+
+    private static int mask(int hash, int shift) {
+        return (hash >>> shift) & 31;
+    }
+
+    private static int bitpos(int hash, int shift) {
+        return 1 << mask(hash, shift);
+    }
+
+    private abstract static sealed class Node permits BitmapNode, CollisionNode {
+
+        /** The transient allowed to update this node in place, or {@code null}. */
+        final Object edit;
+
+        Node(Object edit) {
+            this.edit = edit;
+        }
+
+        final boolean editableBy(Object edit) {
+            return edit != null && this.edit == edit;
+        }
+
+        abstract Object find(Object key, int hash, int shift);
+
+        abstract Node put(Object edit, Object key, int hash, Object value, int shift, Change change);
+
+        abstract Node remove(Object edit, Object key, int hash, int shift, Change change);
+
+        /** Whether the node holds exactly one entry and no children. */
+        abstract boolean isSingleEntry();
+
+        abstract int entryCount();
+
+        abstract Object keyAt(int index);
+
+        abstract Object valueAt(int index);
+
+        abstract int nodeCount();
+
+        abstract Node nodeAt(int index);
+
+        final void forEach(BiConsumer<Object, Object> action) {
+            for (int i = 0, n = entryCount(); i < n; i++) {
+                action.accept(keyAt(i), valueAt(i));
+            }
+            for (int i = 0, n = nodeCount(); i < n; i++) {
+                nodeAt(i).forEach(action);
+            }
+        }
+    }
+
+    /**
+     * Inline entries first, {@code [k0, v0, k1, v1, ...]}, then the children
+     * in reverse bit order at the end of the same array.
+     */
+    private static final class BitmapNode extends Node {
+
+        static final BitmapNode EMPTY = new BitmapNode(null, 0, 0, new Object[0]);
+
+        int dataMap;
+        int nodeMap;
+        Object[] content;
+
+        BitmapNode(Object edit, int dataMap, int nodeMap, Object[] content) {
+            super(edit);
+            this.dataMap = dataMap;
+            this.nodeMap = nodeMap;
+            this.content = content;
+        }
+
+        private int dataIndex(int bit) {
+            return Integer.bitCount(dataMap & (bit - 1));
+        }
+
+        private int nodeIndex(int bit) {
+            return content.length - 1 - Integer.bitCount(nodeMap & (bit - 1));
+        }
+
+        @Override
+        Object find(Object key, int hash, int shift) {
+            int bit = bitpos(hash, shift);
+            if ((dataMap & bit) != 0) {
+                int index = 2 * dataIndex(bit);
+                return key.equals(content[index]) ? content[index + 1] : null;
+            }
+            if ((nodeMap & bit) != 0) {
+                return ((Node) content[nodeIndex(bit)]).find(key, hash, shift + 5);
+            }
+            return null;
+        }
+
+        @Override
+        Node put(Object edit, Object key, int hash, Object value, int shift, Change change) {
+            int bit = bitpos(hash, shift);
+            if ((dataMap & bit) != 0) {
+                int index = 2 * dataIndex(bit);
+                Object existing = content[index];
+                if (key.equals(existing)) {
+                    if (content[index + 1] == value) {
+                        return this;
+                    }
+                    BitmapNode node = editable(edit, content.length);
+                    node.content[index + 1] = value;
+                    return node;
+                }
+                Node child = merge(edit, existing, existing.hashCode(), content[index + 1], key, hash, value, shift + 5);
+                change.sizeDelta = 1;
+                return migrateDataToNode(edit, bit, index, child);
+            }
+            if ((nodeMap & bit) != 0) {
+                int index = nodeIndex(bit);
+                Node child = (Node) content[index];
+                Node updated = child.put(edit, key, hash, value, shift + 5, change);
+                if (updated == child) {
+                    return this;
+                }
+                BitmapNode node = editable(edit, content.length);
+                node.content[index] = updated;
+                return node;
+            }
+            change.sizeDelta = 1;
+            int index = 2 * dataIndex(bit);
+            Object[] copy = new Object[content.length + 2];
+            System.arraycopy(content, 0, copy, 0, index);
+            copy[index] = key;
+            copy[index + 1] = value;
+            System.arraycopy(content, index, copy, index + 2, content.length - index);
+            return new BitmapNode(edit, dataMap | bit, nodeMap, copy);
+        }
+
+        @Override
+        Node remove(Object edit, Object key, int hash, int shift, Change change) {
+            int bit = bitpos(hash, shift);
+            if ((dataMap & bit) != 0) {
+                int index = 2 * dataIndex(bit);
+                if (!key.equals(content[index])) {
+                    return this;
+                }
+                change.sizeDelta = -1;
+                if (shift > 0 && nodeMap == 0 && Integer.bitCount(dataMap) == 2) {
+                    // the survivor will be inlined by the parent, or become
+                    // the root, so give it its position at the top level
+                    int other = index == 0 ? 2 : 0;
+                    return new BitmapNode(edit, bitpos(hash, 0), 0,
+                            new Object[]{content[other], content[other + 1]});
+                }
+                Object[] copy = new Object[content.length - 2];
+                System.arraycopy(content, 0, copy, 0, index);
+                System.arraycopy(content, index + 2, copy, index, content.length - index - 2);
+                return new BitmapNode(edit, dataMap ^ bit, nodeMap, copy);
+            }
+            if ((nodeMap & bit) != 0) {
+                int index = nodeIndex(bit);
+                Node child = (Node) content[index];
+                Node updated = child.remove(edit, key, hash, shift + 5, change);
+                if (updated == child) {
+                    return this;
+                }
+                if (!updated.isSingleEntry()) {
+                    BitmapNode node = editable(edit, content.length);
+                    node.content[index] = updated;
+                    return node;
+                }
+                if (dataMap == 0 && Integer.bitCount(nodeMap) == 1) {
+                    return updated;
+                }
+                return migrateNodeToData(edit, bit, index, updated);
+            }
+            return this;
+        }
+
+        private BitmapNode editable(Object edit, int length) {
+            return editableBy(edit) ? this : new BitmapNode(edit, dataMap, nodeMap, Arrays.copyOf(content, length));
+        }
+
+        private Node migrateDataToNode(Object edit, int bit, int dataIndex, Node child) {
+            // the entry at dataIndex leaves, the child joins the node section
+            int nodeIndex = content.length - 2 - Integer.bitCount(nodeMap & (bit - 1));
+            Object[] copy = new Object[content.length - 1];
+            System.arraycopy(content, 0, copy, 0, dataIndex);
+            System.arraycopy(content, dataIndex + 2, copy, dataIndex, nodeIndex - dataIndex);
+            copy[nodeIndex] = child;
+            System.arraycopy(content, nodeIndex + 2, copy, nodeIndex + 1, content.length - nodeIndex - 2);
+            return new BitmapNode(edit, dataMap ^ bit, nodeMap | bit, copy);
+        }
+
+        private Node migrateNodeToData(Object edit, int bit, int nodeIndex, Node child) {
+            int dataIndex = 2 * dataIndex(bit);
+            Object[] copy = new Object[content.length + 1];
+            System.arraycopy(content, 0, copy, 0, dataIndex);
+            copy[dataIndex] = child.keyAt(0);
+            copy[dataIndex + 1] = child.valueAt(0);
+            System.arraycopy(content, dataIndex, copy, dataIndex + 2, nodeIndex - dataIndex);
+            System.arraycopy(content, nodeIndex + 1, copy, nodeIndex + 2, content.length - nodeIndex - 1);
+            return new BitmapNode(edit, dataMap | bit, nodeMap ^ bit, copy);
+        }
+
+        @Override
+        boolean isSingleEntry() {
+            return nodeMap == 0 && Integer.bitCount(dataMap) == 1;
+        }
+
+        @Override
+        int entryCount() {
+            return Integer.bitCount(dataMap);
+        }
+
+        @Override
+        Object keyAt(int index) {
+            return content[2 * index];
+        }
+
+        @Override
+        Object valueAt(int index) {
+            return content[2 * index + 1];
+        }
+
+        @Override
+        int nodeCount() {
+            return Integer.bitCount(nodeMap);
+        }
+
+        @Override
+        Node nodeAt(int index) {
+            return (Node) content[content.length - 1 - index];
+        }
+    }
+
+    /**
+     * Entries whose keys share all 32 hash bits, searched linearly.
+     */
+    private static final class CollisionNode extends Node {
+
+        final int hash;
+        Object[] entries;
+
+        CollisionNode(Object edit, int hash, Object[] entries) {
+            super(edit);
+            this.hash = hash;
+            this.entries = entries;
+        }
+
+        private int indexOf(Object key) {
+            for (int i = 0; i < entries.length; i += 2) {
+                if (key.equals(entries[i])) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        @Override
+        Object find(Object key, int hash, int shift) {
+            int index = indexOf(key);
+            return index >= 0 ? entries[index + 1] : null;
+        }
+
+        @Override
+        Node put(Object edit, Object key, int hash, Object value, int shift, Change change) {
+            int index = indexOf(key);
+            if (index >= 0) {
+                if (entries[index + 1] == value) {
+                    return this;
+                }
+                CollisionNode node = editableBy(edit) ? this : new CollisionNode(edit, hash, entries.clone());
+                node.entries[index + 1] = value;
+                return node;
+            }
+            change.sizeDelta = 1;
+            Object[] copy = Arrays.copyOf(entries, entries.length + 2);
+            copy[entries.length] = key;
+            copy[entries.length + 1] = value;
+            return new CollisionNode(edit, hash, copy);
+        }
+
+        @Override
+        Node remove(Object edit, Object key, int hash, int shift, Change change) {
+            int index = indexOf(key);
+            if (index < 0) {
+                return this;
+            }
+            change.sizeDelta = -1;
+            if (entries.length == 4) {
+                int other = index == 0 ? 2 : 0;
+                return new BitmapNode(edit, bitpos(hash, 0), 0, new Object[]{entries[other], entries[other + 1]});
+            }
+            Object[] copy = new Object[entries.length - 2];
+            System.arraycopy(entries, 0, copy, 0, index);
+            System.arraycopy(entries, index + 2, copy, index, entries.length - index - 2);
+            return new CollisionNode(edit, hash, copy);
+        }
+
+        @Override
+        boolean isSingleEntry() {
+            return entries.length == 2;
+        }
+
+        @Override
+        int entryCount() {
+            return entries.length / 2;
+        }
+
+        @Override
+        Object keyAt(int index) {
+            return entries[2 * index];
+        }
+
+        @Override
+        Object valueAt(int index) {
+            return entries[2 * index + 1];
+        }
+
+        @Override
+        int nodeCount() {
+            return 0;
+        }
+
+        @Override
+        Node nodeAt(int index) {
+            throw new IndexOutOfBoundsException(index);
+        }
+    }
+
+    private static Node merge(Object edit, Object key1, int hash1, Object value1,
+                              Object key2, int hash2, Object value2, int shift) {
+        if (shift >= 32) {
+            return new CollisionNode(edit, hash1, new Object[]{key1, value1, key2, value2});
+        }
+        int mask1 = mask(hash1, shift);
+        int mask2 = mask(hash2, shift);
+        if (mask1 != mask2) {
+            Object[] content = mask1 < mask2
+                    ? new Object[]{key1, value1, key2, value2}
+                    : new Object[]{key2, value2, key1, value1};
+            return new BitmapNode(edit, (1 << mask1) | (1 << mask2), 0, content);
+        }
+        Node child = merge(edit, key1, hash1, value1, key2, hash2, value2, shift + 5);
+        return new BitmapNode(edit, 0, 1 << mask1, new Object[]{child});
+    }
+
+    /**
+     * Depth-first walk keeping one cursor per level.
+     */
+    private static final class EntryIterator<K, V> implements Iterator<Entry<K, V>> {
+
+        private final Node[] nodes = new Node[8];
+        private final int[] entryCursors = new int[8];
+        private final int[] nodeCursors = new int[8];
+        private int depth;
+
+        EntryIterator(Node root) {
+            nodes[0] = root;
+            advance();
+        }
+
+        private void advance() {
+            while (depth >= 0) {
+                Node node = nodes[depth];
+                if (entryCursors[depth] < node.entryCount()) {
+                    return;
+                }
+                if (nodeCursors[depth] < node.nodeCount()) {
+                    Node child = node.nodeAt(nodeCursors[depth]++);
+                    depth++;
+                    nodes[depth] = child;
+                    entryCursors[depth] = 0;
+                    nodeCursors[depth] = 0;
+                } else {
+                    nodes[depth--] = null;
+                }
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return depth >= 0;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public Entry<K, V> next() {
+            if (depth < 0) {
+                throw new NoSuchElementException();
+            }
+            Node node = nodes[depth];
+            int index = entryCursors[depth]++;
+            Entry<K, V> entry = new SimpleImmutableEntry<>((K) node.keyAt(index), (V) node.valueAt(index));
+            advance();
+            return entry;
+        }
+    }
+}
@@ -0,0 +1,425 @@
+package io.github.atcurtis.crap4java.parts.persistent;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.function.Consumer;
+
+/**
+ * Persistent vector: a 32-way radix-balanced trie with a detached tail.
+ *
+ * <p>Elements live in leaves of 32; an index is split five bits at a time to
+ * walk from the root, so access and {@link #with(int, Object) replacement}
+ * cost {@code O(log32 n)}, at most seven levels for any {@code int} size.
+ * The last partial leaf is kept outside the trie as the tail, so
+ * {@link #append} usually copies only the tail and pushes a full leaf into
+ * the trie once every 32 elements. Updates return a new vector sharing every
+ * untouched node with the old one.
+ *
+ * <p>Elements may be {@code null}. The vector is a read-only
+ * {@link java.util.List}; the mutators inherited from {@code List} throw
+ * {@link UnsupportedOperationException}. For bulk loads use
+ * {@link #asTransient()}.
+ *
+ * @param <E> the element type
+ */
+public final class PersistentVector<E> extends AbstractList<E> implements RandomAccess {
+
+    private static final int BITS = 5;
+    private static final int WIDTH = 1 << BITS;
+    private static final int MASK = WIDTH - 1;
+
+    private static final Node EMPTY_NODE = new Node(null, new Object[WIDTH]);
+    private static final PersistentVector<?> EMPTY = new PersistentVector<>(0, BITS, EMPTY_NODE, new Object[0]);
+
+    private final int size;
+    private final int shift;
+    private final Node root;
+    private final Object[] tail;
+
+    private PersistentVector(int size, int shift, Node root, Object[] tail) {
+        this.size = size;
+        this.shift = shift;
+        this.root = root;
+        this.tail = tail;
+    }
+
+    /**
+     * Returns the empty vector.
+     *
+     * @param <E> the element type
+     * @return the empty vector
+     */
+    @SuppressWarnings("unchecked")
+    public static <E> PersistentVector<E> empty() {
+        return (PersistentVector<E>) EMPTY;
+    }
+
+    /**
+     * Returns a vector holding {@code elements}.
+     *
+     * @param elements the elements
+     * @param <E>      the element type
+     * @return a new vector
+     */
+    @SafeVarargs
+    public static <E> PersistentVector<E> of(E... elements) {
+        Transient<E> builder = PersistentVector.<E>empty().asTransient();
+        for (E element : elements) {
+            builder.add(element);
+        }
+        return builder.persistent();
+    }
+
+    /**
+     * Returns a vector holding the elements of {@code elements}, in
+     * iteration order.
+     *
+     * @param elements the elements
+     * @param <E>      the element type
+     * @return a new vector
+     */
+    @SuppressWarnings("unchecked")
+    public static <E> PersistentVector<E> from(Iterable<? extends E> elements) {
+        if (elements instanceof PersistentVector<?> vector) {
+            return (PersistentVector<E>) vector;
+        }
+        Transient<E> builder = PersistentVector.<E>empty().asTransient();
+        for (E element : elements) {
+            builder.add(element);
+        }
+        return builder.persistent();
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E get(int index) {
+        return (E) leafFor(index)[index & MASK];
+    }
+
+    private int tailOffset() {
+        return tailOffset(size);
+    }
+
+    private static int tailOffset(int size) {
+        return size < WIDTH ? 0 : ((size - 1) >>> BITS) << BITS;
+    }
+
+    private Object[] leafFor(int index) {
+        Objects.checkIndex(index, size);
+        if (index >= tailOffset()) {
+            return tail;
+        }
+        Node node = root;
+        for (int level = shift; level > 0; level -= BITS) {
+            node = (Node) node.array[(index >>> level) & MASK];
+        }
+        return node.array;
+    }
+
+    /**
+     * Returns a vector with {@code element} appended.
+     *
+     * @param element the element
+     * @return the longer vector
+     */
+    public PersistentVector<E> append(E element) {
+        if (size - tailOffset() < WIDTH) {
+            Object[] newTail = Arrays.copyOf(tail, tail.length + 1);
+            newTail[tail.length] = element;
+            return new PersistentVector<>(size + 1, shift, root, newTail);
+        }
+        Node tailNode = new Node(null, tail);
+        Node newRoot;
+        int newShift = shift;
+        if ((size >>> BITS) > (1 << shift)) {
+            // the trie is full: grow a level
+            newRoot = new Node(null, new Object[WIDTH]);
+            newRoot.array[0] = root;
+            newRoot.array[1] = newPath(null, shift, tailNode);
+            newShift += BITS;
+        } else {
+            newRoot = pushTail(null, size, shift, root, tailNode);
+        }
+        return new PersistentVector<>(size + 1, newShift, newRoot, new Object[]{element});
+    }
+
+    /**
+     * Returns a vector with the element at {@code index} replaced.
+     *
+     * @param index   the index
+     * @param element the new element
+     * @return the updated vector
+     */
+    public PersistentVector<E> with(int index, E element) {
+        Objects.checkIndex(index, size);
+        if (index >= tailOffset()) {
+            Object[] newTail = tail.clone();
+            newTail[index & MASK] = element;
+            return new PersistentVector<>(size, shift, root, newTail);
+        }
+        return new PersistentVector<>(size, shift, assoc(null, shift, root, index, element), tail);
+    }
+
+    /**
+     * Returns a vector without its last element.
+     *
+     * @return the shorter vector
+     * @throws IllegalStateException if the vector is empty
+     */
+    public PersistentVector<E> withoutLast() {
+        if (size == 0) {
+            throw new IllegalStateException("vector is empty");
+        }
+        if (size == 1) {
+            return empty();
+        }
+        if (size - tailOffset() > 1) {
+            return new PersistentVector<>(size - 1, shift, root, Arrays.copyOf(tail, tail.length - 1));
+        }
+        Object[] newTail = leafFor(size - 2);
+        Node newRoot = popTail(shift, root);
+        int newShift = shift;
+        if (newRoot == null) {
+            newRoot = EMPTY_NODE;
+        }
+        if (shift > BITS && newRoot.array[1] == null) {
+            newRoot = (Node) newRoot.array[0];
+            newShift -= BITS;
+        }
+        return new PersistentVector<>(size - 1, newShift, newRoot, newTail);
+    }
+
+    /**
+     * Returns a transient copy of this vector. This vector is not affected by
+     * changes to the transient.
+     *
+     * @return a transient starting from this vector's elements
+     */
+    public Transient<E> asTransient() {
+        return new Transient<>(this);
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        return new Iterator<>() {
+            int index;
+            Object[] leaf;
+
+            @Override
+            public boolean hasNext() {
+                return index < size;
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public E next() {
+                if (index >= size) {
+                    throw new NoSuchElementException();
+                }
+                if ((index & MASK) == 0 || leaf == null) {
+                    leaf = leafFor(index);
+                }
+                return (E) leaf[index++ & MASK];
+            }
+        };
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void forEach(Consumer<? super E> action) {
+        Objects.requireNonNull(action, "action");
+        for (int index = 0; index < size; index += WIDTH) {
+            Object[] leaf = leafFor(index);
+            for (int i = 0, n = Math.min(WIDTH, size - index); i < n; i++) {
+                action.accept((E) leaf[i]);
+            }
+        }
+    }
+
+    private Node popTail(int level, Node node) {
+        int index = ((size - 2) >>> level) & MASK;
+        if (level > BITS) {
+            Node child = popTail(level - BITS, (Node) node.array[index]);
+            if (child == null && index == 0) {
+                return null;
+            }
+            Node copy = new Node(null, node.array.clone());
+            copy.array[index] = child;
+            return copy;
+        }
+        if (index == 0) {
+            return null;
+        }
+        Node copy = new Node(null, node.array.clone());
+        copy.array[index] = null;
+        return copy;
+    }
+
+    /**
+     * Places {@code tailNode} as the last leaf of the trie under
+     * {@code parent}, copying the path unless {@code edit} owns it.
+     */
+    private static Node pushTail(Object edit, int size, int level, Node parent, Node tailNode) {
+        int index = ((size - 1) >>> level) & MASK;
+        Node result = parent.editable(edit);
+        Node inserted;
+        if (level == BITS) {
+            inserted = tailNode;
+        } else {
+            Node child = (Node) parent.array[index];
+            inserted = child != null
+                    ? pushTail(edit, size, level - BITS, child, tailNode)
+                    : newPath(edit, level - BITS, tailNode);
+        }
+        result.array[index] = inserted;
+        return result;
+    }
+
+    private static Node newPath(Object edit, int level, Node node) {
+        if (level == 0) {
+            return node;
+        }
+        Node path = new Node(edit, new Object[WIDTH]);
+        path.array[0] = newPath(edit, level - BITS, node);
+        return path;
+    }
+
+    private static Node assoc(Object edit, int level, Node node, int index, Object element) {
+        Node result = node.editable(edit);
+        if (level == 0) {
+            result.array[index & MASK] = element;
+        } else {
+            int child = (index >>> level) & MASK;
+            result.array[child] = assoc(edit, level - BITS, (Node) node.array[child], index, element);
+        }
+        return result;
+    }
+
+    private static final class Node {
+
+        /** The transient allowed to update this node in place, or {@code null}. */
+        final Object edit;
+        final Object[] array;
+
+        Node(Object edit, Object[] array) {
+            this.edit = edit;
+            this.array = array;
+        }
+
+        Node editable(Object edit) {
+            return edit != null && this.edit == edit ? this : new Node(edit, array.clone());
+        }
+    }
+
+    /**
+     * A mutable vector under construction, sharing structure with the
+     * persistent vector it started from. Nodes it creates are updated in
+     * place, and its tail is a full leaf filled in place. Once
+     * {@link #persistent()} is called the transient can no longer be used.
+     *
+     * <p>Instances are not thread-safe.
+     *
+     * @param <E> the element type
+     */
+    public static final class Transient<E> {
+
+        private Object edit = new Object();
+        private int size;
+        private int shift;
+        private Node root;
+        private Object[] tail;
+
+        private Transient(PersistentVector<E> vector) {
+            this.size = vector.size;
+            this.shift = vector.shift;
+            this.root = new Node(edit, vector.root.array.clone());
+            this.tail = Arrays.copyOf(vector.tail, WIDTH);
+        }
+
+        /**
+         * Returns the number of elements.
+         *
+         * @return the size
+         */
+        public int size() {
+            ensureEditable();
+            return size;
+        }
+
+        /**
+         * Appends {@code element}.
+         *
+         * @param element the element
+         * @return this transient
+         */
+        public Transient<E> add(E element) {
+            ensureEditable();
+            if (size - tailOffset(size) < WIDTH) {
+                tail[size++ & MASK] = element;
+                return this;
+            }
+            Node tailNode = new Node(edit, tail);
+            tail = new Object[WIDTH];
+            tail[0] = element;
+            if ((size >>> BITS) > (1 << shift)) {
+                Node newRoot = new Node(edit, new Object[WIDTH]);
+                newRoot.array[0] = root;
+                newRoot.array[1] = newPath(edit, shift, tailNode);
+                root = newRoot;
+                shift += BITS;
+            } else {
+                root = pushTail(edit, size, shift, root, tailNode);
+            }
+            size++;
+            return this;
+        }
+
+        /**
+         * Replaces the element at {@code index}.
+         *
+         * @param index   the index
+         * @param element the new element
+         * @return this transient
+         */
+        public Transient<E> set(int index, E element) {
+            ensureEditable();
+            Objects.checkIndex(index, size);
+            if (index >= tailOffset(size)) {
+                tail[index & MASK] = element;
+            } else {
+                root = assoc(edit, shift, root, index, element);
+            }
+            return this;
+        }
+
+        /**
+         * Freezes the elements into a persistent vector and retires this
+         * transient.
+         *
+         * @return the persistent vector
+         */
+        public PersistentVector<E> persistent() {
+            ensureEditable();
+            edit = null;
+            if (size == 0) {
+                return empty();
+            }
+            return new PersistentVector<>(size, shift, root, Arrays.copyOf(tail, size - tailOffset(size)));
+        }
+
+        private void ensureEditable() {
+            if (edit == null) {
+                throw new IllegalStateException("transient used after persistent()");
+            }
+        }
+    }
+}
@@ -0,0 +1,10 @@
+/**
+ * Persistent (immutable, structurally shared) collections.
+ *
+ * <p>An update returns a new collection that shares every untouched node of
+ * the trie with the old one, so taking a snapshot is free and an update
+ * copies only the {@code O(log32 n)} nodes on its path. Each collection has a
+ * transient form that updates its own nodes in place while a batch is built
+ * and then freezes into a persistent collection.
+ */
+package io.github.atcurtis.crap4java.parts.persistent;
@@ -0,0 +1,190 @@
+package io.github.atcurtis.crap4java.parts.pool;
+
+import io.github.atcurtis.crap4java.adaptors.Recyclable;
+import io.github.atcurtis.crap4java.adaptors.jfr.PoolHitEvent;
+import io.github.atcurtis.crap4java.adaptors.jfr.PoolMissEvent;
+
+import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Bounded, lock-free pool of {@link Recyclable} objects.
+ *
+ * <p>{@link #acquire()} first pops the calling thread's private cache, which
+ * needs no synchronization at all; failing that it probes a few slots of a
+ * shared array, claiming an object with a single compare-and-set; failing
+ * that it creates a new object. {@link #release(Recyclable)} resets the object
+ * and mirrors those steps, dropping the object for the garbage collector when
+ * both the thread cache and the probed shared slots are full. No step blocks
+ * and no step allocates, so the pool never holds more than
+ * {@code sharedCapacity} objects plus {@code threadCapacity} per thread.
+ *
+ * <p>Pooling only pays off for objects that are expensive to create or large
+ * enough to survive a young collection; for small short-lived objects the
+ * JVM's allocator and escape analysis usually win. {@link #stats()} reports
+ * hits and misses so the choice can be checked against production traffic;
+ * they are also recorded as {@link PoolHitEvent}s and {@link PoolMissEvent}s
+ * for Java Flight Recorder.
+ *
+ * @param <T> the pooled type
+ */
+public final class ObjectPool<T extends Recyclable<T>> {
+
+    private static final int MAX_PROBES = 8;
+
+    private final Supplier<? extends T> factory;
+    private final AtomicReferenceArray<T> shared;
+    private final int probes;
+    private final int threadCapacity;
+    private final ThreadLocal<Cache> caches;
+
+    private final LongAdder threadHits = new LongAdder();
+    private final LongAdder sharedHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder drops = new LongAdder();
+
+    /**
+     * Creates an empty pool.
+     *
+     * @param factory        creates objects when the pool is empty
+     * @param sharedCapacity the number of objects shared between threads
+     * @param threadCapacity the number of objects cached per thread; zero
+     *                       disables the thread caches
+     */
+    public ObjectPool(Supplier<? extends T> factory, int sharedCapacity, int threadCapacity) {
+        if (sharedCapacity < 1) {
+            throw new IllegalArgumentException("sharedCapacity: " + sharedCapacity);
+        }
+        if (threadCapacity < 0) {
+            throw new IllegalArgumentException("threadCapacity: " + threadCapacity);
+        }
+        this.factory = Objects.requireNonNull(factory, "factory");
+        this.shared = new AtomicReferenceArray<>(sharedCapacity);
+        this.probes = Math.min(MAX_PROBES, sharedCapacity);
+        this.threadCapacity = threadCapacity;
+        this.caches = ThreadLocal.withInitial(() -> new Cache(threadCapacity));
+    }
+
+    /**
+     * Takes an object from the pool, creating one if the pool is empty.
+     *
+     * @return an object in its initial state
+     */
+    @SuppressWarnings("unchecked")
+    public T acquire() {
+        if (threadCapacity > 0) {
+            Cache cache = caches.get();
+            if (cache.size > 0) {
+                Object value = cache.items[--cache.size];
+                cache.items[cache.size] = null;
+                threadHits.increment();
+                PoolHitEvent.emit(value.getClass(), true);
+                return (T) value;
+            }
+        }
+        int length = shared.length();
+        int start = ThreadLocalRandom.current().nextInt(length);
+        for (int i = 0; i < probes; i++) {
+            int index = (start + i) % length;
+            T value = shared.getPlain(index);
+            if (value != null && shared.compareAndSet(index, value, null)) {
+                sharedHits.increment();
+                PoolHitEvent.emit(value.getClass(), false);
+                return value;
+            }
+        }
+        misses.increment();
+        PoolMissEvent event = new PoolMissEvent();
+        event.begin();
+        T value = factory.get();
+        event.emit(value.getClass());
+        return value;
+    }
+
+    /**
+     * Resets {@code value} and returns it to the pool. The caller must not use
+     * {@code value} afterwards.
+     *
+     * @param value an object obtained from {@link #acquire()}
+     */
+    public void release(T value) {
+        value.reset();
+        if (threadCapacity > 0) {
+            Cache cache = caches.get();
+            if (cache.size < threadCapacity) {
+                cache.items[cache.size++] = value;
+                return;
+            }
+        }
+        int length = shared.length();
+        int start = ThreadLocalRandom.current().nextInt(length);
+        for (int i = 0; i < probes; i++) {
+            int index = (start + i) % length;
+            if (shared.getPlain(index) == null && shared.compareAndSet(index, null, value)) {
+                return;
+            }
+        }
+        drops.increment();
+    }
+
+    /**
+     * Acquires an object, applies {@code action} to it and releases it. The
+     * object must not escape {@code action}.
+     *
+     * @param action the work to do with the object
+     * @param <R>    the result type
+     * @return the result of {@code action}
+     */
+    public <R> R with(Function<? super T, ? extends R> action) {
+        T value = acquire();
+        try {
+            return action.apply(value);
+        } finally {
+            release(value);
+        }
+    }
+
+    /**
+     * Returns a snapshot of the pool's counters.
+     *
+     * @return the counters
+     */
+    public Stats stats() {
+        return new Stats(threadHits.sum(), sharedHits.sum(), misses.sum(), drops.sum());
+    }
+
+    private static final class Cache {
+        final Object[] items;
+        int size;
+
+        Cache(int capacity) {
+            items = new Object[capacity];
+        }
+    }
+
+    /**
+     * Counters of a pool.
+     *
+     * @param threadHits acquisitions served from the calling thread's cache
+     * @param sharedHits acquisitions served from the shared slots
+     * @param misses     acquisitions that had to create an object
+     * @param drops      releases that found no room and dropped the object
+     */
+    public record Stats(long threadHits, long sharedHits, long misses, long drops) {
+
+        /**
+         * Returns the fraction of acquisitions served from the pool.
+         *
+         * @return the hit ratio, or zero before the first acquisition
+         */
+        public double hitRatio() {
+            long hits = threadHits + sharedHits;
+            long total = hits + misses;
+            return total == 0 ? 0.0 : (double) hits / total;
+        }
+    }
+}
@@ -0,0 +1,5 @@
+/**
+ * Lock-free pooling of {@link io.github.atcurtis.crap4java.adaptors.Recyclable}
+ * adaptors and builders.
+ */
+package io.github.atcurtis.crap4java.parts.pool;
@@ -0,0 +1,115 @@
+package io.github.atcurtis.crap4java.parts.queue;
+
+import io.github.atcurtis.crap4java.adaptors.jfr.QueueEmptyEvent;
+import io.github.atcurtis.crap4java.parts.ring.Sequence;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.function.Consumer;
+
+/**
+ * Consumer side of the bounded queues: a power-of-two ring of slots in which
+ * a {@code null} slot is free and a non-null slot holds an element. The
+ * producer and consumer indices are {@link Sequence}s, each on its own cache
+ * lines.
+ */
+abstract class ArrayMessageQueue<E> implements MessageQueue<E> {
+
+    static final VarHandle SLOT = MethodHandles.arrayElementVarHandle(Object[].class);
+
+    final Object[] buffer;
+    final int mask;
+    final Sequence producerIndex = new Sequence(0);
+    final Sequence consumerIndex = new Sequence(0);
+
+    ArrayMessageQueue(int capacity) {
+        if (capacity < 2 || capacity > 1 << 30) {
+            throw new IllegalArgumentException("capacity: " + capacity);
+        }
+        int size = Integer.highestOneBit(capacity - 1) << 1;
+        this.buffer = new Object[size];
+        this.mask = size - 1;
+    }
+
+    @Override
+    public final E poll() {
+        E element = poll(true);
+        if (element == null) {
+            QueueEmptyEvent.emit(getClass());
+        }
+        return element;
+    }
+
+    @SuppressWarnings("unchecked")
+    private E poll(boolean waitForClaimed) {
+        long index = consumerIndex.get();
+        int offset = (int) index & mask;
+        Object element = SLOT.getAcquire(buffer, offset);
+        if (element == null) {
+            if (!waitForClaimed || index == producerIndex.get()) {
+                return null;
+            }
+            do {
+                Thread.onSpinWait();
+                element = SLOT.getAcquire(buffer, offset);
+            } while (element == null);
+        }
+        // The release store of the index orders the cleared slot before it,
+        // so a producer seeing the index also sees the free slot.
+        SLOT.set(buffer, offset, null);
+        consumerIndex.set(index + 1);
+        return (E) element;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public final E peek() {
+        long index = consumerIndex.get();
+        int offset = (int) index & mask;
+        Object element = SLOT.getAcquire(buffer, offset);
+        while (element == null && index != producerIndex.get()) {
+            Thread.onSpinWait();
+            element = SLOT.getAcquire(buffer, offset);
+        }
+        return (E) element;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public final int drain(Consumer<? super E> consumer, int limit) {
+        long start = consumerIndex.get();
+        long index = start;
+        try {
+            for (int i = 0; i < limit; i++) {
+                int offset = (int) index & mask;
+                Object element = SLOT.getAcquire(buffer, offset);
+                if (element == null) {
+                    break;
+                }
+                SLOT.set(buffer, offset, null);
+                index++;
+                consumer.accept((E) element);
+            }
+        } finally {
+            consumerIndex.set(index);
+        }
+        return (int) (index - start);
+    }
+
+    @Override
+    public final int size() {
+        long consumer = consumerIndex.get();
+        long producer = producerIndex.get();
+        return (int) Math.max(0, Math.min(producer - consumer, buffer.length));
+    }
+
+    @Override
+    public final boolean isEmpty() {
+        return consumerIndex.get() >= producerIndex.get();
+    }
+
+    @Override
+    public final int capacity() {
+        return buffer.length;
+    }
+}
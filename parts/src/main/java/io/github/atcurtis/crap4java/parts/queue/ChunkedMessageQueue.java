@@ -0,0 +1,191 @@
+package io.github.atcurtis.crap4java.parts.queue;
+
+import io.github.atcurtis.crap4java.adaptors.jfr.QueueEmptyEvent;
+import io.github.atcurtis.crap4java.parts.ring.Sequence;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.function.Consumer;
+
+/**
+ * Consumer side of the unbounded queues: a singly linked list of fixed-size
+ * chunks of slots. Producers allocate one chunk per {@code chunkSize}
+ * elements rather than one node per element, and the consumer drops whole
+ * chunks once it has read past them.
+ */
+abstract class ChunkedMessageQueue<E> implements MessageQueue<E> {
+
+    static final VarHandle SLOT = MethodHandles.arrayElementVarHandle(Object[].class);
+
+    /**
+     * Default number of slots per chunk.
+     */
+    static final int DEFAULT_CHUNK_SIZE = 1024;
+
+    final int chunkSize;
+    final Sequence producerIndex = new Sequence(0);
+    final Sequence consumerIndex = new Sequence(0);
+    private Chunk consumerChunk;
+
+    ChunkedMessageQueue(int chunkSize) {
+        if (chunkSize < 2) {
+            throw new IllegalArgumentException("chunkSize: " + chunkSize);
+        }
+        this.chunkSize = chunkSize;
+        this.consumerChunk = new Chunk(0, chunkSize);
+    }
+
+    /**
+     * Returns the first chunk, for the producer side to start from.
+     */
+    final Chunk firstChunk() {
+        return consumerChunk;
+    }
+
+    /**
+     * A run of slots for the indices {@code [base, base + slots.length)}.
+     */
+    static final class Chunk {
+
+        private static final VarHandle NEXT;
+
+        static {
+            try {
+                NEXT = MethodHandles.lookup().findVarHandle(Chunk.class, "next", Chunk.class);
+            } catch (ReflectiveOperationException e) {
+                throw new ExceptionInInitializerError(e);
+            }
+        }
+
+        final long base;
+        final Object[] slots;
+        private Chunk next;
+
+        Chunk(long base, int size) {
+            this.base = base;
+            this.slots = new Object[size];
+        }
+
+        Chunk next() {
+            return (Chunk) NEXT.getAcquire(this);
+        }
+
+        void setNext(Chunk chunk) {
+            NEXT.setRelease(this, chunk);
+        }
+
+        /**
+         * Links a new chunk after this one unless another producer did so
+         * first, and returns whichever chunk follows this one.
+         */
+        Chunk appendNext() {
+            Chunk current = next();
+            if (current != null) {
+                return current;
+            }
+            Chunk created = new Chunk(base + slots.length, slots.length);
+            Chunk witness = (Chunk) NEXT.compareAndExchange(this, (Chunk) null, created);
+            return witness == null ? created : witness;
+        }
+    }
+
+    @Override
+    public final E poll() {
+        E element = take(true, true);
+        if (element == null) {
+            QueueEmptyEvent.emit(getClass());
+        }
+        return element;
+    }
+
+    @Override
+    public final E peek() {
+        return take(true, false);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public final int drain(Consumer<? super E> consumer, int limit) {
+        long start = consumerIndex.get();
+        long index = start;
+        Chunk chunk = consumerChunk;
+        try {
+            for (int i = 0; i < limit; i++) {
+                int offset = (int) (index - chunk.base);
+                if (offset == chunkSize) {
+                    Chunk next = chunk.next();
+                    if (next == null) {
+                        break;
+                    }
+                    chunk = next;
+                    consumerChunk = next;
+                    offset = 0;
+                }
+                Object element = SLOT.getAcquire(chunk.slots, offset);
+                if (element == null) {
+                    break;
+                }
+                chunk.slots[offset] = null;
+                index++;
+                consumer.accept((E) element);
+            }
+        } finally {
+            consumerIndex.set(index);
+        }
+        return (int) (index - start);
+    }
+
+    @SuppressWarnings("unchecked")
+    private E take(boolean waitForClaimed, boolean remove) {
+        Chunk chunk = consumerChunk;
+        long index = consumerIndex.get();
+        int offset = (int) (index - chunk.base);
+        if (offset == chunkSize) {
+            Chunk next = chunk.next();
+            if (next == null) {
+                if (!waitForClaimed || index >= producerIndex.get()) {
+                    return null;
+                }
+                while ((next = chunk.next()) == null) {
+                    Thread.onSpinWait();
+                }
+            }
+            chunk = next;
+            offset = 0;
+            if (remove) {
+                consumerChunk = next;
+            }
+        }
+        Object element = SLOT.getAcquire(chunk.slots, offset);
+        if (element == null) {
+            if (!waitForClaimed || index >= producerIndex.get()) {
+                return null;
+            }
+            do {
+                Thread.onSpinWait();
+                element = SLOT.getAcquire(chunk.slots, offset);
+            } while (element == null);
+        }
+        if (remove) {
+            chunk.slots[offset] = null;
+            consumerIndex.set(index + 1);
+        }
+        return (E) element;
+    }
+
+    @Override
+    public final int size() {
+        long size = producerIndex.get() - consumerIndex.get();
+        return (int) Math.max(0, Math.min(size, Integer.MAX_VALUE));
+    }
+
+    @Override
+    public final boolean isEmpty() {
+        return consumerIndex.get() >= producerIndex.get();
+    }
+
+    @Override
+    public final int capacity() {
+        return UNBOUNDED;
+    }
+}
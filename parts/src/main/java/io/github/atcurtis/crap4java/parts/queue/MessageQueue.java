@@ -0,0 +1,100 @@
+package io.github.atcurtis.crap4java.parts.queue;
+
+import java.util.function.Consumer;
+
+/**
+ * Queue with exactly one consuming thread.
+ *
+ * <p>Deliberately smaller than {@link java.util.Queue}: there is no iterator,
+ * no removal of arbitrary elements and no exact size, which is what lets the
+ * implementations get by without locks and, for the array-backed ones,
+ * without allocating per element. {@code null} elements are not allowed.
+ *
+ * <p>{@link #poll()}, {@link #peek()} and {@link #drain} must only be called
+ * from the consumer thread. Whether {@link #offer} may be called from several
+ * threads depends on the implementation: {@code Spsc} queues allow one
+ * producer, {@code Mpsc} queues any number.
+ *
+ * <p>A refused offer and an empty poll are recorded as
+ * {@link io.github.atcurtis.crap4java.adaptors.jfr.QueueFullEvent} and
+ * {@link io.github.atcurtis.crap4java.adaptors.jfr.QueueEmptyEvent} for Java
+ * Flight Recorder.
+ *
+ * @param <E> the element type
+ */
+public interface MessageQueue<E> {
+
+    /**
+     * The {@link #capacity()} of an unbounded queue.
+     */
+    int UNBOUNDED = -1;
+
+    /**
+     * Adds an element.
+     *
+     * @param element the element
+     * @return {@code false} if a bounded queue is full
+     * @throws NullPointerException if {@code element} is {@code null}
+     */
+    boolean offer(E element);
+
+    /**
+     * Removes the head element. If a producer has claimed the head slot but
+     * not yet written it, waits for the write rather than report an empty
+     * queue.
+     *
+     * @return the head element, or {@code null} if the queue is empty
+     */
+    E poll();
+
+    /**
+     * Returns the head element without removing it.
+     *
+     * @return the head element, or {@code null} if the queue is empty
+     */
+    E peek();
+
+    /**
+     * Removes up to {@code limit} elements and passes them to
+     * {@code consumer}, stopping early at the first element that is not yet
+     * visible. Draining in batches keeps the consumer's index update and its
+     * reads of the producers' progress to one per batch.
+     *
+     * @param consumer receives the elements
+     * @param limit    the maximum number of elements
+     * @return the number of elements drained
+     */
+    int drain(Consumer<? super E> consumer, int limit);
+
+    /**
+     * Removes every visible element and passes it to {@code consumer}.
+     *
+     * @param consumer receives the elements
+     * @return the number of elements drained
+     */
+    default int drain(Consumer<? super E> consumer) {
+        return drain(consumer, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Returns an estimate of the number of elements, exact only when no
+     * other thread is using the queue.
+     *
+     * @return the estimated size
+     */
+    int size();
+
+    /**
+     * Tells whether the queue looked empty.
+     *
+     * @return {@code true} if no element was visible
+     */
+    boolean isEmpty();
+
+    /**
+     * Returns the capacity.
+     *
+     * @return the capacity, or {@link #UNBOUNDED}
+     */
+    int capacity();
+}
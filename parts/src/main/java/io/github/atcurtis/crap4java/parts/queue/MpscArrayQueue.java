@@ -0,0 +1,52 @@
+package io.github.atcurtis.crap4java.parts.queue;
+
+import io.github.atcurtis.crap4java.adaptors.jfr.QueueFullEvent;
+import io.github.atcurtis.crap4java.parts.ring.Sequence;
+
+import java.util.Objects;
+
+/**
+ * Bounded multi-producer, single-consumer queue.
+ *
+ * <p>Producers claim a slot by advancing the producer index with a
+ * compare-and-set and then publish the element into it with a release
+ * store. Room is checked against a cached limit, the consumer index plus the
+ * capacity, which producers refresh only when they reach it; most offers
+ * never read the consumer's cache line. Nothing is allocated per element.
+ *
+ * @param <E> the element type
+ */
+public final class MpscArrayQueue<E> extends ArrayMessageQueue<E> {
+
+    private final Sequence producerLimit;
+
+    /**
+     * Creates a queue.
+     *
+     * @param capacity the minimum capacity, rounded up to a power of two
+     */
+    public MpscArrayQueue(int capacity) {
+        super(capacity);
+        this.producerLimit = new Sequence(buffer.length);
+    }
+
+    @Override
+    public boolean offer(E element) {
+        Objects.requireNonNull(element, "element");
+        long limit = producerLimit.get();
+        long index;
+        do {
+            index = producerIndex.get();
+            if (index >= limit) {
+                limit = consumerIndex.get() + buffer.length;
+                if (index >= limit) {
+                    QueueFullEvent.emit(getClass(), buffer.length);
+                    return false;
+                }
+                producerLimit.set(limit);
+            }
+        } while (!producerIndex.compareAndSet(index, index + 1));
+        SLOT.setRelease(buffer, (int) index & mask, element);
+        return true;
+    }
+}
@@ -0,0 +1,75 @@
+package io.github.atcurtis.crap4java.parts.queue;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Objects;
+
+/**
+ * Unbounded multi-producer, single-consumer queue over linked chunks.
+ *
+ * <p>Producers claim an index with a single atomic add, so they never retry
+ * against each other, then walk forward from a shared hint to the chunk
+ * holding that index, linking new chunks as needed, and publish the element
+ * with a release store. Unlike {@link java.util.concurrent.ConcurrentLinkedQueue}
+ * there is one allocation per chunk rather than per element. {@link #offer}
+ * always succeeds.
+ *
+ * @param <E> the element type
+ */
+public final class MpscChunkedQueue<E> extends ChunkedMessageQueue<E> {
+
+    private static final VarHandle PRODUCER_CHUNK;
+
+    static {
+        try {
+            PRODUCER_CHUNK = MethodHandles.lookup().findVarHandle(MpscChunkedQueue.class, "producerChunk",
+                    Chunk.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    // Never behind the chunk of any index claimed after it was read, so a
+    // producer reading it before claiming can always walk forward from it.
+    private Chunk producerChunk;
+
+    /**
+     * Creates a queue with the default chunk size of 1024 slots.
+     */
+    public MpscChunkedQueue() {
+        this(DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * Creates a queue.
+     *
+     * @param chunkSize the number of slots per chunk
+     */
+    public MpscChunkedQueue(int chunkSize) {
+        super(chunkSize);
+        this.producerChunk = firstChunk();
+    }
+
+    @Override
+    public boolean offer(E element) {
+        Objects.requireNonNull(element, "element");
+        Chunk hint = (Chunk) PRODUCER_CHUNK.getAcquire(this);
+        long index = producerIndex.addAndGet(1) - 1;
+        Chunk chunk = hint;
+        while (index >= chunk.base + chunkSize) {
+            chunk = chunk.appendNext();
+        }
+        if (chunk != hint) {
+            Chunk current = hint;
+            while (current.base < chunk.base) {
+                Chunk witness = (Chunk) PRODUCER_CHUNK.compareAndExchange(this, current, chunk);
+                if (witness == current) {
+                    break;
+                }
+                current = witness;
+            }
+        }
+        SLOT.setRelease(chunk.slots, (int) (index - chunk.base), element);
+        return true;
+    }
+}
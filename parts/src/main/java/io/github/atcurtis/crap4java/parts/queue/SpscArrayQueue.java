@@ -0,0 +1,42 @@
+package io.github.atcurtis.crap4java.parts.queue;
+
+import io.github.atcurtis.crap4java.adaptors.jfr.QueueFullEvent;
+
+import java.util.Objects;
+
+/**
+ * Bounded single-producer, single-consumer queue.
+ *
+ * <p>The producer decides whether there is room by looking at the slot it is
+ * about to fill, not at the consumer's index, so in the steady state producer
+ * and consumer never read each other's hot cache lines. Each hand-off is one
+ * release store of the element and one of the index. Nothing is allocated
+ * per element.
+ *
+ * @param <E> the element type
+ */
+public final class SpscArrayQueue<E> extends ArrayMessageQueue<E> {
+
+    /**
+     * Creates a queue.
+     *
+     * @param capacity the minimum capacity, rounded up to a power of two
+     */
+    public SpscArrayQueue(int capacity) {
+        super(capacity);
+    }
+
+    @Override
+    public boolean offer(E element) {
+        Objects.requireNonNull(element, "element");
+        long index = producerIndex.get();
+        int offset = (int) index & mask;
+        if (SLOT.getAcquire(buffer, offset) != null) {
+            QueueFullEvent.emit(getClass(), buffer.length);
+            return false;
+        }
+        SLOT.setRelease(buffer, offset, element);
+        producerIndex.set(index + 1);
+        return true;
+    }
+}
@@ -0,0 +1,51 @@
+package io.github.atcurtis.crap4java.parts.queue;
+
+import java.util.Objects;
+
+/**
+ * Unbounded single-producer, single-consumer queue over linked chunks.
+ *
+ * <p>The producer fills the slots of its current chunk with release stores
+ * and links a new chunk when it runs out, so it allocates once per chunk and
+ * never contends with anyone. {@link #offer} always succeeds.
+ *
+ * @param <E> the element type
+ */
+public final class SpscChunkedQueue<E> extends ChunkedMessageQueue<E> {
+
+    private Chunk producerChunk;
+
+    /**
+     * Creates a queue with the default chunk size of 1024 slots.
+     */
+    public SpscChunkedQueue() {
+        this(DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * Creates a queue.
+     *
+     * @param chunkSize the number of slots per chunk
+     */
+    public SpscChunkedQueue(int chunkSize) {
+        super(chunkSize);
+        this.producerChunk = firstChunk();
+    }
+
+    @Override
+    public boolean offer(E element) {
+        Objects.requireNonNull(element, "element");
+        long index = producerIndex.get();
+        Chunk chunk = producerChunk;
+        int offset = (int) (index - chunk.base);
+        if (offset == chunkSize) {
+            Chunk next = new Chunk(index, chunkSize);
+            chunk.setNext(next);
+            producerChunk = chunk = next;
+            offset = 0;
+        }
+        SLOT.setRelease(chunk.slots, offset, element);
+        producerIndex.set(index + 1);
+        return true;
+    }
+}
@@ -0,0 +1,5 @@
+/**
+ * Lock-free single-consumer queues for funnelling work into one thread,
+ * bounded over a ring of slots or unbounded over linked chunks.
+ */
+package io.github.atcurtis.crap4java.parts.queue;
@@ -0,0 +1,22 @@
+package io.github.atcurtis.crap4java.parts.ring;
+
+/**
+ * Thrown by a {@link SequenceBarrier} that has been alerted, typically to
+ * make a waiting event processor check whether it should halt.
+ *
+ * <p>The exception is a pre-allocated singleton without a stack trace, since
+ * it is used for control flow.
+ */
+public final class AlertException extends Exception {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * The shared instance.
+     */
+    public static final AlertException INSTANCE = new AlertException();
+
+    private AlertException() {
+        super("Alerted", null, false, false);
+    }
+}
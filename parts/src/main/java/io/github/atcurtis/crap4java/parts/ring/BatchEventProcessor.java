@@ -0,0 +1,107 @@
+package io.github.atcurtis.crap4java.parts.ring;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Runs an {@link EventHandler} over a ring buffer on the thread that calls
+ * {@link #run()}.
+ *
+ * <p>Each wait on the barrier returns every event published so far, and the
+ * processor hands them all to the handler before it advances its own
+ * sequence once. Under load, consumers therefore catch up in batches and the
+ * cost of the memory barriers is shared by the batch.
+ *
+ * <p>Register {@link #sequence()} as a gating sequence of the ring buffer, or
+ * as a dependent of a downstream barrier, before publishing starts. If the
+ * handler throws, the processor stops with its sequence just past the
+ * failed event and the exception propagates out of {@code run()}.
+ *
+ * @param <E> the event slot type
+ */
+public final class BatchEventProcessor<E> implements Runnable {
+
+    private final RingBuffer<E> ring;
+    private final SequenceBarrier barrier;
+    private final EventHandler<? super E> handler;
+    private final Sequence sequence = new Sequence();
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    /**
+     * Creates a processor.
+     *
+     * @param ring    the ring buffer
+     * @param barrier the barrier to wait on
+     * @param handler the handler
+     */
+    public BatchEventProcessor(RingBuffer<E> ring, SequenceBarrier barrier, EventHandler<? super E> handler) {
+        this.ring = Objects.requireNonNull(ring, "ring");
+        this.barrier = Objects.requireNonNull(barrier, "barrier");
+        this.handler = Objects.requireNonNull(handler, "handler");
+    }
+
+    /**
+     * Returns the sequence of the last event handled.
+     *
+     * @return the processor's sequence
+     */
+    public Sequence sequence() {
+        return sequence;
+    }
+
+    /**
+     * Tells whether {@link #run()} is executing.
+     *
+     * @return whether the processor runs
+     */
+    public boolean isRunning() {
+        return running.get();
+    }
+
+    /**
+     * Makes {@link #run()} return once the current batch is handled.
+     */
+    public void halt() {
+        running.set(false);
+        barrier.alert();
+    }
+
+    /**
+     * Handles events until {@link #halt()} is called or the thread is
+     * interrupted.
+     *
+     * @throws IllegalStateException if the processor is already running
+     */
+    @Override
+    public void run() {
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("Already running");
+        }
+        barrier.clearAlert();
+        long next = sequence.get() + 1;
+        try {
+            while (true) {
+                try {
+                    long available = barrier.waitFor(next);
+                    while (next <= available) {
+                        handler.onEvent(ring.get(next), next, next == available);
+                        next++;
+                    }
+                    sequence.set(available);
+                } catch (AlertException e) {
+                    if (!running.get()) {
+                        return;
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                } catch (RuntimeException | Error e) {
+                    sequence.set(next);
+                    throw e;
+                }
+            }
+        } finally {
+            running.set(false);
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package io.github.atcurtis.crap4java.parts.ring;
+
+/**
+ * Spins on the dependency, hinting the CPU with {@link Thread#onSpinWait()}.
+ * Lowest latency; dedicates a core to every waiting consumer.
+ */
+public final class BusySpinWaitStrategy implements WaitStrategy {
+
+    /**
+     * Creates the strategy.
+     */
+    public BusySpinWaitStrategy() {
+    }
+
+    @Override
+    public long waitFor(long sequence, Sequence dependency, SequenceBarrier barrier) throws AlertException {
+        long available;
+        while ((available = dependency.get()) < sequence) {
+            barrier.checkAlert();
+            Thread.onSpinWait();
+        }
+        return available;
+    }
+}
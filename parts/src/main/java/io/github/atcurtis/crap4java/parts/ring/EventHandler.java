@@ -0,0 +1,22 @@
+package io.github.atcurtis.crap4java.parts.ring;
+
+/**
+ * Consumes events from a ring buffer on a {@link BatchEventProcessor}'s
+ * thread.
+ *
+ * @param <E> the event slot type
+ */
+@FunctionalInterface
+public interface EventHandler<E> {
+
+    /**
+     * Handles one event. The slot is reused once the handler returns and must
+     * not be kept.
+     *
+     * @param event      the event slot
+     * @param sequence   the sequence of the event
+     * @param endOfBatch whether this is the last event currently available,
+     *                   a good moment to flush anything the handler batches
+     */
+    void onEvent(E event, long sequence, boolean endOfBatch);
+}
@@ -0,0 +1,39 @@
+package io.github.atcurtis.crap4java.parts.ring;
+
+/**
+ * Read-only view of the minimum of several sequences, letting a barrier wait
+ * on many upstream consumers as if they were one.
+ */
+final class FixedSequenceGroup extends Sequence {
+
+    private final Sequence[] sequences;
+
+    FixedSequenceGroup(Sequence[] sequences) {
+        this.sequences = sequences.clone();
+    }
+
+    @Override
+    public long get() {
+        return Sequencer.minimumSequence(sequences, Long.MAX_VALUE);
+    }
+
+    @Override
+    public void set(long value) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void setVolatile(long value) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean compareAndSet(long expected, long update) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public long addAndGet(long increment) {
+        throw new UnsupportedOperationException();
+    }
+}
@@ -0,0 +1,111 @@
+package io.github.atcurtis.crap4java.parts.ring;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Sequencer for a ring buffer with any number of publishing threads.
+ *
+ * <p>Producers claim sequences by advancing the cursor with a
+ * compare-and-set, so the cursor only says how far slots have been
+ * <em>claimed</em>. Publication is tracked per slot in an {@code int} array
+ * holding the lap number ({@code sequence >>> log2(bufferSize)}) of the last
+ * sequence published into it; a slot is readable once its entry matches the
+ * lap of the sequence wanted. Producers publishing out of order therefore
+ * never block each other, and consumers read up to the first gap.
+ */
+public final class MultiProducerSequencer extends Sequencer {
+
+    private static final VarHandle AVAILABLE = MethodHandles.arrayElementVarHandle(int[].class);
+
+    private final Sequence gatingSequenceCache = new Sequence();
+    private final int[] available;
+    private final int indexMask;
+    private final int indexShift;
+
+    /**
+     * Creates a sequencer.
+     *
+     * @param bufferSize   the number of slots, a power of two
+     * @param waitStrategy how consumers wait
+     */
+    public MultiProducerSequencer(int bufferSize, WaitStrategy waitStrategy) {
+        super(bufferSize, waitStrategy);
+        this.available = new int[bufferSize];
+        this.indexMask = bufferSize - 1;
+        this.indexShift = Integer.numberOfTrailingZeros(bufferSize);
+        Arrays.fill(available, -1);
+    }
+
+    @Override
+    public long next(int n) {
+        checkBatch(n);
+        for (;;) {
+            long current = cursor.get();
+            long next = current + n;
+            long wrapPoint = next - bufferSize;
+            long cached = gatingSequenceCache.get();
+            if (wrapPoint > cached || cached > current) {
+                long minimum = minimumSequence(gatingSequences, current);
+                if (wrapPoint > minimum) {
+                    LockSupport.parkNanos(1);
+                    continue;
+                }
+                gatingSequenceCache.set(minimum);
+            } else if (cursor.compareAndSet(current, next)) {
+                return next;
+            }
+        }
+    }
+
+    @Override
+    public long tryNext() {
+        for (;;) {
+            long current = cursor.get();
+            long next = current + 1;
+            long wrapPoint = next - bufferSize;
+            long cached = gatingSequenceCache.get();
+            if (wrapPoint > cached || cached > current) {
+                long minimum = minimumSequence(gatingSequences, current);
+                gatingSequenceCache.set(minimum);
+                if (wrapPoint > minimum) {
+                    return -1;
+                }
+            }
+            if (cursor.compareAndSet(current, next)) {
+                return next;
+            }
+        }
+    }
+
+    @Override
+    public void publish(long sequence) {
+        AVAILABLE.setRelease(available, (int) sequence & indexMask, (int) (sequence >>> indexShift));
+        waitStrategy.signalAllWhenBlocking();
+    }
+
+    @Override
+    public void publish(long low, long high) {
+        for (long sequence = low; sequence <= high; sequence++) {
+            AVAILABLE.setRelease(available, (int) sequence & indexMask, (int) (sequence >>> indexShift));
+        }
+        waitStrategy.signalAllWhenBlocking();
+    }
+
+    @Override
+    public boolean isAvailable(long sequence) {
+        return (int) AVAILABLE.getAcquire(available, (int) sequence & indexMask) == (int) (sequence >>> indexShift);
+    }
+
+    @Override
+    public long highestPublished(long low, long available) {
+        for (long sequence = low; sequence <= available; sequence++) {
+            if (!isAvailable(sequence)) {
+                return sequence - 1;
+            }
+        }
+        return available;
+    }
+}
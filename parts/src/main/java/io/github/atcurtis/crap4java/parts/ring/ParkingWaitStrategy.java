@@ -0,0 +1,54 @@
+package io.github.atcurtis.crap4java.parts.ring;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Spins briefly, yields briefly, then parks for a fixed interval between
+ * checks. An idle consumer costs almost no CPU; the price is up to one park
+ * interval of added latency for the first event after a lull. Producers
+ * never have to signal.
+ */
+public final class ParkingWaitStrategy implements WaitStrategy {
+
+    private static final int SPIN_TRIES = 100;
+    private static final int YIELD_TRIES = 100;
+
+    private final long parkNanos;
+
+    /**
+     * Creates the strategy.
+     *
+     * @param interval the park interval
+     * @param unit     the unit of {@code interval}
+     */
+    public ParkingWaitStrategy(long interval, TimeUnit unit) {
+        if (interval <= 0) {
+            throw new IllegalArgumentException("interval: " + interval);
+        }
+        this.parkNanos = unit.toNanos(interval);
+    }
+
+    @Override
+    public long waitFor(long sequence, Sequence dependency, SequenceBarrier barrier)
+            throws AlertException, InterruptedException {
+        int counter = SPIN_TRIES + YIELD_TRIES;
+        long available;
+        while ((available = dependency.get()) < sequence) {
+            barrier.checkAlert();
+            if (counter > YIELD_TRIES) {
+                counter--;
+                Thread.onSpinWait();
+            } else if (counter > 0) {
+                counter--;
+                Thread.yield();
+            } else {
+                LockSupport.parkNanos(this, parkNanos);
+                if (Thread.interrupted()) {
+                    throw new InterruptedException();
+                }
+            }
+        }
+        return available;
+    }
+}
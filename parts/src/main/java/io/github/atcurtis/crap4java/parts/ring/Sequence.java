@@ -0,0 +1,117 @@
+package io.github.atcurtis.crap4java.parts.ring;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * A {@code long} counter padded onto its own cache lines.
+ *
+ * <p>Producers and consumers of a ring buffer each advance a sequence that
+ * other threads read continuously. Without padding, two sequences, or a
+ * sequence and an unrelated hot field, could share a cache line and every
+ * write would invalidate the line for all readers. The value sits between
+ * two runs of unused {@code long} fields declared in separate superclasses,
+ * which the JVM cannot reorder across.
+ *
+ * <p>{@link #get()} has acquire semantics and {@link #set(long)} release
+ * semantics, which is all a single-writer sequence needs;
+ * {@link #setVolatile(long)} adds the store-load fence.
+ */
+public class Sequence extends SequenceRhsPadding {
+
+    /**
+     * Value of a sequence before anything has been published.
+     */
+    public static final long INITIAL_VALUE = -1L;
+
+    private static final VarHandle VALUE;
+
+    static {
+        try {
+            VALUE = MethodHandles.lookup().findVarHandle(SequenceValue.class, "value", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    /**
+     * Creates a sequence at {@link #INITIAL_VALUE}.
+     */
+    public Sequence() {
+        this(INITIAL_VALUE);
+    }
+
+    /**
+     * Creates a sequence.
+     *
+     * @param initialValue the initial value
+     */
+    public Sequence(long initialValue) {
+        this.value = initialValue;
+    }
+
+    /**
+     * Reads the value with acquire semantics.
+     *
+     * @return the value
+     */
+    public long get() {
+        return (long) VALUE.getAcquire(this);
+    }
+
+    /**
+     * Writes the value with release semantics.
+     *
+     * @param value the new value
+     */
+    public void set(long value) {
+        VALUE.setRelease(this, value);
+    }
+
+    /**
+     * Writes the value with volatile semantics.
+     *
+     * @param value the new value
+     */
+    public void setVolatile(long value) {
+        VALUE.setVolatile(this, value);
+    }
+
+    /**
+     * Sets the value to {@code update} if it is {@code expected}.
+     *
+     * @param expected the expected value
+     * @param update   the new value
+     * @return whether the value was updated
+     */
+    public boolean compareAndSet(long expected, long update) {
+        return VALUE.compareAndSet(this, expected, update);
+    }
+
+    /**
+     * Atomically adds {@code increment}.
+     *
+     * @param increment the amount to add
+     * @return the updated value
+     */
+    public long addAndGet(long increment) {
+        return (long) VALUE.getAndAdd(this, increment) + increment;
+    }
+
+    @Override
+    public String toString() {
+        return Long.toString(get());
+    }
+}
+
+abstract class SequenceLhsPadding {
+    long p01, p02, p03, p04, p05, p06, p07;
+}
+
+abstract class SequenceValue extends SequenceLhsPadding {
+    long value;
+}
+
+abstract class SequenceRhsPadding extends SequenceValue {
+    long p11, p12, p13, p14, p15, p16, p17;
+}
@@ -0,0 +1,79 @@
+package io.github.atcurtis.crap4java.parts.ring;
+
+/**
+ * What a consumer waits on: the producers' published sequences and,
+ * optionally, the sequences of upstream consumers it must stay behind.
+ *
+ * <p>Created by {@link Sequencer#newBarrier(Sequence...)}. A barrier can be
+ * {@linkplain #alert() alerted} to wake its consumer, which is how an event
+ * processor is halted.
+ */
+public final class SequenceBarrier {
+
+    private final Sequencer sequencer;
+    private final WaitStrategy waitStrategy;
+    private final Sequence dependency;
+    private volatile boolean alerted;
+
+    SequenceBarrier(Sequencer sequencer, WaitStrategy waitStrategy, Sequence cursor, Sequence[] dependents) {
+        this.sequencer = sequencer;
+        this.waitStrategy = waitStrategy;
+        this.dependency = dependents.length == 0 ? cursor : new FixedSequenceGroup(dependents);
+    }
+
+    /**
+     * Waits until {@code sequence} is readable.
+     *
+     * @param sequence the sequence wanted
+     * @return the highest readable sequence, which may exceed
+     *         {@code sequence} when several events are ready; a lower value
+     *         only if a multi-producer slot is still being filled
+     * @throws AlertException       if the barrier is alerted
+     * @throws InterruptedException if the wait strategy was interrupted
+     */
+    public long waitFor(long sequence) throws AlertException, InterruptedException {
+        checkAlert();
+        long available = waitStrategy.waitFor(sequence, dependency, this);
+        if (available < sequence) {
+            return available;
+        }
+        return sequencer.highestPublished(sequence, available);
+    }
+
+    /**
+     * Alerts the barrier: the current and all later waits throw
+     * {@link AlertException} until {@link #clearAlert()}.
+     */
+    public void alert() {
+        alerted = true;
+        waitStrategy.signalAllWhenBlocking();
+    }
+
+    /**
+     * Clears the alert.
+     */
+    public void clearAlert() {
+        alerted = false;
+    }
+
+    /**
+     * Tells whether the barrier is alerted.
+     *
+     * @return the alert status
+     */
+    public boolean isAlerted() {
+        return alerted;
+    }
+
+    /**
+     * Throws if the barrier is alerted; called by wait strategies while
+     * waiting.
+     *
+     * @throws AlertException if the barrier is alerted
+     */
+    public void checkAlert() throws AlertException {
+        if (alerted) {
+            throw AlertException.INSTANCE;
+        }
+    }
+}
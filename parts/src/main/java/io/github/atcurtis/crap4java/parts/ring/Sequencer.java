@@ -0,0 +1,207 @@
+package io.github.atcurtis.crap4java.parts.ring;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Claims and publishes slots of a ring buffer and keeps producers from
+ * overtaking the slowest consumer.
+ *
+ * <p>A producer {@linkplain #next() claims} a sequence, fills the slot at that
+ * sequence and {@linkplain #publish(long) publishes} it. Consumers register
+ * their own sequences as <em>gating sequences</em>; a claim that would wrap
+ * past the lowest of them waits until the consumer catches up.
+ *
+ * <p>Use {@link SingleProducerSequencer} when one thread publishes, and
+ * {@link MultiProducerSequencer} otherwise.
+ */
+public abstract class Sequencer {
+
+    /**
+     * The number of slots, a power of two.
+     */
+    protected final int bufferSize;
+
+    /**
+     * How consumers wait for published sequences.
+     */
+    protected final WaitStrategy waitStrategy;
+
+    /**
+     * The highest claimed (multi-producer) or published (single producer)
+     * sequence.
+     */
+    protected final Sequence cursor = new Sequence();
+
+    /**
+     * The consumer sequences producers must not overtake.
+     */
+    protected volatile Sequence[] gatingSequences = new Sequence[0];
+
+    Sequencer(int bufferSize, WaitStrategy waitStrategy) {
+        if (bufferSize < 1 || Integer.bitCount(bufferSize) != 1) {
+            throw new IllegalArgumentException("bufferSize must be a power of two: " + bufferSize);
+        }
+        this.bufferSize = bufferSize;
+        this.waitStrategy = Objects.requireNonNull(waitStrategy, "waitStrategy");
+    }
+
+    /**
+     * Returns the lowest value among {@code sequences}, or {@code minimum} if
+     * that is lower.
+     *
+     * @param sequences the sequences
+     * @param minimum   the upper bound of the result
+     * @return the minimum
+     */
+    static long minimumSequence(Sequence[] sequences, long minimum) {
+        for (Sequence sequence : sequences) {
+            minimum = Math.min(minimum, sequence.get());
+        }
+        return minimum;
+    }
+
+    /**
+     * Returns the number of slots.
+     *
+     * @return the buffer size
+     */
+    public final int bufferSize() {
+        return bufferSize;
+    }
+
+    /**
+     * Returns the current value of the cursor.
+     *
+     * @return the cursor value
+     */
+    public final long cursor() {
+        return cursor.get();
+    }
+
+    /**
+     * Adds consumer sequences producers must not overtake. Add them before
+     * publishing starts, or starting at the current cursor.
+     *
+     * @param sequences the sequences
+     */
+    public final synchronized void addGatingSequences(Sequence... sequences) {
+        Sequence[] current = gatingSequences;
+        Sequence[] updated = Arrays.copyOf(current, current.length + sequences.length);
+        long cursorValue = cursor.get();
+        for (int i = 0; i < sequences.length; i++) {
+            Sequence sequence = Objects.requireNonNull(sequences[i], "sequence");
+            if (sequence.get() < cursorValue - bufferSize) {
+                sequence.set(cursorValue);
+            }
+            updated[current.length + i] = sequence;
+        }
+        gatingSequences = updated;
+    }
+
+    /**
+     * Removes a consumer sequence, for example once its consumer has halted.
+     *
+     * @param sequence the sequence
+     * @return whether the sequence was found
+     */
+    public final synchronized boolean removeGatingSequence(Sequence sequence) {
+        Sequence[] current = gatingSequences;
+        for (int i = 0; i < current.length; i++) {
+            if (current[i] == sequence) {
+                Sequence[] updated = new Sequence[current.length - 1];
+                System.arraycopy(current, 0, updated, 0, i);
+                System.arraycopy(current, i + 1, updated, i, current.length - i - 1);
+                gatingSequences = updated;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Creates a barrier for a consumer that follows the producers and the
+     * given upstream consumers.
+     *
+     * @param dependents the sequences of the upstream consumers; none for a
+     *                   consumer reading straight behind the producers
+     * @return the barrier
+     */
+    public final SequenceBarrier newBarrier(Sequence... dependents) {
+        return new SequenceBarrier(this, waitStrategy, cursor, dependents);
+    }
+
+    /**
+     * Returns the number of slots that can be claimed without waiting.
+     *
+     * @return the remaining capacity
+     */
+    public final long remainingCapacity() {
+        long consumed = minimumSequence(gatingSequences, cursor.get());
+        return bufferSize - (cursor.get() - consumed);
+    }
+
+    /**
+     * Claims the next sequence, waiting for consumers if the buffer is full.
+     *
+     * @return the claimed sequence
+     */
+    public final long next() {
+        return next(1);
+    }
+
+    /**
+     * Claims the next {@code n} sequences, waiting for consumers if the
+     * buffer is full.
+     *
+     * @param n the number of sequences, at most the buffer size
+     * @return the highest claimed sequence
+     */
+    public abstract long next(int n);
+
+    /**
+     * Claims the next sequence if that needs no waiting.
+     *
+     * @return the claimed sequence, or {@code -1} if the buffer is full
+     */
+    public abstract long tryNext();
+
+    /**
+     * Publishes a claimed sequence.
+     *
+     * @param sequence the sequence
+     */
+    public abstract void publish(long sequence);
+
+    /**
+     * Publishes a range of claimed sequences.
+     *
+     * @param low  the lowest sequence
+     * @param high the highest sequence
+     */
+    public abstract void publish(long low, long high);
+
+    /**
+     * Tells whether {@code sequence} has been published.
+     *
+     * @param sequence the sequence
+     * @return whether the slot may be read
+     */
+    public abstract boolean isAvailable(long sequence);
+
+    /**
+     * Returns the highest sequence in {@code [low, available]} that can be
+     * read without gaps.
+     *
+     * @param low       the lowest sequence to check
+     * @param available the highest sequence the cursor has reached
+     * @return the highest contiguous published sequence, or {@code low - 1}
+     */
+    public abstract long highestPublished(long low, long available);
+
+    final void checkBatch(int n) {
+        if (n < 1 || n > bufferSize) {
+            throw new IllegalArgumentException("n must be in [1, " + bufferSize + "]: " + n);
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package io.github.atcurtis.crap4java.parts.ring;
+
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Sequencer for a ring buffer with exactly one publishing thread.
+ *
+ * <p>Claiming is plain arithmetic on fields only the producer touches, and
+ * publishing is a single release store of the cursor, so the producer never
+ * executes an atomic read-modify-write. The lowest consumer sequence is
+ * cached and only re-read when a claim could wrap past it.
+ */
+public final class SingleProducerSequencer extends Sequencer {
+
+    private long nextValue = Sequence.INITIAL_VALUE;
+    private long cachedGatingValue = Sequence.INITIAL_VALUE;
+
+    /**
+     * Creates a sequencer.
+     *
+     * @param bufferSize   the number of slots, a power of two
+     * @param waitStrategy how consumers wait
+     */
+    public SingleProducerSequencer(int bufferSize, WaitStrategy waitStrategy) {
+        super(bufferSize, waitStrategy);
+    }
+
+    @Override
+    public long next(int n) {
+        checkBatch(n);
+        long current = nextValue;
+        long next = current + n;
+        long wrapPoint = next - bufferSize;
+        long cached = cachedGatingValue;
+        if (wrapPoint > cached || cached > current) {
+            // Make every write before the claim, including the last publish,
+            // visible before reading the consumers' progress.
+            VarHandle.fullFence();
+            long minimum;
+            while (wrapPoint > (minimum = minimumSequence(gatingSequences, current))) {
+                LockSupport.parkNanos(1);
+            }
+            cachedGatingValue = minimum;
+        }
+        nextValue = next;
+        return next;
+    }
+
+    @Override
+    public long tryNext() {
+        long current = nextValue;
+        long next = current + 1;
+        long wrapPoint = next - bufferSize;
+        long cached = cachedGatingValue;
+        if (wrapPoint > cached || cached > current) {
+            VarHandle.fullFence();
+            long minimum = minimumSequence(gatingSequences, current);
+            cachedGatingValue = minimum;
+            if (wrapPoint > minimum) {
+                return -1;
+            }
+        }
+        nextValue = next;
+        return next;
+    }
+
+    @Override
+    public void publish(long sequence) {
+        cursor.set(sequence);
+        waitStrategy.signalAllWhenBlocking();
+    }
+
+    @Override
+    public void publish(long low, long high) {
+        publish(high);
+    }
+
+    @Override
+    public boolean isAvailable(long sequence) {
+        long current = cursor.get();
+        return sequence <= current && sequence > current - bufferSize;
+    }
+
+    @Override
+    public long highestPublished(long low, long available) {
+        return available;
+    }
+}
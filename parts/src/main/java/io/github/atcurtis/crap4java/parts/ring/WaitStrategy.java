@@ -0,0 +1,34 @@
+package io.github.atcurtis.crap4java.parts.ring;
+
+/**
+ * How a consumer waits for a sequence to become available.
+ *
+ * <p>The strategies trade CPU for latency: {@link BusySpinWaitStrategy} burns
+ * a core for the lowest hand-off latency, {@link YieldingWaitStrategy} gives
+ * the core to other threads between checks, and {@link ParkingWaitStrategy}
+ * sleeps briefly and suits consumers that may be idle for long periods.
+ */
+public interface WaitStrategy {
+
+    /**
+     * Waits until {@code dependency} reaches {@code sequence}.
+     *
+     * @param sequence   the sequence to wait for
+     * @param dependency the sequence to watch: the producer cursor, or the
+     *                   slowest upstream consumer
+     * @param barrier    the barrier waiting, to be checked for alerts
+     * @return the value of {@code dependency} seen, at least {@code sequence}
+     * @throws AlertException       if the barrier was alerted
+     * @throws InterruptedException if the thread was interrupted while
+     *                              waiting
+     */
+    long waitFor(long sequence, Sequence dependency, SequenceBarrier barrier)
+            throws AlertException, InterruptedException;
+
+    /**
+     * Wakes consumers blocked by this strategy after a publish. Strategies
+     * that only spin, yield or time out need not do anything.
+     */
+    default void signalAllWhenBlocking() {
+    }
+}
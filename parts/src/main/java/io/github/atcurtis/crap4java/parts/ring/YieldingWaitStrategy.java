@@ -0,0 +1,32 @@
+package io.github.atcurtis.crap4java.parts.ring;
+
+/**
+ * Spins briefly, then calls {@link Thread#yield()} between checks. Close to
+ * busy-spin latency while letting other runnable threads share the core.
+ */
+public final class YieldingWaitStrategy implements WaitStrategy {
+
+    private static final int SPIN_TRIES = 100;
+
+    /**
+     * Creates the strategy.
+     */
+    public YieldingWaitStrategy() {
+    }
+
+    @Override
+    public long waitFor(long sequence, Sequence dependency, SequenceBarrier barrier) throws AlertException {
+        int counter = SPIN_TRIES;
+        long available;
+        while ((available = dependency.get()) < sequence) {
+            barrier.checkAlert();
+            if (counter > 0) {
+                counter--;
+                Thread.onSpinWait();
+            } else {
+                Thread.yield();
+            }
+        }
+        return available;
+    }
+}
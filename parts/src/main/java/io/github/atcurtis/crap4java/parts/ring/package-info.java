@@ -0,0 +1,5 @@
+/**
+ * Pre-allocated ring buffers for handing events between threads without
+ * locks or per-event allocation, in the style of the LMAX Disruptor.
+ */
+package io.github.atcurtis.crap4java.parts.ring;
@@ -0,0 +1,124 @@
+package io.github.atcurtis.crap4java.parts;
+
+import io.github.atcurtis.crap4java.adaptors.Recyclable;
+import io.github.atcurtis.crap4java.adaptors.jfr.BatchFlushEvent;
+import io.github.atcurtis.crap4java.adaptors.jfr.PoolHitEvent;
+import io.github.atcurtis.crap4java.adaptors.jfr.PoolMissEvent;
+import io.github.atcurtis.crap4java.adaptors.jfr.QueueEmptyEvent;
+import io.github.atcurtis.crap4java.adaptors.jfr.QueueFullEvent;
+import io.github.atcurtis.crap4java.parts.batch.BatchingSink;
+import io.github.atcurtis.crap4java.parts.pool.ObjectPool;
+import io.github.atcurtis.crap4java.parts.queue.MessageQueue;
+import io.github.atcurtis.crap4java.parts.queue.MpscArrayQueue;
+import io.github.atcurtis.crap4java.parts.queue.SpscChunkedQueue;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class FlightRecorderEventsTest {
+
+    static final class Buffer implements Recyclable<Buffer> {
+        @Override
+        public Buffer reset() {
+            return this;
+        }
+    }
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void recordsPoolHitsAndMisses() throws IOException {
+        ObjectPool<Buffer> pool = new ObjectPool<>(Buffer::new, 4, 1);
+        List<RecordedEvent> events = record(() -> {
+            Buffer first = pool.acquire();
+            Buffer second = pool.acquire();
+            pool.release(first);
+            pool.release(second);
+            pool.acquire();
+            pool.acquire();
+        }, PoolHitEvent.class, PoolMissEvent.class);
+
+        assertEquals(List.of("PoolMiss", "PoolMiss", "PoolHit", "PoolHit"), names(events));
+        assertEquals(Buffer.class.getName(), events.get(0).getClass("objectClass").getName());
+        assertEquals(List.of(true, false), events.subList(2, 4).stream()
+                .map(e -> e.getBoolean("threadCache")).toList());
+    }
+
+    @Test
+    void recordsBatchFlushes() throws IOException {
+        List<RecordedEvent> events = record(() -> {
+            BatchingSink<String> sink = BatchingSink.<String>builder()
+                    .downstream(batch -> {
+                        if (batch.contains("boom")) {
+                            throw new IllegalStateException("boom");
+                        }
+                    })
+                    .maxCount(2)
+                    .build();
+            sink.accept("a");
+            sink.accept("b");
+            sink.accept("boom");
+            assertThrows(IllegalStateException.class, sink::close);
+        }, BatchFlushEvent.class);
+
+        assertEquals(List.of("COUNT", "CLOSE"), events.stream().map(e -> e.getString("trigger")).toList());
+        assertEquals(List.of(2, 1), events.stream().map(e -> e.getInt("items")).toList());
+        assertEquals(List.of(false, true), events.stream().map(e -> e.getBoolean("failed")).toList());
+    }
+
+    @Test
+    void recordsFullAndEmptyQueues() throws IOException {
+        MessageQueue<String> bounded = new MpscArrayQueue<>(2);
+        MessageQueue<String> unbounded = new SpscChunkedQueue<>(16);
+        List<RecordedEvent> events = record(() -> {
+            bounded.offer("a");
+            bounded.offer("b");
+            bounded.offer("c");
+            bounded.poll();
+            bounded.poll();
+            bounded.poll();
+            unbounded.poll();
+        }, QueueFullEvent.class, QueueEmptyEvent.class);
+
+        assertEquals(List.of("QueueFull", "QueueEmpty", "QueueEmpty"), names(events));
+        assertEquals(2, events.get(0).getInt("capacity"));
+        assertEquals(MpscArrayQueue.class.getName(), events.get(0).getClass("queueClass").getName());
+        assertEquals(SpscChunkedQueue.class.getName(), events.get(2).getClass("queueClass").getName());
+    }
+
+    /** Runs {@code action} with {@code types} enabled and returns their events in order. */
+    @SafeVarargs
+    private List<RecordedEvent> record(Runnable action, Class<? extends jdk.jfr.Event>... types)
+            throws IOException {
+        Path file = dir.resolve("recording.jfr");
+        try (Recording recording = new Recording()) {
+            for (Class<? extends jdk.jfr.Event> type : types) {
+                recording.enable(type);
+            }
+            recording.start();
+            action.run();
+            recording.stop();
+            recording.dump(file);
+        }
+        return RecordingFile.readAllEvents(file).stream()
+                .filter(e -> e.getEventType().getName().startsWith("io.github.atcurtis.crap4java."))
+                .sorted((a, b) -> a.getStartTime().compareTo(b.getStartTime()))
+                .toList();
+    }
+
+    private static List<String> names(List<RecordedEvent> events) {
+        return events.stream()
+                .map(e -> e.getEventType().getName().substring("io.github.atcurtis.crap4java.".length()))
+                .toList();
+    }
+}
@@ -0,0 +1,127 @@
+package io.github.atcurtis.crap4java.parts.batch;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BatchingSinkTest {
+
+    private final List<List<String>> batches = new CopyOnWriteArrayList<>();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+
+    @AfterEach
+    void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    @Test
+    void flushesOnCount() {
+        BatchingSink<String> sink = BatchingSink.<String>builder()
+                .downstream(batches::add)
+                .maxCount(3)
+                .build();
+
+        List.of("a", "b", "c", "d", "e").forEach(sink);
+        assertEquals(List.of(List.of("a", "b", "c")), batches);
+
+        sink.close();
+        assertEquals(List.of(List.of("a", "b", "c"), List.of("d", "e")), batches);
+        assertEquals(1, sink.metrics().flushes(BatchingSink.Trigger.COUNT));
+        assertEquals(1, sink.metrics().flushes(BatchingSink.Trigger.CLOSE));
+        assertEquals(2.5, sink.metrics().meanBatchSize());
+        assertThrows(IllegalStateException.class, () -> sink.accept("f"));
+    }
+
+    @Test
+    void flushesOnBytes() {
+        BatchingSink<String> sink = BatchingSink.<String>builder()
+                .downstream(batches::add)
+                .maxBytes(8)
+                .sizer(String::length)
+                .build();
+
+        List.of("four", "abc", "x", "12345678", "yz").forEach(sink);
+        sink.flush();
+
+        assertEquals(List.of(List.of("four", "abc", "x"), List.of("12345678"), List.of("yz")), batches);
+        assertEquals(2, sink.metrics().flushes(BatchingSink.Trigger.BYTES));
+        assertEquals(1, sink.metrics().flushes(BatchingSink.Trigger.FLUSH));
+    }
+
+    @Test
+    void flushesOnLinger() throws InterruptedException {
+        FlushMetrics metrics = new FlushMetrics();
+        BatchingSink<String> sink = BatchingSink.<String>builder()
+                .downstream(batches::add)
+                .maxCount(100)
+                .linger(Duration.ofMillis(20))
+                .scheduler(scheduler)
+                .metrics(metrics)
+                .build();
+
+        sink.accept("a");
+        sink.accept("b");
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (batches.isEmpty() && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+
+        assertEquals(List.of(List.of("a", "b")), batches);
+        assertEquals(1, metrics.flushes(BatchingSink.Trigger.LINGER));
+        assertTrue(metrics.maxLatencyNanos() >= TimeUnit.MILLISECONDS.toNanos(20));
+    }
+
+    @Test
+    void countFlushDisarmsLinger() throws InterruptedException {
+        BatchingSink<String> sink = BatchingSink.<String>builder()
+                .downstream(batches::add)
+                .maxCount(2)
+                .linger(Duration.ofMillis(10))
+                .scheduler(scheduler)
+                .build();
+
+        sink.accept("a");
+        sink.accept("b");
+        sink.accept("c");
+        Thread.sleep(100);
+
+        assertEquals(List.of(List.of("a", "b"), List.of("c")), batches);
+        assertEquals(1, sink.metrics().flushes(BatchingSink.Trigger.LINGER));
+    }
+
+    @Test
+    void downstreamFailuresDropTheBatch() {
+        BatchingSink<String> sink = BatchingSink.<String>builder()
+                .downstream(batch -> {
+                    throw new IllegalStateException("store down");
+                })
+                .maxCount(1)
+                .build();
+
+        assertThrows(IllegalStateException.class, () -> sink.accept("a"));
+        assertEquals(1, sink.metrics().failures());
+        sink.close();
+        assertEquals(1, sink.metrics().flushes());
+    }
+
+    @Test
+    void rejectsIncompleteConfiguration() {
+        assertThrows(IllegalArgumentException.class,
+                () -> BatchingSink.<String>builder().downstream(batches::add).build());
+        assertThrows(IllegalArgumentException.class,
+                () -> BatchingSink.<String>builder().downstream(batches::add).maxBytes(10).build());
+        assertThrows(IllegalArgumentException.class,
+                () -> BatchingSink.<String>builder().downstream(batches::add).linger(Duration.ofSeconds(1)).build());
+        assertThrows(NullPointerException.class, () -> BatchingSink.<String>builder().maxCount(1).build());
+    }
+}
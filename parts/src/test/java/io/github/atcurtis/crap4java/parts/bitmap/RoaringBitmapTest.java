@@ -0,0 +1,144 @@
+package io.github.atcurtis.crap4java.parts.bitmap;
+
+import io.github.atcurtis.crap4java.adaptors.primitive.IntAdaptor;
+import org.junit.jupiter.api.Test;
+
+import java.util.BitSet;
+import java.util.PrimitiveIterator;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RoaringBitmapTest {
+
+    /**
+     * Fills a bitmap and a BitSet with the same values: a sparse chunk, a
+     * dense chunk and a clustered chunk, so all three containers take part.
+     */
+    private static RoaringBitmap fill(Random random, BitSet bits, boolean optimize) {
+        RoaringBitmap bitmap = new RoaringBitmap();
+        for (int i = 0; i < 1_000; i++) {
+            int value = random.nextInt(1 << 16);
+            bitmap.add(value);
+            bits.set(value);
+        }
+        for (int i = 0; i < 30_000; i++) {
+            int value = (1 << 16) + random.nextInt(1 << 16);
+            bitmap.add(value);
+            bits.set(value);
+        }
+        for (int run = 0; run < 50; run++) {
+            int start = (2 << 16) + random.nextInt(60_000);
+            int length = 1 + random.nextInt(200);
+            bitmap.addRange(start, start + length);
+            bits.set(start, start + length);
+        }
+        return optimize ? bitmap.runOptimize() : bitmap;
+    }
+
+    private static void assertSame(BitSet expected, RoaringBitmap actual) {
+        assertArrayEquals(expected.stream().toArray(), actual.toArray());
+        assertEquals(expected.cardinality(), actual.cardinality());
+    }
+
+    @Test
+    void setOperationsMatchBitSet() {
+        Random random = new Random(42);
+        for (boolean optimizeA : new boolean[]{false, true}) {
+            for (boolean optimizeB : new boolean[]{false, true}) {
+                BitSet bitsA = new BitSet();
+                BitSet bitsB = new BitSet();
+                RoaringBitmap a = fill(random, bitsA, optimizeA);
+                RoaringBitmap b = fill(random, bitsB, optimizeB);
+                assertSame(bitsA, a);
+
+                BitSet and = (BitSet) bitsA.clone();
+                and.and(bitsB);
+                assertSame(and, RoaringBitmap.and(a, b));
+                assertEquals(and.cardinality(), RoaringBitmap.andCardinality(a, b));
+
+                BitSet or = (BitSet) bitsA.clone();
+                or.or(bitsB);
+                assertSame(or, RoaringBitmap.or(a, b));
+
+                BitSet andNot = (BitSet) bitsA.clone();
+                andNot.andNot(bitsB);
+                assertSame(andNot, RoaringBitmap.andNot(a, b));
+
+                // operands are untouched
+                assertSame(bitsA, a);
+                assertSame(bitsB, b);
+            }
+        }
+    }
+
+    @Test
+    void pointUpdatesConvertContainers() {
+        RoaringBitmap bitmap = new RoaringBitmap();
+        BitSet bits = new BitSet();
+        Random random = new Random(7);
+        // grow one chunk past the array limit and shrink it back, with runs in between
+        for (int i = 0; i < 200_000; i++) {
+            int value = random.nextInt(12_000);
+            if (i % 50_000 == 25_000) {
+                bitmap.runOptimize();
+            }
+            if (i < 100_000 == random.nextInt(4) > 0) {
+                assertEquals(!bits.get(value), bitmap.add(value));
+                bits.set(value);
+            } else {
+                assertEquals(bits.get(value), bitmap.remove(value));
+                bits.clear(value);
+            }
+        }
+        assertSame(bits, bitmap);
+        for (int value = 0; value < 12_000; value++) {
+            assertEquals(bits.get(value), bitmap.contains(value));
+        }
+    }
+
+    @Test
+    void runsCompressClusteredValues() {
+        RoaringBitmap dense = new RoaringBitmap().addRange(0, 1_000_000);
+        assertEquals(1_000_000, dense.cardinality());
+        RoaringBitmap points = RoaringBitmap.from(IntStream.range(0, 1_000_000));
+        assertEquals(dense, points);
+        assertTrue(points.sizeInBytes() > 100_000);
+        assertTrue(points.runOptimize().sizeInBytes() < 1_000);
+        assertEquals(dense, points);
+        assertEquals(dense.hashCode(), points.hashCode());
+
+        assertTrue(points.remove(500_000));
+        assertFalse(points.contains(500_000));
+        assertEquals(999_999, points.cardinality());
+        assertThrows(IllegalArgumentException.class, () -> dense.addRange(5, 4));
+    }
+
+    @Test
+    void valuesAreUnsigned() {
+        RoaringBitmap bitmap = RoaringBitmap.of(-1, 0, Integer.MIN_VALUE, Integer.MAX_VALUE, 7);
+        assertArrayEquals(new int[]{0, 7, Integer.MAX_VALUE, Integer.MIN_VALUE, -1}, bitmap.toArray());
+        assertEquals("{0, 7, 2147483647, 2147483648, 4294967295}", bitmap.toString());
+        assertEquals(2, new RoaringBitmap().addRange((1L << 32) - 2, 1L << 32).cardinality());
+    }
+
+    @Test
+    void adaptsToStreamsIteratorsAndPipelines() {
+        RoaringBitmap bitmap = RoaringBitmap.from(IntStream.of(5, 1, 70_000, 3).iterator());
+        assertArrayEquals(new int[]{1, 3, 5, 70_000}, bitmap.stream().toArray());
+        PrimitiveIterator.OfInt iterator = bitmap.iterator();
+        assertEquals(1, iterator.nextInt());
+        assertEquals(3, iterator.nextInt());
+        assertEquals(5, iterator.nextInt());
+        assertEquals(70_000, iterator.nextInt());
+        assertFalse(iterator.hasNext());
+        assertEquals(9, IntAdaptor.from(bitmap).filter(v -> v < 10).sum());
+        assertEquals(bitmap, RoaringBitmap.from(bitmap));
+        assertFalse(new RoaringBitmap().iterator().hasNext());
+    }
+}
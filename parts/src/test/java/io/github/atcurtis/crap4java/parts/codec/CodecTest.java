@@ -0,0 +1,180 @@
+package io.github.atcurtis.crap4java.parts.codec;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CodecTest {
+
+    private static final long[] EDGES = {
+            0, 1, 127, 128, 16_383, 16_384, Integer.MAX_VALUE, Integer.MIN_VALUE, -1,
+            Long.MAX_VALUE, Long.MIN_VALUE, 1L << 35, (1L << 56) - 1, 1L << 56, 1L << 63 >>> 1,
+    };
+
+    /** The textbook encoder, one byte per group. */
+    private static int referenceSize(long value) {
+        int size = 1;
+        while ((value & ~0x7FL) != 0) {
+            value >>>= 7;
+            size++;
+        }
+        return size;
+    }
+
+    @Test
+    void varintsRoundTripAtEveryGroupBoundary() {
+        byte[] bytes = new byte[Varint.MAX_LONG_BYTES];
+        for (int bit = 0; bit < 64; bit++) {
+            for (long value : new long[]{1L << bit, (1L << bit) - 1, -(1L << bit)}) {
+                int end = Varint.putLong(bytes, 0, value);
+                assertEquals(referenceSize(value), end);
+                assertEquals(end, Varint.sizeOf(value));
+                assertEquals(end, Varint.length(bytes, 0));
+                assertEquals(value, Varint.getLong(bytes, 0));
+
+                int narrow = (int) value;
+                end = Varint.putInt(bytes, 0, narrow);
+                assertEquals(referenceSize(narrow & 0xFFFFFFFFL), end);
+                assertEquals(end, Varint.sizeOf(narrow));
+                assertEquals(narrow, Varint.getInt(bytes, 0));
+            }
+        }
+    }
+
+    @Test
+    void zigZagKeepsSmallMagnitudesShort() {
+        assertArrayEquals(new long[]{0, 1, 2, 3, 4},
+                LongStream.of(0, -1, 1, -2, 2).map(ZigZag::encode).toArray());
+        for (long value : EDGES) {
+            assertEquals(value, ZigZag.decode(ZigZag.encode(value)));
+            assertEquals((int) value, ZigZag.decode(ZigZag.encode((int) value)));
+        }
+        byte[] bytes = new byte[Varint.MAX_LONG_BYTES];
+        assertEquals(1, Varint.putSignedLong(bytes, 0, -64));
+        assertEquals(-64, Varint.getSignedLong(bytes, 0));
+        assertEquals(1, Varint.putSignedInt(bytes, 0, 63));
+        assertEquals(63, Varint.getSignedInt(bytes, 0));
+    }
+
+    @Test
+    void bulkMatchesSingleValues() {
+        Random random = new Random(42);
+        long[] values = new long[1_000];
+        for (int i = 0; i < values.length; i++) {
+            // mix magnitudes so every encoded length appears
+            values[i] = random.nextLong() >>> random.nextInt(64);
+        }
+        System.arraycopy(EDGES, 0, values, 0, EDGES.length);
+        byte[] bulk = new byte[values.length * Varint.MAX_LONG_BYTES];
+        int end = Varint.encode(values, 0, values.length, bulk, 0);
+        byte[] single = new byte[bulk.length];
+        int offset = 0;
+        for (long value : values) {
+            offset = Varint.putLong(single, offset, value);
+        }
+        assertEquals(offset, end);
+        assertArrayEquals(single, bulk);
+
+        long[] decoded = new long[values.length];
+        assertEquals(end, Varint.decode(bulk, 0, decoded, 0, values.length));
+        assertArrayEquals(values, decoded);
+
+        end = Varint.encodeSigned(values, 0, values.length, bulk, 0);
+        assertEquals(end, Varint.decodeSigned(bulk, 0, decoded, 0, values.length));
+        assertArrayEquals(values, decoded);
+    }
+
+    @Test
+    void bulkEncodingWritesNothingPastItsEnd() {
+        long[][] runs = {{200}, {1L << 40, 1, 2}, {300, 1L << 50}, EDGES};
+        for (long[] values : runs) {
+            byte[] bytes = new byte[values.length * Varint.MAX_LONG_BYTES + Long.BYTES];
+            Arrays.fill(bytes, (byte) 0x5A);
+            int end = Varint.encode(values, 0, values.length, bytes, 0);
+            for (int i = end; i < bytes.length; i++) {
+                assertEquals((byte) 0x5A, bytes[i], "byte " + i + " past " + end);
+            }
+            long[] decoded = new long[values.length];
+            assertEquals(end, Varint.decode(bytes, 0, decoded, 0, values.length));
+            assertArrayEquals(values, decoded);
+        }
+    }
+
+    @Test
+    void buffersMatchArrays() {
+        for (ByteBuffer buffer : new ByteBuffer[]{ByteBuffer.allocate(64), ByteBuffer.allocateDirect(64)}) {
+            for (long value : EDGES) {
+                buffer.clear();
+                Varint.putLong(buffer, value);
+                Varint.putInt(buffer, (int) value);
+                assertEquals(Varint.sizeOf(value) + Varint.sizeOf((int) value), buffer.position());
+                buffer.flip();
+                assertEquals(value, Varint.getLong(buffer));
+                assertEquals((int) value, Varint.getInt(buffer));
+            }
+            // a full buffer falls back to per-byte puts and still fits exactly
+            ByteBuffer tight = buffer.clear().limit(2);
+            Varint.putLong(tight, 300);
+            assertEquals(2, tight.position());
+        }
+    }
+
+    @Test
+    void malformedVarintsAreRejected() {
+        byte[] tooLong = new byte[12];
+        Arrays.fill(tooLong, (byte) 0x80);
+        assertThrows(IllegalArgumentException.class, () -> Varint.getLong(tooLong, 0));
+        assertThrows(IllegalArgumentException.class, () -> Varint.getInt(tooLong, 0));
+        assertThrows(IllegalArgumentException.class, () -> Varint.length(tooLong, 0));
+        assertThrows(IllegalArgumentException.class, () -> Varint.decode(tooLong, 0, new long[1], 0, 1));
+        assertThrows(ArrayIndexOutOfBoundsException.class, () -> Varint.getLong(new byte[]{(byte) 0x80}, 0));
+    }
+
+    @Test
+    void fixedWidthMatchesByteBufferOrder() {
+        byte[] bytes = new byte[8];
+        for (ByteOrder order : new ByteOrder[]{ByteOrder.LITTLE_ENDIAN, ByteOrder.BIG_ENDIAN}) {
+            boolean little = order == ByteOrder.LITTLE_ENDIAN;
+            ByteBuffer wrapped = ByteBuffer.wrap(bytes).order(order);
+            ByteBuffer direct = ByteBuffer.allocateDirect(8);
+            for (long value : EDGES) {
+                assertEquals(8, little ? FixedWidth.putLongLE(bytes, 0, value) : FixedWidth.putLongBE(bytes, 0, value));
+                assertEquals(value, wrapped.getLong(0));
+                if (little) {
+                    FixedWidth.putLongLE(direct, 0, value);
+                    assertEquals(value, direct.order(order).getLong(0));
+                    assertEquals((int) value, FixedWidth.getIntLE(bytes, 0));
+                    assertEquals((short) value, FixedWidth.getShortLE(direct, 0));
+                } else {
+                    FixedWidth.putLongBE(direct, 0, value);
+                    assertEquals(value, direct.order(order).getLong(0));
+                    assertEquals((int) (value >>> 32), FixedWidth.getIntBE(bytes, 0));
+                    assertEquals((short) (value >>> 48), FixedWidth.getShortBE(direct, 0));
+                }
+            }
+
+            long[] longs = LongStream.of(EDGES).toArray();
+            byte[] packed = new byte[longs.length * 8];
+            assertEquals(packed.length, FixedWidth.putLongs(longs, 0, longs.length, packed, 0, order));
+            long[] unpacked = new long[longs.length];
+            FixedWidth.getLongs(packed, 0, unpacked, 0, longs.length, order);
+            assertArrayEquals(longs, unpacked);
+            assertEquals(longs[3], ByteBuffer.wrap(packed).order(order).getLong(24));
+
+            int[] ints = {1, -1, Integer.MIN_VALUE, 0x01020304};
+            byte[] packedInts = new byte[16];
+            FixedWidth.putInts(ints, 0, ints.length, packedInts, 0, order);
+            int[] unpackedInts = new int[4];
+            FixedWidth.getInts(packedInts, 0, unpackedInts, 0, 4, order);
+            assertArrayEquals(ints, unpackedInts);
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package io.github.atcurtis.crap4java.parts.columnar;
+
+import io.github.atcurtis.crap4java.adaptors.Pipeline;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ColumnarStoreTest {
+
+    @Columnar(name = "TickFlyweight")
+    interface Tick {
+        long timestamp();
+
+        void timestamp(long value);
+
+        double price();
+
+        void price(double value);
+
+        int quantity();
+
+        void quantity(int value);
+
+        boolean buy();
+
+        void buy(boolean value);
+
+        short venue();
+    }
+
+    @Test
+    void storesRecordsColumnWiseAndSurvivesGrowth() {
+        ColumnarStore store = TickFlyweight.newStore(2);
+        assertEquals(5, store.columnCount());
+        assertEquals(8, store.width(0));
+        assertEquals(2, store.width(4));
+
+        TickFlyweight writer = new TickFlyweight(store);
+        for (int i = 0; i < 1000; i++) {
+            writer.append();
+            writer.timestamp(1_000_000L + i);
+            writer.price(i / 4.0);
+            writer.quantity(i * 10);
+            writer.buy(i % 3 == 0);
+        }
+        assertEquals(1000, store.size());
+        assertTrue(store.capacity() >= 1000);
+
+        TickFlyweight reader = new TickFlyweight(store).moveTo(999);
+        assertEquals(1_000_999L, reader.timestamp());
+        assertEquals(249.75, reader.price());
+        assertEquals(9990, reader.quantity());
+        assertTrue(reader.buy());
+        assertEquals(0, reader.venue());
+        assertEquals("Tick[timestamp=1000999, price=249.75, quantity=9990, buy=true, venue=0]", reader.toString());
+        // the writer created before growth still sees the live columns
+        assertEquals(1_000_000L, writer.moveTo(0).timestamp());
+    }
+
+    @Test
+    void iteratesWithOneView() {
+        ColumnarStore store = TickFlyweight.newStore(16);
+        TickFlyweight t = new TickFlyweight(store);
+        for (int i = 0; i < 10; i++) {
+            t.append().quantity(i);
+        }
+        long sum = 0;
+        for (t.rewind(); t.next(); ) {
+            sum += t.quantity();
+        }
+        assertEquals(45, sum);
+        assertEquals(20, Pipeline.from(t.asSource()).filter(v -> v.quantity() % 2 == 0).mapToInt(Tick::quantity).sum());
+
+        store.clear();
+        assertFalse(t.rewind().next());
+        assertEquals("Tick[]", t.toString());
+    }
+
+    @Test
+    void rejectsMismatchedStoresAndIndexes() {
+        assertThrows(IllegalArgumentException.class, () -> new TickFlyweight(new ColumnarStore(4, 8, 8)));
+        TickFlyweight t = new TickFlyweight(TickFlyweight.newStore(4));
+        assertThrows(IndexOutOfBoundsException.class, () -> t.moveTo(0));
+        assertThrows(IllegalArgumentException.class, () -> new ColumnarStore(4, 3));
+    }
+}
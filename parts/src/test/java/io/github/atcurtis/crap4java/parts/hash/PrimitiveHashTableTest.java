@@ -0,0 +1,169 @@
+package io.github.atcurtis.crap4java.parts.hash;
+
+import io.github.atcurtis.crap4java.adaptors.primitive.IntAdaptor;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PrimitiveHashTableTest {
+
+    @Test
+    void longLongMapMatchesHashMap() {
+        LongLongHashMap map = new LongLongHashMap();
+        Map<Long, Long> expected = new HashMap<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 200_000; i++) {
+            // a narrow key range forces long probe chains and many removals
+            long key = random.nextInt(2_000) - 1_000;
+            long value = random.nextLong();
+            switch (random.nextInt(3)) {
+                case 0 -> assertEquals(nullToZero(expected.put(key, value)), map.put(key, value));
+                case 1 -> assertEquals(nullToZero(expected.remove(key)), map.remove(key));
+                default -> assertEquals(nullToZero(expected.get(key)), map.get(key));
+            }
+        }
+        assertEquals(expected.size(), map.size());
+        Map<Long, Long> actual = new HashMap<>();
+        map.forEach(actual::put);
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    void intObjectMapMatchesHashMap() {
+        IntObjectHashMap<String> map = new IntObjectHashMap<>(4);
+        Map<Integer, String> expected = new HashMap<>();
+        Random random = new Random(7);
+        for (int i = 0; i < 200_000; i++) {
+            int key = random.nextInt(3_000) - 1_500;
+            if (random.nextBoolean()) {
+                String value = Integer.toString(i);
+                assertEquals(expected.put(key, value), map.put(key, value));
+            } else {
+                assertEquals(expected.remove(key), map.remove(key));
+            }
+        }
+        assertEquals(expected.size(), map.size());
+        for (int key = -1_500; key < 1_500; key++) {
+            assertEquals(expected.get(key), map.get(key));
+            assertEquals(expected.containsKey(key), map.containsKey(key));
+        }
+        Map<Integer, String> actual = new HashMap<>();
+        map.forEach(actual::put);
+        assertEquals(expected, actual);
+        int[] values = new int[1];
+        map.values().forEachWhile(value -> ++values[0] > 0);
+        assertEquals(expected.size(), values[0]);
+    }
+
+    private static long nullToZero(Long value) {
+        return value == null ? 0 : value;
+    }
+
+    @Test
+    void zeroKeyAndMissingValue() {
+        IntIntHashMap map = new IntIntHashMap(8, 0.5f, -1);
+        assertEquals(-1, map.get(0));
+        assertFalse(map.containsKey(0));
+        assertEquals(-1, map.put(0, 5));
+        assertEquals(5, map.put(0, 6));
+        assertTrue(map.containsKey(0));
+        assertEquals(1, map.size());
+        assertEquals(3, map.getOrDefault(9, 3));
+        assertEquals(6, map.remove(0));
+        assertEquals(-1, map.remove(0));
+        assertTrue(map.isEmpty());
+
+        IntObjectHashMap<String> objects = new IntObjectHashMap<>();
+        objects.put(0, "zero");
+        assertEquals("zero", objects.get(0));
+        assertThrows(NullPointerException.class, () -> objects.put(1, null));
+    }
+
+    @Test
+    void addToCountsFromZero() {
+        LongLongHashMap counts = new LongLongHashMap(8, 0.5f, -1);
+        for (long key : new long[]{3, 0, 3, 7, 0, 3}) {
+            counts.addTo(key, 1);
+        }
+        assertEquals(3, counts.get(3));
+        assertEquals(2, counts.get(0));
+        assertEquals(1, counts.get(7));
+        assertEquals(-1, counts.get(8));
+        assertEquals(3, counts.size());
+    }
+
+    @Test
+    void computeIfAbsentStoresOnce() {
+        LongObjectHashMap<StringBuilder> map = new LongObjectHashMap<>();
+        int[] calls = new int[1];
+        for (int i = 0; i < 3; i++) {
+            map.computeIfAbsent(11L, key -> {
+                calls[0]++;
+                return new StringBuilder();
+            }).append(i);
+        }
+        assertEquals("012", map.get(11L).toString());
+        assertEquals(1, calls[0]);
+        assertNull(map.computeIfAbsent(12L, key -> null));
+        assertFalse(map.containsKey(12L));
+    }
+
+    @Test
+    void setsAddRemoveAndFeedPipelines() {
+        IntHashSet set = new IntHashSet();
+        Set<Integer> expected = new HashSet<>();
+        Random random = new Random(3);
+        for (int i = 0; i < 100_000; i++) {
+            int value = random.nextInt(1_000) - 500;
+            if (random.nextInt(3) > 0) {
+                assertEquals(expected.add(value), set.add(value));
+            } else {
+                assertEquals(expected.remove(value), set.remove(value));
+            }
+        }
+        assertEquals(expected.size(), set.size());
+        assertEquals(expected.stream().mapToInt(Integer::intValue).sum(), IntAdaptor.from(set).sum());
+        assertEquals(expected.size(), set.toArray().length);
+        for (int value = -500; value < 500; value++) {
+            assertEquals(expected.contains(value), set.contains(value));
+        }
+
+        LongHashSet longs = new LongHashSet();
+        assertTrue(longs.add(0));
+        assertFalse(longs.add(0));
+        assertTrue(longs.add(Long.MIN_VALUE));
+        assertEquals("[0, " + Long.MIN_VALUE + "]", longs.toString());
+    }
+
+    @Test
+    void sizingIsSharedAcrossTables() {
+        LongHashSet set = new LongHashSet(0);
+        int initial = set.tableSize();
+        for (long value = 1; value <= 1_000; value++) {
+            set.add(value);
+        }
+        assertTrue(set.tableSize() >= 1_000 / set.loadFactor());
+        set.clear().trimToSize();
+        assertEquals(initial, set.tableSize());
+        assertTrue(set.isEmpty());
+
+        IntIntHashMap map = new IntIntHashMap().ensureCapacity(10_000);
+        int reserved = map.tableSize();
+        for (int key = 1; key <= 10_000; key++) {
+            map.put(key, key);
+        }
+        assertEquals(reserved, map.tableSize());
+        assertThrows(IllegalArgumentException.class, () -> new IntHashSet(8, 1f));
+        assertThrows(IllegalArgumentException.class, () -> new IntHashSet(-1));
+    }
+}
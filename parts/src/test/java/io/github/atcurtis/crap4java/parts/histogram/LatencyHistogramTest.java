@@ -0,0 +1,138 @@
+package io.github.atcurtis.crap4java.parts.histogram;
+
+import io.github.atcurtis.crap4java.adaptors.hidden.HiddenAdaptorFactory;
+import io.github.atcurtis.crap4java.parts.queue.MessageQueue;
+import io.github.atcurtis.crap4java.parts.queue.SpscArrayQueue;
+import org.junit.jupiter.api.Test;
+
+import java.lang.invoke.MethodHandles;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LatencyHistogramTest {
+
+    private static final long HOUR = TimeUnit.HOURS.toNanos(1);
+
+    @Test
+    void reportsPercentilesWithinPrecision() {
+        LatencyHistogram histogram = new LatencyHistogram(HOUR, 2);
+        for (long value = 1; value <= 1_000_000; value++) {
+            histogram.record(value * 1_000);
+        }
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        assertEquals(1_000_000, snapshot.count());
+        assertWithin(500_000_000, snapshot.valueAtPercentile(50), 0.01);
+        assertWithin(990_000_000, snapshot.valueAtPercentile(99), 0.01);
+        assertWithin(999_000_000, snapshot.valueAtPercentile(99.9), 0.01);
+        assertWithin(1_000_000_000, snapshot.max(), 0.01);
+        assertEquals(1_000, snapshot.min());
+        assertWithin(500_000_500, (long) snapshot.mean(), 0.01);
+        assertThrows(IllegalArgumentException.class, () -> snapshot.valueAtPercentile(100.1));
+    }
+
+    @Test
+    void countsSmallValuesExactlyAndClampsOutliers() {
+        LatencyHistogram histogram = new LatencyHistogram(1_000, 3);
+        for (long value = 0; value < 2_000; value++) {
+            histogram.record(value);
+        }
+        histogram.record(-7);
+        histogram.record(Long.MAX_VALUE, 3);
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        assertEquals(2, snapshot.countAt(0));
+        assertEquals(1, snapshot.countAt(999));
+        assertEquals(1_000 + 3, snapshot.countAt(1_000));
+        assertEquals(0, snapshot.valueAtPercentile(0));
+        assertEquals(1_000, snapshot.valueAtPercentile(50));
+        assertEquals(1_000, snapshot.max());
+        assertThrows(IllegalArgumentException.class, () -> new LatencyHistogram(HOUR, 6));
+        assertThrows(IllegalArgumentException.class, () -> new LatencyHistogram(0, 2));
+    }
+
+    @Test
+    void intervalSnapshotsEmptyTheHistogram() {
+        LatencyHistogram histogram = new LatencyHistogram(HOUR, 2);
+        histogram.record(10);
+        histogram.record(20);
+        assertEquals(2, histogram.intervalSnapshot().count());
+        histogram.record(30);
+        LatencyHistogram.Snapshot second = histogram.intervalSnapshot();
+        assertEquals(1, second.count());
+        assertEquals(30, second.min());
+        assertEquals(0, histogram.snapshot().count());
+        assertEquals(0, histogram.intervalSnapshot().valueAtPercentile(99));
+    }
+
+    @Test
+    void mergesSnapshotsOfTheSameLayout() {
+        LatencyHistogram a = new LatencyHistogram(HOUR, 2);
+        LatencyHistogram b = new LatencyHistogram(HOUR, 2);
+        a.record(1_000);
+        b.record(1_000_000, 9);
+        LatencyHistogram.Snapshot merged = a.snapshot().plus(b.snapshot());
+        assertEquals(10, merged.count());
+        assertWithin(1_000, merged.valueAtPercentile(10), 0.01);
+        assertWithin(1_000_000, merged.valueAtPercentile(11), 0.01);
+
+        a.add(b.snapshot());
+        assertEquals(10, a.snapshot().count());
+        LatencyHistogram other = new LatencyHistogram(HOUR, 3);
+        assertThrows(IllegalArgumentException.class, () -> a.add(other.snapshot()));
+        assertThrows(IllegalArgumentException.class, () -> merged.plus(other.snapshot()));
+    }
+
+    @Test
+    void recordsFromManyThreadsWithoutLosingCounts() throws InterruptedException {
+        LatencyHistogram histogram = new LatencyHistogram(HOUR, 2);
+        List<LatencyHistogram.Snapshot> intervals = new ArrayList<>();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            threads.add(Thread.ofPlatform().start(() -> {
+                for (int i = 0; i < 100_000; i++) {
+                    histogram.record(i % 5_000);
+                }
+            }));
+        }
+        for (int i = 0; i < 10; i++) {
+            intervals.add(histogram.intervalSnapshot());
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        intervals.add(histogram.intervalSnapshot());
+        assertEquals(400_000, intervals.stream().reduce(LatencyHistogram.Snapshot::plus).orElseThrow().count());
+    }
+
+    @Test
+    void adaptorTimesEveryMethodOfAPart() {
+        MessageQueue<String> queue = new SpscArrayQueue<>(4);
+        LatencyAdaptor<MessageQueue<String>> timed = LatencyAdaptor.wrap(
+                HiddenAdaptorFactory.create(MethodHandles.lookup()), MessageQueue.class, queue,
+                () -> new LatencyHistogram(HOUR, 2));
+        MessageQueue<String> adaptor = timed.adaptor();
+
+        assertTrue(adaptor.offer("a"));
+        assertTrue(adaptor.offer("b"));
+        assertEquals("a", adaptor.poll());
+        assertEquals(1, adaptor.drain(e -> { }, 10));
+        assertEquals(null, adaptor.poll());
+        assertThrows(NullPointerException.class, () -> adaptor.offer(null));
+
+        assertEquals(3, timed.histogram("offer(Object)").snapshot().count());
+        assertEquals(2, timed.histogram("poll()").snapshot().count());
+        assertEquals(1, timed.histogram("drain(Consumer, int)").snapshot().count());
+        assertEquals(0, timed.histogram("capacity()").snapshot().count());
+        assertEquals(3, timed.intervalSnapshots().get("offer(Object)").count());
+        assertEquals(0, timed.histogram("offer(Object)").snapshot().count());
+        assertThrows(IllegalArgumentException.class, () -> timed.histogram("offer"));
+    }
+
+    private static void assertWithin(long expected, long actual, double relative) {
+        assertTrue(Math.abs(actual - expected) <= expected * relative, () -> actual + " vs " + expected);
+    }
+}
@@ -0,0 +1,142 @@
+package io.github.atcurtis.crap4java.parts.json;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JsonReaderTest {
+
+    private static final String DOCUMENT = """
+            {"id": 42, "name": "caf\\u00e9 \\"bar\\"\\n", "tags": ["a", "", "\\\\"],
+             "price": -12.5e-1, "big": 123456789012345678901, "flag": true, "none": null,
+             "nested": {"deep": [[], {}, [1, {"x": false}]]}, "last": -0}
+            """;
+
+    @Test
+    void readsEveryToken() throws IOException {
+        for (JsonReader in : List.of(JsonReader.of(DOCUMENT), JsonReader.of(trickle(DOCUMENT)))) {
+            in.beginObject();
+            assertEquals("id", in.nextName());
+            assertEquals(42, in.nextInt());
+            assertEquals("name", in.nextName());
+            assertEquals("café \"bar\"\n", in.nextString());
+            assertEquals("tags", in.nextName());
+            in.beginArray();
+            List<String> tags = new ArrayList<>();
+            while (in.hasNext()) {
+                tags.add(in.nextString());
+            }
+            in.endArray();
+            assertEquals(List.of("a", "", "\\"), tags);
+            assertEquals("price", in.nextName());
+            assertEquals(-1.25, in.nextDouble());
+            assertEquals("big", in.nextName());
+            assertEquals(JsonToken.NUMBER, in.peek());
+            assertThrows(IllegalStateException.class, in::nextLong);
+            assertEquals(1.2345678901234568E20, in.nextDouble());
+            assertEquals("flag", in.nextName());
+            assertTrue(in.nextBoolean());
+            assertEquals("none", in.nextName());
+            assertTrue(in.nextIfNull());
+            assertEquals("nested", in.nextName());
+            in.skipValue();
+            assertEquals("last", in.nextName());
+            assertEquals(0L, in.nextLong());
+            assertFalse(in.hasNext());
+            in.endObject();
+            assertEquals(JsonToken.END_DOCUMENT, in.peek());
+            in.close();
+        }
+    }
+
+    @Test
+    void parsesNumbersExactly() throws IOException {
+        JsonReader in = JsonReader.of("[999999999999999999, -9223372036854775808, 9223372036854775807, "
+                + "1.5e3, 2147483648, 0.1, 123456789012345, -0, 0, -0.0]");
+        in.beginArray();
+        assertEquals(999_999_999_999_999_999L, in.nextLong());
+        assertEquals(Long.MIN_VALUE, in.nextLong());
+        assertEquals(Long.MAX_VALUE, in.nextLong());
+        assertEquals(1500, in.nextInt());
+        assertThrows(IllegalStateException.class, in::nextInt);
+        assertEquals(2_147_483_648L, in.nextLong());
+        assertThrows(IllegalStateException.class, in::nextLong);
+        assertEquals(0.1, in.nextDouble());
+        assertEquals(123_456_789_012_345.0, in.nextDouble());
+        assertEquals(-0.0, in.nextDouble());
+        assertEquals(0.0, in.nextDouble());
+        assertEquals(-0.0, in.nextDouble());
+        in.endArray();
+    }
+
+    @Test
+    void selectsNamesWithoutDecodingThem() throws IOException {
+        JsonNames names = JsonNames.of("alpha", "beta", "gamma");
+        JsonReader in = JsonReader.of("{\"beta\": 1, \"delta\": {\"alpha\": [2]}, \"g\\u0061mma\": 3, \"alpha\": 4}");
+        in.beginObject();
+        assertEquals(1, in.selectName(names));
+        assertEquals(1, in.nextInt());
+        assertEquals(-1, in.selectName(names));
+        in.skipValue();
+        assertEquals(2, in.selectName(names));
+        assertEquals(3, in.nextInt());
+        in.skipValue();
+        in.endObject();
+        assertThrows(IllegalArgumentException.class, () -> JsonNames.of("a", "a"));
+    }
+
+    @Test
+    void streamsTokensLongerThanTheBuffer() throws IOException {
+        String big = "x".repeat(20_000) + "\\t" + "y".repeat(10_000);
+        JsonReader in = JsonReader.of(trickle("[\"" + big + "\", \"" + big + "\", 7]"));
+        in.beginArray();
+        assertEquals("x".repeat(20_000) + "\t" + "y".repeat(10_000), in.nextString());
+        in.skipValue();
+        assertEquals(7, in.nextInt());
+        in.endArray();
+        assertEquals(JsonToken.END_DOCUMENT, in.peek());
+    }
+
+    @Test
+    void leavesMismatchedTokensInPlace() throws IOException {
+        JsonReader in = JsonReader.of("[\"1\"]");
+        in.beginArray();
+        IllegalStateException e = assertThrows(IllegalStateException.class, in::nextInt);
+        assertEquals("expected NUMBER but was STRING at offset 2", e.getMessage());
+        assertEquals("1", in.nextString());
+    }
+
+    @Test
+    void rejectsMalformedInput() {
+        for (String json : List.of("{\"a\": 1,}", "[1,]", "{\"a\" 1}", "[01]", "[1.]", "[-]", "[tru]",
+                "[truex]", "\"open", "{\"a\": 1} 2", "[\"\\x\"]", "[\"\\u12g4\"]", "{1: 2}", "[1 2]", "",
+                "[\"tab\there\"]")) {
+            assertThrows(MalformedJsonException.class, () -> drain(JsonReader.of(json)), json);
+        }
+    }
+
+    /** Consumes every token of {@code in}. */
+    private static void drain(JsonReader in) throws IOException {
+        in.skipValue();
+        in.peek();
+    }
+
+    /** Returns a reader delivering one character per read. */
+    private static Reader trickle(String text) {
+        return new StringReader(text) {
+            @Override
+            public int read(char[] cbuf, int off, int len) throws IOException {
+                return super.read(cbuf, off, Math.min(len, 1));
+            }
+        };
+    }
+}
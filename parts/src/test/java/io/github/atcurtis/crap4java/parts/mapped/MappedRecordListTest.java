@@ -0,0 +1,111 @@
+package io.github.atcurtis.crap4java.parts.mapped;
+
+import io.github.atcurtis.crap4java.adaptors.Pipeline;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MappedRecordListTest {
+
+    @TempDir
+    Path dir;
+
+    static final class Quote extends RecordView<Quote> {
+        long id() {
+            return buffer.getLong(offset);
+        }
+
+        double price() {
+            return buffer.getDouble(offset + 8);
+        }
+    }
+
+    static final class Text extends RecordView<Text> {
+        String text() {
+            return string(0, length, StandardCharsets.UTF_8);
+        }
+    }
+
+    private Path writeQuotes(int count) throws IOException {
+        ByteBuffer bytes = ByteBuffer.allocate(count * 16 + 5).order(ByteOrder.LITTLE_ENDIAN);
+        for (int i = 0; i < count; i++) {
+            bytes.putLong(i).putDouble(i * 0.5);
+        }
+        return Files.write(dir.resolve("quotes"), bytes.array());
+    }
+
+    private Path writeTexts(String... texts) throws IOException {
+        ByteBuffer bytes = ByteBuffer.allocate(1 << 16);
+        for (String text : texts) {
+            byte[] utf8 = text.getBytes(StandardCharsets.UTF_8);
+            bytes.putInt(utf8.length).put(utf8);
+        }
+        byte[] content = new byte[bytes.position()];
+        bytes.flip().get(content);
+        return Files.write(dir.resolve("texts"), content);
+    }
+
+    @Test
+    void fixedRecordsAcrossSegments() throws IOException {
+        Path file = writeQuotes(100);
+        // 40-byte segments hold two 16-byte records each
+        MappedRecordList<Quote> quotes =
+                MappedRecordList.openFixed(file, 16, ByteOrder.LITTLE_ENDIAN, Quote::new, 40);
+        assertEquals(100, quotes.size());
+        Quote shared = quotes.get(0);
+        assertSame(shared, quotes.get(57));
+        assertEquals(57, shared.id());
+        assertEquals(28.5, shared.price());
+
+        Quote own = quotes.newView();
+        assertNotSame(shared, own);
+        assertEquals(99, quotes.get(99, own).id());
+        assertEquals(57, shared.id());
+        assertEquals(4950, Pipeline.from(quotes.asSource()).mapToLong(Quote::id).sum());
+        assertThrows(IndexOutOfBoundsException.class, () -> quotes.get(100));
+    }
+
+    @Test
+    void fixedRecordsWithDefaultSegments() throws IOException {
+        MappedRecordList<Quote> quotes =
+                MappedRecordList.openFixed(writeQuotes(1000), 16, ByteOrder.LITTLE_ENDIAN, Quote::new);
+        assertEquals(1000, quotes.size());
+        assertEquals(499.5, quotes.get(999).price());
+    }
+
+    @Test
+    void lengthPrefixedRecordsAcrossSegments() throws IOException {
+        String[] texts = {"alpha", "", "gamma ray", "délta", "e"};
+        Path file = writeTexts(texts);
+        MappedRecordList<Text> list = MappedRecordList.openLengthPrefixed(file, ByteOrder.BIG_ENDIAN, Text::new, 16);
+        assertEquals(texts.length, list.size());
+        for (int i = texts.length - 1; i >= 0; i--) {
+            assertEquals(texts[i], list.get(i).text());
+        }
+        assertEquals(6, list.get(3).length());
+        assertTrue(Pipeline.from(list.asSource()).anyMatch(t -> t.text().startsWith("gamma")));
+    }
+
+    @Test
+    void rejectsTruncatedLengthPrefixedFiles() throws IOException {
+        Path file = writeTexts("complete", "partial");
+        byte[] bytes = Files.readAllBytes(file);
+        Files.write(file, java.util.Arrays.copyOf(bytes, bytes.length - 2));
+        assertThrows(IOException.class, () -> MappedRecordList.openLengthPrefixed(file, ByteOrder.BIG_ENDIAN, Text::new));
+
+        Files.write(file, new byte[0]);
+        assertTrue(MappedRecordList.openLengthPrefixed(file, ByteOrder.BIG_ENDIAN, Text::new).isEmpty());
+    }
+}
@@ -0,0 +1,154 @@
+package io.github.atcurtis.crap4java.parts.persistent;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PersistentCollectionsTest {
+
+    /** A key whose hash collides with every other key of the same group. */
+    record Colliding(int group, int id) {
+        @Override
+        public int hashCode() {
+            return group;
+        }
+    }
+
+    @Test
+    void mapMatchesHashMapAndKeepsSnapshots() {
+        Random random = new Random(42);
+        PersistentMap<Object, Integer> map = PersistentMap.empty();
+        Map<Object, Integer> expected = new HashMap<>();
+        List<PersistentMap<Object, Integer>> snapshots = new ArrayList<>();
+        List<Map<Object, Integer>> expectedSnapshots = new ArrayList<>();
+        for (int i = 0; i < 50_000; i++) {
+            // integers spread over the trie; colliding keys exercise the bottom level
+            Object key = random.nextBoolean()
+                    ? (Object) random.nextInt(5_000)
+                    : new Colliding(random.nextInt(4) * 0x10000, random.nextInt(8));
+            if (random.nextInt(3) > 0) {
+                map = map.with(key, i);
+                expected.put(key, i);
+            } else {
+                map = map.without(key);
+                expected.remove(key);
+            }
+            if (i % 5_000 == 0) {
+                snapshots.add(map);
+                expectedSnapshots.add(new HashMap<>(expected));
+            }
+        }
+        assertEquals(expected, map);
+        assertEquals(expected.size(), map.size());
+        for (int i = 0; i < snapshots.size(); i++) {
+            assertEquals(expectedSnapshots.get(i), snapshots.get(i));
+        }
+        for (Object key : expected.keySet()) {
+            map = map.without(key);
+        }
+        assertTrue(map.isEmpty());
+        assertEquals(PersistentMap.empty(), map);
+    }
+
+    @Test
+    void mapUpdatesShareUnchangedState() {
+        PersistentMap<String, Integer> map = PersistentMap.<String, Integer>empty().with("a", 1);
+        Integer one = map.get("a");
+        assertSame(map, map.with("a", one));
+        assertSame(map, map.without("missing"));
+        assertNull(map.get(null));
+        assertThrows(NullPointerException.class, () -> map.with("b", null));
+        assertThrows(UnsupportedOperationException.class, () -> map.put("b", 2));
+    }
+
+    @Test
+    void transientMapBuildsInPlace() {
+        PersistentMap<Integer, Integer> base = PersistentMap.<Integer, Integer>empty().with(-1, -1);
+        PersistentMap.Transient<Integer, Integer> builder = base.asTransient();
+        for (int i = 0; i < 10_000; i++) {
+            builder.put(i, i);
+        }
+        builder.put(5, 50).remove(6).remove(-1);
+        assertEquals(9_999, builder.size());
+        PersistentMap<Integer, Integer> built = builder.persistent();
+        assertEquals(50, built.get(5));
+        assertNull(built.get(6));
+        assertEquals(9_999, built.size());
+        // the map the transient started from is untouched
+        assertEquals(Map.of(-1, -1), base);
+        assertThrows(IllegalStateException.class, () -> builder.put(1, 1));
+
+        Map<Integer, Integer> source = new HashMap<>();
+        IntStream.range(0, 1_000).forEach(i -> source.put(i, -i));
+        assertEquals(source, PersistentMap.from(source));
+    }
+
+    @Test
+    void vectorMatchesArrayListAndKeepsSnapshots() {
+        PersistentVector<Integer> vector = PersistentVector.empty();
+        List<Integer> expected = new ArrayList<>();
+        List<PersistentVector<Integer>> snapshots = new ArrayList<>();
+        // cross several trie levels: 32, 1024 and 32768 elements
+        for (int i = 0; i < 40_000; i++) {
+            vector = vector.append(i);
+            expected.add(i);
+            if (i % 7_919 == 0) {
+                snapshots.add(vector);
+            }
+        }
+        assertEquals(expected, vector);
+        Random random = new Random(5);
+        for (int i = 0; i < 1_000; i++) {
+            int index = random.nextInt(expected.size());
+            vector = vector.with(index, -index);
+            expected.set(index, -index);
+        }
+        assertEquals(expected, vector);
+        for (int i = 0; i < snapshots.size(); i++) {
+            assertEquals(IntStream.rangeClosed(0, i * 7_919).boxed().toList(), snapshots.get(i));
+        }
+        while (!expected.isEmpty()) {
+            vector = vector.withoutLast();
+            expected.remove(expected.size() - 1);
+            if (expected.size() % 997 == 0) {
+                assertEquals(expected, vector);
+            }
+        }
+        assertSame(PersistentVector.empty(), vector);
+        assertThrows(IllegalStateException.class, vector::withoutLast);
+        assertThrows(IndexOutOfBoundsException.class, () -> PersistentVector.of(1).get(1));
+    }
+
+    @Test
+    void transientVectorBuildsInPlace() {
+        PersistentVector<Integer> base = PersistentVector.of(1, 2, 3);
+        PersistentVector.Transient<Integer> builder = base.asTransient();
+        for (int i = 0; i < 100_000; i++) {
+            builder.add(i);
+        }
+        builder.set(0, 100).set(50_000, -1).set(100_002, -2);
+        PersistentVector<Integer> built = builder.persistent();
+        assertEquals(100_003, built.size());
+        assertEquals(100, built.get(0));
+        assertEquals(-1, built.get(50_000));
+        assertEquals(-2, built.get(100_002));
+        assertEquals(List.of(1, 2, 3), base);
+        assertThrows(IllegalStateException.class, () -> builder.add(1));
+
+        List<Integer> copy = new ArrayList<>();
+        built.forEach(copy::add);
+        assertEquals(built, copy);
+        assertEquals(built.append(7).subList(100_000, 100_004), List.of(99_997, 99_998, -2, 7));
+    }
+}
@@ -0,0 +1,103 @@
+package io.github.atcurtis.crap4java.parts.pool;
+
+import io.github.atcurtis.crap4java.adaptors.Recyclable;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ObjectPoolTest {
+
+    static final class Buffer implements Recyclable<Buffer> {
+        final StringBuilder text = new StringBuilder();
+        final AtomicBoolean inUse = new AtomicBoolean();
+
+        @Override
+        public Buffer reset() {
+            text.setLength(0);
+            return this;
+        }
+    }
+
+    @Test
+    void reusesAndResetsObjects() {
+        AtomicInteger created = new AtomicInteger();
+        ObjectPool<Buffer> pool = new ObjectPool<>(() -> {
+            created.incrementAndGet();
+            return new Buffer();
+        }, 4, 1);
+
+        Buffer first = pool.acquire();
+        first.text.append("dirty");
+        pool.release(first);
+        Buffer again = pool.acquire();
+        assertSame(first, again);
+        assertEquals("", again.text.toString());
+
+        Buffer second = pool.acquire();
+        pool.release(again);
+        pool.release(second);
+        // the thread cache is consulted before the shared slots
+        assertSame(again, pool.acquire());
+        assertSame(second, pool.acquire());
+
+        assertEquals(2, created.get());
+        ObjectPool.Stats stats = pool.stats();
+        assertEquals(2, stats.threadHits());
+        assertEquals(1, stats.sharedHits());
+        assertEquals(2, stats.misses());
+        assertEquals(0.6, stats.hitRatio(), 1e-9);
+    }
+
+    @Test
+    void dropsObjectsWhenFull() {
+        ObjectPool<Buffer> pool = new ObjectPool<>(Buffer::new, 2, 0);
+        List<Buffer> held = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            held.add(pool.acquire());
+        }
+        held.forEach(pool::release);
+        assertEquals(3, pool.stats().drops());
+        assertEquals("x", pool.with(b -> b.text.append("x").toString()));
+        assertEquals(1, pool.stats().sharedHits());
+    }
+
+    @Test
+    void neverHandsOutAnObjectTwice() throws Exception {
+        ObjectPool<Buffer> pool = new ObjectPool<>(Buffer::new, 16, 2);
+        AtomicBoolean overlap = new AtomicBoolean();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 50_000; i++) {
+                        Buffer b = pool.acquire();
+                        if (!b.inUse.compareAndSet(false, true)) {
+                            overlap.set(true);
+                        }
+                        b.inUse.set(false);
+                        pool.release(b);
+                    }
+                }));
+            }
+            for (Future<?> f : futures) {
+                f.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertFalse(overlap.get());
+        assertTrue(pool.stats().hitRatio() > 0.9);
+    }
+}
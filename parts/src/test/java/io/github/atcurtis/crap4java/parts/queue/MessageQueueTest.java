@@ -0,0 +1,144 @@
+package io.github.atcurtis.crap4java.parts.queue;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MessageQueueTest {
+
+    static Stream<Arguments> queues() {
+        return Stream.of(
+                Arguments.of("SpscArrayQueue", (Supplier<MessageQueue<Integer>>) () -> new SpscArrayQueue<>(1024), false),
+                Arguments.of("MpscArrayQueue", (Supplier<MessageQueue<Integer>>) () -> new MpscArrayQueue<>(1024), true),
+                Arguments.of("SpscChunkedQueue", (Supplier<MessageQueue<Integer>>) () -> new SpscChunkedQueue<>(16), false),
+                Arguments.of("MpscChunkedQueue", (Supplier<MessageQueue<Integer>>) () -> new MpscChunkedQueue<>(16), true));
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("queues")
+    void isFifo(String name, Supplier<MessageQueue<Integer>> factory, boolean multiProducer) {
+        MessageQueue<Integer> queue = factory.get();
+        assertTrue(queue.isEmpty());
+        assertNull(queue.poll());
+        assertNull(queue.peek());
+
+        for (int i = 0; i < 100; i++) {
+            assertTrue(queue.offer(i));
+        }
+        assertEquals(100, queue.size());
+        assertEquals(0, queue.peek());
+        for (int i = 0; i < 100; i++) {
+            assertEquals(i, queue.poll());
+        }
+        assertTrue(queue.isEmpty());
+        assertThrows(NullPointerException.class, () -> queue.offer(null));
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("queues")
+    void drainsInBatches(String name, Supplier<MessageQueue<Integer>> factory, boolean multiProducer) {
+        MessageQueue<Integer> queue = factory.get();
+        for (int i = 0; i < 50; i++) {
+            queue.offer(i);
+        }
+        List<Integer> drained = new ArrayList<>();
+
+        assertEquals(20, queue.drain(drained::add, 20));
+        assertEquals(30, queue.drain(drained::add));
+        assertEquals(0, queue.drain(drained::add));
+        assertEquals(50, drained.size());
+        for (int i = 0; i < 50; i++) {
+            assertEquals(i, drained.get(i));
+        }
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("queues")
+    void drainKeepsItsPlaceWhenTheConsumerThrows(String name, Supplier<MessageQueue<Integer>> factory,
+                                                boolean multiProducer) {
+        MessageQueue<Integer> queue = factory.get();
+        for (int i = 0; i < 40; i++) {
+            queue.offer(i);
+        }
+        assertThrows(IllegalStateException.class, () -> queue.drain(v -> {
+            if (v == 20) {
+                throw new IllegalStateException();
+            }
+        }, 40));
+        assertEquals(19, queue.size());
+        assertEquals(21, queue.poll());
+        assertEquals(18, queue.drain(v -> { }));
+        assertTrue(queue.isEmpty());
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("queues")
+    void concurrentProducersLoseNothing(String name, Supplier<MessageQueue<Integer>> factory, boolean multiProducer)
+            throws InterruptedException {
+        MessageQueue<Integer> queue = factory.get();
+        int producers = multiProducer ? 4 : 1;
+        int perProducer = 50_000;
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            int producer = p;
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < perProducer; i++) {
+                    Integer value = producer * perProducer + i;
+                    while (!queue.offer(value)) {
+                        Thread.onSpinWait();
+                    }
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+
+        int[] next = new int[producers];
+        int received = 0;
+        long deadline = System.nanoTime() + 20_000_000_000L;
+        while (received < producers * perProducer && System.nanoTime() < deadline) {
+            Integer value = (received & 1) == 0 ? queue.poll() : null;
+            if (value == null) {
+                received += queue.drain(v -> assertEquals(next[v / perProducer]++, v % perProducer), 64);
+                continue;
+            }
+            int producer = value / perProducer;
+            assertEquals(next[producer]++, value % perProducer, "per-producer order");
+            received++;
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(producers * perProducer, received);
+        assertTrue(queue.isEmpty());
+    }
+
+    @Test
+    void boundedQueuesRejectWhenFull() {
+        for (MessageQueue<Integer> queue : List.<MessageQueue<Integer>>of(new SpscArrayQueue<>(5),
+                new MpscArrayQueue<>(5))) {
+            assertEquals(8, queue.capacity());
+            for (int i = 0; i < 8; i++) {
+                assertTrue(queue.offer(i));
+            }
+            assertFalse(queue.offer(8));
+            assertEquals(0, queue.poll());
+            assertTrue(queue.offer(8));
+            assertEquals(8, queue.size());
+        }
+        assertEquals(MessageQueue.UNBOUNDED, new MpscChunkedQueue<Integer>().capacity());
+    }
+}
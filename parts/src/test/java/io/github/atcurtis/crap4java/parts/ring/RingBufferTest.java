@@ -0,0 +1,161 @@
+package io.github.atcurtis.crap4java.parts.ring;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RingBufferTest {
+
+    /**
+     * A self-typed mutable event slot.
+     */
+    static final class LongEvent {
+        long value;
+
+        LongEvent value(long value) {
+            this.value = value;
+            return this;
+        }
+    }
+
+    private static Thread start(Runnable processor) {
+        Thread thread = new Thread(processor, "processor");
+        thread.setDaemon(true);
+        thread.start();
+        return thread;
+    }
+
+    @Test
+    void singleProducerDeliversInOrder() throws InterruptedException {
+        RingBuffer<LongEvent> ring = RingBuffer.singleProducer(LongEvent::new, 64, new YieldingWaitStrategy());
+        List<Long> seen = new ArrayList<>();
+        CountDownLatch done = new CountDownLatch(1);
+        BatchEventProcessor<LongEvent> processor = new BatchEventProcessor<>(ring, ring.newBarrier(),
+                (event, sequence, endOfBatch) -> {
+                    seen.add(event.value);
+                    if (event.value == 9_999) {
+                        done.countDown();
+                    }
+                });
+        ring.addGatingSequences(processor.sequence());
+        Thread thread = start(processor);
+
+        for (long i = 0; i < 10_000; i++) {
+            ring.publishEvent(LongEvent::value, i);
+        }
+
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        processor.halt();
+        thread.join(5_000);
+        assertFalse(processor.isRunning());
+        assertEquals(10_000, seen.size());
+        for (int i = 0; i < seen.size(); i++) {
+            assertEquals(i, seen.get(i));
+        }
+    }
+
+    @Test
+    void multipleProducersLoseNothing() throws InterruptedException {
+        RingBuffer<LongEvent> ring = RingBuffer.multiProducer(LongEvent::new, 128, new BusySpinWaitStrategy());
+        AtomicLong sum = new AtomicLong();
+        AtomicLong count = new AtomicLong();
+        BatchEventProcessor<LongEvent> processor = new BatchEventProcessor<>(ring, ring.newBarrier(),
+                (event, sequence, endOfBatch) -> {
+                    sum.addAndGet(event.value);
+                    count.incrementAndGet();
+                });
+        ring.addGatingSequences(processor.sequence());
+        Thread consumer = start(processor);
+
+        int producers = 4;
+        int perProducer = 25_000;
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            Thread thread = new Thread(() -> {
+                for (int i = 1; i <= perProducer; i++) {
+                    long sequence = ring.next();
+                    ring.get(sequence).value(i);
+                    ring.publish(sequence);
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (count.get() < (long) producers * perProducer && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        processor.halt();
+        consumer.join(5_000);
+
+        assertEquals((long) producers * perProducer, count.get());
+        assertEquals(producers * (long) perProducer * (perProducer + 1) / 2, sum.get());
+    }
+
+    @Test
+    void tryNextRefusesToWrap() {
+        RingBuffer<LongEvent> ring = RingBuffer.multiProducer(LongEvent::new, 4, new BusySpinWaitStrategy());
+        Sequence consumer = new Sequence();
+        ring.addGatingSequences(consumer);
+
+        for (int i = 0; i < 4; i++) {
+            assertTrue(ring.tryPublishEvent(LongEvent::value, (long) i));
+        }
+        assertFalse(ring.tryPublishEvent(LongEvent::value, 4L));
+        assertEquals(0, ring.remainingCapacity());
+
+        consumer.set(1);
+        assertEquals(2, ring.remainingCapacity());
+        assertEquals(4, ring.tryNext());
+    }
+
+    @Test
+    void consumersCanBeChained() throws Exception {
+        RingBuffer<LongEvent> ring = RingBuffer.singleProducer(LongEvent::new, 16,
+                new ParkingWaitStrategy(50, TimeUnit.MICROSECONDS));
+        BatchEventProcessor<LongEvent> doubler = new BatchEventProcessor<>(ring, ring.newBarrier(),
+                (event, sequence, endOfBatch) -> event.value *= 2);
+        List<Long> seen = new ArrayList<>();
+        CountDownLatch done = new CountDownLatch(100);
+        BatchEventProcessor<LongEvent> reader = new BatchEventProcessor<>(ring,
+                ring.newBarrier(doubler.sequence()),
+                (event, sequence, endOfBatch) -> {
+                    seen.add(event.value);
+                    done.countDown();
+                });
+        ring.addGatingSequences(reader.sequence());
+        start(doubler);
+        start(reader);
+
+        for (long i = 0; i < 100; i++) {
+            ring.publishEvent(LongEvent::value, i);
+        }
+
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        doubler.halt();
+        reader.halt();
+        for (int i = 0; i < 100; i++) {
+            assertEquals(2L * i, seen.get(i));
+        }
+    }
+
+    @Test
+    void rejectsBadSizes() {
+        assertThrows(IllegalArgumentException.class,
+                () -> RingBuffer.singleProducer(LongEvent::new, 12, new BusySpinWaitStrategy()));
+        RingBuffer<LongEvent> ring = RingBuffer.singleProducer(LongEvent::new, 8, new BusySpinWaitStrategy());
+        assertThrows(IllegalArgumentException.class, () -> ring.next(9));
+    }
+}
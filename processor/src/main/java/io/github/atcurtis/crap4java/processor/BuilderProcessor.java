@@ -0,0 +1,210 @@
+package io.github.atcurtis.crap4java.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.RecordComponentElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.TypeMirror;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Generates a concrete {@code AbstractBuilder} subclass for every record or
+ * constructor annotated with {@code @GenerateBuilder}.
+ *
+ * <p>The generated builder keeps one field per property, its setters are
+ * plain field stores returning {@code this}, and {@code build()} invokes the
+ * constructor directly. Every method is small and monomorphic, so the JIT
+ * inlines a complete {@code new XBuilder().a(..).b(..).build()} chain and
+ * scalar-replaces the builder when it does not escape.
+ */
+@SupportedAnnotationTypes(BuilderProcessor.GENERATE_BUILDER)
+public final class BuilderProcessor extends AbstractProcessor {
+
+    static final String GENERATE_BUILDER = "io.github.atcurtis.crap4java.adaptors.builder.GenerateBuilder";
+    static final String ABSTRACT_BUILDER = "io.github.atcurtis.crap4java.adaptors.builder.AbstractBuilder";
+
+    /**
+     * Names that would clash with methods inherited from the builder base or
+     * {@link Object} when used as setter names.
+     */
+    private static final Set<String> RESERVED = Set.of(
+            "build", "reset", "apply", "applyIf", "self", "from",
+            "getClass", "hashCode", "equals", "toString", "notify", "notifyAll", "wait", "clone", "finalize");
+
+    /**
+     * Creates the processor; invoked by the compiler through the service
+     * loader.
+     */
+    public BuilderProcessor() {
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment round) {
+        for (TypeElement annotation : annotations) {
+            for (Element element : round.getElementsAnnotatedWith(annotation)) {
+                try {
+                    write(model(element, processingEnv));
+                } catch (GenerationException e) {
+                    processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, e.getMessage(), e.element());
+                } catch (IOException e) {
+                    processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                            "cannot write builder: " + e.getMessage(), element);
+                }
+            }
+        }
+        return true;
+    }
+
+    record Property(String name, TypeMirror type) {
+    }
+
+    record Model(Element origin, TypeElement target, String builderName, String setterPrefix,
+                 List<Property> properties, boolean copyable) {
+
+        String setter(Property property) {
+            return setterPrefix.isEmpty() ? property.name() : setterPrefix + ModelSupport.capitalize(property.name());
+        }
+    }
+
+    /**
+     * Builds the model of the builder requested by {@code element}, a record
+     * or constructor annotated with {@code @GenerateBuilder}. Other generators
+     * driving the builder use it to find the builder class and its setters.
+     */
+    static Model model(Element element, ProcessingEnvironment env) throws GenerationException {
+        TypeElement target;
+        List<Property> properties = new ArrayList<>();
+        boolean copyable;
+        if (element.getKind() == ElementKind.RECORD) {
+            target = (TypeElement) element;
+            for (RecordComponentElement component : target.getRecordComponents()) {
+                properties.add(new Property(component.getSimpleName().toString(), component.asType()));
+            }
+            copyable = true;
+        } else if (element.getKind() == ElementKind.CONSTRUCTOR) {
+            ExecutableElement constructor = (ExecutableElement) element;
+            target = (TypeElement) constructor.getEnclosingElement();
+            ModelSupport.checkInvocable(constructor, env.getTypeUtils(), env.getElementUtils());
+            for (VariableElement parameter : constructor.getParameters()) {
+                properties.add(new Property(parameter.getSimpleName().toString(), parameter.asType()));
+            }
+            copyable = false;
+        } else {
+            throw new GenerationException(element, "@GenerateBuilder must be placed on a record or a constructor");
+        }
+        ModelSupport.checkInstantiable(target, element);
+
+        AnnotationMirror mirror = ModelSupport.annotation(element, GENERATE_BUILDER);
+        String name = ModelSupport.attribute(mirror, "name", "");
+        if (name.isEmpty()) {
+            name = ModelSupport.flatName(target) + "Builder";
+        }
+        String prefix = ModelSupport.attribute(mirror, "setterPrefix", "");
+        for (Property property : properties) {
+            if (prefix.isEmpty() && RESERVED.contains(property.name())) {
+                throw new GenerationException(element, "property '" + property.name()
+                        + "' clashes with a builder method; set @GenerateBuilder(setterPrefix = ...)");
+            }
+        }
+        return new Model(element, target, name, prefix, properties, copyable);
+    }
+
+    private void write(Model model) throws IOException {
+        TypeElement target = model.target();
+        String pkg = ModelSupport.packageName(target);
+        String typeParams = ModelSupport.typeParameters(target);
+        String typeArgs = ModelSupport.typeArguments(target);
+        String targetRef = ModelSupport.typeReference(target);
+        String self = model.builderName() + typeArgs;
+
+        SourceWriter w = new SourceWriter();
+        if (!pkg.isEmpty()) {
+            w.line("package %s;", pkg).blank();
+        }
+        w.line("/**");
+        w.line(" * Builder for {@link %s}.", target.getQualifiedName());
+        w.line(" */");
+        if (processingEnv.getElementUtils().getTypeElement("javax.annotation.processing.Generated") != null) {
+            w.line("@javax.annotation.processing.Generated(\"%s\")", getClass().getName());
+        }
+        w.open("%sfinal class %s%s extends %s<%s, %s>",
+                ModelSupport.isPublic(target) ? "public " : "", model.builderName(), typeParams,
+                ABSTRACT_BUILDER, targetRef, self);
+        for (Property p : model.properties()) {
+            w.line("private %s %s;", p.type(), p.name());
+        }
+
+        w.blank().line("/**").line(" * Creates a builder with every property at its default value.").line(" */");
+        w.open("public %s()", model.builderName()).close();
+
+        for (Property p : model.properties()) {
+            String setter = model.setter(p);
+            w.blank().line("/**");
+            w.line(" * Sets {@code %s}.", p.name());
+            w.line(" *");
+            w.line(" * @param %s the new value", p.name());
+            w.line(" * @return this builder");
+            w.line(" */");
+            w.open("public %s %s(%s %s)", self, setter, p.type(), p.name());
+            w.line("this.%s = %s;", p.name(), p.name());
+            w.line("return this;");
+            w.close();
+        }
+
+        if (model.copyable()) {
+            w.blank().line("/**");
+            w.line(" * Copies every property from {@code source}.");
+            w.line(" *");
+            w.line(" * @param source the instance to copy");
+            w.line(" * @return this builder");
+            w.line(" */");
+            w.open("public %s from(%s source)", self, targetRef);
+            for (Property p : model.properties()) {
+                w.line("this.%s = source.%s();", p.name(), p.name());
+            }
+            w.line("return this;");
+            w.close();
+        }
+
+        w.blank().line("@Override");
+        w.open("public %s reset()", self);
+        for (Property p : model.properties()) {
+            w.line("this.%s = %s;", p.name(), ModelSupport.defaultValue(p.type()));
+        }
+        w.line("return this;");
+        w.close();
+
+        w.blank().line("@Override");
+        w.open("public %s build()", targetRef);
+        w.line("return new %s%s(%s);", target.getQualifiedName(), typeArgs.isEmpty() ? "" : "<>",
+                model.properties().stream().map(Property::name).collect(Collectors.joining(", ")));
+        w.close();
+        w.close();
+
+        String qualified = pkg.isEmpty() ? model.builderName() : pkg + "." + model.builderName();
+        JavaFileObject file = processingEnv.getFiler().createSourceFile(qualified, model.origin());
+        try (Writer out = file.openWriter()) {
+            out.write(w.toString());
+        }
+    }
+}
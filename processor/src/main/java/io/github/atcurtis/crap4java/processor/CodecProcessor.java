@@ -0,0 +1,352 @@
+package io.github.atcurtis.crap4java.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.RecordComponentElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Generates a {@code MessageCodec} for every record annotated with
+ * {@code @GenerateCodec}.
+ *
+ * <p>{@code write} is one null or zero check, a key byte and a varint or
+ * fixed-width store per component; {@code read} is a single loop switching on
+ * the key into locals, followed by a direct constructor call. Nested records
+ * call the static instance of their own generated codec, so a whole message
+ * tree is encoded by monomorphic calls the JIT can inline.
+ */
+@SupportedAnnotationTypes(CodecProcessor.GENERATE_CODEC)
+public final class CodecProcessor extends AbstractProcessor {
+
+    static final String GENERATE_CODEC = "io.github.atcurtis.crap4java.parts.codec.GenerateCodec";
+    static final String TAG = "io.github.atcurtis.crap4java.parts.codec.Tag";
+    static final String MESSAGE_CODEC = "io.github.atcurtis.crap4java.parts.codec.MessageCodec";
+    static final String WIRE = "io.github.atcurtis.crap4java.parts.codec.Wire";
+    static final String VARINT = "io.github.atcurtis.crap4java.parts.codec.Varint";
+    static final String ZIGZAG = "io.github.atcurtis.crap4java.parts.codec.ZigZag";
+
+    /** Mirrors {@code Wire.MAX_TAG}. */
+    private static final int MAX_TAG = (1 << 29) - 1;
+
+    /**
+     * Creates the processor; invoked by the compiler through the service
+     * loader.
+     */
+    public CodecProcessor() {
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment round) {
+        for (TypeElement annotation : annotations) {
+            for (Element element : round.getElementsAnnotatedWith(annotation)) {
+                try {
+                    write(model(element));
+                } catch (GenerationException e) {
+                    processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, e.getMessage(), e.element());
+                } catch (IOException e) {
+                    processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                            "cannot write codec: " + e.getMessage(), element);
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * How one component is encoded. In {@code write}, {@code %s} stands for
+     * the value, preceded by the nested codec for messages; in {@code read},
+     * for the nested codec or the enum constants.
+     */
+    private enum Kind {
+        BOOLEAN(0, "%s", "out.put((byte) 1);", VARINT + ".getInt(in) != 0"),
+        BYTE(0, "%s != 0", VARINT + ".putInt(out, " + ZIGZAG + ".encode(%s));",
+                "(byte) " + ZIGZAG + ".decode(" + VARINT + ".getInt(in))"),
+        SHORT(0, "%s != 0", VARINT + ".putInt(out, " + ZIGZAG + ".encode(%s));",
+                "(short) " + ZIGZAG + ".decode(" + VARINT + ".getInt(in))"),
+        CHAR(0, "%s != 0", VARINT + ".putInt(out, %s);", "(char) " + VARINT + ".getInt(in)"),
+        INT(0, "%s != 0", VARINT + ".putInt(out, " + ZIGZAG + ".encode(%s));",
+                ZIGZAG + ".decode(" + VARINT + ".getInt(in))"),
+        LONG(0, "%s != 0", VARINT + ".putLong(out, " + ZIGZAG + ".encode(%s));",
+                ZIGZAG + ".decode(" + VARINT + ".getLong(in))"),
+        FLOAT(5, "Float.floatToRawIntBits(%s) != 0", WIRE + ".putFixed32(out, Float.floatToRawIntBits(%s));",
+                "Float.intBitsToFloat(" + WIRE + ".getFixed32(in))"),
+        DOUBLE(1, "Double.doubleToRawLongBits(%s) != 0", WIRE + ".putFixed64(out, Double.doubleToRawLongBits(%s));",
+                "Double.longBitsToDouble(" + WIRE + ".getFixed64(in))"),
+        STRING(2, "%s != null", WIRE + ".putString(out, %s);", WIRE + ".getString(in)"),
+        BYTES(2, "%s != null", WIRE + ".putBytes(out, %s);", WIRE + ".getBytes(in)"),
+        ENUM(0, "%s != null", VARINT + ".putInt(out, %s.ordinal());",
+                WIRE + ".constant(%s, " + VARINT + ".getInt(in))"),
+        MESSAGE(3, "%s != null", "%s.INSTANCE.write(%s, out);", "%s.INSTANCE.read(in)");
+
+        final int wireType;
+        final String present;
+        final String write;
+        final String read;
+
+        Kind(int wireType, String present, String write, String read) {
+            this.wireType = wireType;
+            this.present = present;
+            this.write = write;
+            this.read = read;
+        }
+    }
+
+    /**
+     * One component. {@code type} is the declared type, or the element type
+     * of a repeated component; {@code codec} names the nested codec class.
+     */
+    private record Field(String name, int tag, Kind kind, TypeMirror declared, String type, String codec,
+                         boolean repeated) {
+
+        int key() {
+            return tag << 3 | kind.wireType;
+        }
+    }
+
+    private record Model(TypeElement record, String className, List<Field> fields) {
+    }
+
+    private Model model(Element element) throws GenerationException {
+        if (element.getKind() != ElementKind.RECORD) {
+            throw new GenerationException(element, "@GenerateCodec must be placed on a record");
+        }
+        TypeElement record = (TypeElement) element;
+        if (!record.getTypeParameters().isEmpty()) {
+            throw new GenerationException(element, "@GenerateCodec records must not be generic");
+        }
+        ModelSupport.checkAccessible(record, element);
+
+        List<Field> fields = new ArrayList<>();
+        Map<Integer, String> tags = new HashMap<>();
+        for (RecordComponentElement component : record.getRecordComponents()) {
+            String name = component.getSimpleName().toString();
+            AnnotationMirror tagged = ModelSupport.annotation(component, TAG);
+            if (tagged == null) {
+                // a positional default would renumber every later component
+                // when one is removed or reordered
+                throw new GenerationException(component, "component '" + name + "' needs a @Tag");
+            }
+            int tag = ModelSupport.attribute(tagged, "value", 0);
+            if (tag < 1 || tag > MAX_TAG) {
+                throw new GenerationException(component, "tag must be between 1 and " + MAX_TAG + ": " + tag);
+            }
+            String previous = tags.putIfAbsent(tag, name);
+            if (previous != null) {
+                throw new GenerationException(component, "tag " + tag + " is already used by '" + previous + "'");
+            }
+            fields.add(field(component, name, tag));
+        }
+
+        String name = ModelSupport.attribute(ModelSupport.annotation(element, GENERATE_CODEC), "name", "");
+        if (name.isEmpty()) {
+            name = ModelSupport.flatName(record) + "Codec";
+        }
+        return new Model(record, name, fields);
+    }
+
+    private Field field(RecordComponentElement component, String name, int tag) throws GenerationException {
+        TypeMirror type = component.asType();
+        if (ModelSupport.isPrimitive(type)) {
+            return new Field(name, tag, Kind.valueOf(type.getKind().name()), type, type.toString(), null, false);
+        }
+        if (type.getKind() == TypeKind.ARRAY && type.toString().equals("byte[]")) {
+            return new Field(name, tag, Kind.BYTES, type, "byte[]", null, false);
+        }
+        if (type.getKind() == TypeKind.DECLARED) {
+            DeclaredType declared = (DeclaredType) type;
+            TypeElement element = (TypeElement) declared.asElement();
+            if (element.getQualifiedName().contentEquals("java.util.List")
+                    && declared.getTypeArguments().size() == 1) {
+                Field item = single(component, name, tag, declared.getTypeArguments().get(0));
+                if (item != null) {
+                    return new Field(name, tag, item.kind(), type, item.type(), item.codec(), true);
+                }
+            } else {
+                Field single = single(component, name, tag, type);
+                if (single != null) {
+                    return single;
+                }
+            }
+        }
+        throw new GenerationException(component, "unsupported component type " + type
+                + "; use a primitive, String, byte[], an enum, a @GenerateCodec record or a List of the latter three");
+    }
+
+    /**
+     * Resolves the reference types that may also appear as list elements.
+     */
+    private Field single(RecordComponentElement component, String name, int tag, TypeMirror type)
+            throws GenerationException {
+        if (type.getKind() != TypeKind.DECLARED) {
+            return null;
+        }
+        TypeElement element = (TypeElement) ((DeclaredType) type).asElement();
+        String qualified = element.getQualifiedName().toString();
+        if (qualified.equals("java.lang.String")) {
+            return new Field(name, tag, Kind.STRING, type, qualified, null, false);
+        }
+        if (element.getKind() == ElementKind.ENUM) {
+            return new Field(name, tag, Kind.ENUM, type, qualified, null, false);
+        }
+        AnnotationMirror nested = ModelSupport.annotation(element, GENERATE_CODEC);
+        if (element.getKind() == ElementKind.RECORD && nested != null) {
+            if (!element.getTypeParameters().isEmpty()) {
+                throw new GenerationException(component, "nested record " + qualified + " must not be generic");
+            }
+            String codec = ModelSupport.attribute(nested, "name", "");
+            if (codec.isEmpty()) {
+                codec = ModelSupport.flatName(element) + "Codec";
+            }
+            String pkg = ModelSupport.packageName(element);
+            return new Field(name, tag, Kind.MESSAGE, type, qualified, pkg.isEmpty() ? codec : pkg + "." + codec,
+                    false);
+        }
+        return null;
+    }
+
+    private void write(Model model) throws IOException {
+        TypeElement record = model.record();
+        String pkg = ModelSupport.packageName(record);
+        String self = model.className();
+        String target = record.getQualifiedName().toString();
+        List<Field> fields = model.fields();
+
+        SourceWriter w = new SourceWriter();
+        if (!pkg.isEmpty()) {
+            w.line("package %s;", pkg).blank();
+        }
+        w.line("/**");
+        w.line(" * Binary codec for {@link %s}.", target);
+        w.line(" */");
+        if (processingEnv.getElementUtils().getTypeElement("javax.annotation.processing.Generated") != null) {
+            w.line("@javax.annotation.processing.Generated(\"%s\")", getClass().getName());
+        }
+        w.open("%sfinal class %s implements %s<%s>",
+                ModelSupport.isPublic(record) ? "public " : "", self, MESSAGE_CODEC, target);
+        w.line("/** The shared instance; the codec is stateless. */");
+        w.line("public static final %s INSTANCE = new %s();", self, self);
+        for (int i = 0; i < fields.size(); i++) {
+            if (fields.get(i).kind() == Kind.ENUM) {
+                w.line("private static final %s[] %s = %s.values();", fields.get(i).type(), constants(i),
+                        fields.get(i).type());
+            }
+        }
+
+        w.blank().open("private %s()", self).close();
+
+        w.blank().line("@Override");
+        w.open("public void write(%s value, java.nio.ByteBuffer out)", target);
+        for (int i = 0; i < fields.size(); i++) {
+            Field f = fields.get(i);
+            String local = "c" + i;
+            if (f.repeated()) {
+                w.line("java.util.List<%s> %s = value.%s();", f.type(), local, f.name());
+                w.open("if (%s != null)", local);
+                w.open("for (%s e : %s)", f.type(), local);
+                key(w, f.key());
+                w.line(write(f, "e"));
+                w.close();
+            } else {
+                w.line("%s %s = value.%s();", f.type(), local, f.name());
+                w.open("if (" + f.kind().present + ")", local);
+                key(w, f.key());
+                w.line(write(f, local));
+            }
+            w.close();
+        }
+        w.line("out.put((byte) %s.END);", WIRE);
+        w.close();
+
+        w.blank().line("@Override");
+        w.open("public %s read(java.nio.ByteBuffer in)", target);
+        for (int i = 0; i < fields.size(); i++) {
+            Field f = fields.get(i);
+            if (f.repeated()) {
+                w.line("java.util.ArrayList<%s> c%d = null;", f.type(), i);
+            } else {
+                w.line("%s c%d = %s;", f.type(), i, ModelSupport.defaultValue(f.declared()));
+            }
+        }
+        w.open("for (int key = %1$s.getInt(in); key != %2$s.END; key = %1$s.getInt(in))", VARINT, WIRE);
+        w.open("switch (key)");
+        for (int i = 0; i < fields.size(); i++) {
+            Field f = fields.get(i);
+            String read = String.format(f.kind().read, f.kind() == Kind.ENUM ? constants(i) : f.codec());
+            if (f.repeated()) {
+                w.open("case %d ->", f.key());
+                w.open("if (c%d == null)", i);
+                w.line("c%d = new java.util.ArrayList<>();", i);
+                w.close();
+                w.line("c%d.add(%s);", i, read);
+                w.close();
+            } else {
+                w.line("case %d -> c%d = %s;", f.key(), i, read);
+            }
+        }
+        w.line("default -> %s.skip(in, key);", WIRE);
+        w.close();
+        w.close();
+        List<String> arguments = new ArrayList<>();
+        for (int i = 0; i < fields.size(); i++) {
+            arguments.add(fields.get(i).repeated() ? "c" + i + " == null ? java.util.List.of() : c" + i : "c" + i);
+        }
+        w.line("return new %s(%s);", target, String.join(", ", arguments));
+        w.close();
+
+        w.blank().line("@Override");
+        w.open("public String toString()");
+        w.line("return \"%s[%s]\";", self, fields.stream()
+                .map(f -> f.name() + "=" + f.tag()).collect(Collectors.joining(", ")));
+        w.close();
+        w.close();
+
+        String qualified = pkg.isEmpty() ? self : pkg + "." + self;
+        JavaFileObject file = processingEnv.getFiler().createSourceFile(qualified, record);
+        try (Writer out = file.openWriter()) {
+            out.write(w.toString());
+        }
+    }
+
+    /**
+     * Writes a key, as a single byte store when it fits in one.
+     */
+    private static void key(SourceWriter w, int key) {
+        if (key < 0x80) {
+            w.line("out.put((byte) %d);", key);
+        } else {
+            w.line("%s.putInt(out, %d);", VARINT, key);
+        }
+    }
+
+    private static String write(Field field, String value) {
+        return field.kind() == Kind.MESSAGE ? String.format(field.kind().write, field.codec(), value)
+                : String.format(field.kind().write, value);
+    }
+
+    private static String constants(int index) {
+        return "CONSTANTS_" + index;
+    }
+}
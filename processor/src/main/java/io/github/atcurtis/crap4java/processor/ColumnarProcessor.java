@@ -0,0 +1,257 @@
+package io.github.atcurtis.crap4java.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Generates a {@code Flyweight} implementation for every interface annotated
+ * with {@code @Columnar}.
+ *
+ * <p>Each accessor compiles to one absolute {@code ByteBuffer} get or put at
+ * {@code index << log2(width)} in its column, which the JIT turns into a plain
+ * memory access.
+ */
+@SupportedAnnotationTypes(ColumnarProcessor.COLUMNAR)
+public final class ColumnarProcessor extends AbstractProcessor {
+
+    static final String COLUMNAR = "io.github.atcurtis.crap4java.parts.columnar.Columnar";
+    static final String FLYWEIGHT = "io.github.atcurtis.crap4java.parts.columnar.Flyweight";
+    static final String STORE = "io.github.atcurtis.crap4java.parts.columnar.ColumnarStore";
+
+    /**
+     * Members of {@code Flyweight} that a generated column accessor would
+     * override or clash with.
+     */
+    private static final Set<String> RESERVED = Set.of(
+            "index", "next", "store", "append", "rewind", "moveTo", "asSource", "self");
+
+    /**
+     * Creates the processor; invoked by the compiler through the service
+     * loader.
+     */
+    public ColumnarProcessor() {
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment round) {
+        for (TypeElement annotation : annotations) {
+            for (Element element : round.getElementsAnnotatedWith(annotation)) {
+                try {
+                    write(model(element));
+                } catch (GenerationException e) {
+                    processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, e.getMessage(), e.element());
+                } catch (IOException e) {
+                    processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                            "cannot write flyweight: " + e.getMessage(), element);
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * How a column of one primitive kind is stored.
+     */
+    private enum Kind {
+        BOOLEAN("boolean", 0, "get", ""),
+        BYTE("byte", 0, "get", ""),
+        SHORT("short", 1, "getShort", "putShort"),
+        CHAR("char", 1, "getChar", "putChar"),
+        INT("int", 2, "getInt", "putInt"),
+        FLOAT("float", 2, "getFloat", "putFloat"),
+        LONG("long", 3, "getLong", "putLong"),
+        DOUBLE("double", 3, "getDouble", "putDouble");
+
+        final String type;
+        final int shift;
+        final String getter;
+        final String putter;
+
+        Kind(String type, int shift, String getter, String putter) {
+            this.type = type;
+            this.shift = shift;
+            this.getter = getter;
+            this.putter = putter.isEmpty() ? "put" : putter;
+        }
+
+        String offset() {
+            return shift == 0 ? "index" : "index << " + shift;
+        }
+
+        String read(int column) {
+            String read = String.format("columns[%d].%s(%s)", column, getter, offset());
+            return this == BOOLEAN ? read + " != 0" : read;
+        }
+
+        String write(int column, String value) {
+            String stored = this == BOOLEAN ? "(byte) (" + value + " ? 1 : 0)" : value;
+            return String.format("columns[%d].%s(%s, %s);", column, putter, offset(), stored);
+        }
+
+        static Kind of(TypeKind kind) {
+            return kind.isPrimitive() ? valueOf(kind.name()) : null;
+        }
+    }
+
+    private record Column(String name, Kind kind, boolean writable) {
+    }
+
+    private record Model(TypeElement type, String className, List<Column> columns) {
+    }
+
+    private Model model(Element element) throws GenerationException {
+        if (element.getKind() != ElementKind.INTERFACE) {
+            throw new GenerationException(element, "@Columnar must be placed on an interface");
+        }
+        TypeElement type = (TypeElement) element;
+        if (!type.getTypeParameters().isEmpty()) {
+            throw new GenerationException(element, "@Columnar interfaces must not be generic");
+        }
+        ModelSupport.checkAccessible(type, element);
+
+        Map<String, Kind> getters = new LinkedHashMap<>();
+        Map<String, ExecutableElement> setters = new LinkedHashMap<>();
+        for (ExecutableElement method : ElementFilter.methodsIn(processingEnv.getElementUtils().getAllMembers(type))) {
+            if (!method.getModifiers().contains(Modifier.ABSTRACT)) {
+                continue;
+            }
+            if (!method.getEnclosingElement().equals(type)) {
+                throw new GenerationException(method, "inherited abstract methods are not supported: " + method);
+            }
+            String name = method.getSimpleName().toString();
+            if (RESERVED.contains(name)) {
+                throw new GenerationException(method, "column '" + name + "' clashes with a Flyweight method");
+            }
+            if (method.getParameters().isEmpty() && Kind.of(method.getReturnType().getKind()) != null) {
+                getters.put(name, Kind.of(method.getReturnType().getKind()));
+            } else if (method.getParameters().size() == 1 && method.getReturnType().getKind() == TypeKind.VOID) {
+                setters.put(name, method);
+            } else {
+                throw new GenerationException(method,
+                        "columns must be declared as 'T name()' or 'void name(T)' with a primitive T");
+            }
+        }
+        if (getters.isEmpty()) {
+            throw new GenerationException(element, "@Columnar interface declares no columns");
+        }
+        for (Map.Entry<String, ExecutableElement> setter : setters.entrySet()) {
+            Kind kind = getters.get(setter.getKey());
+            TypeKind parameter = setter.getValue().getParameters().get(0).asType().getKind();
+            if (kind == null || Kind.of(parameter) != kind) {
+                throw new GenerationException(setter.getValue(), "setter has no matching getter");
+            }
+        }
+        // keep declaration order, which getAllMembers does not guarantee
+        List<Column> columns = new ArrayList<>();
+        for (ExecutableElement method : ElementFilter.methodsIn(type.getEnclosedElements())) {
+            String name = method.getSimpleName().toString();
+            if (method.getParameters().isEmpty() && getters.containsKey(name)) {
+                columns.add(new Column(name, getters.get(name), setters.containsKey(name)));
+            }
+        }
+
+        AnnotationMirror mirror = ModelSupport.annotation(element, COLUMNAR);
+        String name = ModelSupport.attribute(mirror, "name", "");
+        if (name.isEmpty()) {
+            name = ModelSupport.flatName(type) + "Flyweight";
+        }
+        return new Model(type, name, columns);
+    }
+
+    private void write(Model model) throws IOException {
+        TypeElement type = model.type();
+        String pkg = ModelSupport.packageName(type);
+        String self = model.className();
+
+        SourceWriter w = new SourceWriter();
+        if (!pkg.isEmpty()) {
+            w.line("package %s;", pkg).blank();
+        }
+        w.line("/**");
+        w.line(" * Off-heap flyweight implementing {@link %s}.", type.getQualifiedName());
+        w.line(" */");
+        if (processingEnv.getElementUtils().getTypeElement("javax.annotation.processing.Generated") != null) {
+            w.line("@javax.annotation.processing.Generated(\"%s\")", getClass().getName());
+        }
+        w.open("%sfinal class %s extends %s<%s> implements %s",
+                ModelSupport.isPublic(type) ? "public " : "", self, FLYWEIGHT, self, type.getQualifiedName());
+        w.line("private static final int[] WIDTHS = {%s};", model.columns().stream()
+                .map(c -> String.valueOf(1 << c.kind().shift)).collect(Collectors.joining(", ")));
+
+        w.blank().line("/**");
+        w.line(" * Creates a view of {@code store}, which must have been created by");
+        w.line(" * {@link #newStore(int)}.");
+        w.line(" *");
+        w.line(" * @param store the store");
+        w.line(" */");
+        w.open("public %s(%s store)", self, STORE);
+        w.line("super(store, WIDTHS);");
+        w.close();
+
+        w.blank().line("/**");
+        w.line(" * Creates an empty store with one column per property.");
+        w.line(" *");
+        w.line(" * @param initialCapacity the number of records to reserve space for");
+        w.line(" * @return a new store");
+        w.line(" */");
+        w.open("public static %s newStore(int initialCapacity)", STORE);
+        w.line("return new %s(initialCapacity, WIDTHS);", STORE);
+        w.close();
+
+        for (int i = 0; i < model.columns().size(); i++) {
+            Column c = model.columns().get(i);
+            w.blank().line("@Override");
+            w.open("public %s %s()", c.kind().type, c.name());
+            w.line("return %s;", c.kind().read(i));
+            w.close();
+            if (c.writable()) {
+                w.blank().line("@Override");
+                w.open("public void %s(%s value)", c.name(), c.kind().type);
+                w.line(c.kind().write(i, "value"));
+                w.close();
+            }
+        }
+
+        w.blank().line("@Override");
+        w.open("public String toString()");
+        w.open("if (index < 0)");
+        w.line("return \"%s[]\";", type.getSimpleName());
+        w.close();
+        w.line("return \"%s[\" + %s + \"]\";", type.getSimpleName(), model.columns().stream()
+                .map(c -> "\"" + c.name() + "=\" + " + c.name() + "()")
+                .collect(Collectors.joining(" + \", \" + ")));
+        w.close();
+        w.close();
+
+        String qualified = pkg.isEmpty() ? self : pkg + "." + self;
+        JavaFileObject file = processingEnv.getFiler().createSourceFile(qualified, type);
+        try (Writer out = file.openWriter()) {
+            out.write(w.toString());
+        }
+    }
+}
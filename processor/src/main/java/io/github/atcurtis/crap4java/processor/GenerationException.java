@@ -0,0 +1,23 @@
+package io.github.atcurtis.crap4java.processor;
+
+import javax.lang.model.element.Element;
+
+/**
+ * Signals that an annotated element cannot be processed. The processor reports
+ * the message as a compile error on {@link #element()}.
+ */
+final class GenerationException extends Exception {
+
+    private static final long serialVersionUID = 1L;
+
+    private final transient Element element;
+
+    GenerationException(Element element, String message) {
+        super(message, null, false, false);
+        this.element = element;
+    }
+
+    Element element() {
+        return element;
+    }
+}
@@ -0,0 +1,298 @@
+package io.github.atcurtis.crap4java.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Generates a {@code JsonBinder} for every type annotated with
+ * {@code @GenerateJsonBinder}, driving the builder generated for the same
+ * type.
+ *
+ * <p>The binder loops over the properties of one object, resolves each name
+ * to an index with {@code JsonReader.selectName} and switches on it to call
+ * the setter with the decoded value, so a document goes from tokens to
+ * builder fields without a tree, a map or a name string in between.
+ */
+@SupportedAnnotationTypes(JsonBinderProcessor.GENERATE_JSON_BINDER)
+public final class JsonBinderProcessor extends AbstractProcessor {
+
+    static final String GENERATE_JSON_BINDER = "io.github.atcurtis.crap4java.parts.json.GenerateJsonBinder";
+    static final String JSON_BINDER = "io.github.atcurtis.crap4java.parts.json.JsonBinder";
+    static final String JSON_NAMES = "io.github.atcurtis.crap4java.parts.json.JsonNames";
+    static final String JSON_READER = "io.github.atcurtis.crap4java.parts.json.JsonReader";
+
+    /**
+     * Creates the processor; invoked by the compiler through the service
+     * loader.
+     */
+    public JsonBinderProcessor() {
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment round) {
+        for (TypeElement annotation : annotations) {
+            for (Element element : round.getElementsAnnotatedWith(annotation)) {
+                try {
+                    Model model = model(element);
+                    if (model != null) {
+                        write(model);
+                    }
+                } catch (GenerationException e) {
+                    processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, e.getMessage(), e.element());
+                } catch (IOException e) {
+                    processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                            "cannot write binder: " + e.getMessage(), element);
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * How one value is decoded; {@code %s} stands for the enum type or the
+     * nested binder.
+     */
+    private enum Kind {
+        BOOLEAN("in.nextBoolean()"),
+        INT("in.nextInt()"),
+        LONG("in.nextLong()"),
+        FLOAT("(float) in.nextDouble()"),
+        DOUBLE("in.nextDouble()"),
+        STRING("in.nextString()"),
+        ENUM("%s.valueOf(in.nextString())"),
+        OBJECT("%s.INSTANCE.read(in)");
+
+        final String read;
+
+        Kind(String read) {
+            this.read = read;
+        }
+    }
+
+    /**
+     * A value that is a primitive, or a reference that may be {@code null}.
+     * {@code target} is the enum type or the nested binder.
+     */
+    private record Value(Kind kind, String type, String target, boolean primitive) {
+
+        String read() {
+            String read = String.format(kind.read, target);
+            return primitive ? read : "in.nextIfNull() ? null : " + read;
+        }
+    }
+
+    /**
+     * One builder property; {@code element} is set for lists.
+     */
+    private record Field(BuilderProcessor.Property property, String setter, Value value, Value element) {
+    }
+
+    private record Model(TypeElement type, String className, String builderName, List<Field> fields) {
+    }
+
+    /**
+     * Returns the model, or {@code null} if the builder itself is invalid.
+     */
+    private Model model(Element element) throws GenerationException {
+        TypeElement type = (TypeElement) element;
+        if (!type.getTypeParameters().isEmpty()) {
+            throw new GenerationException(element, "@GenerateJsonBinder types must not be generic");
+        }
+        Element origin = ModelSupport.annotation(type, BuilderProcessor.GENERATE_BUILDER) != null ? type : null;
+        for (ExecutableElement constructor : ElementFilter.constructorsIn(type.getEnclosedElements())) {
+            if (origin == null && ModelSupport.annotation(constructor, BuilderProcessor.GENERATE_BUILDER) != null) {
+                origin = constructor;
+            }
+        }
+        if (origin == null) {
+            throw new GenerationException(element,
+                    "@GenerateJsonBinder requires @GenerateBuilder on the type or one of its constructors");
+        }
+        BuilderProcessor.Model builder;
+        try {
+            builder = BuilderProcessor.model(origin, processingEnv);
+        } catch (GenerationException e) {
+            // the builder processor reports it
+            return null;
+        }
+
+        List<Field> fields = new ArrayList<>();
+        for (BuilderProcessor.Property property : builder.properties()) {
+            TypeMirror mirror = property.type();
+            Value value = value(mirror);
+            Value item = null;
+            if (value == null && mirror.getKind() == TypeKind.DECLARED) {
+                DeclaredType declared = (DeclaredType) mirror;
+                if (((TypeElement) declared.asElement()).getQualifiedName().contentEquals("java.util.List")
+                        && declared.getTypeArguments().size() == 1) {
+                    item = value(declared.getTypeArguments().get(0));
+                }
+            }
+            if (value == null && (item == null || item.primitive())) {
+                throw new GenerationException(element, "unsupported property type " + mirror + " of '"
+                        + property.name() + "'; use a primitive, a wrapper, String, an enum, a @GenerateJsonBinder"
+                        + " type or a List of them");
+            }
+            fields.add(new Field(property, builder.setter(property), value, item));
+        }
+
+        String name = ModelSupport.attribute(ModelSupport.annotation(element, GENERATE_JSON_BINDER), "name", "");
+        if (name.isEmpty()) {
+            name = ModelSupport.flatName(type) + "JsonBinder";
+        }
+        return new Model(type, name, builder.builderName(), fields);
+    }
+
+    /**
+     * Resolves a type that can be read as a single value, or returns
+     * {@code null}.
+     */
+    private Value value(TypeMirror type) {
+        switch (type.getKind()) {
+            case BOOLEAN, INT, LONG, FLOAT, DOUBLE:
+                return new Value(Kind.valueOf(type.getKind().name()), type.toString(), null, true);
+            case DECLARED:
+                break;
+            default:
+                return null;
+        }
+        TypeElement element = (TypeElement) ((DeclaredType) type).asElement();
+        String qualified = element.getQualifiedName().toString();
+        Kind kind = switch (qualified) {
+            case "java.lang.Boolean" -> Kind.BOOLEAN;
+            case "java.lang.Integer" -> Kind.INT;
+            case "java.lang.Long" -> Kind.LONG;
+            case "java.lang.Float" -> Kind.FLOAT;
+            case "java.lang.Double" -> Kind.DOUBLE;
+            case "java.lang.String" -> Kind.STRING;
+            default -> null;
+        };
+        if (kind != null) {
+            return new Value(kind, qualified, null, false);
+        }
+        if (element.getKind() == ElementKind.ENUM) {
+            return new Value(Kind.ENUM, qualified, qualified, false);
+        }
+        AnnotationMirror nested = ModelSupport.annotation(element, GENERATE_JSON_BINDER);
+        if (nested != null && element.getTypeParameters().isEmpty()) {
+            String binder = ModelSupport.attribute(nested, "name", "");
+            if (binder.isEmpty()) {
+                binder = ModelSupport.flatName(element) + "JsonBinder";
+            }
+            String pkg = ModelSupport.packageName(element);
+            return new Value(Kind.OBJECT, qualified, pkg.isEmpty() ? binder : pkg + "." + binder, false);
+        }
+        return null;
+    }
+
+    private void write(Model model) throws IOException {
+        TypeElement type = model.type();
+        String pkg = ModelSupport.packageName(type);
+        String self = model.className();
+        String target = type.getQualifiedName().toString();
+        String builder = model.builderName();
+        List<Field> fields = model.fields();
+
+        SourceWriter w = new SourceWriter();
+        if (!pkg.isEmpty()) {
+            w.line("package %s;", pkg).blank();
+        }
+        w.line("/**");
+        w.line(" * JSON binder for {@link %s}, filling a {@link %s}.", target, builder);
+        w.line(" */");
+        if (processingEnv.getElementUtils().getTypeElement("javax.annotation.processing.Generated") != null) {
+            w.line("@javax.annotation.processing.Generated(\"%s\")", getClass().getName());
+        }
+        w.open("%sfinal class %s implements %s<%s>",
+                ModelSupport.isPublic(type) ? "public " : "", self, JSON_BINDER, target);
+        w.line("/** The shared instance; the binder is stateless. */");
+        w.line("public static final %s INSTANCE = new %s();", self, self);
+        w.line("private static final %s NAMES = %s.of(%s);", JSON_NAMES, JSON_NAMES, fields.stream()
+                .map(f -> "\"" + f.property().name() + "\"").collect(Collectors.joining(", ")));
+
+        w.blank().open("private %s()", self).close();
+
+        w.blank().line("@Override");
+        w.open("public %s read(%s in) throws java.io.IOException", target, JSON_READER);
+        w.line("return bind(in, new %s()).build();", builder);
+        w.close();
+
+        w.blank().line("/**");
+        w.line(" * Reads one object into {@code builder}. Unknown properties are");
+        w.line(" * skipped and absent ones are left untouched.");
+        w.line(" *");
+        w.line(" * @param in      the reader, positioned at the object");
+        w.line(" * @param builder the builder to fill");
+        w.line(" * @return {@code builder}");
+        w.line(" * @throws java.io.IOException if the input cannot be read or is malformed");
+        w.line(" */");
+        w.open("public %s bind(%s in, %s builder) throws java.io.IOException", builder, JSON_READER, builder);
+        w.line("in.beginObject();");
+        w.open("while (in.hasNext())");
+        w.open("switch (in.selectName(NAMES))");
+        for (int i = 0; i < fields.size(); i++) {
+            Field f = fields.get(i);
+            String read = f.element() == null ? f.value().read() : "in.nextIfNull() ? null : " + list(i) + "(in)";
+            w.line("case %d -> builder.%s(%s);", i, f.setter(), read);
+        }
+        w.line("default -> in.skipValue();");
+        w.close();
+        w.close();
+        w.line("in.endObject();");
+        w.line("return builder;");
+        w.close();
+
+        for (int i = 0; i < fields.size(); i++) {
+            Value item = fields.get(i).element();
+            if (item == null) {
+                continue;
+            }
+            w.blank();
+            w.open("private static java.util.List<%s> %s(%s in) throws java.io.IOException",
+                    item.type(), list(i), JSON_READER);
+            w.line("java.util.ArrayList<%s> list = new java.util.ArrayList<>();", item.type());
+            w.line("in.beginArray();");
+            w.open("while (in.hasNext())");
+            w.line("list.add(%s);", item.read());
+            w.close();
+            w.line("in.endArray();");
+            w.line("return list;");
+            w.close();
+        }
+        w.close();
+
+        String qualified = pkg.isEmpty() ? self : pkg + "." + self;
+        JavaFileObject file = processingEnv.getFiler().createSourceFile(qualified, type);
+        try (Writer out = file.openWriter()) {
+            out.write(w.toString());
+        }
+    }
+
+    private static String list(int index) {
+        return "readList" + index;
+    }
+}
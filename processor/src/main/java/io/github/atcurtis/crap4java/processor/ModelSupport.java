@@ -0,0 +1,220 @@
+package io.github.atcurtis.crap4java.processor;
+
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.TypeParameterElement;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Helpers shared by the generators for turning model elements into source
+ * text.
+ */
+final class ModelSupport {
+
+    private ModelSupport() {
+    }
+
+    /**
+     * Returns the package containing {@code type}, or {@code ""} for the
+     * unnamed package.
+     */
+    static String packageName(TypeElement type) {
+        Element e = type;
+        while (!(e instanceof PackageElement)) {
+            e = e.getEnclosingElement();
+        }
+        return ((PackageElement) e).getQualifiedName().toString();
+    }
+
+    /**
+     * Returns the simple names of {@code type} and its enclosing types joined
+     * with {@code _}, e.g. {@code Outer_Inner}.
+     */
+    static String flatName(TypeElement type) {
+        List<String> names = new ArrayList<>();
+        Element e = type;
+        while (e instanceof TypeElement t) {
+            names.add(0, t.getSimpleName().toString());
+            e = e.getEnclosingElement();
+        }
+        return String.join("_", names);
+    }
+
+    /**
+     * Returns the declaration of the type parameters of {@code type}, e.g.
+     * {@code <K extends Comparable<K>, V>}, or {@code ""}.
+     */
+    static String typeParameters(TypeElement type) {
+        List<? extends TypeParameterElement> params = type.getTypeParameters();
+        if (params.isEmpty()) {
+            return "";
+        }
+        return params.stream().map(p -> {
+            List<String> bounds = p.getBounds().stream()
+                    .map(TypeMirror::toString)
+                    .filter(b -> !b.equals("java.lang.Object"))
+                    .toList();
+            return bounds.isEmpty() ? p.getSimpleName().toString()
+                    : p.getSimpleName() + " extends " + String.join(" & ", bounds);
+        }).collect(Collectors.joining(", ", "<", ">"));
+    }
+
+    /**
+     * Returns the type arguments matching {@link #typeParameters}, e.g.
+     * {@code <K, V>}, or {@code ""}.
+     */
+    static String typeArguments(TypeElement type) {
+        List<? extends TypeParameterElement> params = type.getTypeParameters();
+        if (params.isEmpty()) {
+            return "";
+        }
+        return params.stream().map(p -> p.getSimpleName().toString())
+                .collect(Collectors.joining(", ", "<", ">"));
+    }
+
+    /**
+     * Returns the canonical name of {@code type} with its type arguments.
+     */
+    static String typeReference(TypeElement type) {
+        return type.getQualifiedName() + typeArguments(type);
+    }
+
+    /**
+     * Returns whether {@code type} and all its enclosing types are public.
+     */
+    static boolean isPublic(TypeElement type) {
+        Element e = type;
+        while (e instanceof TypeElement) {
+            if (!e.getModifiers().contains(Modifier.PUBLIC)) {
+                return false;
+            }
+            e = e.getEnclosingElement();
+        }
+        return true;
+    }
+
+    /**
+     * Verifies that {@code type} can be referenced from generated code in its
+     * package.
+     */
+    static void checkAccessible(TypeElement type, Element reportOn) throws GenerationException {
+        if (type.getNestingKind() == NestingKind.LOCAL || type.getNestingKind() == NestingKind.ANONYMOUS) {
+            throw new GenerationException(reportOn, type + " must be a top-level or member type");
+        }
+        for (Element e = type; e instanceof TypeElement; e = e.getEnclosingElement()) {
+            if (e.getModifiers().contains(Modifier.PRIVATE)) {
+                throw new GenerationException(reportOn, e + " must not be private");
+            }
+        }
+    }
+
+    /**
+     * Verifies that {@code type} can be referenced and instantiated from
+     * generated code in its package.
+     */
+    static void checkInstantiable(TypeElement type, Element reportOn) throws GenerationException {
+        checkAccessible(type, reportOn);
+        if (type.getModifiers().contains(Modifier.ABSTRACT) && type.getKind() != ElementKind.RECORD) {
+            throw new GenerationException(reportOn, type + " must not be abstract");
+        }
+        if (type.getNestingKind() == NestingKind.MEMBER && !type.getModifiers().contains(Modifier.STATIC)
+                && type.getKind() == ElementKind.CLASS) {
+            throw new GenerationException(reportOn, type + " must be a static nested class");
+        }
+    }
+
+    /**
+     * Verifies that {@code constructor} can be invoked from generated code in
+     * the same package without handling checked exceptions.
+     */
+    static void checkInvocable(ExecutableElement constructor, javax.lang.model.util.Types types,
+                               javax.lang.model.util.Elements elements) throws GenerationException {
+        if (constructor.getModifiers().contains(Modifier.PRIVATE)) {
+            throw new GenerationException(constructor, "constructor must not be private");
+        }
+        if (!constructor.getTypeParameters().isEmpty()) {
+            throw new GenerationException(constructor, "generic constructors are not supported");
+        }
+        TypeMirror runtime = elements.getTypeElement("java.lang.RuntimeException").asType();
+        TypeMirror error = elements.getTypeElement("java.lang.Error").asType();
+        for (TypeMirror thrown : constructor.getThrownTypes()) {
+            if (!types.isAssignable(thrown, runtime) && !types.isAssignable(thrown, error)) {
+                throw new GenerationException(constructor, "constructor must not throw checked " + thrown);
+            }
+        }
+    }
+
+    /**
+     * Returns the Java literal of the default value of {@code type}.
+     */
+    static String defaultValue(TypeMirror type) {
+        return switch (type.getKind()) {
+            case BOOLEAN -> "false";
+            case CHAR -> "'\\0'";
+            case LONG -> "0L";
+            case FLOAT -> "0.0F";
+            case DOUBLE -> "0.0D";
+            case BYTE -> "(byte) 0";
+            case SHORT -> "(short) 0";
+            case INT -> "0";
+            default -> "null";
+        };
+    }
+
+    /**
+     * Returns whether {@code type} is a primitive type.
+     */
+    static boolean isPrimitive(TypeMirror type) {
+        return type.getKind().isPrimitive() && type.getKind() != TypeKind.VOID;
+    }
+
+    /**
+     * Returns {@code name} with its first character in upper case.
+     */
+    static String capitalize(String name) {
+        return name.isEmpty() ? name : Character.toUpperCase(name.charAt(0)) + name.substring(1);
+    }
+
+    /**
+     * Returns the mirror of the annotation named {@code annotationName} on
+     * {@code element}, or {@code null}.
+     */
+    static AnnotationMirror annotation(Element element, String annotationName) {
+        for (AnnotationMirror mirror : element.getAnnotationMirrors()) {
+            TypeElement type = (TypeElement) mirror.getAnnotationType().asElement();
+            if (type.getQualifiedName().contentEquals(annotationName)) {
+                return mirror;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the explicitly set value of {@code attribute}, or
+     * {@code defaultValue}.
+     */
+    @SuppressWarnings("unchecked")
+    static <T> T attribute(AnnotationMirror mirror, String attribute, T defaultValue) {
+        if (mirror != null) {
+            for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> e
+                    : mirror.getElementValues().entrySet()) {
+                if (e.getKey().getSimpleName().contentEquals(attribute)) {
+                    return (T) e.getValue().getValue();
+                }
+            }
+        }
+        return defaultValue;
+    }
+}
@@ -0,0 +1,72 @@
+package io.github.atcurtis.crap4java.processor;
+
+/**
+ * Minimal indentation-aware writer used by the generators. Generated sources
+ * are small and regular enough that a code model library would be overkill.
+ */
+final class SourceWriter {
+
+    private static final String INDENT = "    ";
+
+    private final StringBuilder out = new StringBuilder(4096);
+    private int depth;
+
+    /**
+     * Appends one line at the current indentation.
+     */
+    SourceWriter line(String text) {
+        if (!text.isEmpty()) {
+            out.append(INDENT.repeat(depth)).append(text);
+        }
+        out.append('\n');
+        return this;
+    }
+
+    /**
+     * Appends one formatted line at the current indentation.
+     */
+    SourceWriter line(String format, Object... args) {
+        return line(String.format(format, args));
+    }
+
+    /**
+     * Appends an empty line.
+     */
+    SourceWriter blank() {
+        out.append('\n');
+        return this;
+    }
+
+    /**
+     * Appends {@code format} followed by an opening brace and indents.
+     */
+    SourceWriter open(String format, Object... args) {
+        line(String.format(format, args) + " {");
+        depth++;
+        return this;
+    }
+
+    /**
+     * Outdents and appends a closing brace.
+     */
+    SourceWriter close() {
+        depth--;
+        return line("}");
+    }
+
+    /**
+     * Outdents, appends a closing brace followed by {@code format} and
+     * indents again, as in {@code "} else {"}.
+     */
+    SourceWriter reopen(String format, Object... args) {
+        depth--;
+        line("} " + String.format(format, args) + " {");
+        depth++;
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        return out.toString();
+    }
+}
@@ -0,0 +1,115 @@
+package io.github.atcurtis.crap4java.processor;
+
+import io.github.atcurtis.crap4java.adaptors.builder.AbstractBuilder;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BuilderProcessorTest {
+
+    private static final String POINT = """
+            package demo;
+
+            import io.github.atcurtis.crap4java.adaptors.builder.GenerateBuilder;
+
+            @GenerateBuilder
+            public record Point(int x, long y, String label) {
+            }
+            """;
+
+    @Test
+    void generatesRecordBuilder() throws Exception {
+        TestCompiler c = TestCompiler.compile(new BuilderProcessor(), Map.of("demo.Point", POINT));
+        assertTrue(c.success(), c.errors());
+
+        Class<?> type = c.load("demo.PointBuilder");
+        assertTrue(AbstractBuilder.class.isAssignableFrom(type));
+        Object builder = type.getConstructor().newInstance();
+        assertSame(builder, type.getMethod("x", int.class).invoke(builder, 3));
+        type.getMethod("y", long.class).invoke(builder, 4L);
+        type.getMethod("label", String.class).invoke(builder, "p");
+
+        Object first = type.getMethod("build").invoke(builder);
+        Object second = type.getMethod("build").invoke(builder);
+        assertEquals("Point[x=3, y=4, label=p]", first.toString());
+        assertEquals(first, second);
+        assertNotSame(first, second);
+
+        type.getMethod("reset").invoke(builder);
+        assertEquals("Point[x=0, y=0, label=null]", type.getMethod("build").invoke(builder).toString());
+
+        type.getMethod("from", c.load("demo.Point")).invoke(builder, first);
+        assertEquals(first, type.getMethod("build").invoke(builder));
+    }
+
+    @Test
+    void generatesConstructorBuilderWithPrefixAndGenerics() throws Exception {
+        String source = """
+                package demo;
+
+                import io.github.atcurtis.crap4java.adaptors.builder.GenerateBuilder;
+
+                public final class Pair<A extends Comparable<A>, B> {
+                    final A first;
+                    final B second;
+
+                    @GenerateBuilder(name = "PairMaker", setterPrefix = "with")
+                    Pair(A first, B second) {
+                        this.first = first;
+                        this.second = second;
+                    }
+
+                    @Override
+                    public String toString() {
+                        return first + "/" + second;
+                    }
+                }
+                """;
+        TestCompiler c = TestCompiler.compile(new BuilderProcessor(), Map.of("demo.Pair", source));
+        assertTrue(c.success(), c.errors());
+        assertTrue(c.generated("demo.PairMaker").contains("class PairMaker<A extends java.lang.Comparable<A>, B>"));
+
+        Class<?> type = c.load("demo.PairMaker");
+        Object builder = type.getConstructor().newInstance();
+        type.getMethod("withFirst", Comparable.class).invoke(builder, "a");
+        type.getMethod("withSecond", Object.class).invoke(builder, 1);
+        assertEquals("a/1", type.getMethod("build").invoke(builder).toString());
+        assertFalse(c.generated("demo.PairMaker").contains(" from("));
+    }
+
+    @Test
+    void rejectsReservedPropertyNames() {
+        String source = """
+                package demo;
+
+                @io.github.atcurtis.crap4java.adaptors.builder.GenerateBuilder
+                public record Job(String build) {
+                }
+                """;
+        TestCompiler c = TestCompiler.compile(new BuilderProcessor(), Map.of("demo.Job", source));
+        assertFalse(c.success());
+        assertTrue(c.errors().contains("clashes with a builder method"), c.errors());
+    }
+
+    @Test
+    void rejectsCheckedExceptions() {
+        String source = """
+                package demo;
+
+                public class Resource {
+                    @io.github.atcurtis.crap4java.adaptors.builder.GenerateBuilder
+                    public Resource(String path) throws java.io.IOException {
+                    }
+                }
+                """;
+        TestCompiler c = TestCompiler.compile(new BuilderProcessor(), Map.of("demo.Resource", source));
+        assertFalse(c.success());
+        assertTrue(c.errors().contains("must not throw checked"), c.errors());
+    }
+}
@@ -0,0 +1,177 @@
+package io.github.atcurtis.crap4java.processor;
+
+import io.github.atcurtis.crap4java.parts.codec.MessageCodec;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Constructor;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CodecProcessorTest {
+
+    private static final String ORDER = """
+            package demo;
+
+            import io.github.atcurtis.crap4java.parts.codec.GenerateCodec;
+            import io.github.atcurtis.crap4java.parts.codec.Tag;
+            import java.util.List;
+
+            @GenerateCodec
+            public record Order(@Tag(1) long id, @Tag(2) int quantity, @Tag(3) short flags, @Tag(4) byte kind,
+                                @Tag(5) char grade, @Tag(6) boolean urgent, @Tag(7) float weight,
+                                @Tag(8) double price, @Tag(9) String customer, @Tag(10) Status status,
+                                @Tag(11) Line primary, @Tag(12) List<Line> lines, @Tag(13) List<String> notes,
+                                @Tag(14) byte[] payload) {
+
+                public enum Status { NEW, PAID, SHIPPED }
+
+                @GenerateCodec
+                public record Line(@Tag(1) String sku, @Tag(2) int count) {
+                }
+            }
+            """;
+
+    @Test
+    void roundTripsEverySupportedType() throws Exception {
+        TestCompiler c = TestCompiler.compile(new CodecProcessor(), Map.of("demo.Order", ORDER));
+        assertTrue(c.success(), c.errors());
+        assertTrue(c.generated("demo.OrderCodec").contains("out.put((byte) 8);"));
+
+        Class<?> line = c.load("demo.Order$Line");
+        Object first = line.getConstructors()[0].newInstance("A-1", 2);
+        Object second = line.getConstructors()[0].newInstance("B-22", -7);
+        Object paid = c.load("demo.Order$Status").getEnumConstants()[1];
+        Constructor<?> order = c.load("demo.Order").getConstructors()[0];
+        Object value = order.newInstance(-5L, 300, (short) -2, (byte) 9, 'é', true, 1.5f, -0.0, "Zoë", paid,
+                first, List.of(first, second), List.of("fragile", ""), new byte[] {1, 2, 3});
+
+        MessageCodec<Object> codec = codec(c, "demo.OrderCodec");
+        ByteBuffer buffer = ByteBuffer.allocate(256);
+        codec.write(value, buffer);
+        int written = buffer.position();
+        Object copy = codec.read(buffer.flip());
+        assertEquals(written, buffer.position());
+        assertEquals(value.toString().replaceAll("\\[B@\\w+", ""), copy.toString().replaceAll("\\[B@\\w+", ""));
+        assertArrayEquals(new byte[] {1, 2, 3}, (byte[]) copy.getClass().getMethod("payload").invoke(copy));
+
+        // defaults are not written and read back as defaults
+        Object empty = order.newInstance(0L, 0, (short) 0, (byte) 0, '\0', false, 0f, 0.0, null, null,
+                null, List.of(), List.of(), null);
+        buffer.clear();
+        codec.write(empty, buffer);
+        assertEquals(1, buffer.position());
+        assertEquals(empty, codec.read(buffer.flip()));
+    }
+
+    @Test
+    void skipsUnknownFieldsAndDefaultsMissingOnes() throws Exception {
+        String v1 = """
+                package demo;
+
+                import io.github.atcurtis.crap4java.parts.codec.Tag;
+
+                @io.github.atcurtis.crap4java.parts.codec.GenerateCodec
+                public record Event(@Tag(1) long id, @Tag(2) String name, @Tag(3) Kind kind, @Tag(4) Detail detail) {
+                    public enum Kind { CREATED, DELETED }
+
+                    @io.github.atcurtis.crap4java.parts.codec.GenerateCodec
+                    public record Detail(@Tag(1) String reason, @Tag(2) double cost) {
+                    }
+                }
+                """;
+        String v2 = """
+                package demo;
+
+                import io.github.atcurtis.crap4java.parts.codec.Tag;
+                import java.util.List;
+
+                @io.github.atcurtis.crap4java.parts.codec.GenerateCodec
+                public record Event(@Tag(1) long id, @Tag(5) List<String> labels, @Tag(3) Kind kind) {
+                    public enum Kind { CREATED }
+                }
+                """;
+        TestCompiler old = TestCompiler.compile(new CodecProcessor(), Map.of("demo.Event", v1));
+        TestCompiler current = TestCompiler.compile(new CodecProcessor(), Map.of("demo.Event", v2));
+        assertTrue(old.success(), old.errors());
+        assertTrue(current.success(), current.errors());
+
+        Object detail = old.load("demo.Event$Detail").getConstructors()[0].newInstance("audit", 2.5);
+        Object deleted = old.load("demo.Event$Kind").getEnumConstants()[1];
+        Object event = old.load("demo.Event").getConstructors()[0].newInstance(7L, "x", deleted, detail);
+        ByteBuffer buffer = ByteBuffer.allocate(128);
+        codec(old, "demo.EventCodec").write(event, buffer);
+        buffer.put((byte) 42).flip();
+
+        Object read = codec(current, "demo.EventCodec").read(buffer);
+        assertEquals(7L, read.getClass().getMethod("id").invoke(read));
+        assertEquals(List.of(), read.getClass().getMethod("labels").invoke(read));
+        assertNull(read.getClass().getMethod("kind").invoke(read));
+        assertEquals(42, buffer.get());
+
+        Object created = current.load("demo.Event$Kind").getEnumConstants()[0];
+        Object newer = read.getClass().getConstructors()[0].newInstance(8L, List.of("a", "b"), created);
+        codec(current, "demo.EventCodec").write(newer, buffer.clear());
+        Object back = codec(old, "demo.EventCodec").read(buffer.flip());
+        assertEquals("Event[id=8, name=null, kind=CREATED, detail=null]", back.toString());
+    }
+
+    @Test
+    void rejectsDuplicateTags() {
+        String source = """
+                package demo;
+
+                import io.github.atcurtis.crap4java.parts.codec.Tag;
+
+                @io.github.atcurtis.crap4java.parts.codec.GenerateCodec
+                public record Pair(@Tag(2) int a, @Tag(2) int b) {
+                }
+                """;
+        TestCompiler c = TestCompiler.compile(new CodecProcessor(), Map.of("demo.Pair", source));
+        assertFalse(c.success());
+        assertTrue(c.errors().contains("tag 2 is already used by 'a'"), c.errors());
+    }
+
+    @Test
+    void rejectsUntaggedComponents() {
+        String source = """
+                package demo;
+
+                import io.github.atcurtis.crap4java.parts.codec.Tag;
+
+                @io.github.atcurtis.crap4java.parts.codec.GenerateCodec
+                public record Pair(@Tag(1) int a, int b) {
+                }
+                """;
+        TestCompiler c = TestCompiler.compile(new CodecProcessor(), Map.of("demo.Pair", source));
+        assertFalse(c.success());
+        assertTrue(c.errors().contains("component 'b' needs a @Tag"), c.errors());
+    }
+
+    @Test
+    void rejectsUnsupportedComponents() {
+        String source = """
+                package demo;
+
+                import io.github.atcurtis.crap4java.parts.codec.Tag;
+
+                @io.github.atcurtis.crap4java.parts.codec.GenerateCodec
+                public record Holder(@Tag(1) java.util.Map<String, String> attributes) {
+                }
+                """;
+        TestCompiler c = TestCompiler.compile(new CodecProcessor(), Map.of("demo.Holder", source));
+        assertFalse(c.success());
+        assertTrue(c.errors().contains("unsupported component type"), c.errors());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static MessageCodec<Object> codec(TestCompiler c, String name) throws Exception {
+        return (MessageCodec<Object>) c.load(name).getField("INSTANCE").get(null);
+    }
+}
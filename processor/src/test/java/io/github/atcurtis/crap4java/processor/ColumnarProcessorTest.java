@@ -0,0 +1,85 @@
+package io.github.atcurtis.crap4java.processor;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ColumnarProcessorTest {
+
+    @Test
+    void generatesShiftedAbsoluteAccessors() {
+        String source = """
+                package demo;
+
+                @io.github.atcurtis.crap4java.parts.columnar.Columnar(name = "Cells")
+                public interface Cell {
+                    byte kind();
+                    char symbol();
+                    void symbol(char value);
+                    float weight();
+                    default float doubled() { return weight() * 2; }
+                }
+                """;
+        TestCompiler c = TestCompiler.compile(new ColumnarProcessor(), Map.of("demo.Cell", source));
+        assertTrue(c.success(), c.errors());
+        String generated = c.generated("demo.Cells");
+        assertTrue(generated.contains("WIDTHS = {1, 2, 4}"), generated);
+        assertTrue(generated.contains("return columns[0].get(index);"), generated);
+        assertTrue(generated.contains("columns[1].putChar(index << 1, value);"), generated);
+        assertTrue(generated.contains("return columns[2].getFloat(index << 2);"), generated);
+        assertFalse(generated.contains("doubled"), generated);
+    }
+
+    @Test
+    void rejectsNonPrimitiveColumns() {
+        String source = """
+                package demo;
+
+                @io.github.atcurtis.crap4java.parts.columnar.Columnar
+                public interface Named {
+                    String name();
+                }
+                """;
+        TestCompiler c = TestCompiler.compile(new ColumnarProcessor(), Map.of("demo.Named", source));
+        assertFalse(c.success());
+        assertTrue(c.errors().contains("primitive"), c.errors());
+    }
+
+    @Test
+    void rejectsColumnsNamedLikeFlyweightMethods() {
+        for (String column : new String[] {"int index()", "boolean next()", "void moveTo(int value)"}) {
+            String source = """
+                    package demo;
+
+                    @io.github.atcurtis.crap4java.parts.columnar.Columnar
+                    public interface Cursor {
+                        long value();
+                        %s;
+                    }
+                    """.formatted(column);
+            TestCompiler c = TestCompiler.compile(new ColumnarProcessor(), Map.of("demo.Cursor", source));
+            assertFalse(c.success());
+            assertTrue(c.errors().contains("clashes with a Flyweight method"), c.errors());
+            assertFalse(c.errors().contains("CursorFlyweight"), c.errors());
+        }
+    }
+
+    @Test
+    void rejectsSettersWithoutGetters() {
+        String source = """
+                package demo;
+
+                @io.github.atcurtis.crap4java.parts.columnar.Columnar
+                public interface Counter {
+                    long value();
+                    void value(int value);
+                }
+                """;
+        TestCompiler c = TestCompiler.compile(new ColumnarProcessor(), Map.of("demo.Counter", source));
+        assertFalse(c.success());
+        assertTrue(c.errors().contains("no matching getter"), c.errors());
+    }
+}
@@ -0,0 +1,143 @@
+package io.github.atcurtis.crap4java.processor;
+
+import io.github.atcurtis.crap4java.parts.json.JsonBinder;
+import io.github.atcurtis.crap4java.parts.json.JsonReader;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JsonBinderProcessorTest {
+
+    private static final String ORDER = """
+            package demo;
+
+            import io.github.atcurtis.crap4java.adaptors.builder.GenerateBuilder;
+            import io.github.atcurtis.crap4java.parts.json.GenerateJsonBinder;
+            import java.util.List;
+
+            @GenerateBuilder
+            @GenerateJsonBinder
+            public record Order(long id, String customer, Status status, boolean express, float weight,
+                                Integer priority, Line primary, List<Line> lines, List<Double> discounts) {
+
+                public enum Status { NEW, PAID }
+
+                @GenerateBuilder(setterPrefix = "with")
+                @GenerateJsonBinder(name = "LineReader")
+                public record Line(String sku, int count) {
+                }
+            }
+            """;
+
+    @Test
+    void bindsObjectsThroughTheGeneratedBuilder() throws Exception {
+        TestCompiler c = TestCompiler.compile(List.of(new BuilderProcessor(), new JsonBinderProcessor()),
+                Map.of("demo.Order", ORDER));
+        assertTrue(c.success(), c.errors());
+        String generated = c.generated("demo.OrderJsonBinder");
+        assertTrue(generated.contains("switch (in.selectName(NAMES))"), generated);
+        assertTrue(generated.contains("return bind(in, new OrderBuilder()).build();"), generated);
+        assertTrue(c.generated("demo.LineReader").contains("builder.withSku("), c.generated("demo.LineReader"));
+
+        String json = """
+                {"customer": "ACME", "id": 17, "unknown": {"a": [1, {"b": null}]}, "status": "PAID",
+                 "express": true, "weight": 1.5, "priority": null, "primary": {"sku": "X", "count": 2},
+                 "lines": [{"count": 1, "sku": "Y"}, null, {"sku": "Z"}], "discounts": [0.5, null, 3]}
+                """;
+        JsonBinder<?> binder = binder(c, "demo.OrderJsonBinder");
+        Object order = binder.read(JsonReader.of(json));
+        assertEquals("Order[id=17, customer=ACME, status=PAID, express=true, weight=1.5, priority=null, "
+                + "primary=Line[sku=X, count=2], lines=[Line[sku=Y, count=1], null, Line[sku=Z, count=0]], "
+                + "discounts=[0.5, null, 3.0]]", order.toString());
+
+        Object empty = binder.read(JsonReader.of("{}"));
+        assertEquals("Order[id=0, customer=null, status=null, express=false, weight=0.0, priority=null, "
+                + "primary=null, lines=null, discounts=null]", empty.toString());
+    }
+
+    @Test
+    void fillsAnExistingBuilder() throws Exception {
+        TestCompiler c = TestCompiler.compile(List.of(new BuilderProcessor(), new JsonBinderProcessor()),
+                Map.of("demo.Order", ORDER));
+        assertTrue(c.success(), c.errors());
+        Class<?> builderType = c.load("demo.Order_LineBuilder");
+        Object builder = builderType.getConstructor().newInstance();
+        builderType.getMethod("withCount", int.class).invoke(builder, 9);
+        Object binder = binder(c, "demo.LineReader");
+        Object same = binder.getClass().getMethod("bind", JsonReader.class, builderType)
+                .invoke(binder, JsonReader.of("{\"sku\": \"Q\"}"), builder);
+        assertSame(builder, same);
+        assertEquals("Line[sku=Q, count=9]", builderType.getMethod("build").invoke(builder).toString());
+    }
+
+    @Test
+    void bindsConstructorBuilders() throws Exception {
+        String source = """
+                package demo;
+
+                import io.github.atcurtis.crap4java.adaptors.builder.GenerateBuilder;
+
+                @io.github.atcurtis.crap4java.parts.json.GenerateJsonBinder
+                public final class Range {
+                    final long low;
+                    final long high;
+
+                    @GenerateBuilder(name = "RangeMaker")
+                    Range(long low, long high) {
+                        this.low = low;
+                        this.high = high;
+                    }
+
+                    @Override
+                    public String toString() {
+                        return low + ".." + high;
+                    }
+                }
+                """;
+        TestCompiler c = TestCompiler.compile(List.of(new BuilderProcessor(), new JsonBinderProcessor()),
+                Map.of("demo.Range", source));
+        assertTrue(c.success(), c.errors());
+        assertEquals("3..-4", binder(c, "demo.RangeJsonBinder").read(JsonReader.of("{\"high\":-4,\"low\":3}"))
+                .toString());
+    }
+
+    @Test
+    void requiresAGeneratedBuilder() {
+        String source = """
+                package demo;
+
+                @io.github.atcurtis.crap4java.parts.json.GenerateJsonBinder
+                public record Point(int x, int y) {
+                }
+                """;
+        TestCompiler c = TestCompiler.compile(new JsonBinderProcessor(), Map.of("demo.Point", source));
+        assertFalse(c.success());
+        assertTrue(c.errors().contains("requires @GenerateBuilder"), c.errors());
+    }
+
+    @Test
+    void rejectsUnsupportedProperties() {
+        String source = """
+                package demo;
+
+                @io.github.atcurtis.crap4java.adaptors.builder.GenerateBuilder
+                @io.github.atcurtis.crap4java.parts.json.GenerateJsonBinder
+                public record Counts(java.util.List<int[]> values) {
+                }
+                """;
+        TestCompiler c = TestCompiler.compile(List.of(new BuilderProcessor(), new JsonBinderProcessor()),
+                Map.of("demo.Counts", source));
+        assertFalse(c.success());
+        assertTrue(c.errors().contains("unsupported property type java.util.List<int[]> of 'values'"), c.errors());
+    }
+
+    private static JsonBinder<?> binder(TestCompiler c, String name) throws Exception {
+        return (JsonBinder<?>) c.load(name).getField("INSTANCE").get(null);
+    }
+}
@@ -0,0 +1,146 @@
+package io.github.atcurtis.crap4java.processor;
+
+import javax.annotation.processing.Processor;
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.FileObject;
+import javax.tools.ForwardingJavaFileManager;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileManager;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Compiles sources in memory with a processor so generated code can be loaded
+ * and exercised from a test.
+ */
+final class TestCompiler {
+
+    private final Map<String, ByteArrayOutputStream> classes = new HashMap<>();
+    private final Map<String, String> generated = new HashMap<>();
+    private final DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+    private boolean success;
+    private ClassLoader loader;
+
+    private TestCompiler() {
+    }
+
+    /**
+     * Compiles {@code sources}, keyed by fully qualified class name, with
+     * {@code processor}.
+     */
+    static TestCompiler compile(Processor processor, Map<String, String> sources) {
+        return compile(List.of(processor), sources);
+    }
+
+    /**
+     * Compiles {@code sources}, keyed by fully qualified class name, with
+     * several processors, as when they are all on the processor path.
+     */
+    static TestCompiler compile(List<? extends Processor> processors, Map<String, String> sources) {
+        TestCompiler result = new TestCompiler();
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        StandardJavaFileManager standard = compiler.getStandardFileManager(null, null, StandardCharsets.UTF_8);
+        List<JavaFileObject> units = new ArrayList<>();
+        sources.forEach((name, code) -> units.add(new Source(name, code)));
+        JavaFileManager manager = new ForwardingJavaFileManager<>(standard) {
+            @Override
+            public JavaFileObject getJavaFileForOutput(Location location, String className, JavaFileObject.Kind kind,
+                                                       FileObject sibling) {
+                if (kind == JavaFileObject.Kind.SOURCE) {
+                    return new Source(className, null) {
+                        @Override
+                        public OutputStream openOutputStream() {
+                            return new ByteArrayOutputStream() {
+                                @Override
+                                public void close() {
+                                    result.generated.put(className, toString(StandardCharsets.UTF_8));
+                                }
+                            };
+                        }
+
+                        @Override
+                        public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+                            return result.generated.get(className);
+                        }
+                    };
+                }
+                ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+                result.classes.put(className, bytes);
+                return new SimpleJavaFileObject(URI.create("mem:///" + className.replace('.', '/') + kind.extension),
+                        kind) {
+                    @Override
+                    public OutputStream openOutputStream() {
+                        return bytes;
+                    }
+                };
+            }
+        };
+        JavaCompiler.CompilationTask task = compiler.getTask(null, manager, result.diagnostics,
+                List.of("-classpath", System.getProperty("java.class.path"), "-proc:full"), null, units);
+        task.setProcessors(processors);
+        result.success = task.call();
+        return result;
+    }
+
+    boolean success() {
+        return success;
+    }
+
+    String errors() {
+        return diagnostics.getDiagnostics().stream()
+                .filter(d -> d.getKind() == Diagnostic.Kind.ERROR)
+                .map(d -> d.getMessage(null))
+                .collect(Collectors.joining("\n"));
+    }
+
+    String generated(String className) {
+        return generated.get(className);
+    }
+
+    /**
+     * Loads a compiled class, delegating to the test class path for anything
+     * that was not compiled here.
+     */
+    Class<?> load(String className) throws ClassNotFoundException {
+        if (loader == null) {
+            loader = new ClassLoader(getClass().getClassLoader()) {
+                @Override
+                protected Class<?> findClass(String name) throws ClassNotFoundException {
+                    ByteArrayOutputStream bytes = classes.get(name);
+                    if (bytes == null) {
+                        throw new ClassNotFoundException(name);
+                    }
+                    byte[] b = bytes.toByteArray();
+                    return defineClass(name, b, 0, b.length);
+                }
+                };
+        }
+        return Class.forName(className, true, loader);
+    }
+
+    private static class Source extends SimpleJavaFileObject {
+        private final String code;
+
+        Source(String className, String code) {
+            super(URI.create("mem:///" + className.replace('.', '/') + Kind.SOURCE.extension), Kind.SOURCE);
+            this.code = code;
+        }
+
+        @Override
+        public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+            return code;
+        }
+    }
+}